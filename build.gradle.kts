@@ -18,6 +18,7 @@ buildscript {
 
 plugins {
     `java-gradle-plugin`
+    `java-test-fixtures`
     checkstyle
     jacoco
     signing
@@ -58,6 +59,9 @@ dependencies {
     api(libs.jspecify)
 
     implementation(libs.cthingProjectVersion)
+    implementation(libs.xz)
+
+    testFixturesApi(libs.jspecify)
 
     testImplementation(libs.assertJ)
     testImplementation(libs.commonsIO)
@@ -146,6 +150,10 @@ tasks {
         isEnabled = false
     }
 
+    spotbugsTestFixtures {
+        isEnabled = false
+    }
+
     publishPlugins {
         doFirst {
             if (!project.hasProperty("gradle.publish.key") || !project.hasProperty("gradle.publish.secret")) {
@@ -171,6 +179,25 @@ tasks {
         systemProperty("buildDir", layout.buildDirectory.get().asFile)
     }
 
+    test {
+        useJUnitPlatform {
+            excludeTags("benchmark")
+        }
+    }
+
+    register<Test>("benchmark") {
+        description = "Runs the benchmarks."
+        group = "verification"
+        testClassesDirs = sourceSets.test.get().output.classesDirs
+        classpath = sourceSets.test.get().runtimeClasspath
+        useJUnitPlatform {
+            includeTags("benchmark")
+        }
+        testLogging.showStandardStreams = true
+        outputs.upToDateWhen { false }
+        shouldRunAfter(test)
+    }
+
     withType<GenerateModuleMetadata> {
         enabled = false
     }
@@ -193,6 +220,10 @@ tasks {
     }
 }
 
+val javaComponent = components["java"] as AdhocComponentWithVariants
+javaComponent.withVariantsFromConfiguration(configurations["testFixturesApiElements"]) { skip() }
+javaComponent.withVariantsFromConfiguration(configurations["testFixturesRuntimeElements"]) { skip() }
+
 publishing {
     publications {
         maybeCreate("pluginMaven", MavenPublication::class.java).pom {
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+/**
+ * Limits the number of concurrent operations performed against a server using an additive increase,
+ * multiplicative decrease (AIMD) algorithm. Each successful operation that completes within the latency
+ * threshold increases the limit by {@code 1 / limit}, so the limit grows by roughly one per round of
+ * operations. An operation that is rejected by the server as overloaded, fails to connect or exceeds
+ * the latency threshold multiplies the limit by the backoff ratio. Only one decrease is applied per round
+ * of operations: failures of operations that were started before the most recent decrease are not
+ * counted again. This class is thread safe.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * Outcome of an operation performed while holding a permit.
+     */
+    public enum Outcome {
+        /** The operation succeeded. */
+        SUCCESS,
+
+        /** The operation failed for a reason unrelated to server load (e.g. a 404 response). */
+        IGNORED,
+
+        /** The server indicated it is overloaded (e.g. a 429 response or connection reset). */
+        OVERLOADED
+    }
+
+    /**
+     * Permission to perform a single operation. A permit must be released exactly once.
+     */
+    public final class Permit {
+
+        private final long startNanos;
+        private boolean released;
+
+        private Permit(final long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Releases the permit and adjusts the concurrency limit based on the outcome of the operation.
+         *
+         * @param outcome Outcome of the operation performed while holding this permit
+         */
+        public void release(final Outcome outcome) {
+            AdaptiveConcurrencyLimiter.this.release(this, outcome);
+        }
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+
+    /**
+     * Constructs a limiter.
+     *
+     * @param initialLimit Initial number of concurrent operations
+     * @param maxLimit Maximum number of concurrent operations
+     * @param latencyThresholdMillis Duration of an operation, in milliseconds, above which the server is
+     *      considered to be overloaded
+     * @param backoffRatio Factor by which the limit is multiplied when the server is overloaded. Must be
+     *      greater than 0 and less than 1.
+     */
+    public AdaptiveConcurrencyLimiter(final int initialLimit, final int maxLimit, final long latencyThresholdMillis,
+                                      final double backoffRatio) {
+        if (maxLimit < 1) {
+            throw new IllegalArgumentException("Maximum limit must be at least 1");
+        }
+        if (backoffRatio <= 0.0 || backoffRatio >= 1.0) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+
+        this.minLimit = 1;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdMillis * 1_000_000L;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(this.minLimit, Math.min(initialLimit, maxLimit));
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    /**
+     * Obtains the current concurrency limit.
+     *
+     * @return Number of operations that may currently be performed concurrently.
+     */
+    public synchronized int getLimit() {
+        return (int)this.limit;
+    }
+
+    /**
+     * Obtains the number of operations currently being performed.
+     *
+     * @return Number of permits that have been acquired but not yet released.
+     */
+    public synchronized int getInFlight() {
+        return this.inFlight;
+    }
+
+    /**
+     * Waits until an operation may be performed without exceeding the current concurrency limit.
+     *
+     * @return Permit which must be released when the operation completes.
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public synchronized Permit acquire() throws InterruptedException {
+        while (this.inFlight >= (int)this.limit) {
+            wait();
+        }
+        this.inFlight++;
+        return new Permit(System.nanoTime());
+    }
+
+    private synchronized void release(final Permit permit, final Outcome outcome) {
+        if (permit.released) {
+            throw new IllegalStateException("Permit has already been released");
+        }
+        permit.released = true;
+        this.inFlight--;
+
+        final long now = System.nanoTime();
+        final boolean slow = now - permit.startNanos > this.latencyThresholdNanos;
+
+        if (outcome == Outcome.OVERLOADED || (outcome == Outcome.SUCCESS && slow)) {
+            if (permit.startNanos > this.lastDecreaseNanos) {
+                this.limit = Math.max(this.minLimit, this.limit * this.backoffRatio);
+                this.lastDecreaseNanos = now;
+            }
+        } else if (outcome == Outcome.SUCCESS) {
+            this.limit = Math.min(this.maxLimit, this.limit + 1.0 / this.limit);
+        }
+
+        notifyAll();
+    }
+}
@@ -0,0 +1,731 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.jspecify.annotations.Nullable;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZInputStream;
+import org.tukaani.xz.XZOutputStream;
+
+
+/**
+ * Index of the Debian packages in a flat APT repository directory (e.g. a directory to which snapshot packages
+ * are copied). The index is used to write the {@code Packages}, {@code Packages.gz}, {@code Packages.xz} and
+ * {@code Release} files at the root of the directory, which allow the directory to be used as an APT source
+ * (i.e. {@code deb [trusted=yes] file:/path/to/repository ./}).
+ *
+ * <p>The index records the modification time and size of each package together with its {@code Packages}
+ * stanza. When the index is updated, the repository directory is walked and only packages that have been added
+ * or changed are read, concurrently. Each package is read once, extracting its control file and calculating
+ * all of its checksums in the same pass. The index files are written in a single streaming pass that
+ * compresses and hashes the content as it is written.</p>
+ *
+ * <p>Control archives that are uncompressed or compressed using gzip or xz can be read. Packages whose control
+ * archive is compressed using zstd cannot be read, and are reported as failures.</p>
+ */
+public final class AptIndex {
+
+    /** Name of the uncompressed package index. */
+    public static final String PACKAGES_FILE = "Packages";
+
+    /** Name of the gzip compressed package index. */
+    public static final String PACKAGES_GZ_FILE = "Packages.gz";
+
+    /** Name of the xz compressed package index. */
+    public static final String PACKAGES_XZ_FILE = "Packages.xz";
+
+    /** Name of the repository release file. */
+    public static final String RELEASE_FILE = "Release";
+
+    private static final int MAGIC = 0x43544149;        // "CTAI"
+    private static final int FORMAT_VERSION = 1;
+    private static final int BATCH_SIZE = 64;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_CONTROL_SIZE = 16 * 1024 * 1024;
+    private static final byte[] AR_MAGIC = "!<arch>\n".getBytes(StandardCharsets.US_ASCII);
+    private static final int AR_HEADER_SIZE = 60;
+    private static final int TAR_BLOCK_SIZE = 512;
+    private static final String CONTROL_MEMBER = "control.tar";
+    private static final String DESCRIPTION_FIELD = "Description";
+    private static final Map<Checksum, String> PACKAGES_FIELDS = new EnumMap<>(Map.of(Checksum.MD5, "MD5sum",
+                                                                                       Checksum.SHA1, "SHA1",
+                                                                                       Checksum.SHA256, "SHA256",
+                                                                                       Checksum.SHA512, "SHA512"));
+    private static final Map<Checksum, String> RELEASE_FIELDS = new EnumMap<>(Map.of(Checksum.MD5, "MD5Sum",
+                                                                                      Checksum.SHA1, "SHA1",
+                                                                                      Checksum.SHA256, "SHA256",
+                                                                                      Checksum.SHA512, "SHA512"));
+    private static final Set<String> GENERATED_FIELDS = Set.of("Filename", "Size", "MD5sum", "SHA1", "SHA256",
+                                                               "SHA512", DESCRIPTION_FIELD);
+    private static final DateTimeFormatter RELEASE_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'UTC'", Locale.ROOT).withZone(ZoneOffset.UTC);
+
+    /**
+     * Information read from a single package.
+     */
+    static final class Entry {
+
+        private final String path;
+        private final long modified;
+        private final long size;
+        private final String architecture;
+        private final String stanza;
+
+        Entry(final String path, final long modified, final long size, final String architecture,
+              final String stanza) {
+            this.path = path;
+            this.modified = modified;
+            this.size = size;
+            this.architecture = architecture;
+            this.stanza = stanza;
+        }
+
+        /**
+         * Obtains the location of the package relative to the repository root, using {@code /} as the separator.
+         *
+         * @return Location of the package.
+         */
+        String getPath() {
+            return this.path;
+        }
+
+        /**
+         * Obtains the architecture of the package.
+         *
+         * @return Architecture of the package (e.g. {@code amd64} or {@code all}).
+         */
+        String getArchitecture() {
+            return this.architecture;
+        }
+
+        /**
+         * Obtains the {@code Packages} stanza of the package, consisting of the fields of its control file
+         * with its location, size and checksums inserted before the description.
+         *
+         * @return Stanza of the package, ending with a newline.
+         */
+        String getStanza() {
+            return this.stanza;
+        }
+
+        /**
+         * Indicates whether the package is unchanged since this information was read from it.
+         *
+         * @param attributes Current attributes of the package
+         * @return {@code true} if the modification time and size of the package are unchanged.
+         */
+        boolean isCurrent(final BasicFileAttributes attributes) {
+            return this.modified == attributes.lastModifiedTime().toMillis() && this.size == attributes.size();
+        }
+    }
+
+    private final SortedMap<String, Entry> entries;
+    private final SortedMap<String, String> failures;
+    private final int parsedCount;
+
+    private AptIndex(final SortedMap<String, Entry> entries, final SortedMap<String, String> failures,
+                     final int parsedCount) {
+        this.entries = entries;
+        this.failures = failures;
+        this.parsedCount = parsedCount;
+    }
+
+    /**
+     * Obtains the number of packages in the index.
+     *
+     * @return Number of packages indexed.
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Obtains the number of packages read when the index was last updated.
+     *
+     * @return Number of packages added or changed since the previous update, including packages that could
+     *      not be read.
+     */
+    public int getParsedCount() {
+        return this.parsedCount;
+    }
+
+    /**
+     * Obtains the packages that could not be read when the index was last updated. These packages are not
+     * listed in the index files and are read again by the next update.
+     *
+     * @return Reason each package could not be read, keyed by the location of the package relative to the
+     *      repository root.
+     */
+    public SortedMap<String, String> getFailures() {
+        return Collections.unmodifiableSortedMap(this.failures);
+    }
+
+    /**
+     * Obtains the information indexed for a package.
+     *
+     * @param path Location of the package relative to the repository root, using {@code /} as the separator
+     * @return Information read from the package, or {@code null} if the package is not in the index.
+     */
+    @Nullable
+    Entry getEntry(final String path) {
+        return this.entries.get(path);
+    }
+
+    /**
+     * Creates an index of the specified repository, reusing the information in a previous index for packages
+     * that have not changed.
+     *
+     * @param repository Root directory of the APT repository
+     * @param previous Previous index of the repository, or {@code null} to read every package
+     * @param executor Executor used to read the packages concurrently
+     * @return Index of the repository.
+     * @throws IOException if the repository could not be read
+     */
+    public static AptIndex update(final Path repository, @Nullable final AptIndex previous,
+                                  final Executor executor) throws IOException {
+        final SortedMap<String, Entry> entries = new TreeMap<>();
+        final SortedMap<String, String> failures = new TreeMap<>();
+        final List<PackageFile> changed = new ArrayList<>();
+
+        if (Files.isDirectory(repository)) {
+            Files.walkFileTree(repository, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+                    final String name = file.getFileName().toString();
+                    if (attributes.isRegularFile() && name.endsWith(".deb")) {
+                        final String path = repository.relativize(file).toString().replace('\\', '/');
+                        final Entry existing = previous == null ? null : previous.entries.get(path);
+                        if (existing != null && existing.isCurrent(attributes)) {
+                            entries.put(path, existing);
+                        } else {
+                            changed.add(new PackageFile(file, path, attributes));
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+
+        final List<CompletableFuture<List<PackageFile>>> batches = new ArrayList<>();
+        for (int start = 0; start < changed.size(); start += BATCH_SIZE) {
+            final List<PackageFile> batch = changed.subList(start, Math.min(changed.size(), start + BATCH_SIZE));
+            batches.add(CompletableFuture.supplyAsync(() -> {
+                batch.forEach(PackageFile::read);
+                return batch;
+            }, executor));
+        }
+        for (final CompletableFuture<List<PackageFile>> batch : batches) {
+            for (final PackageFile packageFile : batch.join()) {
+                if (packageFile.entry != null) {
+                    entries.put(packageFile.path, packageFile.entry);
+                } else {
+                    failures.put(packageFile.path, packageFile.failure);
+                }
+            }
+        }
+
+        return new AptIndex(entries, failures, changed.size());
+    }
+
+    /**
+     * Reads an index previously written using {@link #write(Path)}.
+     *
+     * @param indexFile File containing the index
+     * @return Index read from the file, or {@code null} if the file does not exist or was written in a
+     *      different format.
+     * @throws IOException if the file could not be read
+     */
+    @Nullable
+    public static AptIndex read(final Path indexFile) throws IOException {
+        if (!Files.isRegularFile(indexFile)) {
+            return null;
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+
+            final SortedMap<String, Entry> entries = new TreeMap<>();
+            final int entryCount = input.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                final String path = input.readUTF();
+                final long modified = input.readLong();
+                final long size = input.readLong();
+                final String architecture = input.readUTF();
+                final byte[] stanza = new byte[input.readInt()];
+                input.readFully(stanza);
+                entries.put(path, new Entry(path, modified, size, architecture,
+                                            new String(stanza, StandardCharsets.UTF_8)));
+            }
+            return new AptIndex(entries, new TreeMap<>(), 0);
+        }
+    }
+
+    /**
+     * Writes the index to the specified file.
+     *
+     * @param indexFile File to which the index is written
+     * @throws IOException if the file could not be written
+     */
+    public void write(final Path indexFile) throws IOException {
+        final Path parent = indexFile.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeInt(this.entries.size());
+            for (final Entry entry : this.entries.values()) {
+                output.writeUTF(entry.path);
+                output.writeLong(entry.modified);
+                output.writeLong(entry.size);
+                output.writeUTF(entry.architecture);
+                // Stanzas containing long descriptions can exceed the length limit of writeUTF
+                final byte[] stanza = entry.stanza.getBytes(StandardCharsets.UTF_8);
+                output.writeInt(stanza.length);
+                output.write(stanza);
+            }
+        }
+    }
+
+    /**
+     * Writes the {@code Packages}, {@code Packages.gz}, {@code Packages.xz} and {@code Release} files to the
+     * root of the repository. The stanzas of the packages are written in order of their location, uncompressed
+     * and compressed using both gzip and xz, in a single pass that also calculates the size and checksums of
+     * each file for the {@code Release} file. Each file is written to a temporary file that then replaces the
+     * existing file, and the {@code Release} file is replaced last.
+     *
+     * @param repository Root directory of the APT repository
+     * @param origin Value of the {@code Origin} field of the {@code Release} file
+     * @param label Value of the {@code Label} field of the {@code Release} file
+     * @param date Value of the {@code Date} field of the {@code Release} file
+     * @throws IOException if the files could not be written
+     */
+    public void writeRepositoryIndex(final Path repository, final String origin, final String label,
+                                     final Instant date) throws IOException {
+        Files.createDirectories(repository);
+        final Path packagesTemp = Files.createTempFile(repository, PACKAGES_FILE, ".tmp");
+        final Path packagesGzTemp = Files.createTempFile(repository, PACKAGES_GZ_FILE, ".tmp");
+        final Path packagesXzTemp = Files.createTempFile(repository, PACKAGES_XZ_FILE, ".tmp");
+        final Path releaseTemp = Files.createTempFile(repository, RELEASE_FILE, ".tmp");
+        try {
+            final HashingOutputStream packages;
+            final HashingOutputStream packagesGz;
+            final HashingOutputStream packagesXz;
+            try (HashingOutputStream plain = new HashingOutputStream(Files.newOutputStream(packagesTemp));
+                 HashingOutputStream gzipped = new HashingOutputStream(Files.newOutputStream(packagesGzTemp));
+                 HashingOutputStream xzipped = new HashingOutputStream(Files.newOutputStream(packagesXzTemp));
+                 GZIPOutputStream gzip = new GZIPOutputStream(gzipped, BUFFER_SIZE);
+                 // The index is rewritten every time the repository is updated and consists mostly of
+                 // incompressible checksums, so the fastest preset is used rather than the much slower default
+                 XZOutputStream xz = new XZOutputStream(xzipped, new LZMA2Options(LZMA2Options.PRESET_MIN))) {
+                boolean first = true;
+                for (final Entry entry : this.entries.values()) {
+                    final byte[] stanza = ((first ? "" : "\n") + entry.stanza).getBytes(StandardCharsets.UTF_8);
+                    plain.write(stanza, 0, stanza.length);
+                    gzip.write(stanza, 0, stanza.length);
+                    xz.write(stanza, 0, stanza.length);
+                    first = false;
+                }
+                gzip.finish();
+                xz.finish();
+                packages = plain;
+                packagesGz = gzipped;
+                packagesXz = xzipped;
+            }
+
+            final Set<String> architectures = new TreeSet<>();
+            this.entries.values().forEach(entry -> architectures.add(entry.architecture));
+
+            final StringBuilder release = new StringBuilder();
+            release.append("Origin: ").append(origin).append('\n');
+            release.append("Label: ").append(label).append('\n');
+            release.append("Date: ").append(RELEASE_DATE_FORMAT.format(date)).append('\n');
+            if (!architectures.isEmpty()) {
+                release.append("Architectures: ").append(String.join(" ", architectures)).append('\n');
+            }
+            final Map<Checksum, String> packagesChecksums = packages.finish();
+            final Map<Checksum, String> packagesGzChecksums = packagesGz.finish();
+            final Map<Checksum, String> packagesXzChecksums = packagesXz.finish();
+            for (final Checksum checksum : Checksum.values()) {
+                release.append(RELEASE_FIELDS.get(checksum)).append(":\n");
+                release.append(' ').append(packagesChecksums.get(checksum)).append(' ').append(packages.count)
+                       .append(' ').append(PACKAGES_FILE).append('\n');
+                release.append(' ').append(packagesGzChecksums.get(checksum)).append(' ').append(packagesGz.count)
+                       .append(' ').append(PACKAGES_GZ_FILE).append('\n');
+                release.append(' ').append(packagesXzChecksums.get(checksum)).append(' ').append(packagesXz.count)
+                       .append(' ').append(PACKAGES_XZ_FILE).append('\n');
+            }
+            Files.writeString(releaseTemp, release, StandardCharsets.UTF_8);
+
+            Files.move(packagesTemp, repository.resolve(PACKAGES_FILE), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+            Files.move(packagesGzTemp, repository.resolve(PACKAGES_GZ_FILE), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+            Files.move(packagesXzTemp, repository.resolve(PACKAGES_XZ_FILE), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+            Files.move(releaseTemp, repository.resolve(RELEASE_FILE), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(packagesTemp);
+            Files.deleteIfExists(packagesGzTemp);
+            Files.deleteIfExists(packagesXzTemp);
+            Files.deleteIfExists(releaseTemp);
+        }
+    }
+
+    /**
+     * Reads a Debian package, extracting its control file and calculating its checksums in a single pass.
+     *
+     * @param input Content of the package. The stream is read to its end.
+     * @param path Location of the package relative to the repository root, using {@code /} as the separator
+     * @param modified Modification time of the package, in milliseconds since the epoch
+     * @param size Size of the package file, in bytes
+     * @return Information read from the package.
+     * @throws IOException if the package could not be read or is not a valid Debian package
+     */
+    static Entry readPackage(final InputStream input, final String path, final long modified, final long size)
+            throws IOException {
+        final HashingInputStream hashing = new HashingInputStream(input);
+        final String control = readControl(hashing);
+        hashing.transferTo(OutputStream.nullOutputStream());
+        final Map<Checksum, String> checksums = hashing.finish();
+
+        final Map<String, String> fields = parseControl(control);
+        if (fieldValue(fields, "Package").isEmpty()) {
+            throw new IOException("The control file does not specify the package name");
+        }
+        final String architecture = fieldValue(fields, "Architecture");
+
+        final StringBuilder stanza = new StringBuilder();
+        fields.forEach((name, field) -> {
+            if (!GENERATED_FIELDS.contains(name)) {
+                stanza.append(field).append('\n');
+            }
+        });
+        stanza.append("Filename: ").append(path).append('\n');
+        stanza.append("Size: ").append(hashing.count).append('\n');
+        for (final Checksum checksum : Checksum.values()) {
+            stanza.append(PACKAGES_FIELDS.get(checksum)).append(": ").append(checksums.get(checksum)).append('\n');
+        }
+        final String description = fields.get(DESCRIPTION_FIELD);
+        if (description != null) {
+            stanza.append(description).append('\n');
+        }
+
+        return new Entry(path, modified, size, architecture.isEmpty() ? "all" : architecture, stanza.toString());
+    }
+
+    /**
+     * Splits the content of a control file into its fields.
+     *
+     * @param control Content of the control file
+     * @return Fields of the control file, in the order in which they appear and keyed by field name. Each value
+     *      is the complete text of the field (i.e. {@code Name: value}), including any continuation lines but
+     *      without a trailing newline.
+     */
+    static Map<String, String> parseControl(final String control) {
+        final Map<String, String> fields = new LinkedHashMap<>();
+        String name = null;
+        for (final String line : control.split("\n")) {
+            if (line.isBlank()) {
+                if (name != null) {
+                    break;
+                }
+            } else if (line.charAt(0) == ' ' || line.charAt(0) == '\t') {
+                if (name != null) {
+                    fields.merge(name, line, (field, continuation) -> field + '\n' + continuation);
+                }
+            } else {
+                final int colon = line.indexOf(':');
+                if (colon > 0) {
+                    name = line.substring(0, colon).trim();
+                    fields.put(name, line);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static String fieldValue(final Map<String, String> fields, final String name) {
+        final String field = fields.get(name);
+        return field == null ? "" : field.substring(field.indexOf(':') + 1).trim();
+    }
+
+    /**
+     * Finds the control archive in a Debian package and extracts the control file from it. The stream is left
+     * positioned after the control archive.
+     */
+    private static String readControl(final InputStream input) throws IOException {
+        if (!Arrays.equals(input.readNBytes(AR_MAGIC.length), AR_MAGIC)) {
+            throw new IOException("The file is not a Debian package");
+        }
+
+        while (true) {
+            final byte[] header = input.readNBytes(AR_HEADER_SIZE);
+            if (header.length == 0) {
+                throw new IOException("The package does not contain a control archive");
+            }
+            if (header.length < AR_HEADER_SIZE || header[58] != '`' || header[59] != '\n') {
+                throw new IOException("The package archive is truncated or corrupt");
+            }
+
+            String name = new String(header, 0, 16, StandardCharsets.US_ASCII).trim();
+            if (name.endsWith("/")) {
+                name = name.substring(0, name.length() - 1);
+            }
+            final long memberSize;
+            try {
+                memberSize = Long.parseLong(new String(header, 48, 10, StandardCharsets.US_ASCII).trim());
+            } catch (final NumberFormatException ex) {
+                throw new IOException("The package archive is truncated or corrupt", ex);
+            }
+
+            if (name.startsWith(CONTROL_MEMBER)) {
+                if (memberSize > MAX_CONTROL_SIZE) {
+                    throw new IOException("The control archive is too large");
+                }
+                final byte[] member = readFully(input, (int)memberSize);
+                skipFully(input, memberSize % 2);
+
+                final String compression = name.substring(CONTROL_MEMBER.length());
+                final InputStream tar = switch (compression) {
+                    case "" -> new ByteArrayInputStream(member);
+                    case ".gz" -> new GZIPInputStream(new ByteArrayInputStream(member));
+                    case ".xz" -> new XZInputStream(new ByteArrayInputStream(member));
+                    default -> throw new IOException("The control archive " + name + " cannot be read because only "
+                                                             + "uncompressed, gzip and xz compressed control "
+                                                             + "archives are supported (e.g. build the package using "
+                                                             + "dpkg-deb -Zxz)");
+                };
+                try (tar) {
+                    return readTarControl(tar);
+                }
+            }
+
+            skipFully(input, memberSize + memberSize % 2);
+        }
+    }
+
+    /**
+     * Extracts the {@code control} file from a control archive.
+     */
+    private static String readTarControl(final InputStream input) throws IOException {
+        while (true) {
+            final byte[] header = input.readNBytes(TAR_BLOCK_SIZE);
+            if (header.length < TAR_BLOCK_SIZE || header[0] == 0) {
+                throw new IOException("The control archive does not contain a control file");
+            }
+
+            String name = tarString(header, 0, 100);
+            if ("ustar".equals(tarString(header, 257, 6))) {
+                final String prefix = tarString(header, 345, 155);
+                if (!prefix.isEmpty()) {
+                    name = prefix + '/' + name;
+                }
+            }
+            final long size;
+            try {
+                size = Long.parseLong(tarString(header, 124, 12).trim(), 8);
+            } catch (final NumberFormatException ex) {
+                throw new IOException("The control archive is corrupt", ex);
+            }
+            final byte type = header[156];
+
+            if ((type == '0' || type == 0) && ("./control".equals(name) || "control".equals(name))) {
+                if (size > MAX_CONTROL_SIZE) {
+                    throw new IOException("The control file is too large");
+                }
+                return new String(readFully(input, (int)size), StandardCharsets.UTF_8);
+            }
+            skipFully(input, (size + TAR_BLOCK_SIZE - 1) / TAR_BLOCK_SIZE * TAR_BLOCK_SIZE);
+        }
+    }
+
+    private static String tarString(final byte[] header, final int offset, final int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readFully(final InputStream input, final int length) throws IOException {
+        final byte[] content = input.readNBytes(length);
+        if (content.length < length) {
+            throw new IOException("The package archive is truncated");
+        }
+        return content;
+    }
+
+    /**
+     * Skips bytes by reading them, so that they are included in the checksums of the package.
+     */
+    private static void skipFully(final InputStream input, final long length) throws IOException {
+        final byte[] buffer = new byte[(int)Math.min(BUFFER_SIZE, Math.max(1, length))];
+        long remaining = length;
+        while (remaining > 0) {
+            final int count = input.read(buffer, 0, (int)Math.min(buffer.length, remaining));
+            if (count < 0) {
+                throw new IOException("The package archive is truncated");
+            }
+            remaining -= count;
+        }
+    }
+
+    /**
+     * A stream that calculates the checksums and size of the content read through it.
+     */
+    private static final class HashingInputStream extends FilterInputStream {
+
+        private final ChecksumCalculator calculator = new ChecksumCalculator();
+        private long count;
+
+        HashingInputStream(final InputStream input) {
+            super(input);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int value = super.read();
+            if (value >= 0) {
+                this.calculator.update(new byte[] { (byte)value }, 0, 1);
+                this.count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            final int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                this.calculator.update(buffer, offset, read);
+                this.count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(final long length) throws IOException {
+            final long start = this.count;
+            skipFully(this, length);
+            return this.count - start;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        Map<Checksum, String> finish() {
+            return this.calculator.finish();
+        }
+    }
+
+    /**
+     * A stream that calculates the checksums and size of the content written through it.
+     */
+    private static final class HashingOutputStream extends FilterOutputStream {
+
+        private final ChecksumCalculator calculator = new ChecksumCalculator();
+        private long count;
+
+        HashingOutputStream(final OutputStream output) {
+            super(new BufferedOutputStream(output, BUFFER_SIZE));
+        }
+
+        @Override
+        public void write(final int value) throws IOException {
+            this.out.write(value);
+            this.calculator.update(new byte[] { (byte)value }, 0, 1);
+            this.count++;
+        }
+
+        @Override
+        public void write(final byte[] buffer, final int offset, final int length) throws IOException {
+            this.out.write(buffer, offset, length);
+            this.calculator.update(buffer, offset, length);
+            this.count += length;
+        }
+
+        Map<Checksum, String> finish() {
+            return this.calculator.finish();
+        }
+    }
+
+    /**
+     * A package found in the repository that must be read.
+     */
+    private static final class PackageFile {
+
+        private final Path file;
+        private final String path;
+        private final BasicFileAttributes attributes;
+
+        @Nullable
+        private Entry entry;
+
+        private String failure = "";
+
+        PackageFile(final Path file, final String path, final BasicFileAttributes attributes) {
+            this.file = file;
+            this.path = path;
+            this.attributes = attributes;
+        }
+
+        /**
+         * Reads the package, recording either the information read from it or the reason it could not be read
+         * (e.g. it has only been partially copied into the repository).
+         */
+        void read() {
+            try (InputStream input = Files.newInputStream(this.file)) {
+                this.entry = readPackage(input, this.path, this.attributes.lastModifiedTime().toMillis(),
+                                         this.attributes.size());
+            } catch (final IOException ex) {
+                this.failure = ex.getMessage() == null ? ex.toString() : ex.getMessage();
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import javax.inject.Inject;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Nested;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+
+/**
+ * Builds a Debian package from Gradle file collections using the {@link DebianPackageWriter}. The installed
+ * files are read once, directly from their locations, while the package is written, rather than being copied
+ * into a staging directory. The package is reproducible, so the task is cacheable.
+ *
+ * <p>The {@code control} file of the package is generated from the properties of the task. The
+ * {@code Installed-Size} field is calculated from the installed files. Maintainer scripts and configuration
+ * files are not supported.</p>
+ */
+@SuppressWarnings("AbstractClassName")
+@CacheableTask
+public abstract class BuildDebianPackage extends DefaultTask {
+
+    /** Default package architecture, for packages that do not contain architecture dependent files. */
+    public static final String DEFAULT_ARCHITECTURE = "all";
+
+    private static final Pattern PACKAGE_NAME = Pattern.compile("[a-z0-9][a-z0-9+.-]+");
+    private static final Pattern FIELD_NAME = Pattern.compile("[!-9;-~]+");
+    private static final Set<String> GENERATED_FIELDS = Set.of("Package", "Version", "Architecture", "Maintainer",
+                                                               "Installed-Size", "Description");
+
+    private final List<DebianPackageContent> contents = new ArrayList<>();
+
+    /**
+     * Name of the package.
+     *
+     * @return Package name property. Defaults to the name of the project.
+     */
+    @Input
+    public abstract Property<String> getPackageName();
+
+    /**
+     * Version of the package.
+     *
+     * @return Version property. Defaults to the version of the project.
+     */
+    @Input
+    public abstract Property<String> getVersion();
+
+    /**
+     * Architecture of the package (e.g. {@code amd64}).
+     *
+     * @return Architecture property. Defaults to {@link #DEFAULT_ARCHITECTURE}.
+     */
+    @Input
+    public abstract Property<String> getArchitecture();
+
+    /**
+     * Name and email address of the package maintainer (e.g. {@code C Thing Software <support@cthing.com>}).
+     *
+     * @return Maintainer property.
+     */
+    @Input
+    public abstract Property<String> getMaintainer();
+
+    /**
+     * Single line synopsis of the package, used as the first line of the {@code Description} field.
+     *
+     * @return Summary property.
+     */
+    @Input
+    public abstract Property<String> getSummary();
+
+    /**
+     * Extended description of the package, used as the remaining lines of the {@code Description} field.
+     *
+     * @return Extended description property.
+     */
+    @Input
+    @Optional
+    public abstract Property<String> getExtendedDescription();
+
+    /**
+     * Additional fields of the {@code control} file (e.g. {@code Depends}, {@code Section} or {@code Homepage}),
+     * written in the order in which they were added.
+     *
+     * @return Control fields property.
+     */
+    @Input
+    public abstract MapProperty<String, String> getControlFields();
+
+    /**
+     * Files installed by the package.
+     *
+     * @return Contents of the package.
+     */
+    @Nested
+    public List<DebianPackageContent> getContents() {
+        return this.contents;
+    }
+
+    /**
+     * Package file to write.
+     *
+     * @return Destination file property. Defaults to {@code build/distributions/name_version_architecture.deb}.
+     */
+    @OutputFile
+    public abstract RegularFileProperty getDestination();
+
+    /**
+     * Obtains the factory used to create the contents of the package.
+     *
+     * @return Object factory.
+     */
+    @Inject
+    protected abstract ObjectFactory getObjectFactory();
+
+    /**
+     * Adds files to be installed by the package.
+     *
+     * @param directory Absolute path of the directory into which the files are installed
+     *      (e.g. {@code /usr/share/hello})
+     * @param sources Files to install, evaluated as for {@link org.gradle.api.Project#files(Object...)}
+     * @return Contents added to the package, which can be further configured.
+     */
+    public DebianPackageContent into(final String directory, final Object... sources) {
+        final DebianPackageContent content = getObjectFactory().newInstance(DebianPackageContent.class);
+        content.getDirectory().set(directory);
+        content.getFiles().from(sources);
+        content.getExecutable().convention(false);
+        this.contents.add(content);
+        return content;
+    }
+
+    /**
+     * Builds the package.
+     */
+    @TaskAction
+    public void build() {
+        final String packageName = getPackageName().get();
+        if (!PACKAGE_NAME.matcher(packageName).matches()) {
+            throw new GradleException("Invalid Debian package name '" + packageName + "'. Package names must "
+                                              + "consist of lowercase letters, digits, '+', '-' and '.'.");
+        }
+
+        final SortedMap<String, DebianPackageWriter.DataFile> files = new TreeMap<>();
+        for (final DebianPackageContent content : this.contents) {
+            final String directory = content.getDirectory().get().replaceAll("^/+|/+$", "");
+            final boolean executable = content.getExecutable().get();
+            content.getFiles().getAsFileTree().visit(details -> {
+                if (details.isDirectory()) {
+                    return;
+                }
+                final String relativePath = details.getRelativePath().getPathString();
+                final String path = directory.isEmpty() ? relativePath : directory + '/' + relativePath;
+                final DebianPackageWriter.DataFile file =
+                        new DebianPackageWriter.DataFile(details.getFile().toPath(), details.getSize(), executable);
+                if (files.put(path, file) != null) {
+                    throw new GradleException("The file /" + path + " is installed more than once by the "
+                                                      + packageName + " package");
+                }
+            });
+        }
+
+        try {
+            DebianPackageWriter.write(getDestination().get().getAsFile().toPath(), createControl(files), files);
+        } catch (final IOException ex) {
+            throw new GradleException("Could not build the Debian package " + packageName, ex);
+        }
+    }
+
+    /**
+     * Creates the content of the {@code control} file.
+     */
+    private String createControl(final SortedMap<String, DebianPackageWriter.DataFile> files) {
+        final StringBuilder control = new StringBuilder();
+        appendField(control, "Package", getPackageName().get());
+        appendField(control, "Version", getVersion().get());
+        appendField(control, "Architecture", getArchitecture().get());
+        appendField(control, "Maintainer", getMaintainer().get());
+        appendField(control, "Installed-Size", Long.toString(DebianPackageWriter.installedSize(files)));
+        for (final Map.Entry<String, String> field : getControlFields().get().entrySet()) {
+            final String name = field.getKey();
+            if (!FIELD_NAME.matcher(name).matches() || name.charAt(0) == '#' || name.charAt(0) == '-'
+                    || GENERATED_FIELDS.contains(name)) {
+                throw new GradleException("The control field '" + name + "' cannot be specified for the "
+                                                  + getPackageName().get() + " package");
+            }
+            appendField(control, name, field.getValue());
+        }
+
+        appendField(control, "Description", getSummary().get());
+        final String extended = getExtendedDescription().getOrNull();
+        if (extended != null) {
+            for (final String line : extended.strip().split("\\R", -1)) {
+                control.append(' ').append(line.isBlank() ? "." : line.stripTrailing()).append('\n');
+            }
+        }
+        return control.toString();
+    }
+
+    private void appendField(final StringBuilder control, final String name, final String value) {
+        final String trimmed = value.strip();
+        if (trimmed.isEmpty() || trimmed.contains("\n") || trimmed.contains("\r")) {
+            throw new GradleException("The control field '" + name + "' of the " + getPackageName().get()
+                                              + " package must be a single non-empty line");
+        }
+        control.append(name).append(": ").append(trimmed).append('\n');
+    }
+}
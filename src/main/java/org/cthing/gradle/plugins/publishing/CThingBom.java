@@ -0,0 +1,163 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+import org.gradle.api.Action;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.attributes.Category;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.publish.PublishingExtension;
+import org.gradle.api.publish.maven.MavenPublication;
+import org.gradle.api.publish.maven.tasks.GenerateMavenPom;
+import org.gradle.api.tasks.TaskProvider;
+
+
+/**
+ * Generates a BOM listing the publications of every module in the build. Each project that applies the
+ * plugin records itself in the {@link CThingModuleRegistry} and exposes the coordinates of its Maven
+ * publications through a consumable configuration. The project publishing the BOM resolves that
+ * configuration from all registered subprojects and generates the BOM from the results. Because the
+ * coordinates are exchanged as task outputs, the project publishing the BOM never accesses the model of
+ * another project, and the publications and tasks of a subproject are only realized when its coordinates
+ * are needed.
+ */
+final class CThingBom {
+
+    /** Name of the configuration and task providing the publication coordinates of a project. */
+    static final String COORDINATES_NAME = "cthingPublicationCoordinates";
+
+    /** Category of the variant providing the publication coordinates of a project. */
+    static final String COORDINATES_CATEGORY = "cthing-publication-coordinates";
+
+    /** Name of the publication of the BOM. */
+    static final String BOM_PUBLICATION = "cthingBom";
+
+    /** Name of the task generating the BOM. */
+    static final String BOM_TASK = "generateCThingBom";
+
+    private static final String GENERATE_POM_TASK = "generatePomFileFor"
+            + PipelinedPublishing.capitalize(BOM_PUBLICATION) + "Publication";
+
+    private CThingBom() {
+    }
+
+    /**
+     * Exposes the coordinates of the Maven publications of the specified project so that they can be included
+     * in the BOM. Gradle plugin marker publications are not included.
+     *
+     * @param project Project whose publication coordinates are to be exposed
+     */
+    static void configureModule(final Project project) {
+        CThingModuleRegistry.register(project);
+
+        final TaskProvider<WritePublicationCoordinates> coordinatesTask =
+                project.getTasks().register(COORDINATES_NAME, WritePublicationCoordinates.class, task -> {
+                    task.setDescription("Writes the coordinates of the Maven publications of the project.");
+                    task.getCoordinates().set(project.provider(() -> List.copyOf(collectCoordinates(project))));
+                    task.getDestination().set(project.getLayout().getBuildDirectory()
+                                                     .file("cthing/publication-coordinates.txt"));
+                });
+
+        final ObjectFactory objects = project.getObjects();
+        project.getConfigurations().consumable(COORDINATES_NAME, config -> {
+            config.attributes(attributes -> attributes.attribute(Category.CATEGORY_ATTRIBUTE,
+                                                                 objects.named(Category.class, COORDINATES_CATEGORY)));
+            config.getOutgoing().artifact(coordinatesTask);
+        });
+    }
+
+    /**
+     * Obtains the coordinates of the Maven publications of the specified project.
+     *
+     * @param project Project whose publications are to be obtained
+     * @return Coordinates of the publications in the form {@code group:artifact:version}, sorted. If the
+     *      project does not apply the {@code maven-publish} plugin, an empty set is returned.
+     */
+    static Set<String> collectCoordinates(final Project project) {
+        final Set<String> coordinates = new TreeSet<>();
+        final PublishingExtension publishing = project.getExtensions().findByType(PublishingExtension.class);
+        if (publishing != null) {
+            publishing.getPublications().withType(MavenPublication.class).forEach(publication -> {
+                if (!CThingPublishingExtension.isGradlePluginMarker(publication.getArtifactId())) {
+                    coordinates.add(publication.getGroupId() + ':' + publication.getArtifactId() + ':'
+                                            + publication.getVersion());
+                }
+            });
+        }
+        return coordinates;
+    }
+
+    /**
+     * Creates a publication of a BOM listing the publications of all subprojects of the specified project
+     * that apply the plugin.
+     * The {@code maven-publish} plugin is applied to the project if it has not already been applied.
+     *
+     * @param project Project publishing the BOM, typically the root project
+     * @param pomActionSupplier Provides the POM action supplying the C Thing Software information for the
+     *      BOM. The supplier is called when the BOM is generated.
+     * @param configuration Action to customize the publication (e.g. to change its artifact identifier)
+     */
+    static void configure(final Project project, final Supplier<CThingPomAction> pomActionSupplier,
+                          final Action<? super MavenPublication> configuration) {
+        project.getPluginManager().apply("maven-publish");
+
+        final Provider<CThingModuleRegistry> registry = CThingModuleRegistry.getService(project);
+        final ObjectFactory objects = project.getObjects();
+
+        final PublishingExtension publishing = project.getExtensions().getByType(PublishingExtension.class);
+        final Provider<MavenPublication> publication =
+                publishing.getPublications().register(BOM_PUBLICATION, MavenPublication.class, pub -> {
+                    pub.setArtifactId(project.getName() + "-bom");
+                    pub.getPom().setPackaging("pom");
+                    configuration.execute(pub);
+                });
+
+        final TaskProvider<GenerateBom> bomTask = project.getTasks().register(BOM_TASK, GenerateBom.class, task -> {
+            task.setDescription("Generates a BOM listing the publications of all modules in the build.");
+            task.getPom().set(project.provider(() -> {
+                final MavenPublication pub = publication.get();
+                final PomModel model = new PomModel(pub.getGroupId(), pub.getArtifactId(), pub.getVersion());
+                model.setPackaging("pom");
+                pomActionSupplier.get().populate(model);
+                return model;
+            }));
+            // A detached configuration is used so that the modules are not treated as dependencies of the
+            // project (e.g. by CThingPomAction, which considers all resolvable configurations).
+            task.getModuleCoordinates().from(project.provider(() -> {
+                final Dependency[] modules = registry.get()
+                                                     .getDescendants(project.getPath())
+                                                     .stream()
+                                                     .map(path -> project.getDependencies().project(Map.of("path", path)))
+                                                     .toArray(Dependency[]::new);
+                final Configuration config = project.getConfigurations().detachedConfiguration(modules);
+                config.attributes(attributes -> attributes.attribute(Category.CATEGORY_ATTRIBUTE,
+                                                                     objects.named(Category.class, COORDINATES_CATEGORY)));
+                return config.getIncoming().getFiles();
+            }));
+            task.getStateFile().set(project.getLayout().getBuildDirectory().file("cthing/bom-modules.txt"));
+            task.getDestination().fileProvider(project.provider(
+                    () -> project.getTasks().named(GENERATE_POM_TASK, GenerateMavenPom.class).get().getDestination()));
+        });
+
+        // The publishing tasks obtain the POM from the standard task, so that task is retained but replaced
+        // by the BOM task, which writes to the same file.
+        project.getTasks().withType(GenerateMavenPom.class).configureEach(task -> {
+            if (GENERATE_POM_TASK.equals(task.getName())) {
+                task.dependsOn(bomTask);
+                task.setEnabled(false);
+            }
+        });
+    }
+}
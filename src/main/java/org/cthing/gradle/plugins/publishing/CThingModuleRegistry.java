@@ -0,0 +1,67 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.gradle.api.Project;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+
+/**
+ * Build service recording the paths of the projects that apply the plugin. This allows a project to
+ * depend on the variants created by the plugin in other projects without accessing the model of those
+ * projects. The registry is only populated while the build is being configured.
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class CThingModuleRegistry implements BuildService<BuildServiceParameters.None> {
+
+    /** Name under which the service is registered. */
+    public static final String NAME = "cthingModuleRegistry";
+
+    private final Set<String> paths = new ConcurrentSkipListSet<>();
+
+    /**
+     * Records that the plugin has been applied to the specified project.
+     *
+     * @param project Project to which the plugin has been applied
+     */
+    public static void register(final Project project) {
+        getService(project).get().paths.add(project.getPath());
+    }
+
+    /**
+     * Obtains the registry.
+     *
+     * @param project Any project in the build
+     * @return Provider of the shared registry.
+     */
+    public static Provider<CThingModuleRegistry> getService(final Project project) {
+        return project.getGradle().getSharedServices().registerIfAbsent(NAME, CThingModuleRegistry.class);
+    }
+
+    /**
+     * Obtains the paths of the registered projects that are descendants of the specified project.
+     *
+     * @param parentPath Path of the parent project
+     * @return Paths of the registered descendant projects, sorted.
+     */
+    public SortedSet<String> getDescendants(final String parentPath) {
+        final String prefix = ":".equals(parentPath) ? ":" : parentPath + ':';
+        final SortedSet<String> descendants = new TreeSet<>();
+        for (final String path : this.paths) {
+            if (!path.equals(parentPath) && path.startsWith(prefix)) {
+                descendants.add(path);
+            }
+        }
+        return descendants;
+    }
+}
@@ -7,42 +7,120 @@ package org.cthing.gradle.plugins.publishing;
 
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
 import org.cthing.projectversion.ProjectVersion;
 import org.gradle.api.Action;
+import org.gradle.api.GradleException;
 import org.gradle.api.Project;
 import org.gradle.api.publish.maven.MavenPom;
+import org.jspecify.annotations.Nullable;
 
 
 /**
  * An {@link Action} which populates a {@link MavenPom} with C Thing Software publishing information.
+ * The license, CI system and developers are held in an immutable snapshot which is replaced whenever they
+ * are changed. Each POM is populated from the snapshot current when the action is applied to it (i.e. when
+ * it is passed to {@code pom(...)}), so changing the action afterwards does not affect POMs that have already
+ * been configured, and the action can be configured and applied concurrently without locking. The
+ * organization and the initial developers are obtained from the build's {@link DeveloperRegistry}.
  */
 public class CThingPomAction implements Action<MavenPom> {
 
-    private static final String ORGANIZATION_NAME = "C Thing Software";
-    private static final String ORGANIZATION_URL = "https://www.cthing.com";
+    /** Name of the organization publishing the artifacts, unless specified by the developer registry. */
+    static final String ORGANIZATION_NAME = "C Thing Software";
+
+    /** Web site of the organization publishing the artifacts, unless specified by the developer registry. */
+    static final String ORGANIZATION_URL = "https://www.cthing.com";
+
+    /** Order in which developers are listed in the POMs. */
+    static final Comparator<PomDeveloper> DEVELOPER_ORDER = Comparator.comparing(PomDeveloper::getId);
+
+    /**
+     * Immutable POM configuration.
+     */
+    static final class Snapshot {
+
+        private final PomLicense license;
+        private final PomCISystem ciSystem;
+        private final Set<PomDeveloper> developers;
+
+        Snapshot(final PomLicense license, final PomCISystem ciSystem, final Set<PomDeveloper> developers) {
+            final Set<PomDeveloper> sorted = new TreeSet<>(DEVELOPER_ORDER);
+            sorted.addAll(developers);
+            this.license = license;
+            this.ciSystem = ciSystem;
+            this.developers = Collections.unmodifiableSet(sorted);
+        }
+
+        /**
+         * Creates a snapshot with the specified license.
+         *
+         * @param newLicense Project license
+         * @return New snapshot.
+         */
+        Snapshot withLicense(final PomLicense newLicense) {
+            return new Snapshot(newLicense, this.ciSystem, this.developers);
+        }
+
+        /**
+         * Creates a snapshot with the specified CI system.
+         *
+         * @param newCiSystem CI system which builds the project
+         * @return New snapshot.
+         */
+        Snapshot withCiSystem(final PomCISystem newCiSystem) {
+            return new Snapshot(this.license, newCiSystem, this.developers);
+        }
+
+        /**
+         * Creates a snapshot with the specified developers.
+         *
+         * @param newDevelopers Project developers
+         * @return New snapshot.
+         */
+        Snapshot withDevelopers(final Set<PomDeveloper> newDevelopers) {
+            return new Snapshot(this.license, this.ciSystem, newDevelopers);
+        }
+
+        /**
+         * Creates a snapshot with the specified developer added to the existing developers.
+         *
+         * @param developer Project developer to add
+         * @return New snapshot.
+         */
+        Snapshot withDeveloper(final PomDeveloper developer) {
+            final Set<PomDeveloper> newDevelopers = new TreeSet<>(DEVELOPER_ORDER);
+            newDevelopers.addAll(this.developers);
+            newDevelopers.add(developer);
+            return new Snapshot(this.license, this.ciSystem, newDevelopers);
+        }
+    }
 
     private final Project project;
     private final Supplier<Set<String>> findCThingDependencies;
     private final Supplier<Set<String>> findCThingGradlePlugins;
-    private PomLicense license;
-    private PomCISystem ciSystem;
-    private final Set<PomDeveloper> developers;
+    private final DeveloperRegistry registry;
+    private final AtomicReference<Snapshot> snapshot;
+
+    @Nullable
+    private PomScm scm;
 
     public CThingPomAction(final Project project, final Supplier<Set<String>> findCThingDependencies,
                            final Supplier<Set<String>> findCThingGradlePlugins) {
         this.project = project;
         this.findCThingDependencies = findCThingDependencies;
         this.findCThingGradlePlugins = findCThingGradlePlugins;
-        this.license = PomLicense.ASL2;
-        this.ciSystem = PomCISystem.GitHubActions;
-        this.developers = new TreeSet<>(Comparator.comparing(PomDeveloper::getId));
 
-        final PomDeveloper developer = new PomDeveloper("baron", "Baron Roberts", "baron@cthing.com");
-        this.developers.add(developer);
+        this.registry = DeveloperRegistryService.getRegistry(project).get();
+        this.snapshot = new AtomicReference<>(new Snapshot(PomLicense.ASL2, PomCISystem.GitHubActions,
+                                                           this.registry.getDefaultDevelopers()));
     }
 
     /**
@@ -51,7 +129,7 @@ public class CThingPomAction implements Action<MavenPom> {
      * @return Project license
      */
     public PomLicense getLicense() {
-        return this.license;
+        return this.snapshot.get().license;
     }
 
     /**
@@ -61,7 +139,7 @@ public class CThingPomAction implements Action<MavenPom> {
      * @return This action
      */
     public CThingPomAction setLicense(final PomLicense license) {
-        this.license = license;
+        this.snapshot.updateAndGet(current -> current.withLicense(license));
         return this;
     }
 
@@ -71,7 +149,7 @@ public class CThingPomAction implements Action<MavenPom> {
      * @return CI system used to build the project
      */
     public PomCISystem getCiSystem() {
-        return this.ciSystem;
+        return this.snapshot.get().ciSystem;
     }
 
     /**
@@ -81,7 +159,7 @@ public class CThingPomAction implements Action<MavenPom> {
      * @return This action
      */
     public CThingPomAction setCiSystem(final PomCISystem ciSystem) {
-        this.ciSystem = ciSystem;
+        this.snapshot.updateAndGet(current -> current.withCiSystem(ciSystem));
         return this;
     }
 
@@ -91,7 +169,7 @@ public class CThingPomAction implements Action<MavenPom> {
      * @return Project developers. If there are no developers listed, an empty set is returned.
      */
     public Set<PomDeveloper> getDevelopers() {
-        return Collections.unmodifiableSet(this.developers);
+        return this.snapshot.get().developers;
     }
 
     /**
@@ -101,8 +179,7 @@ public class CThingPomAction implements Action<MavenPom> {
      * @return This action
      */
     public CThingPomAction setDevelopers(final Set<PomDeveloper> developers) {
-        this.developers.clear();
-        this.developers.addAll(developers);
+        this.snapshot.updateAndGet(current -> current.withDevelopers(developers));
         return this;
     }
 
@@ -113,36 +190,58 @@ public class CThingPomAction implements Action<MavenPom> {
      * @return This action
      */
     public CThingPomAction addDeveloper(final PomDeveloper developer) {
-        this.developers.add(developer);
+        this.snapshot.updateAndGet(current -> current.withDeveloper(developer));
         return this;
     }
 
+    /**
+     * Adds the developer with the specified identifier in the build's {@link DeveloperRegistry} to the existing
+     * set of developers. The developer is shared with every other POM action in the build.
+     *
+     * @param id Identifier of the developer in the registry
+     * @return This action
+     * @throws GradleException if the developer is not in the registry
+     */
+    public CThingPomAction addDeveloper(final String id) {
+        return addDeveloper(this.registry.getDeveloper(id));
+    }
+
+    /**
+     * Obtains the current configuration of the action.
+     *
+     * @return Immutable snapshot of the license, CI system and developers.
+     */
+    Snapshot getSnapshot() {
+        return this.snapshot.get();
+    }
+
     @Override
     public void execute(final MavenPom mavenPom) {
-        final PomScm scmUrls = new PomScm(this.project);
+        final Snapshot settings = this.snapshot.get();
+        final PomScm scmUrls = getScm();
 
         mavenPom.getName().convention(this.project.getName());
         mavenPom.getDescription().convention(this.project.getDescription());
         mavenPom.getUrl().convention(scmUrls.getBrowse());
 
         mavenPom.organization(organization -> {
-            organization.getName().convention(ORGANIZATION_NAME);
-            organization.getUrl().convention(ORGANIZATION_URL);
+            organization.getName().convention(this.registry.getOrganizationName());
+            organization.getUrl().convention(this.registry.getOrganizationUrl());
         });
 
         mavenPom.licenses(licenses -> licenses.license(license -> {
-            license.getName().convention(this.license.getName());
-            license.getUrl().convention(this.license.getUrl());
+            license.getName().convention(settings.license.getName());
+            license.getUrl().convention(settings.license.getUrl());
         }));
 
         mavenPom.developers(mavenDevelopers -> {
-            for (PomDeveloper developer : this.developers) {
+            for (PomDeveloper developer : settings.developers) {
                 mavenDevelopers.developer(mavenDeveloper -> {
                     mavenDeveloper.getId().set(developer.getId());
                     mavenDeveloper.getName().set(developer.getName());
                     mavenDeveloper.getEmail().set(developer.getEmail());
-                    mavenDeveloper.getOrganization().convention(ORGANIZATION_NAME);
-                    mavenDeveloper.getOrganizationUrl().convention(ORGANIZATION_URL);
+                    mavenDeveloper.getOrganization().convention(this.registry.getOrganizationName());
+                    mavenDeveloper.getOrganizationUrl().convention(this.registry.getOrganizationUrl());
                 });
             }
         });
@@ -151,6 +250,7 @@ public class CThingPomAction implements Action<MavenPom> {
             mavenPom.scm(scm -> {
                 scm.getConnection().convention(scmUrls.getReadOnly());
                 scm.getDeveloperConnection().convention(scmUrls.getReadWrite());
+                scm.getTag().convention(scmUrls.getTag());
                 scm.getUrl().convention(scmUrls.getBrowse());
             });
 
@@ -160,34 +260,129 @@ public class CThingPomAction implements Action<MavenPom> {
             });
         }
 
-        if (this.ciSystem == PomCISystem.GitHubActions) {
+        if (settings.ciSystem == PomCISystem.GitHubActions) {
             if (scmUrls.isPresent()) {
                 mavenPom.ciManagement(ciManagement -> {
                     ciManagement.getUrl().convention(scmUrls.getBrowse().map(url -> url + "/actions"));
                     ciManagement.getSystem().convention("GitHub Actions");
                 });
             }
-        } else if (this.ciSystem == PomCISystem.CThingJenkins) {
+        } else if (settings.ciSystem == PomCISystem.CThingJenkins) {
             mavenPom.ciManagement(ciManagement -> ciManagement.getSystem().convention(ORGANIZATION_NAME + " Jenkins"));
         }
 
-        if (this.project.getVersion() instanceof ProjectVersion projectVersion) {
-            mavenPom.getProperties().put("cthing.build.date", projectVersion.getBuildDate());
-            mavenPom.getProperties().put("cthing.build.number", projectVersion.getBuildNumber());
+        addBuildProperties(mavenPom.getProperties()::put);
+
+        // To avoid configuration mutation errors, the dependencies are found when the POM properties are
+        // queried (i.e. when the POM is generated) rather than while the project is being configured.
+        mavenPom.getProperties().putAll(this.project.provider(() -> {
+            final Map<String, String> properties = new TreeMap<>();
+            addCommitProperty(scmUrls, properties::put);
+            addDependencyProperties(properties::put);
+            return properties;
+        }));
+    }
+
+    /**
+     * Populates a model for the {@link StreamingPomWriter} with the same information that this action adds
+     * to a {@link MavenPom}. This method must only be called after the project has been evaluated (e.g.
+     * when a task executes) because it finds the dependencies of the project.
+     *
+     * @param model Model to populate
+     */
+    public void populate(final PomModel model) {
+        populate(model, this.snapshot.get());
+    }
+
+    /**
+     * Populates a model for the {@link StreamingPomWriter} using a previously obtained configuration snapshot.
+     *
+     * @param model Model to populate
+     * @param settings Configuration of the action obtained using {@link #getSnapshot()}
+     */
+    void populate(final PomModel model, final Snapshot settings) {
+        final PomScm scmUrls = getScm();
+
+        model.setName(this.project.getName())
+             .setDescription(this.project.getDescription())
+             .setUrl(scmUrls.getBrowse().getOrNull())
+             .setOrganization(this.registry.getOrganizationName(), this.registry.getOrganizationUrl())
+             .setLicense(settings.license);
+        settings.developers.forEach(model::addDeveloper);
+
+        if (scmUrls.isPresent()) {
+            final String browseUrl = scmUrls.getBrowse().getOrNull();
+            model.setScm(scmUrls.getReadOnly().getOrNull(), scmUrls.getReadWrite().getOrNull(), browseUrl);
+            model.setScmTag(scmUrls.getTag().getOrNull());
+            model.setIssueManagement("GitHub Issues", browseUrl == null ? null : browseUrl + "/issues");
         }
 
-        // To avoid configuration mutation errors, defer finding dependencies until after the
-        // project has been evaluated.
-        this.project.afterEvaluate(p -> {
-            final Set<String> dependencies = this.findCThingDependencies.get();
-            if (!dependencies.isEmpty()) {
-                mavenPom.getProperties().put("cthing.dependencies", String.join(" ", dependencies));
+        if (settings.ciSystem == PomCISystem.GitHubActions) {
+            if (scmUrls.isPresent()) {
+                model.setCiManagement("GitHub Actions", scmUrls.getBrowse().map(url -> url + "/actions").getOrNull());
             }
+        } else if (settings.ciSystem == PomCISystem.CThingJenkins) {
+            model.setCiManagement(ORGANIZATION_NAME + " Jenkins", null);
+        }
 
-            final Set<String> plugins = this.findCThingGradlePlugins.get();
-            if (!plugins.isEmpty()) {
-                mavenPom.getProperties().put("cthing.gradle.plugins", String.join(" ", plugins));
-            }
-        });
+        addBuildProperties(model::putProperty);
+        addCommitProperty(scmUrls, model::putProperty);
+        addDependencyProperties(model::putProperty);
+    }
+
+    /**
+     * Adds the build date and number properties, if the project uses a {@link ProjectVersion}.
+     *
+     * @param properties Receives each property name and value
+     */
+    private void addBuildProperties(final BiConsumer<String, String> properties) {
+        if (this.project.getVersion() instanceof ProjectVersion projectVersion) {
+            properties.accept("cthing.build.date", projectVersion.getBuildDate());
+            properties.accept("cthing.build.number", projectVersion.getBuildNumber());
+        }
+    }
+
+    /**
+     * Adds the property identifying the commit from which the artifacts were built, if the project is in
+     * a Git repository.
+     *
+     * @param scmUrls SCM information for the project
+     * @param properties Receives each property name and value
+     */
+    private static void addCommitProperty(final PomScm scmUrls, final BiConsumer<String, String> properties) {
+        final String commit = scmUrls.getCommit().getOrNull();
+        if (commit != null) {
+            properties.accept("cthing.scm.commit", commit);
+        }
+    }
+
+    /**
+     * Adds the properties listing the C Thing Software dependencies and Gradle plugins of the project.
+     *
+     * @param properties Receives each property name and value
+     */
+    private void addDependencyProperties(final BiConsumer<String, String> properties) {
+        final Set<String> dependencies = this.findCThingDependencies.get();
+        if (!dependencies.isEmpty()) {
+            properties.accept("cthing.dependencies", String.join(" ", dependencies));
+        }
+
+        final Set<String> plugins = this.findCThingGradlePlugins.get();
+        if (!plugins.isEmpty()) {
+            properties.accept("cthing.gradle.plugins", String.join(" ", plugins));
+        }
+    }
+
+    /**
+     * Obtains the SCM information for the project. The Git configuration is only parsed the first time this
+     * method is called so that an action shared by multiple publications does not repeat the work.
+     *
+     * @return SCM information for the project.
+     */
+    private synchronized PomScm getScm() {
+        if (this.scm == null) {
+            this.scm = new PomScm(this.project);
+        }
+        return this.scm;
     }
 }
@@ -5,18 +5,34 @@
 
 package org.cthing.gradle.plugins.publishing;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
 import org.gradle.api.Action;
+import org.gradle.api.GradleException;
 import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.ConfigurationContainer;
+import org.gradle.api.artifacts.Dependency;
 import org.gradle.api.artifacts.ResolvedDependency;
+import org.gradle.api.artifacts.component.ProjectComponentIdentifier;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.publish.PublishingExtension;
 import org.gradle.api.publish.maven.MavenPom;
+import org.gradle.api.publish.maven.MavenPublication;
 import org.gradle.plugin.devel.GradlePluginDevelopmentExtension;
 import org.gradle.plugin.devel.PluginDeclaration;
+import org.jspecify.annotations.Nullable;
 
 
 /**
@@ -25,58 +41,265 @@ import org.gradle.plugin.devel.PluginDeclaration;
 public class CThingPublishingExtension {
 
     private static final String GRADLE_PLUGIN_SUFFIX = ".gradle.plugin";
+    private static final String LOCKFILE_NAME = "gradle.lockfile";
+    private static final String BUILDSCRIPT_LOCKFILE_NAME = "buildscript-gradle.lockfile";
     private static final Set<String> CTHING_GROUPS = Set.of("org.cthing", "com.cthing");
+    private static final Logger LOGGER = Logging.getLogger(CThingPublishingExtension.class);
 
     private final Project project;
 
+    @Nullable
+    private CThingPomAction conventionPomAction;
+
+    private DependencySource dependencySource;
+
+    @Nullable
+    private Set<String> cthingDependencies;
+
+    @Nullable
+    private Set<String> cthingGradlePlugins;
+
     public CThingPublishingExtension(final Project project) {
         this.project = project;
+        this.dependencySource = DependencySource.RESOLUTION;
+    }
+
+    /**
+     * Obtains the source from which dependencies on C Thing Software artifacts are determined.
+     *
+     * @return Dependency source. The default is {@link DependencySource#RESOLUTION}.
+     */
+    public DependencySource getDependencySource() {
+        return this.dependencySource;
+    }
+
+    /**
+     * Sets the source from which dependencies on C Thing Software artifacts are determined. Projects that use
+     * Gradle dependency locking can specify {@link DependencySource#LOCKFILE} so that POMs can be generated
+     * without resolving any configurations.
+     *
+     * @param dependencySource Dependency source
+     */
+    public synchronized void setDependencySource(final DependencySource dependencySource) {
+        this.dependencySource = dependencySource;
+        this.cthingDependencies = null;
     }
 
     /**
      * Creates a new instance of an {@link Action} which populates a {@link MavenPom} with C Thing Software publishing
-     * information.
+     * information. All actions created by this method share the dependencies and Gradle plugins found for the
+     * project, which are determined at most once regardless of the number of publications.
      *
      * @return New {@link MavenPom} {@link Action} instance.
      */
     public CThingPomAction createPomAction() {
-        return new CThingPomAction(this.project, this::findCThingDependencies, this::findCThingGradlePlugins);
+        return new CThingPomAction(this.project, this::getCThingDependencies, this::getCThingGradlePlugins);
+    }
+
+    /**
+     * Applies the default C Thing Software POM information to every {@link MavenPublication} in the project.
+     * This is equivalent to calling {@link #configureAllPublications(Action)} with an action that leaves the
+     * POM action unchanged.
+     */
+    public void configureAllPublications() {
+        configureAllPublications(action -> { });
+    }
+
+    /**
+     * Applies C Thing Software POM information to every {@link MavenPublication} in the project, including
+     * publications registered after this method is called. A single {@link CThingPomAction} is created and
+     * configured once using the specified action. That action is then shared by all publications, which are
+     * configured lazily so that registering a publication does not cause it to be realized. This method can
+     * only be called once per project.
+     *
+     * @param configuration Action to customize the shared POM action (e.g. to set the license)
+     */
+    public void configureAllPublications(final Action<? super CThingPomAction> configuration) {
+        if (this.conventionPomAction != null) {
+            throw new GradleException("POM information has already been configured for all publications of "
+                                              + this.project.getPath());
+        }
+
+        final CThingPomAction pomAction = createPomAction();
+        configuration.execute(pomAction);
+        this.conventionPomAction = pomAction;
+
+        this.project.getPluginManager().withPlugin("maven-publish", plugin -> {
+            final PublishingExtension publishing = this.project.getExtensions().getByType(PublishingExtension.class);
+            publishing.getPublications()
+                      .withType(MavenPublication.class)
+                      .configureEach(publication -> publication.pom(pomAction));
+        });
+    }
+
+    /**
+     * Generates the POMs of all {@link MavenPublication}s in the project using a streaming XML writer instead
+     * of Gradle's POM generation. The streaming writer writes directly to disk without building an in-memory
+     * document, so it is considerably faster and uses far less memory for POMs with thousands of dependencies
+     * (e.g. platform modules). The POMs contain the publication coordinates, the C Thing Software information
+     * and the dependencies and dependency constraints published by the {@code java}, {@code java-library} and
+     * {@code java-platform} plugins. The C Thing Software information is obtained from the POM action
+     * configured by {@link #configureAllPublications(Action)}, if that method has been called by the time
+     * the project has been evaluated, and from a default POM action otherwise. Other customizations of the
+     * POMs, including {@code withXml} hooks, are not applied.
+     */
+    public void enableStreamingPoms() {
+        StreamingPoms.configure(this.project, this::getConventionPomAction);
+    }
+
+    /**
+     * Publishes a BOM listing the Maven publications of every subproject. The BOM is published as the
+     * {@code cthingBom} publication with the artifact identifier {@code <project name>-bom}. This is
+     * equivalent to calling {@link #enableBom(Action)} with an action that leaves the publication unchanged.
+     */
+    public void enableBom() {
+        enableBom(publication -> { });
+    }
+
+    /**
+     * Publishes a BOM listing the Maven publications of every subproject, typically from the root project.
+     * The BOM is generated from the publication coordinates exposed by each subproject that applies this
+     * plugin, so the publications of the subprojects are never accessed directly and subprojects that do not
+     * apply the plugin are skipped. The BOM is regenerated incrementally: only the coordinates of subprojects
+     * that have been added, removed or changed are read. The C Thing Software information for the BOM is
+     * obtained in the same manner as for {@link #enableStreamingPoms()}.
+     *
+     * @param configuration Action to customize the BOM publication (e.g. to change its artifact identifier)
+     */
+    public void enableBom(final Action<? super MavenPublication> configuration) {
+        CThingBom.configure(this.project, this::getConventionPomAction, configuration);
+    }
+
+    /**
+     * Attaches a CycloneDX software bill of materials, in JSON format, to every {@link MavenPublication} of a
+     * Java project. The bill of materials lists the components of the {@code runtimeClasspath} and their
+     * dependencies, and is published with the {@code cyclonedx} classifier. It is generated from the
+     * resolution result used by the rest of the build, so no additional dependency resolution is performed,
+     * and the generation task is cacheable. The license of the publications is obtained from the POM action
+     * in the same manner as for {@link #enableStreamingPoms()}.
+     */
+    public void enableSbom() {
+        CThingSboms.configure(this.project, this::getConventionPomAction);
+    }
+
+    /**
+     * Publishes the builds included in this composite build as a release train. The {@code releaseTrain} task
+     * is created, which publishes each included build once the builds publishing the C Thing Software
+     * artifacts on which it depends have been published and verified in the candidates repository. Builds that
+     * do not depend on each other are published concurrently. The root project of each included build must
+     * apply this plugin. This method is typically called in the root project of a build that exists solely to
+     * include the builds to be released.
+     */
+    public void enableReleaseTrain() {
+        ReleaseTrain.configure(this.project, this.project.getExtensions().getByType(CThingRepoExtension.class));
+    }
+
+    /**
+     * Creates the {@code publishPluginsToPortal} task, which publishes every plugin declared in the
+     * {@code gradlePlugin} block to the Gradle plugin portal. Each plugin version is requested concurrently,
+     * the artifacts shared by the plugins are uploaded once, and requests are retried if the portal is
+     * overloaded. The portal credentials are obtained from the {@code gradle.publish.key} and
+     * {@code gradle.publish.secret} properties (see {@link #hasGradlePluginPortalCredentials()}), and the
+     * portal location can be overridden using the {@code gradle.portal.url} property. The task has no effect
+     * unless the {@code java-gradle-plugin} and {@code maven-publish} plugins are applied.
+     */
+    public void enablePluginPortalPublishing() {
+        PluginPortalPublishing.configure(this.project, this.project.getExtensions().getByType(CThingRepoExtension.class));
+    }
+
+    private CThingPomAction getConventionPomAction() {
+        return this.conventionPomAction == null ? createPomAction() : this.conventionPomAction;
     }
 
     /**
      * Obtains all directs dependencies on C Thing Software artifacts. This information is used in CI to
-     * determine dependent projects.
+     * determine dependent projects. If the {@link #getDependencySource() dependency source} is
+     * {@link DependencySource#LOCKFILE}, the dependencies are obtained using
+     * {@link #findCThingLockedDependencies()}.
      *
      * @return Direct dependencies on C Thing Software artifacts in Gradle dependency notation:
      *     {@code group:name:version:classifier@extension}. If the project has no dependencies on
      *     C Thing Software artifacts, an empty set is returned.
      */
     public Set<String> findCThingDependencies() {
+        if (this.dependencySource == DependencySource.LOCKFILE) {
+            return findCThingLockedDependencies();
+        }
+
         final Set<String> resolvedDependencies = new TreeSet<>();
 
         // Obtain direct dependencies from both the compile configurations and the build script configurations.
-        // The latter provides dependencies on C Thing Software Gradle plugins.
+        // The latter provides dependencies on C Thing Software Gradle plugins. Only the configurations needed
+        // to cover all declared C Thing Software dependencies are resolved.
         final List<ConfigurationContainer> configContainers = List.of(this.project.getBuildscript().getConfigurations(),
                                                                       this.project.getConfigurations());
-        configContainers.forEach(configContainer -> configContainer.forEach(config -> {
-            if (config.isCanBeResolved()) {
-                config.getResolvedConfiguration()
-                      .getFirstLevelModuleDependencies()
-                      .forEach(rdep -> {
-                          // If the dependency is a Gradle plugin marker, go one level down to get the plugin
-                          // artifact dependency.
-                          if (isGradlePluginMarker(rdep.getModuleName())) {
-                              rdep.getChildren().forEach(child -> recordDependency(resolvedDependencies, child));
-                          } else {
-                              recordDependency(resolvedDependencies, rdep);
-                          }
-                      });
-            }
-        }));
+        int resolvableCount = 0;
+        int resolvedCount = 0;
+        for (final ConfigurationContainer configContainer : configContainers) {
+            final List<Configuration> resolvable = new ArrayList<>();
+            configContainer.forEach(config -> {
+                if (config.isCanBeResolved()) {
+                    resolvable.add(config);
+                }
+            });
+
+            final List<Configuration> pruned = ConfigurationPruner.prune(resolvable,
+                                                                         CThingPublishingExtension::isCThingCandidate);
+            resolvableCount += resolvable.size();
+            resolvedCount += pruned.size();
+
+            pruned.forEach(config -> config.getResolvedConfiguration()
+                                           .getFirstLevelModuleDependencies()
+                                           .forEach(rdep -> recordFirstLevelDependency(resolvedDependencies, rdep)));
+        }
+
+        LOGGER.info("Resolved {} of {} configurations to find C Thing dependencies ({} resolutions avoided)",
+                    resolvedCount, resolvableCount, resolvableCount - resolvedCount);
 
         return resolvedDependencies;
     }
 
+    /**
+     * Obtains the dependencies on C Thing Software artifacts recorded in the dependency lockfiles of the
+     * project and its build script. The lockfiles are read in a single pass and no configurations are
+     * resolved. Because lockfiles record every locked module, transitive dependencies on C Thing Software
+     * artifacts are included. The lockfile locations configured using {@code dependencyLocking} are used,
+     * if specified.
+     *
+     * @return Dependencies on C Thing Software artifacts in Gradle dependency notation:
+     *     {@code group:name:version}. If the project has no dependencies on C Thing Software artifacts, an
+     *     empty set is returned.
+     * @throws GradleException if neither lockfile exists or a lockfile cannot be read
+     */
+    public Set<String> findCThingLockedDependencies() {
+        final File projectDir = this.project.getProjectDir();
+        final List<File> lockfiles = List.of(
+                this.project.getDependencyLocking().getLockFile().getAsFile()
+                            .getOrElse(new File(projectDir, LOCKFILE_NAME)),
+                this.project.getBuildscript().getDependencyLocking().getLockFile().getAsFile()
+                            .getOrElse(new File(projectDir, BUILDSCRIPT_LOCKFILE_NAME)));
+
+        final Set<String> lockedDependencies = new TreeSet<>();
+        boolean found = false;
+        for (final File lockfile : lockfiles) {
+            if (lockfile.isFile()) {
+                found = true;
+                try {
+                    readLockfile(lockfile.toPath(), lockedDependencies);
+                } catch (final IOException ex) {
+                    throw new GradleException("Could not read dependency lockfile " + lockfile, ex);
+                }
+            }
+        }
+        if (!found) {
+            throw new GradleException("No dependency lockfiles found for " + this.project.getPath()
+                                              + ". Enable dependency locking or use the RESOLUTION dependency "
+                                              + "source.");
+        }
+
+        return lockedDependencies;
+    }
+
     /**
      * Obtains the identifiers of any Gradle plugins created by the project.
      *
@@ -104,9 +327,9 @@ public class CThingPublishingExtension {
      * @return {@code true} if artifacts can be signed.
      */
     public boolean canSign() {
-        return this.project.hasProperty("signing.keyId")
-                && this.project.hasProperty("signing.password")
-                && this.project.hasProperty("signing.secretKeyRingFile");
+        return ProjectProperties.has(this.project, "signing.keyId")
+                && ProjectProperties.has(this.project, "signing.password")
+                && ProjectProperties.has(this.project, "signing.secretKeyRingFile");
     }
 
     /**
@@ -115,7 +338,25 @@ public class CThingPublishingExtension {
      * @return {@code true} if it is possible to publish to the Gradle plugin portal.
      */
     public boolean hasGradlePluginPortalCredentials() {
-        return this.project.hasProperty("gradle.publish.key") && this.project.hasProperty("gradle.publish.secret");
+        return ProjectProperties.has(this.project, PluginPortalPublishing.KEY_PROPERTY)
+                && ProjectProperties.has(this.project, PluginPortalPublishing.SECRET_PROPERTY);
+    }
+
+    /**
+     * Records a first level resolved dependency. If the dependency is a Gradle plugin marker, the plugin
+     * artifact dependency one level down is recorded instead.
+     *
+     * @param resolvedDependencies Resolved dependencies to which the dependency should be added, if it is a
+     *      C Thing Software artifact.
+     * @param resolvedDependency First level resolved dependency to consider adding
+     */
+    private void recordFirstLevelDependency(final Set<String> resolvedDependencies,
+                                            final ResolvedDependency resolvedDependency) {
+        if (isGradlePluginMarker(resolvedDependency.getModuleName())) {
+            resolvedDependency.getChildren().forEach(child -> recordDependency(resolvedDependencies, child));
+        } else {
+            recordDependency(resolvedDependencies, resolvedDependency);
+        }
     }
 
     /**
@@ -129,13 +370,17 @@ public class CThingPublishingExtension {
     void recordDependency(final Set<String> resolvedDependencies, final ResolvedDependency resolvedDependency) {
         final String group = resolvedDependency.getModuleGroup();
 
-        // Only record the dependency if it is on a C Thing Software artifact and is not on the project itself
-        // (e.g. the dependency analysis plugin creates dependencies on the project itself).
-        if (CTHING_GROUPS.contains(group)
-                && !(this.project.getGroup().equals(group)
-                && this.project.getName().equals(resolvedDependency.getModuleName()))) {
+        if (isCThingDependency(group, resolvedDependency.getModuleName())) {
             final String version = resolvedDependency.getModuleVersion();
             resolvedDependency.getModuleArtifacts().forEach(artifact -> {
+                // A dependency substituted by a project of an included build resolves to the outputs of the
+                // project (e.g. its classes directory) rather than to published artifacts, so only the module
+                // can be recorded.
+                if (artifact.getId().getComponentIdentifier() instanceof ProjectComponentIdentifier) {
+                    resolvedDependencies.add(group + ':' + resolvedDependency.getModuleName() + ':' + version);
+                    return;
+                }
+
                 final StringBuilder dependency = new StringBuilder()
                         .append(group)
                         .append(':')
@@ -158,6 +403,105 @@ public class CThingPublishingExtension {
         }
     }
 
+    /**
+     * Reads a Gradle dependency lockfile and adds the C Thing Software modules it records to the specified
+     * set of dependencies. Each entry in a lockfile has the form {@code group:name:version=configurations}.
+     *
+     * @param lockfile Lockfile to read
+     * @param lockedDependencies Dependencies to which the C Thing Software modules are added in the form
+     *      {@code group:name:version}
+     * @throws IOException if the lockfile could not be read
+     */
+    void readLockfile(final Path lockfile, final Set<String> lockedDependencies) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(lockfile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.charAt(0) == '#') {
+                    continue;
+                }
+
+                final int separator = line.indexOf('=');
+                final String module = (separator < 0 ? line : line.substring(0, separator)).trim();
+                final int nameStart = module.indexOf(':');
+                final int versionStart = module.indexOf(':', nameStart + 1);
+                if (nameStart <= 0 || versionStart < 0 || module.indexOf(':', versionStart + 1) >= 0) {
+                    continue;
+                }
+
+                if (isCThingDependency(module.substring(0, nameStart), module.substring(nameStart + 1, versionStart))) {
+                    lockedDependencies.add(module);
+                }
+            }
+        }
+    }
+
+    /**
+     * Indicates whether the specified module is a C Thing Software artifact other than the project itself
+     * (e.g. the dependency analysis plugin creates dependencies on the project itself).
+     *
+     * @param group Group of the module
+     * @param name Name of the module
+     * @return {@code true} if the module should be recorded as a C Thing Software dependency.
+     */
+    private boolean isCThingDependency(final String group, final String name) {
+        return CTHING_GROUPS.contains(group)
+                && !(this.project.getGroup().equals(group) && this.project.getName().equals(name));
+    }
+
+    /**
+     * Obtains the dependencies on C Thing Software artifacts using {@link #findCThingDependencies()} the first
+     * time this method is called and the same result thereafter. This method must only be called after the
+     * project has been evaluated.
+     *
+     * @return Dependencies on C Thing Software artifacts.
+     */
+    synchronized Set<String> getCThingDependencies() {
+        Set<String> result = this.cthingDependencies;
+        if (result == null) {
+            result = Collections.unmodifiableSet(findCThingDependencies());
+            this.cthingDependencies = result;
+        }
+        return result;
+    }
+
+    /**
+     * Obtains the Gradle plugins created by the project using {@link #findCThingGradlePlugins()} the first
+     * time this method is called and the same result thereafter. This method must only be called after the
+     * project has been evaluated.
+     *
+     * @return Identifiers of the Gradle plugins created by the project.
+     */
+    private synchronized Set<String> getCThingGradlePlugins() {
+        Set<String> result = this.cthingGradlePlugins;
+        if (result == null) {
+            result = Collections.unmodifiableSet(findCThingGradlePlugins());
+            this.cthingGradlePlugins = result;
+        }
+        return result;
+    }
+
+    /**
+     * Indicates whether a declared dependency could resolve to a C Thing Software artifact. This is the case
+     * for dependencies in the C Thing Software groups, including Gradle plugin markers for plugins with
+     * C Thing Software identifiers, and for any other Gradle plugin marker because the plugin artifact to
+     * which the marker resolves is not known until the marker is resolved.
+     *
+     * @param dependency Declared dependency to test
+     * @return {@code true} if the dependency could resolve to a C Thing Software artifact.
+     */
+    static boolean isCThingCandidate(final Dependency dependency) {
+        final String group = dependency.getGroup();
+        if (group == null) {
+            return false;
+        }
+        for (final String cthingGroup : CTHING_GROUPS) {
+            if (group.equals(cthingGroup) || group.startsWith(cthingGroup + '.')) {
+                return true;
+            }
+        }
+        return isGradlePluginMarker(dependency.getName());
+    }
+
     /**
      * In order to resolve Gradle plugin identifiers to their implementation artifacts, Gradle uses a
      * marker dependency. The marker dependencies always have a name ending in ".gradle.plugin" and have
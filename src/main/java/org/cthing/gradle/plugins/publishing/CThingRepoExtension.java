@@ -5,8 +5,13 @@
 
 package org.cthing.gradle.plugins.publishing;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.cthing.projectversion.ProjectVersion;
+import org.gradle.api.GradleException;
 import org.gradle.api.Project;
+import org.gradle.api.provider.Provider;
 import org.jspecify.annotations.Nullable;
 
 
@@ -42,12 +47,139 @@ public class CThingRepoExtension {
     /** Property providing the URL to publish snapshot Debian packages. */
     public static final String APT_SNAPSHOTS_URL_PROPERTY = "cthing.nexus.aptSnapshotsUrl";
 
+    /**
+     * Property providing a comma separated list of URLs of repositories to which publications are mirrored
+     * in addition to the primary repository.
+     */
+    public static final String MIRROR_URLS_PROPERTY = "cthing.nexus.mirrorUrls";
+
+    /**
+     * Property specifying the verification performed after publishing using pipelined publishing. The
+     * value is the name of an {@link UploadVerification} constant (case-insensitive), {@code true} or
+     * {@code false}.
+     */
+    public static final String VERIFY_UPLOADS_PROPERTY = "cthing.nexus.verifyUploads";
+
+    /** Property providing the maximum number of concurrent uploads to the repository across all projects. */
+    public static final String MAX_CONCURRENT_UPLOADS_PROPERTY = "cthing.nexus.maxConcurrentUploads";
+
+    /** Property providing the upload duration, in milliseconds, above which the repository is considered overloaded. */
+    public static final String UPLOAD_LATENCY_THRESHOLD_PROPERTY = "cthing.nexus.uploadLatencyThreshold";
+
+    /** Property providing the maximum number of times an upload rejected due to server load is retried. */
+    public static final String MAX_UPLOAD_RETRIES_PROPERTY = "cthing.nexus.maxUploadRetries";
+
+    /**
+     * Property indicating whether files published to a {@code file:} repository using pipelined publishing
+     * are hard linked rather than copied.
+     */
+    public static final String LINK_FILES_PROPERTY = "cthing.nexus.linkFiles";
+
+    /** Property providing the root URL of the Nexus server used for staged publishing. */
+    public static final String STAGING_URL_PROPERTY = "cthing.nexus.stagingUrl";
+
+    /** Property providing the identifier of the Nexus staging profile used for staged publishing. */
+    public static final String STAGING_PROFILE_ID_PROPERTY = "cthing.nexus.stagingProfileId";
+
+    /** Default maximum number of concurrent uploads. */
+    public static final int DEFAULT_MAX_CONCURRENT_UPLOADS = 8;
+
+    /** Default upload latency threshold in milliseconds. */
+    public static final long DEFAULT_UPLOAD_LATENCY_THRESHOLD = 30_000;
+
+    /** Default maximum number of upload retries. */
+    public static final int DEFAULT_MAX_UPLOAD_RETRIES = 3;
+
     private final Project project;
 
+    @Nullable
+    private Provider<CThingRepoService> repoService;
+
+    @Nullable
+    private Provider<NexusStagingService> stagingService;
+
+    private boolean pipelined;
+
     public CThingRepoExtension(final Project project) {
         this.project = project;
     }
 
+    /**
+     * Obtains the build service shared by all projects for accessing the repository. The service is
+     * registered the first time this method is called in the build.
+     *
+     * @return Provider of the shared repository service.
+     */
+    public Provider<CThingRepoService> getRepoService() {
+        if (this.repoService == null) {
+            this.repoService = CThingRepoService.register(this.project, this);
+        }
+        return this.repoService;
+    }
+
+    /**
+     * Enables pipelined publishing of all Maven publications in the project to the repository obtained
+     * from {@link #getRepoUrl()}. In this mode, each artifact of a publication is signed (if signing is
+     * possible) and uploaded as soon as the task producing it has completed, so that uploads overlap with
+     * the building of the remaining artifacts. After all artifacts have been uploaded, the POM, the module
+     * metadata and the repository metadata are uploaded. Run the {@code publishPipelined} task to publish
+     * all publications using this mode. Maven snapshot versions (i.e. versions ending in {@code -SNAPSHOT})
+     * are not supported.
+     *
+     * <p>If mirror repositories are defined using the {@value #MIRROR_URLS_PROPERTY} property, publications
+     * are published to the primary repository and all mirrors concurrently. Each file is read and
+     * checksummed once regardless of the number of repositories.
+     *
+     * <p>The files of each publication can be verified after they have been uploaded by running the
+     * {@code verify<Publication>Publication} task. If the {@value #VERIFY_UPLOADS_PROPERTY} property is
+     * set, the {@code publishPipelined} task performs the verification.
+     */
+    public void enablePipelinedPublishing() {
+        if (!this.pipelined) {
+            this.pipelined = true;
+            PipelinedPublishing.configure(this.project, this);
+        }
+    }
+
+    /**
+     * Enables staged publishing of all Maven publications in the project, which also enables pipelined
+     * publishing (see {@link #enablePipelinedPublishing()}). Rather than publishing release candidates
+     * directly to the repository obtained from {@link #getCandidatesUrl()}, where consumers could see a
+     * partially uploaded release, the publications of every project that enables staged publishing are
+     * uploaded concurrently into a single Nexus staging repository shared by the whole build (see
+     * {@link NexusStagingService}). The Nexus server and staging profile are specified using the
+     * {@value #STAGING_URL_PROPERTY} and {@value #STAGING_PROFILE_ID_PROPERTY} properties. Snapshot builds
+     * are published to the snapshots repository as before.
+     *
+     * <p>This method must also be called in the root project, where it creates the
+     * {@code releaseStagingRepository} task. That task runs the {@code publishPipelined} task of every
+     * participating project and then closes and releases the staging repository. A staging repository that
+     * fails validation, or is not released by the end of the build, is dropped.
+     */
+    public void enableStagedPublishing() {
+        enablePipelinedPublishing();
+        if (this.stagingService == null) {
+            this.stagingService = NexusStagingService.register(this.project, this);
+            StagedPublishing.configure(this.project, this.stagingService);
+        }
+    }
+
+    /**
+     * Obtains the build service coordinating the staging repository if the publications of the project are
+     * published through it. Publications are staged if {@link #enableStagedPublishing()} has been called
+     * and the project version is not a snapshot build.
+     *
+     * @return Provider of the shared staging service, or {@code null} if the publications are not staged.
+     */
+    @Nullable
+    public Provider<NexusStagingService> getStagingService() {
+        if (this.stagingService != null && this.project.getVersion() instanceof ProjectVersion projectVersion
+                && !projectVersion.isSnapshotBuild()) {
+            return this.stagingService;
+        }
+        return null;
+    }
+
     /**
      * Obtains the username to access the repository.
      *
@@ -55,7 +187,7 @@ public class CThingRepoExtension {
      */
     @Nullable
     public String getUser() {
-        return (String)this.project.findProperty(USER_PROPERTY);
+        return (String)ProjectProperties.find(this.project, USER_PROPERTY);
     }
 
     /**
@@ -65,7 +197,7 @@ public class CThingRepoExtension {
      */
     @Nullable
     public String getPassword() {
-        return (String)this.project.findProperty(PASSWORD_PROPERTY);
+        return (String)ProjectProperties.find(this.project, PASSWORD_PROPERTY);
     }
 
     /**
@@ -74,7 +206,7 @@ public class CThingRepoExtension {
      * @return {@code true} if the properties are defined to allow access to the repository.
      */
     public boolean hasCredentials() {
-        return this.project.hasProperty(USER_PROPERTY) && this.project.hasProperty(PASSWORD_PROPERTY);
+        return ProjectProperties.has(this.project, USER_PROPERTY) && ProjectProperties.has(this.project, PASSWORD_PROPERTY);
     }
 
     /**
@@ -84,7 +216,7 @@ public class CThingRepoExtension {
      */
     @Nullable
     public String getDownloadUrl() {
-        return (String)this.project.findProperty(DOWNLOAD_URL_PROPERTY);
+        return (String)ProjectProperties.find(this.project, DOWNLOAD_URL_PROPERTY);
     }
 
     /**
@@ -94,7 +226,7 @@ public class CThingRepoExtension {
      */
     @Nullable
     public String getReleasesUrl() {
-        return (String)this.project.findProperty(RELEASES_URL_PROPERTY);
+        return (String)ProjectProperties.find(this.project, RELEASES_URL_PROPERTY);
     }
 
     /**
@@ -104,7 +236,7 @@ public class CThingRepoExtension {
      */
     @Nullable
     public String getCandidatesUrl() {
-        return (String)this.project.findProperty(CANDIDATES_URL_PROPERTY);
+        return (String)ProjectProperties.find(this.project, CANDIDATES_URL_PROPERTY);
     }
 
     /**
@@ -114,7 +246,27 @@ public class CThingRepoExtension {
      */
     @Nullable
     public String getSnapshotsUrl() {
-        return (String)this.project.findProperty(SNAPSHOTS_URL_PROPERTY);
+        return (String)ProjectProperties.find(this.project, SNAPSHOTS_URL_PROPERTY);
+    }
+
+    /**
+     * Obtains the root URL of the Nexus server used for staged publishing.
+     *
+     * @return Root URL of the Nexus server.
+     */
+    @Nullable
+    public String getStagingUrl() {
+        return (String)ProjectProperties.find(this.project, STAGING_URL_PROPERTY);
+    }
+
+    /**
+     * Obtains the identifier of the Nexus staging profile used for staged publishing.
+     *
+     * @return Staging profile identifier.
+     */
+    @Nullable
+    public String getStagingProfileId() {
+        return (String)ProjectProperties.find(this.project, STAGING_PROFILE_ID_PROPERTY);
     }
 
     /**
@@ -131,6 +283,43 @@ public class CThingRepoExtension {
         return null;
     }
 
+    /**
+     * Obtains the URLs of the repositories to which publications are mirrored in addition to the
+     * repository obtained from {@link #getRepoUrl()}.
+     *
+     * @return URLs of the mirror repositories. Returns an empty list if no mirrors are defined.
+     */
+    public List<String> getMirrorUrls() {
+        final Object value = ProjectProperties.find(this.project, MIRROR_URLS_PROPERTY);
+        if (value == null) {
+            return List.of();
+        }
+        return Arrays.stream(value.toString().split(","))
+                     .map(String::trim)
+                     .filter(url -> !url.isEmpty())
+                     .distinct()
+                     .toList();
+    }
+
+    /**
+     * Obtains the verification performed on uploaded files by the {@code publishPipelined} task.
+     *
+     * @return Verification to perform. If the property is not defined, {@link UploadVerification#NONE} is
+     *      returned.
+     */
+    public UploadVerification getUploadVerification() {
+        final Object value = ProjectProperties.find(this.project, VERIFY_UPLOADS_PROPERTY);
+        if (value == null) {
+            return UploadVerification.NONE;
+        }
+        final UploadVerification verification = UploadVerification.fromValue(value.toString());
+        if (verification == null) {
+            throw new GradleException("Property " + VERIFY_UPLOADS_PROPERTY + " must be one of none, checksums or "
+                                              + "strict but was '" + value + "'");
+        }
+        return verification;
+    }
+
     /**
      * Obtains the URL to publish release Debian packages.
      *
@@ -138,7 +327,7 @@ public class CThingRepoExtension {
      */
     @Nullable
     public String getAptReleasesUrl() {
-        return (String)this.project.findProperty(APT_RELEASES_URL_PROPERTY);
+        return (String)ProjectProperties.find(this.project, APT_RELEASES_URL_PROPERTY);
     }
 
     /**
@@ -148,7 +337,7 @@ public class CThingRepoExtension {
      */
     @Nullable
     public String getAptCandidatesUrl() {
-        return (String)this.project.findProperty(APT_CANDIDATES_URL_PROPERTY);
+        return (String)ProjectProperties.find(this.project, APT_CANDIDATES_URL_PROPERTY);
     }
 
     /**
@@ -158,6 +347,74 @@ public class CThingRepoExtension {
      */
     @Nullable
     public String getAptSnapshotsUrl() {
-        return (String)this.project.findProperty(APT_SNAPSHOTS_URL_PROPERTY);
+        return (String)ProjectProperties.find(this.project, APT_SNAPSHOTS_URL_PROPERTY);
+    }
+
+    /**
+     * Obtains the maximum number of concurrent uploads to the repository across all projects in the build.
+     *
+     * @return Maximum number of concurrent uploads. If the property is not defined,
+     *      {@link #DEFAULT_MAX_CONCURRENT_UPLOADS} is returned.
+     */
+    public int getMaxConcurrentUploads() {
+        return Math.max(1, (int)getNumber(MAX_CONCURRENT_UPLOADS_PROPERTY, DEFAULT_MAX_CONCURRENT_UPLOADS));
+    }
+
+    /**
+     * Obtains the upload duration above which the repository is considered to be overloaded, causing the
+     * number of concurrent uploads to be reduced.
+     *
+     * @return Upload latency threshold in milliseconds. If the property is not defined,
+     *      {@link #DEFAULT_UPLOAD_LATENCY_THRESHOLD} is returned.
+     */
+    public long getUploadLatencyThreshold() {
+        return getNumber(UPLOAD_LATENCY_THRESHOLD_PROPERTY, DEFAULT_UPLOAD_LATENCY_THRESHOLD);
+    }
+
+    /**
+     * Obtains the maximum number of times an upload rejected due to server load is retried.
+     *
+     * @return Maximum number of upload retries. If the property is not defined,
+     *      {@link #DEFAULT_MAX_UPLOAD_RETRIES} is returned.
+     */
+    public int getMaxUploadRetries() {
+        return Math.max(0, (int)getNumber(MAX_UPLOAD_RETRIES_PROPERTY, DEFAULT_MAX_UPLOAD_RETRIES));
+    }
+
+    /**
+     * Indicates whether files published to a {@code file:} repository are hard linked rather than copied
+     * (see {@link FileRepositoryTarget}).
+     *
+     * @return {@code true} if files are hard linked. If the property is not defined, {@code false} is returned.
+     */
+    public boolean isLinkFiles() {
+        final Object value = ProjectProperties.find(this.project, LINK_FILES_PROPERTY);
+        if (value instanceof Boolean bool) {
+            return bool;
+        }
+        return value != null && Boolean.parseBoolean(value.toString().trim());
+    }
+
+    /**
+     * Obtains the numeric value of the specified property. Properties defined in {@code gradle.properties}
+     * are strings while those set in a build script may be numbers, so both are accepted.
+     *
+     * @param property Name of the property
+     * @param defaultValue Value to return if the property is not defined
+     * @return Value of the property or the default value if the property is not defined.
+     */
+    private long getNumber(final String property, final long defaultValue) {
+        final Object value = ProjectProperties.find(this.project, property);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        try {
+            return Long.parseLong(value.toString().trim());
+        } catch (final NumberFormatException ex) {
+            throw new GradleException("Property " + property + " must be a number but was '" + value + "'", ex);
+        }
     }
 }
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.gradle.api.Project;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.publish.maven.tasks.PublishToMavenRepository;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Build service shared by all projects in a build which performs requests against the C Thing Software
+ * repository. A single pooled HTTP client is used for all requests, and the number of concurrent requests
+ * across all projects is limited by an {@link AdaptiveConcurrencyLimiter}. Requests rejected because the
+ * server is overloaded are retried with exponential backoff. In addition, the standard Maven publishing
+ * tasks are registered as users of this service so that Gradle limits the number of those tasks that
+ * run concurrently to the maximum number of concurrent uploads.
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class CThingRepoService implements BuildService<CThingRepoService.Params>, AutoCloseable {
+
+    /** Name under which the service is registered. */
+    public static final String NAME = "cthingRepoService";
+
+    /**
+     * Parameters for the service.
+     */
+    public interface Params extends BuildServiceParameters {
+        /**
+         * Username to access the repository.
+         *
+         * @return Username property.
+         */
+        Property<String> getUser();
+
+        /**
+         * Password to access the repository.
+         *
+         * @return Password property.
+         */
+        Property<String> getPassword();
+
+        /**
+         * Maximum number of concurrent requests to the repository across all projects.
+         *
+         * @return Maximum concurrent requests property.
+         */
+        Property<Integer> getMaxConcurrentUploads();
+
+        /**
+         * Request duration, in milliseconds, above which the repository is considered overloaded.
+         *
+         * @return Latency threshold property.
+         */
+        Property<Long> getLatencyThreshold();
+
+        /**
+         * Maximum number of times a request rejected due to server load is retried.
+         *
+         * @return Maximum retries property.
+         */
+        Property<Integer> getMaxRetries();
+
+        /**
+         * Whether files published to a {@code file:} repository are hard linked rather than copied.
+         *
+         * @return Link files property.
+         */
+        Property<Boolean> getLinkFiles();
+    }
+
+    /**
+     * Identifies a staged file by its location, size and modification time.
+     *
+     * @param path Absolute, normalized location of the file
+     * @param size Size of the file in bytes
+     * @param lastModified Modification time of the file in milliseconds since the epoch
+     */
+    private record StagedFileKey(Path path, long size, long lastModified) {
+    }
+
+    /** HTTP status codes indicating that a server is overloaded and the request should be retried. */
+    static final Set<Integer> OVERLOADED_STATUS = Set.of(429, 502, 503, 504);
+
+    private static final Logger LOGGER = Logging.getLogger(CThingRepoService.class);
+    private static final long INITIAL_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 10_000;
+    private static final double BACKOFF_RATIO = 0.5;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ExecutorService executor;
+    private final int maxRetries;
+    private final Map<StagedFileKey, StagedFile> stagedFiles;
+    private final Map<String, FileRepositoryTarget> fileTargets;
+
+    /**
+     * Constructs the service.
+     */
+    public CThingRepoService() {
+        final Params params = getParameters();
+        final int maxConcurrent = params.getMaxConcurrentUploads().get();
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "cthing-repo-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                                .connectTimeout(CONNECT_TIMEOUT)
+                                .followRedirects(HttpClient.Redirect.NORMAL)
+                                .executor(this.executor)
+                                .build();
+        this.limiter = new AdaptiveConcurrencyLimiter(Math.max(1, maxConcurrent / 2), maxConcurrent,
+                                                      params.getLatencyThreshold().get(), BACKOFF_RATIO);
+        this.maxRetries = params.getMaxRetries().get();
+        this.stagedFiles = new ConcurrentHashMap<>();
+        this.fileTargets = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Registers the service with the build, if it has not already been registered, and declares that the
+     * Maven publishing tasks in the specified project use the service. The service parameters are obtained
+     * from the repository extension of the first project to register the service. Typically, the
+     * repository properties are defined for the entire build (e.g. in {@code gradle.properties}) so all
+     * projects provide the same values.
+     *
+     * @param project Project using the service
+     * @param repoExtension Repository extension of the project
+     * @return Provider of the shared service.
+     */
+    public static Provider<CThingRepoService> register(final Project project, final CThingRepoExtension repoExtension) {
+        final Provider<Integer> maxConcurrent = project.provider(repoExtension::getMaxConcurrentUploads);
+        final Provider<CThingRepoService> service =
+                project.getGradle().getSharedServices().registerIfAbsent(NAME, CThingRepoService.class, spec -> {
+                    final Params params = spec.getParameters();
+                    params.getUser().set(project.provider(repoExtension::getUser));
+                    params.getPassword().set(project.provider(repoExtension::getPassword));
+                    params.getMaxConcurrentUploads().set(maxConcurrent);
+                    params.getLatencyThreshold().set(project.provider(repoExtension::getUploadLatencyThreshold));
+                    params.getMaxRetries().set(project.provider(repoExtension::getMaxUploadRetries));
+                    params.getLinkFiles().set(project.provider(repoExtension::isLinkFiles));
+                    spec.getMaxParallelUsages().set(maxConcurrent);
+                });
+
+        project.getTasks().withType(PublishToMavenRepository.class).configureEach(task -> task.usesService(service));
+
+        return service;
+    }
+
+    /**
+     * Obtains the HTTP client shared by all users of the service.
+     *
+     * @return Shared HTTP client.
+     */
+    public HttpClient getClient() {
+        return this.client;
+    }
+
+    /**
+     * Obtains the limiter controlling the number of concurrent requests to the repository.
+     *
+     * @return Concurrency limiter.
+     */
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return this.limiter;
+    }
+
+    /**
+     * Obtains an executor for performing repository operations in the background. Operations submitted to
+     * the executor should use {@link #send(HttpRequest, HttpResponse.BodyHandler)} so that the number of
+     * concurrent requests remains limited.
+     *
+     * @return Executor shared by all users of the service.
+     */
+    public ExecutorService getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Creates a target for publishing to the repository at the specified location. A {@code file:} URL is
+     * published to directly using a {@link FileRepositoryTarget}. A single target is used for each such
+     * repository for the remainder of the build, so that the files published by all tasks are forced to
+     * storage together.
+     *
+     * @param url Root URL of the repository
+     * @return Repository target which performs its requests using this service.
+     */
+    public RepositoryTarget createTarget(final String url) {
+        if (url.regionMatches(true, 0, "file:", 0, 5)) {
+            return this.fileTargets.computeIfAbsent(url, key -> new FileRepositoryTarget(
+                    Path.of(URI.create(key)), getParameters().getLinkFiles().getOrElse(false), this.executor));
+        }
+        return new HttpRepositoryTarget(this, url);
+    }
+
+    /**
+     * Creates a target for publishing to a primary repository and any number of mirror repositories. If
+     * mirrors are specified, each operation is performed on all repositories concurrently.
+     *
+     * @param url Root URL of the primary repository
+     * @param mirrorUrls Root URLs of the mirror repositories
+     * @return Repository target which performs its requests using this service.
+     */
+    public RepositoryTarget createTarget(final String url, final List<String> mirrorUrls) {
+        if (mirrorUrls.isEmpty()) {
+            return createTarget(url);
+        }
+        final List<RepositoryTarget> targets = new ArrayList<>();
+        targets.add(createTarget(url));
+        mirrorUrls.forEach(mirrorUrl -> targets.add(createTarget(mirrorUrl)));
+        return new FanOutRepositoryTarget(targets, this.executor);
+    }
+
+    /**
+     * Stages a file for publishing, calculating its checksums. The staged file is cached for the remainder
+     * of the build so that a file published more than once (e.g. to multiple repositories or by multiple
+     * tasks) is only checksummed once. The cache is keyed by the location, size and modification time of the
+     * file, so a file that has changed is staged again. The content of the file is not cached.
+     *
+     * @param file File to stage
+     * @return Staged file.
+     * @throws IOException if the file could not be read
+     */
+    public StagedFile stage(final Path file) throws IOException {
+        final Path path = file.toAbsolutePath().normalize();
+        final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        final StagedFileKey key = new StagedFileKey(path, attributes.size(),
+                                                    attributes.lastModifiedTime().toMillis());
+        final StagedFile cached = this.stagedFiles.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final StagedFile staged = StagedFile.stage(path);
+        this.stagedFiles.put(key, staged);
+        return staged;
+    }
+
+    /**
+     * Creates a request builder for the specified URI. If credentials have been provided, the request is
+     * configured to use basic authentication.
+     *
+     * @param uri Location of the resource to access
+     * @return Request builder for the specified location.
+     */
+    public HttpRequest.Builder newRequest(final URI uri) {
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(uri);
+        final Params params = getParameters();
+        if (params.getUser().isPresent() && params.getPassword().isPresent()) {
+            final String credentials = params.getUser().get() + ':' + params.getPassword().get();
+            builder.header("Authorization", "Basic " + Base64.getEncoder().encodeToString(
+                    credentials.getBytes(StandardCharsets.UTF_8)));
+        }
+        return builder;
+    }
+
+    /**
+     * Sends a request to the repository once the concurrency limit allows. If the server indicates that it
+     * is overloaded, or the connection fails, the request is retried with exponential backoff up to the
+     * configured maximum number of retries.
+     *
+     * @param request Request to send
+     * @param bodyHandler Handler for the response body
+     * @param <T> Type of the response body
+     * @return Response from the server. The response may indicate an error.
+     * @throws IOException if the request could not be sent after all retries
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public <T> HttpResponse<T> send(final HttpRequest request, final HttpResponse.BodyHandler<T> bodyHandler)
+            throws IOException, InterruptedException {
+        int attempt = 0;
+        while (true) {
+            final AdaptiveConcurrencyLimiter.Permit permit = this.limiter.acquire();
+            final HttpResponse<T> response;
+            try {
+                response = this.client.send(request, bodyHandler);
+            } catch (final IOException ex) {
+                permit.release(AdaptiveConcurrencyLimiter.Outcome.OVERLOADED);
+                if (attempt >= this.maxRetries) {
+                    throw ex;
+                }
+                LOGGER.info("Retrying {} {} after error: {}", request.method(), request.uri(), ex.getMessage());
+                Thread.sleep(backoff(attempt, null));
+                attempt++;
+                continue;
+            }
+
+            final int status = response.statusCode();
+            if (OVERLOADED_STATUS.contains(status)) {
+                permit.release(AdaptiveConcurrencyLimiter.Outcome.OVERLOADED);
+                if (attempt >= this.maxRetries) {
+                    return response;
+                }
+                LOGGER.info("Retrying {} {} after status {}", request.method(), request.uri(), status);
+                Thread.sleep(backoff(attempt, response.headers().firstValue("Retry-After").orElse(null)));
+                attempt++;
+                continue;
+            }
+
+            permit.release(status < 400 ? AdaptiveConcurrencyLimiter.Outcome.SUCCESS
+                                        : AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+            return response;
+        }
+    }
+
+    @Override
+    public void close() {
+        for (final FileRepositoryTarget target : this.fileTargets.values()) {
+            try {
+                target.sync();
+            } catch (final IOException ex) {
+                LOGGER.warn("Could not force files published to {} to storage: {}", target.getLocation(),
+                            ex.getMessage());
+            }
+        }
+        this.fileTargets.clear();
+        this.stagedFiles.clear();
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * Calculates the delay before retrying a request.
+     *
+     * @param attempt Number of attempts already made
+     * @param retryAfter Value of the {@code Retry-After} header, or {@code null} if not present
+     * @return Number of milliseconds to wait before retrying.
+     */
+    static long backoff(final int attempt, @Nullable final String retryAfter) {
+        if (retryAfter != null) {
+            try {
+                return Math.min(MAX_BACKOFF_MILLIS, Long.parseLong(retryAfter.trim()) * 1000);
+            } catch (final NumberFormatException ignore) {
+                // HTTP date format, fall back to exponential backoff
+            }
+        }
+        return Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << Math.min(attempt, 16));
+    }
+}
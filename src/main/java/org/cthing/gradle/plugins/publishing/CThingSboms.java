@@ -0,0 +1,117 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.util.function.Supplier;
+
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.publish.PublishingExtension;
+import org.gradle.api.publish.maven.MavenPublication;
+import org.gradle.api.tasks.TaskProvider;
+
+
+/**
+ * Attaches a CycloneDX software bill of materials to each Maven publication of a Java project. The bill of
+ * materials is generated by a {@link GenerateSbom} task from the resolution result of the
+ * {@code runtimeClasspath} configuration. This is the same resolution used to compile and test the project
+ * and to find its C Thing Software dependencies, so the dependency graph is resolved only once. The bill of
+ * materials is published with the {@value #CLASSIFIER} classifier and the {@value #EXTENSION} extension.
+ * Gradle plugin marker publications and the C Thing Software BOM publication do not describe a Java
+ * component, so they are not given a bill of materials.
+ */
+final class CThingSboms {
+
+    /** Classifier of the bill of materials artifact. */
+    static final String CLASSIFIER = "cyclonedx";
+
+    /** Extension of the bill of materials artifact. */
+    static final String EXTENSION = "json";
+
+    private static final String MARKER_SUFFIX = "PluginMarkerMaven";
+
+    private CThingSboms() {
+    }
+
+    /**
+     * Attaches a bill of materials to all Maven publications in the specified project, including publications
+     * created after this method is called.
+     *
+     * @param project Project whose publications are to be given a bill of materials
+     * @param pomActionSupplier Provides the POM action supplying the license of the publications. The supplier
+     *      is called when the license is first needed, after the project has been configured.
+     */
+    static void configure(final Project project, final Supplier<CThingPomAction> pomActionSupplier) {
+        project.getPluginManager().withPlugin("maven-publish", mavenPlugin ->
+                project.getPluginManager().withPlugin("java", javaPlugin -> {
+                    final Provider<ResolvedComponentResult> rootComponent =
+                            project.getConfigurations()
+                                   .named(JavaPlugin.RUNTIME_CLASSPATH_CONFIGURATION_NAME)
+                                   .flatMap(CThingSboms::rootComponent);
+                    final Provider<PomLicense> license = project.provider(() -> pomActionSupplier.get().getLicense());
+                    final Provider<DeveloperRegistry> registry = DeveloperRegistryService.getRegistry(project);
+                    final PublishingExtension publishing =
+                            project.getExtensions().getByType(PublishingExtension.class);
+                    publishing.getPublications()
+                              .withType(MavenPublication.class)
+                              .matching(CThingSboms::isDescribed)
+                              .configureEach(publication -> configurePublication(project, publication,
+                                                                                 rootComponent, license, registry));
+                }));
+    }
+
+    /**
+     * Indicates whether a bill of materials is attached to the specified publication.
+     *
+     * @param publication Publication to test
+     * @return {@code true} if the publication describes a Java component.
+     */
+    static boolean isDescribed(final MavenPublication publication) {
+        return !publication.getName().endsWith(MARKER_SUFFIX)
+                && !CThingBom.BOM_PUBLICATION.equals(publication.getName());
+    }
+
+    /**
+     * Obtains the name of the task generating the bill of materials for the specified publication.
+     *
+     * @param publication Publication whose bill of materials is generated
+     * @return Name of the task.
+     */
+    static String taskName(final MavenPublication publication) {
+        return "generateCThingSbomFor" + PipelinedPublishing.capitalize(publication.getName()) + "Publication";
+    }
+
+    private static void configurePublication(final Project project, final MavenPublication publication,
+                                             final Provider<ResolvedComponentResult> rootComponent,
+                                             final Provider<PomLicense> license,
+                                             final Provider<DeveloperRegistry> registry) {
+        final TaskProvider<GenerateSbom> sbomTask =
+                project.getTasks().register(taskName(publication), GenerateSbom.class, task -> {
+                    task.setDescription("Generates the CycloneDX SBOM for the " + publication.getName()
+                                                + " publication.");
+                    task.getComponent().set(project.provider(() -> publication.getGroupId() + ':'
+                            + publication.getArtifactId() + ':' + publication.getVersion()));
+                    task.getLicense().set(license);
+                    task.getSupplierName().set(registry.map(DeveloperRegistry::getOrganizationName));
+                    task.getSupplierUrl().set(registry.map(DeveloperRegistry::getOrganizationUrl));
+                    task.getRootComponent().set(rootComponent);
+                    task.getDestination().set(project.getLayout().getBuildDirectory().file(
+                            "publications/" + publication.getName() + "/sbom-cyclonedx.json"));
+                });
+
+        publication.artifact(sbomTask.flatMap(GenerateSbom::getDestination), artifact -> {
+            artifact.setClassifier(CLASSIFIER);
+            artifact.setExtension(EXTENSION);
+        });
+    }
+
+    private static Provider<ResolvedComponentResult> rootComponent(final Configuration config) {
+        return config.getIncoming().getResolutionResult().getRootComponent();
+    }
+}
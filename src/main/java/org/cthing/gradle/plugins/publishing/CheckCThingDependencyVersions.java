@@ -0,0 +1,158 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+
+/**
+ * Checks that the publications of a build do not depend on different versions of the same C Thing Software
+ * module, and that they do not depend on a version of a module other than the one published by the build.
+ * The dependencies are read from the release manifest of the build (see {@link WriteReleaseManifest}), which
+ * records the dependencies found for the {@code cthing.dependencies} POM property of each project, so no
+ * configurations are resolved again. The manifest is processed in a single pass, so the time taken is
+ * proportional to the total number of dependencies. All conflicts are written to a report and the task
+ * fails if there are any.
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class CheckCThingDependencyVersions extends DefaultTask {
+
+    /** Name of the task. */
+    public static final String TASK_NAME = "checkCThingDependencyVersions";
+
+    /** Name recorded as the user of the version of a module published by the build. */
+    static final String PUBLISHED = "published";
+
+    /**
+     * Release manifest of the build.
+     *
+     * @return Manifest file property.
+     */
+    @InputFile
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getManifest();
+
+    /**
+     * File to which the conflicts are written.
+     *
+     * @return Report file property.
+     */
+    @OutputFile
+    public abstract RegularFileProperty getReport();
+
+    /**
+     * Checks the dependency versions.
+     */
+    @TaskAction
+    public void check() {
+        final Path manifest = getManifest().get().getAsFile().toPath();
+        final List<String> problems;
+        try {
+            problems = format(findConflicts(Files.readAllLines(manifest, StandardCharsets.UTF_8)));
+        } catch (final IOException ex) {
+            throw new GradleException("Could not read release manifest " + manifest, ex);
+        }
+
+        final Path report = getReport().get().getAsFile().toPath();
+        try {
+            Files.write(report, problems, StandardCharsets.UTF_8);
+        } catch (final IOException ex) {
+            throw new GradleException("Could not write report " + report, ex);
+        }
+
+        if (!problems.isEmpty()) {
+            throw new GradleException("Conflicting versions of C Thing Software modules:\n  "
+                                              + String.join("\n  ", problems));
+        }
+    }
+
+    /**
+     * Finds the C Thing Software modules used in more than one version.
+     *
+     * @param manifest Lines of a release manifest
+     * @return Versions of each conflicting module ({@code group:artifact}) with the publications using each
+     *      version ({@code group:artifact:version}). If the build publishes a version of the module,
+     *      {@value #PUBLISHED} is included among the users of that version. Modules are sorted, as are their
+     *      versions and users.
+     */
+    static SortedMap<String, SortedMap<String, SortedSet<String>>> findConflicts(final List<String> manifest) {
+        final Map<String, Map<String, Set<String>>> usages = new HashMap<>();
+
+        for (final String line : manifest) {
+            final String[] fields = line.trim().split("\\s+");
+            if (fields[0].isEmpty()) {
+                continue;
+            }
+            record(usages, fields[0], PUBLISHED);
+            for (int i = 1; i < fields.length; i++) {
+                record(usages, fields[i], fields[0]);
+            }
+        }
+
+        final SortedMap<String, SortedMap<String, SortedSet<String>>> conflicts = new TreeMap<>();
+        usages.forEach((module, versions) -> {
+            if (versions.size() > 1) {
+                final SortedMap<String, SortedSet<String>> sorted = new TreeMap<>();
+                versions.forEach((version, users) -> sorted.put(version, new TreeSet<>(users)));
+                conflicts.put(module, sorted);
+            }
+        });
+        return conflicts;
+    }
+
+    /**
+     * Describes the conflicting modules.
+     *
+     * @param conflicts Conflicts found by {@link #findConflicts(List)}
+     * @return One line per conflicting module.
+     */
+    static List<String> format(final SortedMap<String, SortedMap<String, SortedSet<String>>> conflicts) {
+        final List<String> lines = new ArrayList<>();
+        conflicts.forEach((module, versions) -> {
+            final List<String> uses = new ArrayList<>();
+            versions.forEach((version, users) -> uses.add(version + " (" + String.join(", ", users) + ')'));
+            lines.add(module + ": " + String.join(", ", uses));
+        });
+        return lines;
+    }
+
+    private static void record(final Map<String, Map<String, Set<String>>> usages, final String dependency,
+                               final String user) {
+        final String module = DependentsIndex.toModule(dependency);
+        if (module == null || module.length() == dependency.length() || dependency.charAt(module.length()) != ':') {
+            return;
+        }
+        final int start = module.length() + 1;
+        int end = start;
+        while (end < dependency.length() && dependency.charAt(end) != ':' && dependency.charAt(end) != '@') {
+            end++;
+        }
+        usages.computeIfAbsent(module, key -> new HashMap<>())
+              .computeIfAbsent(dependency.substring(start, end), key -> new TreeSet<>())
+              .add(user);
+    }
+}
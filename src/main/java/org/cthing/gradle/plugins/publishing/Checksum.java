@@ -0,0 +1,92 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Checksum algorithms used for the sidecar files published alongside each file in a Maven repository.
+ */
+public enum Checksum {
+
+    /** MD5 checksum, published in a {@code .md5} file. */
+    MD5("MD5", "md5"),
+
+    /** SHA-1 checksum, published in a {@code .sha1} file. */
+    SHA1("SHA-1", "sha1"),
+
+    /** SHA-256 checksum, published in a {@code .sha256} file. */
+    SHA256("SHA-256", "sha256"),
+
+    /** SHA-512 checksum, published in a {@code .sha512} file. */
+    SHA512("SHA-512", "sha512");
+
+    private final String algorithm;
+    private final String extension;
+
+    Checksum(final String algorithm, final String extension) {
+        this.algorithm = algorithm;
+        this.extension = extension;
+    }
+
+    /**
+     * Obtains the extension of the checksum sidecar file.
+     *
+     * @return Extension of the sidecar file, without the leading period.
+     */
+    public String getExtension() {
+        return this.extension;
+    }
+
+    /**
+     * Creates a message digest for the algorithm.
+     *
+     * @return New message digest instance.
+     */
+    public MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(this.algorithm);
+        } catch (final NoSuchAlgorithmException ex) {
+            // All algorithms are required to be supported by every Java platform implementation.
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Calculates all checksums of the specified content.
+     *
+     * @param content Content whose checksums are to be calculated
+     * @return Checksums of the content as lowercase hexadecimal strings.
+     */
+    public static Map<Checksum, String> digest(final byte[] content) {
+        final ChecksumCalculator calculator = new ChecksumCalculator();
+        calculator.update(content, 0, content.length);
+        return calculator.finish();
+    }
+
+    /**
+     * Extracts the checksum from the content of a sidecar file. Some tools append the name of the file
+     * after the checksum, separated by whitespace, so only the first token is used.
+     *
+     * @param content Content of the sidecar file
+     * @return Checksum as a lowercase hexadecimal string, or {@code null} if the sidecar file is empty.
+     */
+    @Nullable
+    public static String parseSidecar(final byte[] content) {
+        final String text = new String(content, StandardCharsets.US_ASCII).trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        return text.split("\\s+", 2)[0].toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+
+/**
+ * Calculates the checksums for all {@link Checksum} algorithms in a single pass over content that is
+ * provided incrementally. This class is not thread safe.
+ */
+final class ChecksumCalculator {
+
+    private final Checksum[] algorithms;
+    private final MessageDigest[] digests;
+
+    /**
+     * Constructs a calculator for all checksum algorithms.
+     */
+    ChecksumCalculator() {
+        this.algorithms = Checksum.values();
+        this.digests = new MessageDigest[this.algorithms.length];
+        for (int i = 0; i < this.algorithms.length; i++) {
+            this.digests[i] = this.algorithms[i].newDigest();
+        }
+    }
+
+    /**
+     * Adds the specified bytes to the checksums.
+     *
+     * @param buffer Buffer containing the bytes
+     * @param offset Offset of the first byte in the buffer
+     * @param length Number of bytes to add
+     */
+    void update(final byte[] buffer, final int offset, final int length) {
+        for (final MessageDigest digest : this.digests) {
+            digest.update(buffer, offset, length);
+        }
+    }
+
+    /**
+     * Adds the remaining bytes of the specified buffer to the checksums. The position of the buffer is
+     * not modified.
+     *
+     * @param buffer Buffer containing the bytes
+     */
+    void update(final ByteBuffer buffer) {
+        for (final MessageDigest digest : this.digests) {
+            digest.update(buffer.duplicate());
+        }
+    }
+
+    /**
+     * Completes the calculation of the checksums. The calculator must not be used after calling this method.
+     *
+     * @return Checksums of the content as lowercase hexadecimal strings.
+     */
+    Map<Checksum, String> finish() {
+        final Map<Checksum, String> checksums = new EnumMap<>(Checksum.class);
+        for (int i = 0; i < this.algorithms.length; i++) {
+            checksums.put(this.algorithms[i], HexFormat.of().formatHex(this.digests[i].digest()));
+        }
+        return checksums;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Completes the pipelined publication of a Maven publication. This task runs after all artifacts of the
+ * publication have been uploaded by {@link UploadArtifact} tasks. It uploads the POM, the Gradle module
+ * metadata (if generated) and finally updates the repository metadata listing the versions of the
+ * artifact. Because the repository metadata is updated last, consumers never see a version whose
+ * artifacts have not been completely uploaded.
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class CommitPipelinedPublication extends DefaultTask {
+
+    /**
+     * Service used to access the repository.
+     *
+     * @return Repository service property.
+     */
+    @Internal
+    public abstract Property<CThingRepoService> getService();
+
+    /**
+     * Service coordinating the staging repository into which the publication is published.
+     *
+     * @return Staging service property. Not set if the publication is not staged.
+     */
+    @Internal
+    public abstract Property<NexusStagingService> getStaging();
+
+    /**
+     * Root URL of the repository.
+     *
+     * @return Repository URL property.
+     */
+    @Input
+    @Optional
+    public abstract Property<String> getRepositoryUrl();
+
+    /**
+     * Root URLs of the repositories to which the publication is mirrored.
+     *
+     * @return Mirror repository URLs property.
+     */
+    @Input
+    public abstract ListProperty<String> getMirrorUrls();
+
+    /**
+     * Group of the publication.
+     *
+     * @return Group property.
+     */
+    @Input
+    public abstract Property<String> getGroupId();
+
+    /**
+     * Name of the publication.
+     *
+     * @return Artifact name property.
+     */
+    @Input
+    public abstract Property<String> getArtifactId();
+
+    /**
+     * Version of the publication.
+     *
+     * @return Version property.
+     */
+    @Input
+    public abstract Property<String> getVersion();
+
+    /**
+     * POM file of the publication.
+     *
+     * @return POM file property.
+     */
+    @InputFile
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getPomFile();
+
+    /**
+     * Signature of the POM file.
+     *
+     * @return POM signature file property. Not set if the publication is not signed.
+     */
+    @InputFile
+    @Optional
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getPomSignatureFile();
+
+    /**
+     * Gradle module metadata file of the publication. The file is not published if it does not exist
+     * (e.g. because generation of module metadata has been disabled).
+     *
+     * @return Module metadata file property.
+     */
+    @Internal
+    public abstract RegularFileProperty getModuleFile();
+
+    /**
+     * Signature of the Gradle module metadata file.
+     *
+     * @return Module metadata signature file property. Not set if the publication is not signed.
+     */
+    @Internal
+    public abstract RegularFileProperty getModuleSignatureFile();
+
+    /**
+     * Uploads the publication metadata.
+     */
+    @TaskAction
+    public void commit() {
+        final String repositoryUrl = PipelinedPublishing.resolveRepositoryUrl(getStaging(), getRepositoryUrl());
+        final String groupId = getGroupId().get();
+        final String artifactId = getArtifactId().get();
+        final String version = getVersion().get();
+        PipelinedPublishing.requireReleaseLayout(version);
+
+        final CThingRepoService service = getService().get();
+        final RepositoryTarget target = service.createTarget(repositoryUrl, getMirrorUrls().get());
+
+        try {
+            upload(service, target, MavenRepositoryLayout.artifactPath(groupId, artifactId, version, null, "pom"),
+                   getPomFile().get().getAsFile(), getPomSignatureFile().getAsFile().getOrNull());
+
+            final File moduleFile = getModuleFile().getAsFile().getOrNull();
+            if (moduleFile != null && moduleFile.isFile()) {
+                upload(service, target,
+                       MavenRepositoryLayout.artifactPath(groupId, artifactId, version, null, "module"),
+                       moduleFile, getModuleSignatureFile().getAsFile().getOrNull());
+            }
+
+            final String metadataPath = MavenRepositoryLayout.metadataPath(groupId, artifactId);
+            final Instant timestamp = Instant.now();
+            target.update(metadataPath, existing -> MavenMetadata.addVersion(existing, groupId, artifactId, version,
+                                                                             timestamp));
+        } catch (final IOException ex) {
+            throw new GradleException("Could not publish " + groupId + ':' + artifactId + ':' + version + " to "
+                                              + target.getLocation(), ex);
+        }
+
+        getLogger().info("Published {}:{}:{} to {}", groupId, artifactId, version, target.getLocation());
+    }
+
+    private static void upload(final CThingRepoService service, final RepositoryTarget target, final String path,
+                               final File file, @Nullable final File signatureFile) throws IOException {
+        target.upload(path, service.stage(file.toPath()));
+        if (signatureFile != null && signatureFile.isFile()) {
+            target.uploadWithoutChecksums(path + ".asc", signatureFile.toPath());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.DependencyArtifact;
+import org.gradle.api.artifacts.ModuleDependency;
+
+
+/**
+ * Selects the configurations that must be resolved to obtain all first level dependencies of interest.
+ * Configurations typically extend one another (e.g. {@code testRuntimeClasspath} extends
+ * {@code testImplementation}, which extends {@code implementation}), so many of them declare the same
+ * dependencies. Resolving a configuration is expensive, so the declared dependencies of each configuration,
+ * including those inherited through {@code extendsFrom}, are examined before any resolution is performed.
+ * The configurations to resolve are then chosen greedily: the configuration declaring the most dependencies
+ * not yet covered is selected until all declared dependencies are covered. Configurations that declare no
+ * dependencies of interest are never resolved.
+ */
+final class ConfigurationPruner {
+
+    private ConfigurationPruner() {
+    }
+
+    /**
+     * Selects the configurations whose union of declared dependencies covers the declared dependencies of
+     * all the specified configurations.
+     *
+     * @param configurations Resolvable configurations to consider
+     * @param relevant Selects the declared dependencies that must be covered
+     * @return Configurations to resolve in the order in which they were specified.
+     */
+    static List<Configuration> prune(final List<Configuration> configurations, final Predicate<Dependency> relevant) {
+        final List<Set<String>> declared = new ArrayList<>(configurations.size());
+        final Set<String> uncovered = new HashSet<>();
+        for (final Configuration configuration : configurations) {
+            final Set<String> dependencies = new HashSet<>();
+            for (final Dependency dependency : configuration.getAllDependencies()) {
+                if (relevant.test(dependency)) {
+                    dependencies.add(describe(dependency));
+                }
+            }
+            declared.add(dependencies);
+            uncovered.addAll(dependencies);
+        }
+
+        final boolean[] selected = new boolean[configurations.size()];
+        while (!uncovered.isEmpty()) {
+            int best = -1;
+            int bestCount = 0;
+            for (int i = 0; i < configurations.size(); i++) {
+                if (!selected[i]) {
+                    int count = 0;
+                    for (final String dependency : declared.get(i)) {
+                        if (uncovered.contains(dependency)) {
+                            count++;
+                        }
+                    }
+                    if (count > bestCount) {
+                        best = i;
+                        bestCount = count;
+                    }
+                }
+            }
+            selected[best] = true;
+            uncovered.removeAll(declared.get(best));
+        }
+
+        final List<Configuration> pruned = new ArrayList<>();
+        for (int i = 0; i < configurations.size(); i++) {
+            if (selected[i]) {
+                pruned.add(configurations.get(i));
+            }
+        }
+        return pruned;
+    }
+
+    /**
+     * Creates a description of a declared dependency which distinguishes it from any other declared
+     * dependency that could resolve to different artifacts (e.g. a dependency on the test fixtures of a
+     * module rather than the module itself).
+     *
+     * @param dependency Declared dependency to describe
+     * @return Description of the dependency.
+     */
+    static String describe(final Dependency dependency) {
+        final StringBuilder description = new StringBuilder();
+        description.append(dependency.getGroup()).append(':').append(dependency.getName()).append(':')
+                   .append(dependency.getVersion());
+        if (dependency instanceof ModuleDependency moduleDependency) {
+            final Set<String> artifacts = new TreeSet<>();
+            for (final DependencyArtifact artifact : moduleDependency.getArtifacts()) {
+                artifacts.add(artifact.getClassifier() + '@' + artifact.getExtension());
+            }
+            final Set<String> capabilities = new TreeSet<>();
+            moduleDependency.getCapabilitySelectors().forEach(selector -> capabilities.add(selector.getDisplayName()));
+            description.append(artifacts).append(capabilities);
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.IgnoreEmptyDirectories;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+
+
+/**
+ * Files installed by a Debian package into a directory. Files are installed at their path relative to the root
+ * of the file tree containing them (e.g. a file in a directory added to the files is installed at its path
+ * relative to that directory, and a single file is installed directly in the directory).
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class DebianPackageContent {
+
+    /**
+     * Absolute path of the directory into which the files are installed (e.g. {@code /usr/share/hello}).
+     *
+     * @return Installation directory property.
+     */
+    @Input
+    public abstract Property<String> getDirectory();
+
+    /**
+     * Files to install.
+     *
+     * @return Files to install.
+     */
+    @InputFiles
+    @IgnoreEmptyDirectories
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getFiles();
+
+    /**
+     * Whether the files are installed with execute permission. The permissions of the files themselves are
+     * not used, so that the package does not depend on the file system on which it is built.
+     *
+     * @return Executable property. Defaults to {@code false}.
+     */
+    @Input
+    public abstract Property<Boolean> getExecutable();
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * Writes a Debian package directly from the files it installs, in a single pass over their content and without
+ * staging them in a temporary directory. The package consists of an uncompressed {@code control.tar} archive,
+ * containing the {@code control} and {@code md5sums} files, followed by a gzip compressed {@code data.tar.gz}
+ * archive containing the installed files.
+ *
+ * <p>The control archive must precede the data archive in the package, but the {@code md5sums} file is not
+ * known until the installed files have been read. Because the control archive is uncompressed, its size can be
+ * determined from the paths of the installed files before they are read. Space for the control archive is
+ * therefore reserved in the package, the data archive is written after it while calculating the MD5 checksum
+ * of each file, and the control archive is then written into the reserved space.</p>
+ *
+ * <p>The package is reproducible. Entries are written in order of their path, all entries have the same fixed
+ * modification time and are owned by {@code root}, and the modes of entries do not depend on the file
+ * system.</p>
+ */
+final class DebianPackageWriter {
+
+    /** Modification time of all entries, in seconds since the epoch (i.e. 1980-01-01T00:00:00Z). */
+    static final long TIMESTAMP = 315_532_800L;
+
+    private static final byte[] AR_MAGIC = "!<arch>\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DEBIAN_BINARY = "2.0\n".getBytes(StandardCharsets.US_ASCII);
+    private static final int TAR_BLOCK_SIZE = 512;
+    private static final int TAR_NAME_SIZE = 100;
+    private static final int TAR_PREFIX_SIZE = 155;
+    private static final long MAX_TAR_SIZE = 077777777777L;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int DIRECTORY_MODE = 0755;
+    private static final int FILE_MODE = 0644;
+    private static final int EXECUTABLE_MODE = 0755;
+    private static final String PLACEHOLDER_MD5 = "0".repeat(32);
+
+    /**
+     * A file installed by a package.
+     */
+    static final class DataFile {
+
+        private final Path source;
+        private final long size;
+        private final boolean executable;
+
+        /**
+         * Constructs a file installed by a package.
+         *
+         * @param source File whose content is installed
+         * @param size Size of the file, in bytes
+         * @param executable Whether the file is installed with execute permission
+         */
+        DataFile(final Path source, final long size, final boolean executable) {
+            this.source = source;
+            this.size = size;
+            this.executable = executable;
+        }
+    }
+
+    private DebianPackageWriter() {
+    }
+
+    /**
+     * Calculates the value of the {@code Installed-Size} control field, which is the disk space used by the
+     * installed files and the directories containing them.
+     *
+     * @param files Files installed by the package, keyed by installed path relative to the root directory
+     *      (e.g. {@code usr/share/doc/hello/copyright})
+     * @return Estimated installed size, in KiB.
+     */
+    static long installedSize(final SortedMap<String, DataFile> files) {
+        long size = directories(files).size();
+        for (final DataFile file : files.values()) {
+            size += (file.size + 1023) / 1024;
+        }
+        return size;
+    }
+
+    /**
+     * Writes a Debian package.
+     *
+     * @param destination Package file to write
+     * @param control Content of the {@code control} file
+     * @param files Files installed by the package, keyed by installed path relative to the root directory
+     *      (e.g. {@code usr/share/doc/hello/copyright}). The directories containing the files are created by
+     *      the package.
+     * @throws IOException if a file could not be read or the package could not be written
+     */
+    static void write(final Path destination, final String control, final SortedMap<String, DataFile> files)
+            throws IOException {
+        final byte[] controlContent = control.getBytes(StandardCharsets.UTF_8);
+        final byte[] reserved = controlArchive(controlContent, md5sums(files.keySet(), Map.of()));
+
+        final Path parent = destination.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (FileChannel channel = FileChannel.open(destination, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING);
+             OutputStream output = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE)) {
+            output.write(AR_MAGIC);
+            output.write(arHeader("debian-binary", DEBIAN_BINARY.length));
+            output.write(DEBIAN_BINARY);
+
+            output.write(arHeader("control.tar", reserved.length));
+            output.flush();
+            final long controlPosition = channel.position();
+            output.write(reserved);
+
+            final long dataHeaderPosition = controlPosition + reserved.length;
+            output.write(arHeader("data.tar.gz", 0));
+            output.flush();
+            final long dataPosition = channel.position();
+            final Map<String, String> checksums;
+            try (GZIPOutputStream gzip = new GZIPOutputStream(new RetainedOutputStream(output), BUFFER_SIZE)) {
+                checksums = writeDataArchive(gzip, files);
+            }
+            output.flush();
+            final long dataSize = channel.position() - dataPosition;
+            if (dataSize % 2 != 0) {
+                output.write('\n');
+                output.flush();
+            }
+
+            channel.write(ByteBuffer.wrap(arHeader("data.tar.gz", dataSize)), dataHeaderPosition);
+            final byte[] controlArchive = controlArchive(controlContent, md5sums(files.keySet(), checksums));
+            if (controlArchive.length != reserved.length) {
+                throw new IllegalStateException("Control archive size changed from " + reserved.length + " to "
+                                                        + controlArchive.length + " bytes");
+            }
+            channel.write(ByteBuffer.wrap(controlArchive), controlPosition);
+        }
+    }
+
+    /**
+     * Writes the data archive, calculating the MD5 checksum of each file as it is copied into the archive.
+     *
+     * @return MD5 checksum of each file, keyed by installed path.
+     */
+    private static Map<String, String> writeDataArchive(final OutputStream output,
+                                                        final SortedMap<String, DataFile> files) throws IOException {
+        final SortedMap<String, DataFile> entries = new TreeMap<>();
+        for (final String directory : directories(files)) {
+            entries.put(directory + '/', null);
+        }
+        entries.putAll(files);
+
+        final Map<String, String> checksums = new TreeMap<>();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        writeTarHeader(output, "./", 0, DIRECTORY_MODE, '5');
+        for (final Map.Entry<String, DataFile> entry : entries.entrySet()) {
+            final DataFile file = entry.getValue();
+            if (file == null) {
+                writeTarHeader(output, "./" + entry.getKey(), 0, DIRECTORY_MODE, '5');
+                continue;
+            }
+
+            writeTarHeader(output, "./" + entry.getKey(), file.size, file.executable ? EXECUTABLE_MODE : FILE_MODE,
+                           '0');
+            final MessageDigest digest = Checksum.MD5.newDigest();
+            long remaining = file.size;
+            try (InputStream input = Files.newInputStream(file.source)) {
+                while (remaining > 0) {
+                    final int count = input.read(buffer, 0, (int)Math.min(buffer.length, remaining));
+                    if (count < 0) {
+                        break;
+                    }
+                    digest.update(buffer, 0, count);
+                    output.write(buffer, 0, count);
+                    remaining -= count;
+                }
+                if (remaining != 0 || input.read() >= 0) {
+                    throw new IOException("The file " + file.source + " changed while the package was being written");
+                }
+            }
+            writeTarPadding(output, file.size);
+            checksums.put(entry.getKey(), HexFormat.of().formatHex(digest.digest()));
+        }
+        output.write(new byte[2 * TAR_BLOCK_SIZE]);
+        return checksums;
+    }
+
+    /**
+     * Creates the control archive.
+     */
+    private static byte[] controlArchive(final byte[] control, final byte[] md5sums) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writeTarHeader(output, "./", 0, DIRECTORY_MODE, '5');
+        writeTarHeader(output, "./control", control.length, FILE_MODE, '0');
+        output.write(control);
+        writeTarPadding(output, control.length);
+        writeTarHeader(output, "./md5sums", md5sums.length, FILE_MODE, '0');
+        output.write(md5sums);
+        writeTarPadding(output, md5sums.length);
+        output.write(new byte[2 * TAR_BLOCK_SIZE]);
+        return output.toByteArray();
+    }
+
+    /**
+     * Creates the {@code md5sums} file. Files whose checksums are not specified are given a placeholder
+     * checksum of the same length, so that the size of the file can be determined before the checksums are known.
+     */
+    private static byte[] md5sums(final Iterable<String> paths, final Map<String, String> checksums) {
+        final StringBuilder md5sums = new StringBuilder();
+        for (final String path : paths) {
+            md5sums.append(checksums.getOrDefault(path, PLACEHOLDER_MD5)).append("  ").append(path).append('\n');
+        }
+        return md5sums.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Obtains the directories containing the specified files, excluding the root directory.
+     */
+    private static SortedSet<String> directories(final SortedMap<String, DataFile> files) {
+        final SortedSet<String> directories = new TreeSet<>();
+        for (final String path : files.keySet()) {
+            int slash = path.indexOf('/');
+            while (slash > 0) {
+                directories.add(path.substring(0, slash));
+                slash = path.indexOf('/', slash + 1);
+            }
+        }
+        return directories;
+    }
+
+    private static byte[] arHeader(final String name, final long size) {
+        final String header = String.format(Locale.ROOT, "%-16s%-12d%-6d%-6d%-8s%-10d`\n", name, TIMESTAMP, 0, 0,
+                                            "100644", size);
+        return header.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Writes a tar entry header in the POSIX ustar format. Names that cannot be represented using the ustar
+     * name and prefix fields are preceded by a GNU long name entry.
+     */
+    private static void writeTarHeader(final OutputStream output, final String name, final long size, final int mode,
+                                       final char type) throws IOException {
+        if (size > MAX_TAR_SIZE) {
+            throw new IOException("The size of " + name + " exceeds the maximum size of a file in a package");
+        }
+
+        final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        byte[] prefixBytes = new byte[0];
+        byte[] baseBytes = nameBytes;
+        if (nameBytes.length > TAR_NAME_SIZE) {
+            final int split = findPrefixSplit(nameBytes);
+            if (split > 0) {
+                prefixBytes = Arrays.copyOfRange(nameBytes, 0, split);
+                baseBytes = Arrays.copyOfRange(nameBytes, split + 1, nameBytes.length);
+            } else {
+                writeTarHeader(output, "././@LongLink", nameBytes.length + 1, FILE_MODE, 'L');
+                output.write(nameBytes);
+                output.write(0);
+                writeTarPadding(output, nameBytes.length + 1);
+                baseBytes = Arrays.copyOf(nameBytes, TAR_NAME_SIZE);
+            }
+        }
+
+        final byte[] header = new byte[TAR_BLOCK_SIZE];
+        System.arraycopy(baseBytes, 0, header, 0, baseBytes.length);
+        putOctal(header, 100, 8, mode);
+        putOctal(header, 108, 8, 0);
+        putOctal(header, 116, 8, 0);
+        putOctal(header, 124, 12, size);
+        putOctal(header, 136, 12, TIMESTAMP);
+        header[156] = (byte)type;
+        putString(header, 257, "ustar");
+        putString(header, 263, "00");
+        putString(header, 265, "root");
+        putString(header, 297, "root");
+        putOctal(header, 329, 8, 0);
+        putOctal(header, 337, 8, 0);
+        System.arraycopy(prefixBytes, 0, header, 345, prefixBytes.length);
+
+        Arrays.fill(header, 148, 156, (byte)' ');
+        int checksum = 0;
+        for (final byte b : header) {
+            checksum += b & 0xFF;
+        }
+        putOctal(header, 148, 7, checksum);
+        header[154] = 0;
+        output.write(header);
+    }
+
+    /**
+     * Finds the slash at which a long name can be split into the ustar prefix and name fields.
+     *
+     * @return Index of the slash, or -1 if the name cannot be split.
+     */
+    private static int findPrefixSplit(final byte[] name) {
+        // Directory names end with a slash, which must remain in the name field
+        final int last = name[name.length - 1] == '/' ? name.length - 2 : name.length - 1;
+        for (int i = Math.min(TAR_PREFIX_SIZE, last); i > 0; i--) {
+            if (name[i] == '/' && name.length - i - 1 <= TAR_NAME_SIZE && i < last) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void writeTarPadding(final OutputStream output, final long size) throws IOException {
+        final int remainder = (int)(size % TAR_BLOCK_SIZE);
+        if (remainder != 0) {
+            output.write(new byte[TAR_BLOCK_SIZE - remainder]);
+        }
+    }
+
+    private static void putOctal(final byte[] header, final int offset, final int length, final long value) {
+        putString(header, offset, String.format(Locale.ROOT, "%0" + (length - 1) + "o", value));
+    }
+
+    private static void putString(final byte[] header, final int offset, final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, offset, bytes.length);
+    }
+
+    /**
+     * A stream that does not close the underlying stream, so that a compressed archive can be completed without
+     * closing the package being written.
+     */
+    private static final class RetainedOutputStream extends FilterOutputStream {
+
+        RetainedOutputStream(final OutputStream output) {
+            super(output);
+        }
+
+        @Override
+        public void write(final byte[] buffer, final int offset, final int length) throws IOException {
+            this.out.write(buffer, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+/**
+ * Source from which the dependencies of a project on C Thing Software artifacts are determined.
+ */
+public enum DependencySource {
+
+    /**
+     * The configurations of the project and its build script are resolved and their direct dependencies
+     * are used. This may require downloading dependency metadata.
+     */
+    RESOLUTION,
+
+    /**
+     * The dependency lockfiles of the project ({@code gradle.lockfile} and {@code buildscript-gradle.lockfile})
+     * are read. No configurations are resolved, so no network access is required. Lockfiles record all
+     * locked modules, so transitive dependencies are included, and they do not record artifacts, so
+     * classifiers and extensions are omitted.
+     */
+    LOCKFILE
+}
@@ -0,0 +1,532 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Index of the C Thing Software modules that depend on each module, built from the {@code cthing.dependencies}
+ * and {@code cthing.gradle.plugins} properties of the POMs in a Maven repository directory (e.g. a local
+ * repository or a mirror of the C Thing Software repository). The index answers the question of which
+ * modules must be rebuilt if a module changes.
+ *
+ * <p>The index records the modification time and size of each POM. When the index is updated, the repository
+ * directory is walked and only POMs that have been added or changed are parsed, concurrently, using a
+ * streaming parser that stops reading once the properties have been found. A dependency on the marker artifact
+ * of a C Thing Software Gradle plugin is treated as a dependency on the module that publishes the plugin, as
+ * listed in its {@code cthing.gradle.plugins} property.</p>
+ *
+ * <p>The index is written in a compact binary form in which each distinct string (e.g. module, version or
+ * dependency coordinates) is stored once and referenced by number.</p>
+ */
+public final class DependentsIndex {
+
+    private static final int MAGIC = 0x43544449;        // "CTDI"
+    private static final int FORMAT_VERSION = 1;
+    private static final int BATCH_SIZE = 256;
+    private static final String DEPENDENCIES_PROPERTY = "cthing.dependencies";
+    private static final String PLUGINS_PROPERTY = "cthing.gradle.plugins";
+    private static final String MARKER_SUFFIX = ".gradle.plugin";
+
+    private static final XMLInputFactory XML_FACTORY = createXmlFactory();
+
+    /**
+     * Information extracted from a single POM.
+     */
+    static final class Entry {
+
+        private final String path;
+        private final long modified;
+        private final long size;
+        private final String module;
+        private final String version;
+        private final List<String> dependencies;
+        private final List<String> plugins;
+
+        Entry(final String path, final long modified, final long size, final String module, final String version,
+              final List<String> dependencies, final List<String> plugins) {
+            this.path = path;
+            this.modified = modified;
+            this.size = size;
+            this.module = module;
+            this.version = version;
+            this.dependencies = List.copyOf(dependencies);
+            this.plugins = List.copyOf(plugins);
+        }
+
+        /**
+         * Obtains the location of the POM relative to the repository root, using {@code /} as the separator.
+         *
+         * @return Location of the POM.
+         */
+        String getPath() {
+            return this.path;
+        }
+
+        /**
+         * Obtains the module published by the POM.
+         *
+         * @return Group and artifact identifier of the module (i.e. {@code group:artifact}).
+         */
+        String getModule() {
+            return this.module;
+        }
+
+        /**
+         * Obtains the version published by the POM.
+         *
+         * @return Version of the module.
+         */
+        String getVersion() {
+            return this.version;
+        }
+
+        /**
+         * Obtains the C Thing Software dependencies listed by the POM.
+         *
+         * @return Dependencies in Gradle notation.
+         */
+        List<String> getDependencies() {
+            return this.dependencies;
+        }
+
+        /**
+         * Obtains the Gradle plugins published by the module.
+         *
+         * @return Plugin identifiers.
+         */
+        List<String> getPlugins() {
+            return this.plugins;
+        }
+
+        /**
+         * Indicates whether the POM is unchanged since this information was extracted from it.
+         *
+         * @param attributes Current attributes of the POM
+         * @return {@code true} if the modification time and size of the POM are unchanged.
+         */
+        boolean isCurrent(final BasicFileAttributes attributes) {
+            return this.modified == attributes.lastModifiedTime().toMillis() && this.size == attributes.size();
+        }
+    }
+
+    private final Map<String, Entry> entries;
+    private final Map<String, SortedSet<String>> dependents;
+    private final int parsedCount;
+
+    private DependentsIndex(final Map<String, Entry> entries, final int parsedCount) {
+        this.entries = entries;
+        this.parsedCount = parsedCount;
+        this.dependents = new HashMap<>();
+
+        final Map<String, String> pluginModules = new HashMap<>();
+        for (final Entry entry : entries.values()) {
+            entry.plugins.forEach(plugin -> pluginModules.put(plugin, entry.module));
+        }
+
+        for (final Entry entry : entries.values()) {
+            final String coordinates = entry.module + ':' + entry.version;
+            for (final String dependency : entry.dependencies) {
+                final String module = toModule(dependency);
+                if (module == null) {
+                    continue;
+                }
+                this.dependents.computeIfAbsent(module, key -> new TreeSet<>()).add(coordinates);
+
+                final int colon = module.indexOf(':');
+                final String group = module.substring(0, colon);
+                if (module.substring(colon + 1).equals(group + MARKER_SUFFIX)) {
+                    final String pluginModule = pluginModules.get(group);
+                    if (pluginModule != null && !pluginModule.equals(entry.module)) {
+                        this.dependents.computeIfAbsent(pluginModule, key -> new TreeSet<>()).add(coordinates);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtains the number of POMs in the index.
+     *
+     * @return Number of POMs indexed.
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Obtains the number of POMs parsed when the index was last updated.
+     *
+     * @return Number of POMs added or changed since the previous update.
+     */
+    public int getParsedCount() {
+        return this.parsedCount;
+    }
+
+    /**
+     * Obtains the module versions whose POMs list a dependency on any version of the specified module.
+     *
+     * @param module Group and artifact identifier of the module (i.e. {@code group:artifact})
+     * @return Coordinates ({@code group:artifact:version}) of the dependent module versions, sorted.
+     */
+    public SortedSet<String> findDirectDependents(final String module) {
+        final SortedSet<String> result = this.dependents.get(module);
+        return result == null ? Collections.emptySortedSet() : Collections.unmodifiableSortedSet(result);
+    }
+
+    /**
+     * Obtains the modules that depend on the specified module, directly or through other modules. These are
+     * the modules that must be rebuilt if the specified module changes.
+     *
+     * @param module Group and artifact identifier of the module (i.e. {@code group:artifact})
+     * @return Group and artifact identifiers of the dependent modules, sorted. The specified module is not
+     *      included, even if it is part of a dependency cycle.
+     */
+    public SortedSet<String> findTransitiveDependents(final String module) {
+        final SortedSet<String> result = new TreeSet<>();
+        final Deque<String> pending = new ArrayDeque<>();
+        pending.add(module);
+        while (!pending.isEmpty()) {
+            for (final String coordinates : findDirectDependents(pending.remove())) {
+                final String dependent = coordinates.substring(0, coordinates.lastIndexOf(':'));
+                if (!dependent.equals(module) && result.add(dependent)) {
+                    pending.add(dependent);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Obtains the information indexed for a POM.
+     *
+     * @param path Location of the POM relative to the repository root, using {@code /} as the separator
+     * @return Information extracted from the POM, or {@code null} if the POM is not in the index.
+     */
+    @Nullable
+    Entry getEntry(final String path) {
+        return this.entries.get(path);
+    }
+
+    /**
+     * Creates an index of the specified repository, reusing the information in a previous index for POMs that
+     * have not changed.
+     *
+     * @param repository Root directory of the Maven repository
+     * @param previous Previous index of the repository, or {@code null} to parse every POM
+     * @param executor Executor used to parse the POMs concurrently
+     * @return Index of the repository.
+     * @throws IOException if the repository could not be read
+     */
+    public static DependentsIndex update(final Path repository, @Nullable final DependentsIndex previous,
+                                         final Executor executor) throws IOException {
+        final Map<String, Entry> entries = new TreeMap<>();
+        final List<PomFile> changed = new ArrayList<>();
+
+        if (Files.isDirectory(repository)) {
+            Files.walkFileTree(repository, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+                    final String name = file.getFileName().toString();
+                    if (attributes.isRegularFile() && name.endsWith(".pom")) {
+                        final String path = repository.relativize(file).toString().replace('\\', '/');
+                        final Entry existing = previous == null ? null : previous.entries.get(path);
+                        if (existing != null && existing.isCurrent(attributes)) {
+                            entries.put(path, existing);
+                        } else {
+                            changed.add(new PomFile(file, path, attributes));
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+
+        final List<CompletableFuture<List<Entry>>> batches = new ArrayList<>();
+        for (int start = 0; start < changed.size(); start += BATCH_SIZE) {
+            final List<PomFile> batch = changed.subList(start, Math.min(changed.size(), start + BATCH_SIZE));
+            batches.add(CompletableFuture.supplyAsync(() -> {
+                final List<Entry> parsed = new ArrayList<>();
+                for (final PomFile pomFile : batch) {
+                    final Entry entry = pomFile.parse();
+                    if (entry != null) {
+                        parsed.add(entry);
+                    }
+                }
+                return parsed;
+            }, executor));
+        }
+        for (final CompletableFuture<List<Entry>> batch : batches) {
+            batch.join().forEach(entry -> entries.put(entry.path, entry));
+        }
+
+        return new DependentsIndex(entries, changed.size());
+    }
+
+    /**
+     * Reads an index previously written using {@link #write(Path)}.
+     *
+     * @param indexFile File containing the index
+     * @return Index read from the file, or {@code null} if the file does not exist or was written in a
+     *      different format.
+     * @throws IOException if the file could not be read
+     */
+    @Nullable
+    public static DependentsIndex read(final Path indexFile) throws IOException {
+        if (!Files.isRegularFile(indexFile)) {
+            return null;
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+
+            final String[] strings = new String[input.readInt()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = input.readUTF();
+            }
+
+            final Map<String, Entry> entries = new TreeMap<>();
+            final int entryCount = input.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                final String path = strings[input.readInt()];
+                final long modified = input.readLong();
+                final long size = input.readLong();
+                final String module = strings[input.readInt()];
+                final String version = strings[input.readInt()];
+                final List<String> dependencies = readStrings(input, strings);
+                final List<String> plugins = readStrings(input, strings);
+                entries.put(path, new Entry(path, modified, size, module, version, dependencies, plugins));
+            }
+            return new DependentsIndex(entries, 0);
+        }
+    }
+
+    /**
+     * Writes the index to the specified file.
+     *
+     * @param indexFile File to which the index is written
+     * @throws IOException if the file could not be written
+     */
+    public void write(final Path indexFile) throws IOException {
+        final Map<String, Integer> stringIds = new HashMap<>();
+        final List<String> strings = new ArrayList<>();
+        for (final Entry entry : this.entries.values()) {
+            intern(stringIds, strings, entry.path);
+            intern(stringIds, strings, entry.module);
+            intern(stringIds, strings, entry.version);
+            entry.dependencies.forEach(dependency -> intern(stringIds, strings, dependency));
+            entry.plugins.forEach(plugin -> intern(stringIds, strings, plugin));
+        }
+
+        final Path parent = indexFile.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile)))) {
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeInt(strings.size());
+            for (final String string : strings) {
+                output.writeUTF(string);
+            }
+            output.writeInt(this.entries.size());
+            for (final Entry entry : this.entries.values()) {
+                output.writeInt(stringIds.get(entry.path));
+                output.writeLong(entry.modified);
+                output.writeLong(entry.size);
+                output.writeInt(stringIds.get(entry.module));
+                output.writeInt(stringIds.get(entry.version));
+                writeStrings(output, stringIds, entry.dependencies);
+                writeStrings(output, stringIds, entry.plugins);
+            }
+        }
+    }
+
+    /**
+     * Extracts the C Thing Software properties from a POM. Parsing stops at the end of the {@code properties}
+     * element so that the dependencies of large POMs are not read.
+     *
+     * @param input Content of the POM
+     * @return Values of the {@code cthing.dependencies} and {@code cthing.gradle.plugins} properties, keyed
+     *      by property name. Properties that are not present are omitted.
+     * @throws IOException if the POM could not be read or parsed
+     */
+    static Map<String, String> readProperties(final InputStream input) throws IOException {
+        final Map<String, String> properties = new HashMap<>();
+        try {
+            final XMLStreamReader reader = XML_FACTORY.createXMLStreamReader(input);
+            try {
+                int depth = 0;
+                boolean inProperties = false;
+                while (reader.hasNext()) {
+                    final int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        final String name = reader.getLocalName();
+                        if (depth == 2 && "properties".equals(name)) {
+                            inProperties = true;
+                        } else if (inProperties && depth == 3
+                                && (DEPENDENCIES_PROPERTY.equals(name) || PLUGINS_PROPERTY.equals(name))) {
+                            properties.put(name, reader.getElementText().trim());
+                            depth--;
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        if (inProperties && depth == 2) {
+                            break;
+                        }
+                        depth--;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException ex) {
+            throw new IOException(ex.getMessage(), ex);
+        }
+        return properties;
+    }
+
+    /**
+     * Obtains the module of a dependency in Gradle notation (i.e. {@code group:artifact:version[:classifier][@extension]}).
+     *
+     * @param dependency Dependency notation
+     * @return Group and artifact identifier of the module, or {@code null} if the notation is invalid.
+     */
+    @Nullable
+    static String toModule(final String dependency) {
+        final int first = dependency.indexOf(':');
+        if (first <= 0) {
+            return null;
+        }
+        int second = dependency.indexOf(':', first + 1);
+        if (second < 0) {
+            second = dependency.indexOf('@', first + 1);
+        }
+        final String module = second < 0 ? dependency : dependency.substring(0, second);
+        return module.length() > first + 1 ? module : null;
+    }
+
+    private static List<String> split(@Nullable final String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return List.of(value.trim().split("\\s+"));
+    }
+
+    private static void intern(final Map<String, Integer> ids, final List<String> strings, final String string) {
+        ids.computeIfAbsent(string, key -> {
+            strings.add(key);
+            return strings.size() - 1;
+        });
+    }
+
+    private static List<String> readStrings(final DataInputStream input, final String[] strings) throws IOException {
+        final int count = input.readInt();
+        final List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(strings[input.readInt()]);
+        }
+        return values;
+    }
+
+    private static void writeStrings(final DataOutputStream output, final Map<String, Integer> ids,
+                                     final List<String> values) throws IOException {
+        output.writeInt(values.size());
+        for (final String value : values) {
+            output.writeInt(ids.get(value));
+        }
+    }
+
+    private static XMLInputFactory createXmlFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * A POM found in the repository that must be parsed.
+     */
+    private static final class PomFile {
+
+        private final Path file;
+        private final String path;
+        private final BasicFileAttributes attributes;
+
+        PomFile(final Path file, final String path, final BasicFileAttributes attributes) {
+            this.file = file;
+            this.path = path;
+            this.attributes = attributes;
+        }
+
+        /**
+         * Extracts the information from the POM. The module and version are determined from the location of
+         * the POM in the repository (i.e. {@code group/path/artifact/version/artifact-version.pom}) rather than
+         * its content, because they may be inherited from a parent POM.
+         *
+         * @return Information extracted from the POM, or {@code null} if the POM is not in a repository
+         *      version directory or cannot be parsed.
+         */
+        @Nullable
+        Entry parse() {
+            final String[] segments = this.path.split("/");
+            if (segments.length < 4) {
+                return null;
+            }
+            final String version = segments[segments.length - 2];
+            final String artifact = segments[segments.length - 3];
+            if (!segments[segments.length - 1].startsWith(artifact + '-')) {
+                return null;
+            }
+            final String group = String.join(".", List.of(segments).subList(0, segments.length - 3));
+
+            final Map<String, String> properties;
+            try (InputStream input = new BufferedInputStream(Files.newInputStream(this.file))) {
+                properties = readProperties(input);
+            } catch (final IOException ex) {
+                // A POM that cannot be parsed (e.g. partially downloaded) has no usable properties
+                return new Entry(this.path, this.attributes.lastModifiedTime().toMillis(), this.attributes.size(),
+                                 group + ':' + artifact, version, List.of(), List.of());
+            }
+            return new Entry(this.path, this.attributes.lastModifiedTime().toMillis(), this.attributes.size(),
+                             group + ':' + artifact, version, split(properties.get(DEPENDENCIES_PROPERTY)),
+                             split(properties.get(PLUGINS_PROPERTY)));
+        }
+    }
+}
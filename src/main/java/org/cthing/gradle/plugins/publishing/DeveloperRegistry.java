@@ -0,0 +1,400 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.gradle.api.GradleException;
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * The organization publishing the artifacts and the developers who can be listed in the POMs, as read from
+ * the {@value #FILE} file of a build. The registry is a small subset of TOML, for example:
+ * <pre>
+ * [organization]
+ * name = "C Thing Software"
+ * url = "https://www.cthing.com"
+ *
+ * [developers.baron]
+ * name = "Baron Roberts"
+ * email = "baron@cthing.com"
+ * default = true
+ * </pre>
+ *
+ * <p>Developers with {@code default = true} are listed in every POM unless the developers of a POM action are
+ * changed. Other developers are added to a POM action by identifier using
+ * {@link CThingPomAction#addDeveloper(String)}. The registry is read once per build by the
+ * {@link DeveloperRegistryService}, so every POM action in the build refers to the same {@link PomDeveloper}
+ * instances.</p>
+ *
+ * <p>Only tables, comments and keys with basic string, literal string and boolean values are supported.</p>
+ */
+public final class DeveloperRegistry implements Serializable {
+
+    /** Location of the registry relative to the root directory of the build. */
+    public static final String FILE = "gradle/cthing-developers.toml";
+
+    /** Registry used when a build does not have a registry file. */
+    public static final DeveloperRegistry DEFAULT = new DeveloperRegistry(
+            CThingPomAction.ORGANIZATION_NAME, CThingPomAction.ORGANIZATION_URL,
+            Map.of("baron", new PomDeveloper("baron", "Baron Roberts", "baron@cthing.com")), Set.of("baron"));
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final String ORGANIZATION_TABLE = "organization";
+    private static final String DEVELOPERS_TABLE = "developers";
+
+    private final String organizationName;
+    private final String organizationUrl;
+    private final SortedMap<String, PomDeveloper> developers;
+    private final Set<PomDeveloper> defaultDevelopers;
+
+    /**
+     * Constructs a registry.
+     *
+     * @param organizationName Name of the organization publishing the artifacts
+     * @param organizationUrl Web site of the organization publishing the artifacts
+     * @param developers Developers keyed by identifier
+     * @param defaultIds Identifiers of the developers listed in every POM by default
+     */
+    DeveloperRegistry(final String organizationName, final String organizationUrl,
+                      final Map<String, PomDeveloper> developers, final Set<String> defaultIds) {
+        this.organizationName = organizationName;
+        this.organizationUrl = organizationUrl;
+        this.developers = Collections.unmodifiableSortedMap(new TreeMap<>(developers));
+
+        final Set<PomDeveloper> defaults = new TreeSet<>(CThingPomAction.DEVELOPER_ORDER);
+        defaultIds.forEach(id -> defaults.add(this.developers.get(id)));
+        this.defaultDevelopers = Collections.unmodifiableSet(defaults);
+    }
+
+    /**
+     * Obtains the name of the organization publishing the artifacts.
+     *
+     * @return Organization name.
+     */
+    public String getOrganizationName() {
+        return this.organizationName;
+    }
+
+    /**
+     * Obtains the web site of the organization publishing the artifacts.
+     *
+     * @return Organization URL.
+     */
+    public String getOrganizationUrl() {
+        return this.organizationUrl;
+    }
+
+    /**
+     * Obtains all developers in the registry.
+     *
+     * @return Developers keyed by identifier, sorted by identifier.
+     */
+    public SortedMap<String, PomDeveloper> getDevelopers() {
+        return this.developers;
+    }
+
+    /**
+     * Obtains the developers listed in every POM by default.
+     *
+     * @return Default developers sorted by identifier.
+     */
+    public Set<PomDeveloper> getDefaultDevelopers() {
+        return this.defaultDevelopers;
+    }
+
+    /**
+     * Obtains the developer with the specified identifier.
+     *
+     * @param id Identifier of the developer
+     * @return Developer with the identifier.
+     * @throws GradleException if there is no developer with the identifier in the registry
+     */
+    public PomDeveloper getDeveloper(final String id) {
+        final PomDeveloper developer = this.developers.get(id);
+        if (developer == null) {
+            throw new GradleException("Developer '" + id + "' is not in the developer registry " + FILE
+                                              + ". Known developers: " + String.join(", ", this.developers.keySet()));
+        }
+        return developer;
+    }
+
+    /**
+     * Parses the contents of a registry file. If the file does not contain an {@code organization} table, the
+     * organization of the {@link #DEFAULT} registry is used.
+     *
+     * @param lines Lines of the registry file
+     * @param source Description of the file for use in error messages
+     * @return Registry read from the file.
+     * @throws GradleException if the file is not a valid registry
+     */
+    static DeveloperRegistry parse(final List<String> lines, final String source) {
+        final Map<String, Map<String, Object>> tables = new TreeMap<>();
+        Map<String, Object> table = new HashMap<>();
+        tables.put("", table);
+
+        for (int i = 0; i < lines.size(); i++) {
+            final Parser parser = new Parser(lines.get(i), source, i + 1);
+            parser.skipWhitespace();
+            if (parser.atEnd()) {
+                continue;
+            }
+            if (parser.consume('[')) {
+                final StringBuilder name = new StringBuilder(parser.parseKey());
+                parser.skipWhitespace();
+                while (parser.consume('.')) {
+                    name.append('.').append(parser.parseKey());
+                    parser.skipWhitespace();
+                }
+                parser.expect(']');
+                parser.expectEnd();
+                if (tables.containsKey(name.toString())) {
+                    throw parser.error("Table [" + name + "] is defined more than once");
+                }
+                table = new HashMap<>();
+                tables.put(name.toString(), table);
+            } else {
+                final String key = parser.parseKey();
+                parser.skipWhitespace();
+                parser.expect('=');
+                parser.skipWhitespace();
+                final Object value = parser.parseValue();
+                parser.expectEnd();
+                if (table.put(key, value) != null) {
+                    throw parser.error("Key '" + key + "' is defined more than once");
+                }
+            }
+        }
+
+        String organizationName = DEFAULT.organizationName;
+        String organizationUrl = DEFAULT.organizationUrl;
+        final Map<String, PomDeveloper> developers = new HashMap<>();
+        final Set<String> defaultIds = new TreeSet<>();
+
+        for (final Map.Entry<String, Map<String, Object>> entry : tables.entrySet()) {
+            final String name = entry.getKey();
+            final Map<String, Object> values = entry.getValue();
+            if (name.isEmpty() || DEVELOPERS_TABLE.equals(name)) {
+                checkKeys(values, Set.of(), name, source);
+            } else if (ORGANIZATION_TABLE.equals(name)) {
+                checkKeys(values, Set.of("name", "url"), name, source);
+                organizationName = getString(values, "name", organizationName, name, source);
+                organizationUrl = getString(values, "url", organizationUrl, name, source);
+            } else if (name.startsWith(DEVELOPERS_TABLE + '.')) {
+                final String id = name.substring(DEVELOPERS_TABLE.length() + 1);
+                checkKeys(values, Set.of("name", "email", "default"), name, source);
+                developers.put(id, new PomDeveloper(id, getString(values, "name", null, name, source),
+                                                    getString(values, "email", null, name, source)));
+                final Object isDefault = values.getOrDefault("default", Boolean.FALSE);
+                if (!(isDefault instanceof Boolean)) {
+                    throw new GradleException(source + ": Key 'default' in table [" + name + "] must be a boolean");
+                }
+                if ((Boolean)isDefault) {
+                    defaultIds.add(id);
+                }
+            } else {
+                throw new GradleException(source + ": Unknown table [" + name + ']');
+            }
+        }
+
+        return new DeveloperRegistry(organizationName, organizationUrl, developers, defaultIds);
+    }
+
+    private static void checkKeys(final Map<String, Object> values, final Set<String> allowed, final String table,
+                                  final String source) {
+        for (final String key : values.keySet()) {
+            if (!allowed.contains(key)) {
+                throw new GradleException(source + ": Unknown key '" + key + "'"
+                                                  + (table.isEmpty() ? "" : " in table [" + table + ']'));
+            }
+        }
+    }
+
+    private static String getString(final Map<String, Object> values, final String key,
+                                    @Nullable final String defaultValue, final String table, final String source) {
+        final Object value = values.get(key);
+        if (value == null) {
+            if (defaultValue == null) {
+                throw new GradleException(source + ": Key '" + key + "' is required in table [" + table + ']');
+            }
+            return defaultValue;
+        }
+        if (!(value instanceof String str)) {
+            throw new GradleException(source + ": Key '" + key + "' in table [" + table + "] must be a string");
+        }
+        return str;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        final DeveloperRegistry that = (DeveloperRegistry)obj;
+        return Objects.equals(this.organizationName, that.organizationName)
+                && Objects.equals(this.organizationUrl, that.organizationUrl)
+                && Objects.equals(this.developers, that.developers)
+                && Objects.equals(this.defaultDevelopers, that.defaultDevelopers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.organizationName, this.organizationUrl, this.developers, this.defaultDevelopers);
+    }
+
+    /**
+     * Parses a single line of the registry.
+     */
+    private static final class Parser {
+
+        private final String line;
+        private final String source;
+        private final int lineNumber;
+        private int pos;
+
+        Parser(final String line, final String source, final int lineNumber) {
+            this.line = line;
+            this.source = source;
+            this.lineNumber = lineNumber;
+        }
+
+        boolean atEnd() {
+            return this.pos >= this.line.length() || this.line.charAt(this.pos) == '#';
+        }
+
+        void skipWhitespace() {
+            while (this.pos < this.line.length()
+                    && (this.line.charAt(this.pos) == ' ' || this.line.charAt(this.pos) == '\t')) {
+                this.pos++;
+            }
+        }
+
+        boolean consume(final char ch) {
+            if (this.pos < this.line.length() && this.line.charAt(this.pos) == ch) {
+                this.pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(final char ch) {
+            if (!consume(ch)) {
+                throw error("Expected '" + ch + "'");
+            }
+        }
+
+        void expectEnd() {
+            skipWhitespace();
+            if (!atEnd()) {
+                throw error("Unexpected text '" + this.line.substring(this.pos) + "'");
+            }
+        }
+
+        String parseKey() {
+            skipWhitespace();
+            if (this.pos < this.line.length()
+                    && (this.line.charAt(this.pos) == '"' || this.line.charAt(this.pos) == '\'')) {
+                return parseString();
+            }
+            final int start = this.pos;
+            while (this.pos < this.line.length() && isBareKeyChar(this.line.charAt(this.pos))) {
+                this.pos++;
+            }
+            if (start == this.pos) {
+                throw error("Expected a key");
+            }
+            return this.line.substring(start, this.pos);
+        }
+
+        Object parseValue() {
+            if (this.line.startsWith("true", this.pos)) {
+                this.pos += 4;
+                return Boolean.TRUE;
+            }
+            if (this.line.startsWith("false", this.pos)) {
+                this.pos += 5;
+                return Boolean.FALSE;
+            }
+            if (this.pos < this.line.length()
+                    && (this.line.charAt(this.pos) == '"' || this.line.charAt(this.pos) == '\'')) {
+                return parseString();
+            }
+            throw error("Expected a string or boolean value");
+        }
+
+        private String parseString() {
+            final char quote = this.line.charAt(this.pos++);
+            final StringBuilder value = new StringBuilder();
+            while (this.pos < this.line.length()) {
+                final char ch = this.line.charAt(this.pos++);
+                if (ch == quote) {
+                    return value.toString();
+                }
+                if (ch == '\\' && quote == '"') {
+                    value.append(parseEscape());
+                } else {
+                    value.append(ch);
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private String parseEscape() {
+            if (this.pos >= this.line.length()) {
+                throw error("Unterminated string");
+            }
+            final char ch = this.line.charAt(this.pos++);
+            return switch (ch) {
+                case '"' -> "\"";
+                case '\\' -> "\\";
+                case 'b' -> "\b";
+                case 't' -> "\t";
+                case 'n' -> "\n";
+                case 'f' -> "\f";
+                case 'r' -> "\r";
+                case 'u' -> parseUnicode(4);
+                case 'U' -> parseUnicode(8);
+                default -> throw error("Invalid escape sequence '\\" + ch + "'");
+            };
+        }
+
+        private String parseUnicode(final int length) {
+            if (this.pos + length > this.line.length()) {
+                throw error("Invalid unicode escape sequence");
+            }
+            try {
+                final int codePoint = Integer.parseInt(this.line.substring(this.pos, this.pos + length), 16);
+                this.pos += length;
+                return new String(Character.toChars(codePoint));
+            } catch (final IllegalArgumentException ex) {
+                throw error("Invalid unicode escape sequence");
+            }
+        }
+
+        private static boolean isBareKeyChar(final char ch) {
+            return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9')
+                    || ch == '-' || ch == '_';
+        }
+
+        GradleException error(final String message) {
+            return new GradleException(this.source + ':' + this.lineNumber + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ValueSource;
+import org.gradle.api.provider.ValueSourceParameters;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+
+/**
+ * Build service sharing the {@link DeveloperRegistry} of the build, so that the registry file is parsed once
+ * per build regardless of the number of projects publishing POMs, and every project refers to the same
+ * {@link PomDeveloper} instances. Projects obtain the registry using {@link #getRegistry(Project)}, which
+ * returns a provider backed by a {@link ValueSource}. The same provider is returned for every project whose
+ * build has the same root directory, and a value source provider obtains its value at most once. Because the
+ * registry is obtained from a value source, the configuration cache entry is discarded when the registry file
+ * is changed.
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class DeveloperRegistryService implements BuildService<BuildServiceParameters.None> {
+
+    /** Name under which the service is registered. */
+    public static final String NAME = "cthingDeveloperRegistry";
+
+    private final Map<Path, Provider<DeveloperRegistry>> providers = new ConcurrentHashMap<>();
+
+    /**
+     * Configuration cache input providing the contents of a registry file.
+     */
+    @SuppressWarnings("AbstractClassName")
+    public abstract static class Source implements ValueSource<DeveloperRegistry, Source.Params> {
+
+        /**
+         * Parameters of the value source.
+         */
+        public interface Params extends ValueSourceParameters {
+
+            /**
+             * Registry file.
+             *
+             * @return Registry file property.
+             */
+            RegularFileProperty getRegistryFile();
+        }
+
+        @Override
+        public DeveloperRegistry obtain() {
+            return read(getParameters().getRegistryFile().get().getAsFile().toPath());
+        }
+    }
+
+    /**
+     * Obtains the developer registry of the build containing the specified project. The registry is read from
+     * the {@value DeveloperRegistry#FILE} file in the root directory of the build.
+     *
+     * @param project Project whose registry is to be obtained
+     * @return Provider of the registry of the build.
+     */
+    public static Provider<DeveloperRegistry> getRegistry(final Project project) {
+        final DeveloperRegistryService service =
+                project.getGradle().getSharedServices().registerIfAbsent(NAME, DeveloperRegistryService.class).get();
+        final File registryFile = new File(project.getRootDir(), DeveloperRegistry.FILE);
+        return service.providers.computeIfAbsent(registryFile.toPath().toAbsolutePath().normalize(), path ->
+                project.getProviders().of(Source.class,
+                                          spec -> spec.getParameters().getRegistryFile().set(registryFile)));
+    }
+
+    /**
+     * Reads the specified registry file.
+     *
+     * @param registryFile Registry file to read
+     * @return Registry read from the file, or the {@link DeveloperRegistry#DEFAULT default registry} if the
+     *      file does not exist.
+     * @throws GradleException if the file cannot be read or is not a valid registry
+     */
+    static DeveloperRegistry read(final Path registryFile) {
+        if (!Files.isRegularFile(registryFile)) {
+            return DeveloperRegistry.DEFAULT;
+        }
+        try {
+            return DeveloperRegistry.parse(Files.readAllLines(registryFile, StandardCharsets.UTF_8),
+                                           registryFile.toString());
+        } catch (final IOException ex) {
+            throw new GradleException("Could not read developer registry " + registryFile, ex);
+        }
+    }
+}
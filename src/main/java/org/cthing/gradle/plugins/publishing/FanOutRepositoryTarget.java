@@ -0,0 +1,156 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Publishes to several repositories at once. Each operation is performed on all repositories concurrently.
+ * A {@link StagedFile} is read and checksummed once when it is staged. Its content is then read once more, in
+ * chunks, by the uploads to all repositories together (see {@link SharedFileContent}), so only a few chunks
+ * of a file are held in memory regardless of its size. The outcome of each operation is tracked per
+ * repository. If the operation fails on any repository, an exception is thrown that lists the repositories on
+ * which the operation succeeded and failed, with the individual failures attached as suppressed exceptions.
+ * Downloads are performed from the primary repository (i.e. the first repository).
+ */
+public class FanOutRepositoryTarget implements RepositoryTarget {
+
+    private final List<RepositoryTarget> targets;
+    private final ExecutorService executor;
+
+    /**
+     * Constructs a fan-out target.
+     *
+     * @param targets Repositories to publish to. The first repository is the primary repository.
+     * @param executor Executor used to perform the operations on each repository concurrently
+     */
+    public FanOutRepositoryTarget(final List<RepositoryTarget> targets, final ExecutorService executor) {
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("At least one repository must be specified");
+        }
+        this.targets = List.copyOf(targets);
+        this.executor = executor;
+    }
+
+    /**
+     * Obtains the repositories to which this target publishes.
+     *
+     * @return Repositories to which this target publishes.
+     */
+    public List<RepositoryTarget> getTargets() {
+        return this.targets;
+    }
+
+    @Override
+    public String getLocation() {
+        return this.targets.stream().map(RepositoryTarget::getLocation).collect(Collectors.joining(", "));
+    }
+
+    @Override
+    public void upload(final String path, final StagedFile file) throws IOException {
+        // The bodies are created before any upload starts, so that no upload can get ahead of the others
+        // before they have started reading the shared content
+        try (SharedFileContent content = new SharedFileContent(file)) {
+            final Map<RepositoryTarget, SharedFileContent.Body> bodies = new HashMap<>();
+            for (final RepositoryTarget target : this.targets) {
+                bodies.put(target, content.newBody());
+            }
+            forEachTarget(path, target -> {
+                try (SharedFileContent.Body body = bodies.get(target)) {
+                    target.upload(path, file.withContent(body));
+                }
+            });
+        }
+    }
+
+    @Override
+    public void upload(final String path, final byte[] content) throws IOException {
+        forEachTarget(path, target -> target.upload(path, content));
+    }
+
+    @Override
+    public void uploadWithoutChecksums(final String path, final Path file) throws IOException {
+        forEachTarget(path, target -> target.uploadWithoutChecksums(path, file));
+    }
+
+    @Override
+    public byte @Nullable [] download(final String path) throws IOException {
+        return this.targets.get(0).download(path);
+    }
+
+    @Override
+    @Nullable
+    public StoredFile getStoredFile(final String path) throws IOException {
+        return this.targets.get(0).getStoredFile(path);
+    }
+
+    /**
+     * Updates the file in each repository based on that repository's existing content, so that each
+     * repository's metadata reflects its own history.
+     */
+    @Override
+    public void update(final String path, final ContentUpdater updater) throws IOException {
+        forEachTarget(path, target -> target.update(path, updater));
+    }
+
+    @FunctionalInterface
+    private interface TargetOperation {
+        void perform(RepositoryTarget target) throws IOException;
+    }
+
+    /**
+     * Performs an operation on all repositories concurrently and waits for all of them to complete.
+     *
+     * @param path Location of the file being operated on, for use in messages
+     * @param operation Operation to perform
+     * @throws IOException if the operation failed on any repository
+     */
+    private void forEachTarget(final String path, final TargetOperation operation) throws IOException {
+        final Map<RepositoryTarget, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        for (final RepositoryTarget target : this.targets) {
+            futures.put(target, CompletableFuture.runAsync(() -> {
+                try {
+                    operation.perform(target);
+                } catch (final IOException ex) {
+                    throw new CompletionException(ex);
+                }
+            }, this.executor));
+        }
+
+        final List<String> succeeded = new ArrayList<>();
+        final Map<String, Throwable> failed = new LinkedHashMap<>();
+        for (final Map.Entry<RepositoryTarget, CompletableFuture<Void>> entry : futures.entrySet()) {
+            final String location = entry.getKey().getLocation();
+            try {
+                entry.getValue().join();
+                succeeded.add(location);
+            } catch (final CompletionException ex) {
+                failed.put(location, ex.getCause() == null ? ex : ex.getCause());
+            }
+        }
+
+        if (!failed.isEmpty()) {
+            final IOException ex = new IOException("Could not publish " + path + " to " + String.join(", ", failed.keySet())
+                                                           + (succeeded.isEmpty() ? "" : " (succeeded on "
+                                                                   + String.join(", ", succeeded) + ')'));
+            failed.values().forEach(ex::addSuppressed);
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * A Maven repository in a local or network mounted directory (i.e. a {@code file:} repository URL).
+ * Each file is first written under a temporary name in its destination directory, either by creating a
+ * hard link to the file being published or by copying it using {@link Files#copy(Path, Path,
+ * java.nio.file.CopyOption...)}, which delegates the copy to the operating system (and can clone the file
+ * on file systems supporting it, depending on the JDK). The file is then atomically renamed to its final
+ * name, so readers never observe a partially written file. Rather than forcing each file to storage as it
+ * is written, the files and directories modified are recorded and forced to storage together by
+ * {@link #sync()}, which is called before and after the repository metadata is updated. The files are
+ * forced to storage concurrently, which allows the file system to combine the resulting journal commits.
+ * Because the metadata is updated once per publication, each directory is forced to storage once
+ * regardless of the number of files published to it.
+ *
+ * <p>Hard links are only used if requested, because a hard linked file shares its content with the
+ * published build output. If a later build overwrites that output in place, rather than replacing it,
+ * the published file changes as well. If a hard link cannot be created (e.g. because the repository is
+ * on a different file system), files are copied.</p>
+ */
+public class FileRepositoryTarget implements RepositoryTarget {
+
+    private static final int SYNC_CONCURRENCY = 32;
+
+    private final Path root;
+    private final Executor executor;
+    private final AtomicBoolean linksSupported;
+    private final Set<Path> knownDirectories;
+    private final Set<Path> unsyncedFiles;
+    private final Set<Path> unsyncedDirectories;
+    private final Map<Path, Object> updateLocks;
+
+    /**
+     * Constructs a repository target.
+     *
+     * @param root Root directory of the repository
+     * @param linkFiles {@code true} to publish files by creating hard links to them where possible
+     * @param executor Executor used to force files to storage concurrently
+     */
+    public FileRepositoryTarget(final Path root, final boolean linkFiles, final Executor executor) {
+        this.root = root.toAbsolutePath().normalize();
+        this.executor = executor;
+        this.linksSupported = new AtomicBoolean(linkFiles);
+        this.knownDirectories = ConcurrentHashMap.newKeySet();
+        this.unsyncedFiles = ConcurrentHashMap.newKeySet();
+        this.unsyncedDirectories = ConcurrentHashMap.newKeySet();
+        this.updateLocks = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public String getLocation() {
+        return this.root.toUri().toString();
+    }
+
+    /**
+     * Obtains the root directory of the repository.
+     *
+     * @return Root directory of the repository.
+     */
+    public Path getRoot() {
+        return this.root;
+    }
+
+    /**
+     * Indicates whether files are published by creating hard links to them.
+     *
+     * @return {@code true} if hard links are requested and have not failed.
+     */
+    public boolean isLinkingFiles() {
+        return this.linksSupported.get();
+    }
+
+    /**
+     * Obtains the location of a file in the repository.
+     *
+     * @param path Location of the file relative to the repository root
+     * @return Location of the file.
+     * @throws IOException if the path refers to a location outside the repository
+     */
+    public Path resolve(final String path) throws IOException {
+        final Path resolved = this.root.resolve(path).normalize();
+        if (!resolved.startsWith(this.root) || resolved.equals(this.root)) {
+            throw new IOException("Path '" + path + "' is not within the repository " + getLocation());
+        }
+        return resolved;
+    }
+
+    @Override
+    public void upload(final String path, final StagedFile file) throws IOException {
+        publishFile(resolve(path), file.getPath());
+        writeChecksums(path, file.getChecksums());
+    }
+
+    @Override
+    public void upload(final String path, final byte[] content) throws IOException {
+        publishContent(resolve(path), content);
+        writeChecksums(path, Checksum.digest(content));
+    }
+
+    @Override
+    public void uploadWithoutChecksums(final String path, final Path file) throws IOException {
+        publishFile(resolve(path), file);
+    }
+
+    @Override
+    public byte @Nullable [] download(final String path) throws IOException {
+        try {
+            return Files.readAllBytes(resolve(path));
+        } catch (final NoSuchFileException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    @Nullable
+    public StoredFile getStoredFile(final String path) throws IOException {
+        try {
+            return new StoredFile(Files.size(resolve(path)), Map.of());
+        } catch (final NoSuchFileException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Calculates the checksums of the file as it is read, so that files of any size can be checked without
+     * holding their content in memory.
+     */
+    @Override
+    @Nullable
+    public Map<Checksum, String> computeChecksums(final String path) throws IOException {
+        final ChecksumCalculator calculator = new ChecksumCalculator();
+        final byte[] buffer = new byte[64 * 1024];
+        try (InputStream input = Files.newInputStream(resolve(path))) {
+            int count;
+            while ((count = input.read(buffer)) != -1) {
+                calculator.update(buffer, 0, count);
+            }
+        } catch (final NoSuchFileException ex) {
+            return null;
+        }
+        return calculator.finish();
+    }
+
+    /**
+     * Updates the file while holding a lock for it, so that concurrent updates from within the build are not
+     * lost. The files published before the update are forced to storage first, so that the updated metadata
+     * never refers to files that could be lost, and the updated file is forced to storage afterwards.
+     */
+    @Override
+    public void update(final String path, final ContentUpdater updater) throws IOException {
+        final Path destination = resolve(path);
+        synchronized (this.updateLocks.computeIfAbsent(destination, key -> new Object())) {
+            sync();
+            final byte[] existing = download(path);
+            upload(path, updater.update(existing));
+            sync();
+        }
+    }
+
+    /**
+     * Forces the content of all files published since the last call to storage, followed by the directories
+     * containing them. Directories are forced to storage on a best effort basis because not all platforms
+     * allow a directory to be opened (e.g. Windows).
+     *
+     * @throws IOException if a file could not be forced to storage
+     */
+    public void sync() throws IOException {
+        final List<Path> files = drain(this.unsyncedFiles);
+        final int batchSize = Math.max(1, (files.size() + SYNC_CONCURRENCY - 1) / SYNC_CONCURRENCY);
+        final List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int start = 0; start < files.size(); start += batchSize) {
+            final List<Path> batch = files.subList(start, Math.min(files.size(), start + batchSize));
+            batches.add(CompletableFuture.runAsync(() -> batch.forEach(FileRepositoryTarget::force), this.executor));
+        }
+        try {
+            CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).join();
+        } catch (final CompletionException ex) {
+            if (ex.getCause() instanceof UncheckedIOException uioe) {
+                throw uioe.getCause();
+            }
+            throw ex;
+        }
+        for (final Path directory : drain(this.unsyncedDirectories)) {
+            try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+                channel.force(true);
+            } catch (final IOException ignore) {
+                // Directories cannot be opened or forced on all platforms
+            }
+        }
+    }
+
+    /**
+     * Obtains the number of files and directories waiting to be forced to storage.
+     *
+     * @return Number of files and directories that have not been forced to storage.
+     */
+    int getUnsyncedCount() {
+        return this.unsyncedFiles.size() + this.unsyncedDirectories.size();
+    }
+
+    private static void force(final Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (final NoSuchFileException ignore) {
+            // Removed since it was published
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void writeChecksums(final String path, final Map<Checksum, String> checksums) throws IOException {
+        for (final Map.Entry<Checksum, String> entry : checksums.entrySet()) {
+            publishContent(resolve(path + '.' + entry.getKey().getExtension()),
+                           entry.getValue().getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    private void publishFile(final Path destination, final Path source) throws IOException {
+        final Path temp = createParent(destination);
+        try {
+            if (!link(source, temp)) {
+                Files.copy(source, temp);
+            }
+            rename(temp, destination);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void publishContent(final Path destination, final byte[] content) throws IOException {
+        final Path temp = createParent(destination);
+        try {
+            Files.write(temp, content, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            rename(temp, destination);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Attempts to create a hard link to the source file. Once a link cannot be created, no further attempts
+     * are made.
+     *
+     * @param source File to link to
+     * @param link Location of the link
+     * @return {@code true} if the link was created.
+     */
+    private boolean link(final Path source, final Path link) {
+        if (!this.linksSupported.get()) {
+            return false;
+        }
+        try {
+            Files.createLink(link, source);
+            return true;
+        } catch (final FileAlreadyExistsException ex) {
+            return false;
+        } catch (final IOException | UnsupportedOperationException | SecurityException ex) {
+            this.linksSupported.set(false);
+            return false;
+        }
+    }
+
+    private void rename(final Path temp, final Path destination) throws IOException {
+        Files.move(temp, destination, StandardCopyOption.ATOMIC_MOVE);
+        this.unsyncedFiles.add(destination);
+        this.unsyncedDirectories.add(destination.getParent());
+    }
+
+    /**
+     * Creates the directory that will contain a file, if it does not already exist, and obtains a unique
+     * temporary name in that directory under which the file is written before it is renamed. Newly created
+     * directories are recorded so that their parents are forced to storage.
+     *
+     * @param destination Location of the file
+     * @return Temporary location of the file.
+     * @throws IOException if the directory could not be created
+     */
+    private Path createParent(final Path destination) throws IOException {
+        final Path parent = destination.getParent();
+        if (!this.knownDirectories.contains(parent)) {
+            Path missing = parent;
+            while (missing != null && !Files.isDirectory(missing)) {
+                if (missing.getParent() != null) {
+                    this.unsyncedDirectories.add(missing.getParent());
+                }
+                missing = missing.getParent();
+            }
+            Files.createDirectories(parent);
+            this.knownDirectories.add(parent);
+        }
+        return parent.resolve('.' + destination.getFileName().toString() + '.' + UUID.randomUUID() + ".tmp");
+    }
+
+    private static List<Path> drain(final Set<Path> paths) {
+        final List<Path> drained = new ArrayList<>();
+        for (final Iterator<Path> iter = paths.iterator(); iter.hasNext(); ) {
+            drained.add(iter.next());
+            iter.remove();
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.FileType;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.LocalState;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.ChangeType;
+import org.gradle.work.FileChange;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+
+
+/**
+ * Generates a BOM whose {@code dependencyManagement} section lists the publications of every module in the
+ * build. The publications of each module are obtained from the file written by the module's
+ * {@link WritePublicationCoordinates} task. The coordinates read from each file are retained between
+ * builds so that when modules are added, removed or changed, only the files of those modules are read.
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class GenerateBom extends DefaultTask {
+
+    private static final Comparator<String> COORDINATES_ORDER =
+            Comparator.comparing((String coordinates) -> coordinates.split(":"), Arrays::compare);
+
+    /**
+     * Content of the BOM other than its managed dependencies (i.e. coordinates and C Thing Software
+     * information).
+     *
+     * @return POM model property.
+     */
+    @Input
+    public abstract Property<PomModel> getPom();
+
+    /**
+     * Files listing the coordinates of the publications of each module.
+     *
+     * @return Publication coordinate files.
+     */
+    @Incremental
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract ConfigurableFileCollection getModuleCoordinates();
+
+    /**
+     * File in which the coordinates read from each module file are retained between builds.
+     *
+     * @return State file property.
+     */
+    @LocalState
+    public abstract RegularFileProperty getStateFile();
+
+    /**
+     * File to which the BOM is written.
+     *
+     * @return Destination file property.
+     */
+    @OutputFile
+    public abstract RegularFileProperty getDestination();
+
+    /**
+     * Generates the BOM.
+     *
+     * @param inputChanges Module coordinate files changed since the last execution
+     */
+    @TaskAction
+    public void generate(final InputChanges inputChanges) {
+        final Path stateFile = getStateFile().get().getAsFile().toPath();
+        final PomModel model = getPom().get();
+
+        try {
+            final Map<String, List<String>> modules;
+            if (inputChanges.isIncremental() && Files.isRegularFile(stateFile)) {
+                modules = readState(stateFile);
+            } else {
+                modules = new TreeMap<>();
+            }
+
+            int changed = 0;
+            for (final FileChange change : inputChanges.getFileChanges(getModuleCoordinates())) {
+                if (change.getFileType() == FileType.DIRECTORY) {
+                    continue;
+                }
+                final File file = change.getFile();
+                if (change.getChangeType() == ChangeType.REMOVED) {
+                    modules.remove(file.getAbsolutePath());
+                } else {
+                    modules.put(file.getAbsolutePath(), Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+                }
+                changed++;
+            }
+            getLogger().info("Read the publications of {} of {} modules", changed, modules.size());
+
+            writeState(stateFile, modules);
+
+            for (final String coordinates : mergeCoordinates(modules)) {
+                final String[] parts = coordinates.split(":");
+                if (parts.length != 3) {
+                    throw new GradleException("Invalid publication coordinates '" + coordinates + "'");
+                }
+                model.addManagedDependency(new PomDependency(parts[0], parts[1], parts[2], null));
+            }
+
+            StreamingPomWriter.write(model, getDestination().get().getAsFile().toPath());
+        } catch (final IOException ex) {
+            throw new GradleException("Could not generate BOM " + model.getGroupId() + ':' + model.getArtifactId()
+                                              + ':' + model.getVersion(), ex);
+        }
+    }
+
+    /**
+     * Merges the coordinates of all modules into a single set, removing duplicates.
+     *
+     * @param modules Coordinates of the publications of each module
+     * @return Coordinates of all publications sorted by group, artifact and version.
+     */
+    static Set<String> mergeCoordinates(final Map<String, List<String>> modules) {
+        final Set<String> merged = new TreeSet<>(COORDINATES_ORDER);
+        modules.values().forEach(coordinates -> coordinates.forEach(coordinate -> {
+            final String trimmed = coordinate.trim();
+            if (!trimmed.isEmpty()) {
+                merged.add(trimmed);
+            }
+        }));
+        return merged;
+    }
+
+    /**
+     * Reads the coordinates of each module retained from the previous execution. Each line of the state file
+     * contains the path of a module file and one of its coordinates separated by a tab.
+     *
+     * @param stateFile File containing the retained coordinates
+     * @return Coordinates of the publications of each module, keyed by the absolute path of the module file.
+     * @throws IOException if the state file could not be read
+     */
+    static Map<String, List<String>> readState(final Path stateFile) throws IOException {
+        final Map<String, List<String>> modules = new TreeMap<>();
+        for (final String line : Files.readAllLines(stateFile, StandardCharsets.UTF_8)) {
+            final int separator = line.indexOf('\t');
+            if (separator > 0) {
+                modules.computeIfAbsent(line.substring(0, separator), key -> new ArrayList<>())
+                       .add(line.substring(separator + 1));
+            }
+        }
+        return modules;
+    }
+
+    /**
+     * Writes the coordinates of each module so that they can be reused by the next execution.
+     *
+     * @param stateFile File to which the coordinates are written
+     * @param modules Coordinates of the publications of each module, keyed by the absolute path of the
+     *      module file
+     * @throws IOException if the state file could not be written
+     */
+    static void writeState(final Path stateFile, final Map<String, List<String>> modules) throws IOException {
+        final Path parent = stateFile.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(stateFile, StandardCharsets.UTF_8)) {
+            for (final Map.Entry<String, List<String>> entry : modules.entrySet()) {
+                for (final String coordinates : entry.getValue()) {
+                    writer.write(entry.getKey());
+                    writer.write('\t');
+                    writer.write(coordinates);
+                    writer.newLine();
+                }
+            }
+        }
+    }
+}
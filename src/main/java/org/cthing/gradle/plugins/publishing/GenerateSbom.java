@@ -0,0 +1,95 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+
+/**
+ * Generates a CycloneDX software bill of materials for a publication using the {@link StreamingSbomWriter}.
+ * The dependency graph is supplied as the root of a resolution result, so the task reuses the resolution
+ * performed for the rest of the build and is up-to-date, or loaded from the build cache, whenever the
+ * resolved graph and the publication coordinates are unchanged.
+ */
+@SuppressWarnings("AbstractClassName")
+@CacheableTask
+public abstract class GenerateSbom extends DefaultTask {
+
+    /**
+     * Coordinates of the publication ({@code group:artifact:version}).
+     *
+     * @return Coordinates property.
+     */
+    @Input
+    public abstract Property<String> getComponent();
+
+    /**
+     * License of the publication.
+     *
+     * @return License property.
+     */
+    @Input
+    @Optional
+    public abstract Property<PomLicense> getLicense();
+
+    /**
+     * Name of the organization supplying the publication.
+     *
+     * @return Supplier name property.
+     */
+    @Input
+    public abstract Property<String> getSupplierName();
+
+    /**
+     * Web site of the organization supplying the publication.
+     *
+     * @return Supplier URL property.
+     */
+    @Input
+    public abstract Property<String> getSupplierUrl();
+
+    /**
+     * Root of the resolved dependency graph of the publication.
+     *
+     * @return Root component property.
+     */
+    @Input
+    public abstract Property<ResolvedComponentResult> getRootComponent();
+
+    /**
+     * File to which the bill of materials is written.
+     *
+     * @return Destination file property.
+     */
+    @OutputFile
+    public abstract RegularFileProperty getDestination();
+
+    /**
+     * Writes the bill of materials.
+     */
+    @TaskAction
+    public void generate() {
+        final String component = getComponent().get();
+        try {
+            StreamingSbomWriter.write(component, getLicense().getOrNull(), getSupplierName().get(),
+                                      getSupplierUrl().get(), getRootComponent().get(),
+                                      getDestination().get().getAsFile().toPath());
+        } catch (final IOException ex) {
+            throw new GradleException("Could not generate SBOM for " + component, ex);
+        }
+    }
+}
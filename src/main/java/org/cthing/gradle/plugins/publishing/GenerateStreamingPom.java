@@ -0,0 +1,56 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+
+/**
+ * Generates the POM for a publication using the {@link StreamingPomWriter}. The POM is written directly
+ * to disk without building an in-memory document, which greatly reduces the time and memory needed to
+ * generate POMs with thousands of dependencies.
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class GenerateStreamingPom extends DefaultTask {
+
+    /**
+     * Content of the POM.
+     *
+     * @return POM model property.
+     */
+    @Input
+    public abstract Property<PomModel> getPom();
+
+    /**
+     * File to which the POM is written.
+     *
+     * @return Destination file property.
+     */
+    @OutputFile
+    public abstract RegularFileProperty getDestination();
+
+    /**
+     * Writes the POM.
+     */
+    @TaskAction
+    public void generate() {
+        final PomModel model = getPom().get();
+        try {
+            StreamingPomWriter.write(model, getDestination().get().getAsFile().toPath());
+        } catch (final IOException ex) {
+            throw new GradleException("Could not generate POM for " + model.getGroupId() + ':'
+                                              + model.getArtifactId() + ':' + model.getVersion(), ex);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * State of a Git work tree as read by {@link GitRepository}.
+ */
+public final class GitMetadata implements Serializable {
+
+    /** Metadata of a directory that is not a Git work tree, or whose repository could not be read. */
+    public static final GitMetadata EMPTY = new GitMetadata(null, null, null);
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Nullable
+    private final String branch;
+
+    @Nullable
+    private final String commit;
+
+    @Nullable
+    private final String tag;
+
+    /**
+     * Constructs the metadata of a work tree.
+     *
+     * @param branch Name of the current branch, or {@code null} if the {@code HEAD} is detached
+     * @param commit Object identifier of the current commit, or {@code null} if there are no commits
+     * @param tag Name of the tag pointing at the current commit, or {@code null} if the commit is not tagged
+     */
+    public GitMetadata(@Nullable final String branch, @Nullable final String commit, @Nullable final String tag) {
+        this.branch = branch;
+        this.commit = commit;
+        this.tag = tag;
+    }
+
+    /**
+     * Obtains the name of the current branch (e.g. {@code master}).
+     *
+     * @return Name of the current branch, or {@code null} if the {@code HEAD} is detached.
+     */
+    @Nullable
+    public String getBranch() {
+        return this.branch;
+    }
+
+    /**
+     * Obtains the full object identifier of the current commit.
+     *
+     * @return Current commit, or {@code null} if there are no commits.
+     */
+    @Nullable
+    public String getCommit() {
+        return this.commit;
+    }
+
+    /**
+     * Obtains the name of the tag pointing at the current commit. If there are multiple tags, the last in
+     * lexical order is used.
+     *
+     * @return Name of the tag, or {@code null} if the current commit is not tagged.
+     */
+    @Nullable
+    public String getTag() {
+        return this.tag;
+    }
+
+    /**
+     * Obtains the value for the POM SCM {@code tag} element, which identifies the revision from which the
+     * artifacts were built.
+     *
+     * @return Name of the tag pointing at the current commit if there is one, otherwise the current commit.
+     *      If there are no commits, {@code null} is returned.
+     */
+    @Nullable
+    public String getScmTag() {
+        return this.tag == null ? this.commit : this.tag;
+    }
+
+    @Override
+    public String toString() {
+        return "branch=" + this.branch + ", commit=" + this.commit + ", tag=" + this.tag;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        final GitMetadata that = (GitMetadata)obj;
+        return Objects.equals(this.branch, that.branch)
+                && Objects.equals(this.commit, that.commit)
+                && Objects.equals(this.tag, that.tag);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.branch, this.commit, this.tag);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.gradle.api.Project;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ValueSource;
+import org.gradle.api.provider.ValueSourceParameters;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Build service sharing the state of the Git work trees containing the projects of the build, so that the
+ * repository is read once per build regardless of the number of projects publishing POMs. Projects obtain
+ * the state using {@link #getMetadata(Project)}, which returns a provider backed by a {@link ValueSource}.
+ * The same provider is returned for every project in a work tree, and a value source provider obtains its
+ * value at most once. Because the state is obtained from a value source, the configuration cache checks the
+ * state of the work tree at the start of each build and discards the cache entry when, for example, a commit
+ * has been made since it was stored.
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class GitMetadataService implements BuildService<BuildServiceParameters.None> {
+
+    /** Name under which the service is registered. */
+    public static final String NAME = "cthingGitMetadata";
+
+    private final Map<Path, Provider<GitMetadata>> providers = new ConcurrentHashMap<>();
+
+    /**
+     * Configuration cache input providing the state of a Git work tree.
+     */
+    @SuppressWarnings("AbstractClassName")
+    public abstract static class Source implements ValueSource<GitMetadata, Source.Params> {
+
+        /**
+         * Parameters of the value source.
+         */
+        public interface Params extends ValueSourceParameters {
+
+            /**
+             * Root directory of the work tree.
+             *
+             * @return Work tree directory property.
+             */
+            DirectoryProperty getWorkTree();
+        }
+
+        @Override
+        @Nullable
+        public GitMetadata obtain() {
+            return read(getParameters().getWorkTree().get().getAsFile().toPath());
+        }
+    }
+
+    /**
+     * Obtains the state of the Git work tree rooted at the root directory of the build containing the
+     * specified project.
+     *
+     * @param project Project whose work tree is to be read
+     * @return Provider of the state of the work tree. The provider has no value if the root directory of the
+     *      build is not a Git work tree.
+     */
+    public static Provider<GitMetadata> getMetadata(final Project project) {
+        final GitMetadataService service =
+                project.getGradle().getSharedServices().registerIfAbsent(NAME, GitMetadataService.class).get();
+        final File rootDir = project.getRootDir();
+        return service.providers.computeIfAbsent(rootDir.toPath().toAbsolutePath().normalize(), path ->
+                project.getProviders().of(Source.class, spec -> spec.getParameters().getWorkTree().set(rootDir)));
+    }
+
+    /**
+     * Reads the state of the specified Git work tree.
+     *
+     * @param workTree Root directory of the work tree
+     * @return State of the work tree, or {@code null} if the directory is not a Git work tree or its
+     *      repository cannot be read.
+     */
+    @Nullable
+    static GitMetadata read(final Path workTree) {
+        final GitRepository repository = GitRepository.locate(workTree);
+        if (repository == null) {
+            return null;
+        }
+        final GitMetadata metadata = repository.readMetadata();
+        return GitMetadata.EMPTY.equals(metadata) ? null : metadata;
+    }
+}
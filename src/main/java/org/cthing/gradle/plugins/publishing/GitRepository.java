@@ -0,0 +1,324 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.InflaterInputStream;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Reads the state of a Git repository directly from its files, without running {@code git}. The
+ * {@code HEAD} file is followed to the current branch and commit, which is resolved from the loose refs
+ * and the {@code packed-refs} file. A work tree created using {@code git worktree add} (or a submodule)
+ * contains a {@code .git} file referring to its private Git directory, which in turn refers to the
+ * common directory of the repository containing the shared refs.
+ *
+ * <p>The tags pointing at the current commit are found from the loose tag refs and the {@code packed-refs}
+ * file. An annotated tag refers to a tag object rather than a commit. Annotated tags in the
+ * {@code packed-refs} file are followed by the commit they refer to, and loose tag objects are read to
+ * find their commit. Annotated tags whose objects are only stored in a pack file, and repositories using
+ * the reftable format, are not supported.</p>
+ */
+final class GitRepository {
+
+    private static final String GITDIR_PREFIX = "gitdir:";
+    private static final String REF_PREFIX = "ref:";
+    private static final String TAGS_PREFIX = "refs/tags/";
+    private static final Pattern OBJECT_ID_REGEX = Pattern.compile("[0-9a-f]{40}|[0-9a-f]{64}");
+    private static final int MAX_INDIRECTION = 5;
+
+    private final Path gitDir;
+    private final Path commonDir;
+
+    @Nullable
+    private Map<String, String> packedRefs;
+
+    @Nullable
+    private Map<String, String> peeledRefs;
+
+    private GitRepository(final Path gitDir, final Path commonDir) {
+        this.gitDir = gitDir;
+        this.commonDir = commonDir;
+    }
+
+    /**
+     * Locates the Git repository of the specified work tree.
+     *
+     * @param workTree Root directory of the work tree
+     * @return Repository of the work tree, or {@code null} if the directory is not the root of a Git work tree.
+     */
+    @Nullable
+    static GitRepository locate(final Path workTree) {
+        try {
+            final Path dotGit = workTree.resolve(".git");
+            final Path gitDir;
+            if (Files.isDirectory(dotGit)) {
+                gitDir = dotGit;
+            } else if (Files.isRegularFile(dotGit)) {
+                final String content = Files.readString(dotGit, StandardCharsets.UTF_8).trim();
+                if (!content.startsWith(GITDIR_PREFIX)) {
+                    return null;
+                }
+                gitDir = workTree.resolve(content.substring(GITDIR_PREFIX.length()).trim()).normalize();
+            } else {
+                return null;
+            }
+
+            final String commonPath = readFile(gitDir.resolve("commondir"));
+            final Path commonDir = commonPath == null ? gitDir : gitDir.resolve(commonPath).normalize();
+            return new GitRepository(gitDir, commonDir);
+        } catch (final IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Obtains the Git directory of the work tree, which contains its {@code HEAD} file.
+     *
+     * @return Git directory of the work tree.
+     */
+    Path getGitDir() {
+        return this.gitDir;
+    }
+
+    /**
+     * Obtains the common directory of the repository, which contains the shared refs and configuration.
+     * For the main work tree, this is the same as the Git directory.
+     *
+     * @return Common directory of the repository.
+     */
+    Path getCommonDir() {
+        return this.commonDir;
+    }
+
+    /**
+     * Obtains the location of the repository configuration file.
+     *
+     * @return Location of the {@code config} file.
+     */
+    Path getConfigFile() {
+        return this.commonDir.resolve("config");
+    }
+
+    /**
+     * Reads the current branch, commit and tag of the work tree.
+     *
+     * @return State of the work tree. If the repository cannot be read, empty metadata is returned.
+     */
+    GitMetadata readMetadata() {
+        try {
+            final String head = readFile(this.gitDir.resolve("HEAD"));
+            if (head == null) {
+                return GitMetadata.EMPTY;
+            }
+
+            final String branch = head.startsWith(REF_PREFIX) ? head.substring(REF_PREFIX.length()).trim() : null;
+            final String commit = resolve(head);
+            if (commit == null) {
+                return new GitMetadata(shortBranch(branch), null, null);
+            }
+
+            final List<String> tags = findTags(commit);
+            return new GitMetadata(shortBranch(branch), commit, tags.isEmpty() ? null : tags.get(tags.size() - 1));
+        } catch (final IOException ex) {
+            return GitMetadata.EMPTY;
+        }
+    }
+
+    /**
+     * Resolves the specified ref to an object identifier, following symbolic refs.
+     *
+     * @param ref Contents of a ref (i.e. an object identifier or {@code ref: <name>}), or the name of a ref
+     * @return Object identifier, or {@code null} if the ref does not exist.
+     * @throws IOException if the repository could not be read
+     */
+    @Nullable
+    String resolve(final String ref) throws IOException {
+        String current = ref.trim();
+        for (int i = 0; i <= MAX_INDIRECTION; i++) {
+            if (OBJECT_ID_REGEX.matcher(current).matches()) {
+                return current;
+            }
+
+            final String name = current.startsWith(REF_PREFIX) ? current.substring(REF_PREFIX.length()).trim() : current;
+            final String loose = readLooseRef(name);
+            if (loose != null) {
+                current = loose;
+            } else {
+                return getPackedRefs().get(name);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the tags pointing at the specified commit, either directly or through an annotated tag object.
+     *
+     * @param commit Object identifier of the commit
+     * @return Names of the tags pointing at the commit, without the {@code refs/tags/} prefix, sorted.
+     * @throws IOException if the repository could not be read
+     */
+    List<String> findTags(final String commit) throws IOException {
+        final Map<String, String> tags = new HashMap<>();
+        getPackedRefs().forEach((name, id) -> {
+            if (name.startsWith(TAGS_PREFIX)) {
+                tags.put(name, id);
+            }
+        });
+
+        final Path tagsDir = this.commonDir.resolve(TAGS_PREFIX);
+        if (Files.isDirectory(tagsDir)) {
+            final List<Path> files;
+            try (Stream<Path> walk = Files.walk(tagsDir)) {
+                files = walk.filter(Files::isRegularFile).toList();
+            }
+            for (final Path file : files) {
+                final String id = readFile(file);
+                if (id != null && OBJECT_ID_REGEX.matcher(id).matches()) {
+                    tags.put(this.commonDir.relativize(file).toString().replace('\\', '/'), id);
+                }
+            }
+        }
+
+        final SortedSet<String> matches = new TreeSet<>();
+        for (final Map.Entry<String, String> entry : tags.entrySet()) {
+            final String name = entry.getKey();
+            // A loose ref replaces a packed ref of the same name, along with its peeled commit
+            final String peeled = entry.getValue().equals(getPackedRefs().get(name)) ? getPeeledRefs().get(name) : null;
+            if (commit.equals(entry.getValue()) || commit.equals(peeled) || commit.equals(peelLoose(entry.getValue()))) {
+                matches.add(name.substring(TAGS_PREFIX.length()));
+            }
+        }
+        return List.copyOf(matches);
+    }
+
+    /**
+     * Follows a chain of loose annotated tag objects to the object they refer to.
+     *
+     * @param id Object identifier of the tag object
+     * @return Identifier of the object referred to, or {@code null} if the object is not a loose tag object.
+     * @throws IOException if the object could not be read
+     */
+    @Nullable
+    private String peelLoose(final String id) throws IOException {
+        String current = id;
+        for (int i = 0; i <= MAX_INDIRECTION; i++) {
+            final Path object = this.commonDir.resolve("objects")
+                                              .resolve(current.substring(0, 2))
+                                              .resolve(current.substring(2));
+            final String content;
+            try (InputStream input = new InflaterInputStream(Files.newInputStream(object))) {
+                content = readHeader(input);
+            } catch (final NoSuchFileException ex) {
+                // The object referred to by a loose tag object may be packed
+                return i == 0 ? null : current;
+            }
+
+            // A tag object starts with "tag <size>\0object <id>\n"
+            final String objectPrefix = "\0object ";
+            final int idStart = content.indexOf(objectPrefix) + objectPrefix.length();
+            final int idEnd = content.indexOf('\n', idStart);
+            if (!content.startsWith("tag ") || idStart < objectPrefix.length() || idEnd < 0) {
+                return i == 0 ? null : current;
+            }
+            current = content.substring(idStart, idEnd);
+        }
+        return null;
+    }
+
+    private static String readHeader(final InputStream input) throws IOException {
+        final ByteArrayOutputStream header = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[256];
+        int count;
+        while (header.size() < 512 && (count = input.read(buffer)) != -1) {
+            header.write(buffer, 0, count);
+        }
+        return header.toString(StandardCharsets.UTF_8);
+    }
+
+    @Nullable
+    private String readLooseRef(final String name) throws IOException {
+        final String value = readFile(this.gitDir.resolve(name));
+        if (value != null || this.gitDir.equals(this.commonDir)) {
+            return value;
+        }
+        return readFile(this.commonDir.resolve(name));
+    }
+
+    private Map<String, String> getPackedRefs() throws IOException {
+        if (this.packedRefs == null) {
+            readPackedRefs();
+        }
+        return this.packedRefs;
+    }
+
+    private Map<String, String> getPeeledRefs() throws IOException {
+        if (this.peeledRefs == null) {
+            readPackedRefs();
+        }
+        return this.peeledRefs;
+    }
+
+    /**
+     * Reads the {@code packed-refs} file. Each line contains an object identifier and the name of a ref.
+     * A line starting with {@code ^} contains the commit referred to by the annotated tag on the preceding line.
+     *
+     * @throws IOException if the file could not be read
+     */
+    private void readPackedRefs() throws IOException {
+        final Map<String, String> refs = new HashMap<>();
+        final Map<String, String> peeled = new HashMap<>();
+        final String content = readFile(this.commonDir.resolve("packed-refs"));
+        if (content != null) {
+            String previous = null;
+            for (final String line : content.split("\n")) {
+                if (line.startsWith("^") && previous != null) {
+                    peeled.put(previous, line.substring(1).trim());
+                } else if (!line.isEmpty() && !line.startsWith("#")) {
+                    final int space = line.indexOf(' ');
+                    if (space > 0) {
+                        previous = line.substring(space + 1).trim();
+                        refs.put(previous, line.substring(0, space));
+                    }
+                }
+            }
+        }
+        this.packedRefs = refs;
+        this.peeledRefs = peeled;
+    }
+
+    @Nullable
+    private static String shortBranch(@Nullable final String ref) {
+        if (ref == null) {
+            return null;
+        }
+        return ref.startsWith("refs/heads/") ? ref.substring("refs/heads/".length()) : ref;
+    }
+
+    @Nullable
+    private static String readFile(final Path file) throws IOException {
+        try {
+            return Files.isRegularFile(file) ? Files.readString(file, StandardCharsets.UTF_8).trim() : null;
+        } catch (final NoSuchFileException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Flow;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * A Maven repository accessed using HTTP. All requests are made through the {@link CThingRepoService} so
+ * that they share its HTTP client and concurrency limit.
+ */
+public class HttpRepositoryTarget implements RepositoryTarget {
+
+    private static final String CHECKSUM_HEADER_PREFIX = "X-Checksum-";
+    private static final Pattern SHA1_ETAG = Pattern.compile("\"?\\{SHA1\\{([0-9a-fA-F]{40})}}\"?");
+
+    private final CThingRepoService service;
+    private final String baseUrl;
+
+    /**
+     * Constructs a repository target.
+     *
+     * @param service Service used to make requests to the repository
+     * @param baseUrl URL of the root of the repository
+     */
+    public HttpRepositoryTarget(final CThingRepoService service, final String baseUrl) {
+        this.service = service;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + '/';
+    }
+
+    @Override
+    public String getLocation() {
+        return this.baseUrl;
+    }
+
+    /**
+     * Obtains the URI of a file in the repository.
+     *
+     * @param path Location of the file relative to the repository root
+     * @return URI of the file.
+     */
+    public URI resolve(final String path) {
+        return URI.create(this.baseUrl + path);
+    }
+
+    @Override
+    public void upload(final String path, final StagedFile file) throws IOException {
+        put(path, file.getBodyPublisher());
+        uploadChecksums(path, file.getChecksums());
+    }
+
+    @Override
+    public void upload(final String path, final byte[] content) throws IOException {
+        put(path, HttpRequest.BodyPublishers.ofByteArray(content));
+        uploadChecksums(path, Checksum.digest(content));
+    }
+
+    @Override
+    public void uploadWithoutChecksums(final String path, final Path file) throws IOException {
+        put(path, HttpRequest.BodyPublishers.ofFile(file));
+    }
+
+    @Override
+    public byte @Nullable [] download(final String path) throws IOException {
+        final HttpRequest request = this.service.newRequest(resolve(path)).GET().build();
+        final HttpResponse<byte[]> response = send(request, HttpResponse.BodyHandlers.ofByteArray());
+        final int status = response.statusCode();
+        if (status == 404) {
+            return null;
+        }
+        if (status >= 300) {
+            throw new IOException("Could not download " + request.uri() + " (HTTP status " + status + ")");
+        }
+        return response.body();
+    }
+
+    /**
+     * Obtains the size and checksums of the file using a {@code HEAD} request. The size is obtained from the
+     * {@code Content-Length} header. Checksums are obtained from {@code X-Checksum-*} headers
+     * (e.g. {@code X-Checksum-Sha1}, as sent by Artifactory and Nexus 3) and from an {@code ETag} header of
+     * the form {@code {SHA1{...}}} (as sent by Nexus 2).
+     */
+    @Override
+    @Nullable
+    public StoredFile getStoredFile(final String path) throws IOException {
+        final HttpRequest request = this.service.newRequest(resolve(path))
+                                                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                                                .build();
+        final HttpResponse<Void> response = send(request, HttpResponse.BodyHandlers.discarding());
+        final int status = response.statusCode();
+        if (status == 404) {
+            return null;
+        }
+        if (status >= 300) {
+            throw new IOException("Could not obtain information about " + request.uri() + " (HTTP status "
+                                          + status + ")");
+        }
+
+        final HttpHeaders headers = response.headers();
+        final Map<Checksum, String> checksums = new EnumMap<>(Checksum.class);
+        for (final Checksum checksum : Checksum.values()) {
+            headers.firstValue(CHECKSUM_HEADER_PREFIX + checksum.getExtension())
+                   .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                   .filter(value -> !value.isEmpty())
+                   .ifPresent(value -> checksums.put(checksum, value));
+        }
+        headers.firstValue("ETag").ifPresent(etag -> {
+            final Matcher matcher = SHA1_ETAG.matcher(etag.trim());
+            if (matcher.matches()) {
+                checksums.putIfAbsent(Checksum.SHA1, matcher.group(1).toLowerCase(Locale.ROOT));
+            }
+        });
+        return new StoredFile(headers.firstValueAsLong("Content-Length").orElse(-1), checksums);
+    }
+
+    /**
+     * Calculates the checksums of the file as it is received, so that files of any size can be checked
+     * without holding their content in memory.
+     */
+    @Override
+    @Nullable
+    public Map<Checksum, String> computeChecksums(final String path) throws IOException {
+        final HttpRequest request = this.service.newRequest(resolve(path)).GET().build();
+        final HttpResponse<@Nullable Map<Checksum, String>> response = send(request, info -> info.statusCode() < 300
+                ? HttpResponse.BodySubscribers.fromSubscriber(new ChecksumSubscriber(), ChecksumSubscriber::getChecksums)
+                : HttpResponse.BodySubscribers.replacing(null));
+        final int status = response.statusCode();
+        if (status == 404) {
+            return null;
+        }
+        if (status >= 300) {
+            throw new IOException("Could not download " + request.uri() + " (HTTP status " + status + ")");
+        }
+        return response.body();
+    }
+
+    /**
+     * Publishes the checksum sidecar files for a file.
+     *
+     * @param path Location of the file whose checksums are published
+     * @param checksums Checksums of the file
+     * @throws IOException if a checksum could not be published
+     */
+    private void uploadChecksums(final String path, final Map<Checksum, String> checksums) throws IOException {
+        for (final Map.Entry<Checksum, String> entry : checksums.entrySet()) {
+            put(path + '.' + entry.getKey().getExtension(),
+                HttpRequest.BodyPublishers.ofString(entry.getValue(), StandardCharsets.US_ASCII));
+        }
+    }
+
+    private void put(final String path, final HttpRequest.BodyPublisher body) throws IOException {
+        final HttpRequest request = this.service.newRequest(resolve(path)).PUT(body).build();
+        final HttpResponse<Void> response = send(request, HttpResponse.BodyHandlers.discarding());
+        final int status = response.statusCode();
+        if (status >= 300) {
+            throw new IOException("Could not upload " + request.uri() + " (HTTP status " + status + ")");
+        }
+    }
+
+    private <T> HttpResponse<T> send(final HttpRequest request, final HttpResponse.BodyHandler<T> handler)
+            throws IOException {
+        try {
+            return this.service.send(request, handler);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while accessing " + request.uri(), ex);
+        }
+    }
+
+    /**
+     * Calculates checksums of a response body as it is received.
+     */
+    private static final class ChecksumSubscriber implements Flow.Subscriber<List<ByteBuffer>> {
+
+        private final ChecksumCalculator calculator = new ChecksumCalculator();
+        @Nullable
+        private Map<Checksum, String> checksums;
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(final List<ByteBuffer> buffers) {
+            buffers.forEach(this.calculator::update);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            // The error is reported by the HTTP client
+        }
+
+        @Override
+        public void onComplete() {
+            this.checksums = this.calculator.finish();
+        }
+
+        /**
+         * Obtains the calculated checksums.
+         *
+         * @return Checksums of the response body, or {@code null} if the body was not completely received.
+         */
+        @Nullable
+        Map<Checksum, String> getChecksums() {
+            return this.checksums;
+        }
+    }
+}
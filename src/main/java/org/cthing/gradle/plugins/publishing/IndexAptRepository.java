@@ -0,0 +1,131 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.SortedMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+
+/**
+ * Updates the {@code Packages}, {@code Packages.gz}, {@code Packages.xz} and {@code Release} files of a flat APT
+ * repository directory using an {@link AptIndex}. The repository may contain tens of thousands of packages, so
+ * rather than Gradle tracking every package as an input, the task always runs and the index itself determines
+ * which packages have changed using their modification times and sizes. If any package cannot be read, the
+ * index files are written for the remaining packages and the task then fails, listing the packages that were
+ * omitted.
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class IndexAptRepository extends DefaultTask {
+
+    /** Name of the task. */
+    public static final String TASK_NAME = "indexAptRepository";
+
+    /**
+     * Constructs the task.
+     */
+    public IndexAptRepository() {
+        doNotTrackState("The index is updated incrementally using the modification times of the packages");
+    }
+
+    /**
+     * Root directory of the APT repository to index.
+     *
+     * @return Repository directory property.
+     */
+    @Internal
+    public abstract DirectoryProperty getRepositoryDirectory();
+
+    /**
+     * Number of threads used to read packages.
+     *
+     * @return Parallelism property.
+     */
+    @Internal
+    public abstract Property<Integer> getParallelism();
+
+    /**
+     * Value of the {@code Origin} field of the {@code Release} file.
+     *
+     * @return Origin property.
+     */
+    @Internal
+    public abstract Property<String> getOrigin();
+
+    /**
+     * Value of the {@code Label} field of the {@code Release} file.
+     *
+     * @return Label property.
+     */
+    @Internal
+    public abstract Property<String> getLabel();
+
+    /**
+     * File to which the index is written so that unchanged packages need not be read by the next update.
+     *
+     * @return Index file property.
+     */
+    @OutputFile
+    public abstract RegularFileProperty getIndexFile();
+
+    /**
+     * Updates the index and writes the repository index files.
+     */
+    @TaskAction
+    public void index() {
+        if (!getRepositoryDirectory().isPresent()) {
+            throw new GradleException("The APT repository directory is not defined. Define the "
+                                              + CThingRepoExtension.APT_SNAPSHOTS_URL_PROPERTY
+                                              + " property as a file: URL or set the repositoryDirectory property "
+                                              + "of the task.");
+        }
+        final Path repository = getRepositoryDirectory().get().getAsFile().toPath();
+        final Path indexFile = getIndexFile().get().getAsFile().toPath();
+        final long start = System.nanoTime();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, getParallelism().get()));
+        try {
+            AptIndex previous;
+            try {
+                previous = AptIndex.read(indexFile);
+            } catch (final IOException ex) {
+                getLogger().info("Could not read the previous index {}, rebuilding it", indexFile, ex);
+                previous = null;
+            }
+
+            final AptIndex index = AptIndex.update(repository, previous, executor);
+            index.writeRepositoryIndex(repository, getOrigin().get(), getLabel().get(), Instant.now());
+            index.write(indexFile);
+            getLogger().lifecycle("Indexed {} packages in {} ({} read) in {} ms", index.size(), repository,
+                                  index.getParsedCount(), (System.nanoTime() - start) / 1_000_000);
+
+            final SortedMap<String, String> failures = index.getFailures();
+            if (!failures.isEmpty()) {
+                final StringBuilder message = new StringBuilder();
+                message.append("The following packages in the APT repository ").append(repository)
+                       .append(" could not be read and have been omitted from its index:");
+                failures.forEach((path, reason) -> message.append("\n  ").append(path).append(": ").append(reason));
+                throw new GradleException(message.toString());
+            }
+        } catch (final IOException ex) {
+            throw new GradleException("Could not index the APT repository " + repository, ex);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+
+/**
+ * Creates or updates a {@link DependentsIndex} of the POMs in a Maven repository directory. The repository
+ * may contain tens of thousands of POMs, so rather than Gradle tracking every POM as an input, the task always
+ * runs and the index itself determines which POMs have changed using their modification times and sizes.
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class IndexCThingDependents extends DefaultTask {
+
+    /** Name of the task. */
+    public static final String TASK_NAME = "indexCThingDependents";
+
+    /**
+     * Constructs the task.
+     */
+    public IndexCThingDependents() {
+        doNotTrackState("The index is updated incrementally using the modification times of the POMs");
+    }
+
+    /**
+     * Root directory of the Maven repository to index.
+     *
+     * @return Repository directory property.
+     */
+    @Internal
+    public abstract DirectoryProperty getRepositoryDirectory();
+
+    /**
+     * Number of threads used to parse POMs.
+     *
+     * @return Parallelism property.
+     */
+    @Internal
+    public abstract Property<Integer> getParallelism();
+
+    /**
+     * File to which the index is written.
+     *
+     * @return Index file property.
+     */
+    @OutputFile
+    public abstract RegularFileProperty getIndexFile();
+
+    /**
+     * Updates the index.
+     */
+    @TaskAction
+    public void index() {
+        final Path repository = getRepositoryDirectory().get().getAsFile().toPath();
+        final Path indexFile = getIndexFile().get().getAsFile().toPath();
+        final long start = System.nanoTime();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, getParallelism().get()));
+        try {
+            DependentsIndex previous;
+            try {
+                previous = DependentsIndex.read(indexFile);
+            } catch (final IOException ex) {
+                getLogger().info("Could not read the previous index {}, rebuilding it", indexFile, ex);
+                previous = null;
+            }
+
+            final DependentsIndex index = DependentsIndex.update(repository, previous, executor);
+            index.write(indexFile);
+            getLogger().lifecycle("Indexed {} POMs in {} ({} parsed) in {} ms", index.size(), repository,
+                                  index.getParsedCount(), (System.nanoTime() - start) / 1_000_000);
+        } catch (final IOException ex) {
+            throw new GradleException("Could not index the repository " + repository, ex);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
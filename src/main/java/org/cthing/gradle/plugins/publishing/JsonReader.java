@@ -0,0 +1,206 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.gradle.api.GradleException;
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Parses the small JSON documents returned by web services. Objects are returned as {@link Map}s preserving
+ * the order of their members, arrays as {@link List}s, numbers as {@link BigDecimal}s, and {@code true},
+ * {@code false} and {@code null} as {@link Boolean}s and {@code null}.
+ */
+final class JsonReader {
+
+    private final String json;
+    private int pos;
+
+    private JsonReader(final String json) {
+        this.json = json;
+    }
+
+    /**
+     * Parses the specified JSON document.
+     *
+     * @param json Document to parse
+     * @return Value of the document.
+     * @throws GradleException if the document is not valid JSON
+     */
+    @Nullable
+    static Object parse(final String json) {
+        final JsonReader reader = new JsonReader(json);
+        final Object value = reader.readValue();
+        reader.skipWhitespace();
+        if (reader.pos < json.length()) {
+            throw reader.error("Unexpected text after JSON value");
+        }
+        return value;
+    }
+
+    /**
+     * Parses the specified JSON document, which must be an object.
+     *
+     * @param json Document to parse
+     * @return Members of the object.
+     * @throws GradleException if the document is not a valid JSON object
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> parseObject(final String json) {
+        final Object value = parse(json);
+        if (!(value instanceof Map)) {
+            throw new GradleException("Expected a JSON object but found: " + json);
+        }
+        return (Map<String, Object>)value;
+    }
+
+    @Nullable
+    private Object readValue() {
+        skipWhitespace();
+        if (this.pos >= this.json.length()) {
+            throw error("Unexpected end of JSON");
+        }
+        final char ch = this.json.charAt(this.pos);
+        return switch (ch) {
+            case '{' -> readObject();
+            case '[' -> readArray();
+            case '"' -> readString();
+            case 't' -> readLiteral("true", Boolean.TRUE);
+            case 'f' -> readLiteral("false", Boolean.FALSE);
+            case 'n' -> readLiteral("null", null);
+            default -> readNumber();
+        };
+    }
+
+    private Map<String, Object> readObject() {
+        final Map<String, Object> members = new LinkedHashMap<>();
+        this.pos++;
+        skipWhitespace();
+        if (consume('}')) {
+            return members;
+        }
+        do {
+            skipWhitespace();
+            if (this.pos >= this.json.length() || this.json.charAt(this.pos) != '"') {
+                throw error("Expected a member name");
+            }
+            final String name = readString();
+            skipWhitespace();
+            if (!consume(':')) {
+                throw error("Expected ':'");
+            }
+            members.put(name, readValue());
+            skipWhitespace();
+        } while (consume(','));
+        if (!consume('}')) {
+            throw error("Expected ',' or '}'");
+        }
+        return members;
+    }
+
+    private List<Object> readArray() {
+        final List<Object> elements = new ArrayList<>();
+        this.pos++;
+        skipWhitespace();
+        if (consume(']')) {
+            return elements;
+        }
+        do {
+            elements.add(readValue());
+            skipWhitespace();
+        } while (consume(','));
+        if (!consume(']')) {
+            throw error("Expected ',' or ']'");
+        }
+        return elements;
+    }
+
+    private String readString() {
+        final StringBuilder value = new StringBuilder();
+        this.pos++;
+        while (this.pos < this.json.length()) {
+            final char ch = this.json.charAt(this.pos++);
+            if (ch == '"') {
+                return value.toString();
+            }
+            if (ch != '\\') {
+                value.append(ch);
+                continue;
+            }
+            if (this.pos >= this.json.length()) {
+                break;
+            }
+            final char escape = this.json.charAt(this.pos++);
+            switch (escape) {
+                case '"', '\\', '/' -> value.append(escape);
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'u' -> {
+                    if (this.pos + 4 > this.json.length()) {
+                        throw error("Invalid unicode escape");
+                    }
+                    try {
+                        value.append((char)Integer.parseInt(this.json.substring(this.pos, this.pos + 4), 16));
+                    } catch (final NumberFormatException ex) {
+                        throw error("Invalid unicode escape");
+                    }
+                    this.pos += 4;
+                }
+                default -> throw error("Invalid escape sequence '\\" + escape + "'");
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    @Nullable
+    private Object readLiteral(final String literal, @Nullable final Object value) {
+        if (!this.json.startsWith(literal, this.pos)) {
+            throw error("Unexpected text");
+        }
+        this.pos += literal.length();
+        return value;
+    }
+
+    private BigDecimal readNumber() {
+        final int start = this.pos;
+        while (this.pos < this.json.length() && "+-0123456789.eE".indexOf(this.json.charAt(this.pos)) >= 0) {
+            this.pos++;
+        }
+        try {
+            return new BigDecimal(this.json.substring(start, this.pos));
+        } catch (final NumberFormatException ex) {
+            this.pos = start;
+            throw error("Unexpected text");
+        }
+    }
+
+    private boolean consume(final char ch) {
+        if (this.pos < this.json.length() && this.json.charAt(this.pos) == ch) {
+            this.pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (this.pos < this.json.length() && Character.isWhitespace(this.json.charAt(this.pos))) {
+            this.pos++;
+        }
+    }
+
+    private GradleException error(final String message) {
+        return new GradleException(message + " at offset " + this.pos + " of JSON: " + this.json);
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+
+
+/**
+ * Writes pretty printed JSON directly to a stream. Values are written as they are supplied, so no document
+ * is built in memory. The writer does not validate that names and values are supplied in a valid order.
+ */
+final class JsonWriter {
+
+    private static final String INDENT = "  ";
+
+    private final Writer writer;
+    private final Deque<Boolean> hasElements = new ArrayDeque<>();
+    private boolean afterName;
+
+    /**
+     * Constructs a writer.
+     *
+     * @param writer Destination of the JSON. The writer is not closed by this class.
+     */
+    JsonWriter(final Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Begins an object.
+     *
+     * @return This writer.
+     * @throws IOException if the JSON could not be written
+     */
+    JsonWriter beginObject() throws IOException {
+        return begin('{');
+    }
+
+    /**
+     * Ends the current object.
+     *
+     * @return This writer.
+     * @throws IOException if the JSON could not be written
+     */
+    JsonWriter endObject() throws IOException {
+        return end('}');
+    }
+
+    /**
+     * Begins an array.
+     *
+     * @return This writer.
+     * @throws IOException if the JSON could not be written
+     */
+    JsonWriter beginArray() throws IOException {
+        return begin('[');
+    }
+
+    /**
+     * Ends the current array.
+     *
+     * @return This writer.
+     * @throws IOException if the JSON could not be written
+     */
+    JsonWriter endArray() throws IOException {
+        return end(']');
+    }
+
+    /**
+     * Writes the name of a member of the current object. The value of the member must be written next.
+     *
+     * @param name Name of the member
+     * @return This writer.
+     * @throws IOException if the JSON could not be written
+     */
+    JsonWriter name(final String name) throws IOException {
+        separate();
+        string(name);
+        this.writer.write(": ");
+        this.afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value.
+     *
+     * @param value Value to write
+     * @return This writer.
+     * @throws IOException if the JSON could not be written
+     */
+    JsonWriter value(final String value) throws IOException {
+        separate();
+        string(value);
+        return this;
+    }
+
+    /**
+     * Writes a numeric value.
+     *
+     * @param value Value to write
+     * @return This writer.
+     * @throws IOException if the JSON could not be written
+     */
+    JsonWriter value(final long value) throws IOException {
+        separate();
+        this.writer.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes a boolean value.
+     *
+     * @param value Value to write
+     * @return This writer.
+     * @throws IOException if the JSON could not be written
+     */
+    JsonWriter value(final boolean value) throws IOException {
+        separate();
+        this.writer.write(Boolean.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes a member with a string value.
+     *
+     * @param name Name of the member
+     * @param value Value of the member
+     * @return This writer.
+     * @throws IOException if the JSON could not be written
+     */
+    JsonWriter member(final String name, final String value) throws IOException {
+        return name(name).value(value);
+    }
+
+    /**
+     * Ends the document with a newline and flushes the stream.
+     *
+     * @throws IOException if the JSON could not be written
+     */
+    void finish() throws IOException {
+        this.writer.write('\n');
+        this.writer.flush();
+    }
+
+    private JsonWriter begin(final char bracket) throws IOException {
+        separate();
+        this.writer.write(bracket);
+        this.hasElements.push(Boolean.FALSE);
+        return this;
+    }
+
+    private JsonWriter end(final char bracket) throws IOException {
+        final boolean nonEmpty = this.hasElements.pop();
+        if (nonEmpty) {
+            newline();
+        }
+        this.writer.write(bracket);
+        return this;
+    }
+
+    /**
+     * Writes the separator required before a name, or before a value that is not the value of a member.
+     */
+    private void separate() throws IOException {
+        if (this.afterName) {
+            this.afterName = false;
+            return;
+        }
+        if (!this.hasElements.isEmpty()) {
+            if (this.hasElements.pop()) {
+                this.writer.write(',');
+            }
+            this.hasElements.push(Boolean.TRUE);
+            newline();
+        }
+    }
+
+    private void newline() throws IOException {
+        this.writer.write('\n');
+        for (int i = 0; i < this.hasElements.size(); i++) {
+            this.writer.write(INDENT);
+        }
+    }
+
+    private void string(final String value) throws IOException {
+        this.writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char ch = value.charAt(i);
+            switch (ch) {
+                case '"' -> this.writer.write("\\\"");
+                case '\\' -> this.writer.write("\\\\");
+                case '\n' -> this.writer.write("\\n");
+                case '\r' -> this.writer.write("\\r");
+                case '\t' -> this.writer.write("\\t");
+                default -> {
+                    if (ch < 0x20) {
+                        this.writer.write(String.format(Locale.ROOT, "\\u%04x", (int)ch));
+                    } else {
+                        this.writer.write(ch);
+                    }
+                }
+            }
+        }
+        this.writer.write('"');
+    }
+}
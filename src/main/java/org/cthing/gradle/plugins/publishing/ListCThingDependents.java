@@ -0,0 +1,85 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.options.Option;
+
+
+/**
+ * Lists the modules that depend on a module, according to the index created by the
+ * {@link IndexCThingDependents} task. For example:
+ * <pre>
+ * ./gradlew listCThingDependents --module=org.cthing:cthing-annotations
+ * </pre>
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class ListCThingDependents extends DefaultTask {
+
+    /** Name of the task. */
+    public static final String TASK_NAME = "listCThingDependents";
+
+    /**
+     * Constructs the task.
+     */
+    public ListCThingDependents() {
+        doNotTrackState("The task only reports on the index");
+    }
+
+    /**
+     * Module whose dependents are to be listed (i.e. {@code group:artifact}).
+     *
+     * @return Module property.
+     */
+    @Input
+    @Option(option = "module", description = "Module whose dependents are listed (group:artifact)")
+    public abstract Property<String> getModule();
+
+    /**
+     * File containing the index.
+     *
+     * @return Index file property.
+     */
+    @InputFile
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getIndexFile();
+
+    /**
+     * Lists the direct dependents of the module and the modules that must be rebuilt if it changes.
+     */
+    @TaskAction
+    public void list() {
+        final Path indexFile = getIndexFile().get().getAsFile().toPath();
+        final String module = getModule().get();
+
+        final DependentsIndex index;
+        try {
+            index = DependentsIndex.read(indexFile);
+        } catch (final IOException ex) {
+            throw new GradleException("Could not read the index " + indexFile, ex);
+        }
+        if (index == null) {
+            throw new GradleException("Index " + indexFile + " is not valid. Run the " + IndexCThingDependents.TASK_NAME
+                                              + " task to recreate it.");
+        }
+
+        getLogger().lifecycle("Direct dependents of {}:", module);
+        index.findDirectDependents(module).forEach(dependent -> getLogger().lifecycle("  {}", dependent));
+        getLogger().lifecycle("Modules to rebuild if {} changes:", module);
+        index.findTransitiveDependents(module).forEach(dependent -> getLogger().lifecycle("  {}", dependent));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Reads and writes the artifact level {@code maven-metadata.xml} file, which lists the published versions
+ * of an artifact.
+ */
+public final class MavenMetadata {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMddHHmmss", Locale.ROOT).withZone(ZoneOffset.UTC);
+
+    private MavenMetadata() {
+    }
+
+    /**
+     * Adds a version to the artifact metadata. The version becomes the latest and release version of the
+     * artifact.
+     *
+     * @param existing Content of the existing metadata file, or {@code null} if the artifact has not been
+     *      published before
+     * @param groupId Group of the artifact
+     * @param artifactId Name of the artifact
+     * @param version Version being published
+     * @param timestamp Time of publication
+     * @return Content of the updated metadata file.
+     * @throws IOException if the existing metadata could not be parsed
+     */
+    public static byte[] addVersion(final byte @Nullable [] existing, final String groupId, final String artifactId,
+                                    final String version, final Instant timestamp) throws IOException {
+        final List<String> versions = existing == null ? new ArrayList<>() : readVersions(existing);
+        if (!versions.contains(version)) {
+            versions.add(version);
+        }
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            final XMLStreamWriter writer = PomXml.createWriter(output);
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeCharacters("\n");
+            writer.writeStartElement("metadata");
+            PomXml.writeElement(writer, 1, "groupId", groupId);
+            PomXml.writeElement(writer, 1, "artifactId", artifactId);
+            PomXml.indent(writer, 1);
+            writer.writeStartElement("versioning");
+            PomXml.writeElement(writer, 2, "latest", version);
+            PomXml.writeElement(writer, 2, "release", version);
+            PomXml.indent(writer, 2);
+            writer.writeStartElement("versions");
+            for (final String ver : versions) {
+                PomXml.writeElement(writer, 3, "version", ver);
+            }
+            PomXml.indent(writer, 2);
+            writer.writeEndElement();
+            PomXml.writeElement(writer, 2, "lastUpdated", TIMESTAMP_FORMAT.format(timestamp));
+            PomXml.indent(writer, 1);
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+            writer.writeEndDocument();
+            writer.flush();
+            writer.close();
+        } catch (final XMLStreamException ex) {
+            throw new IOException("Could not write Maven metadata for " + groupId + ':' + artifactId, ex);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Obtains the versions listed in a metadata file.
+     *
+     * @param content Content of the metadata file
+     * @return Versions listed in the metadata file in the order they appear.
+     * @throws IOException if the metadata could not be parsed
+     */
+    public static List<String> readVersions(final byte[] content) throws IOException {
+        final List<String> versions = new ArrayList<>();
+        try {
+            final XMLStreamReader reader = PomXml.createReader(new ByteArrayInputStream(content));
+            boolean inVersions = false;
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    final String name = reader.getLocalName();
+                    if ("versions".equals(name)) {
+                        inVersions = true;
+                    } else if (inVersions && "version".equals(name)) {
+                        versions.add(reader.getElementText().trim());
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "versions".equals(reader.getLocalName())) {
+                    inVersions = false;
+                }
+            }
+            reader.close();
+        } catch (final XMLStreamException ex) {
+            throw new IOException("Could not parse Maven metadata: "
+                                          + new String(content, StandardCharsets.UTF_8), ex);
+        }
+        return versions;
+    }
+}
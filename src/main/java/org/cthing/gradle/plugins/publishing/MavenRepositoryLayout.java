@@ -0,0 +1,93 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Computes the locations of files in a Maven repository relative to the root of the repository.
+ */
+public final class MavenRepositoryLayout {
+
+    /** Name of the Maven repository metadata file. */
+    public static final String METADATA_FILENAME = "maven-metadata.xml";
+
+    private static final String SNAPSHOT_SUFFIX = "-SNAPSHOT";
+
+    private MavenRepositoryLayout() {
+    }
+
+    /**
+     * Obtains the location of an artifact.
+     *
+     * @param groupId Group of the artifact (e.g. {@code org.cthing})
+     * @param artifactId Name of the artifact
+     * @param version Version of the artifact
+     * @param classifier Classifier of the artifact, or {@code null} if the artifact does not have a classifier
+     * @param extension Extension of the artifact file (e.g. {@code jar})
+     * @return Location of the artifact relative to the repository root.
+     */
+    public static String artifactPath(final String groupId, final String artifactId, final String version,
+                                      @Nullable final String classifier, final String extension) {
+        final StringBuilder path = new StringBuilder(versionDirectory(groupId, artifactId, version))
+                .append(artifactId)
+                .append('-')
+                .append(version);
+        if (classifier != null && !classifier.isEmpty()) {
+            path.append('-').append(classifier);
+        }
+        if (!extension.isEmpty()) {
+            path.append('.').append(extension);
+        }
+        return path.toString();
+    }
+
+    /**
+     * Obtains the location of the directory containing all versions of an artifact.
+     *
+     * @param groupId Group of the artifact
+     * @param artifactId Name of the artifact
+     * @return Location of the artifact directory relative to the repository root, including a trailing slash.
+     */
+    public static String artifactDirectory(final String groupId, final String artifactId) {
+        return groupId.replace('.', '/') + '/' + artifactId + '/';
+    }
+
+    /**
+     * Obtains the location of the directory containing the files of a specific version of an artifact.
+     *
+     * @param groupId Group of the artifact
+     * @param artifactId Name of the artifact
+     * @param version Version of the artifact
+     * @return Location of the version directory relative to the repository root, including a trailing slash.
+     */
+    public static String versionDirectory(final String groupId, final String artifactId, final String version) {
+        return artifactDirectory(groupId, artifactId) + version + '/';
+    }
+
+    /**
+     * Obtains the location of the metadata file listing the versions of an artifact.
+     *
+     * @param groupId Group of the artifact
+     * @param artifactId Name of the artifact
+     * @return Location of the metadata file relative to the repository root.
+     */
+    public static String metadataPath(final String groupId, final String artifactId) {
+        return artifactDirectory(groupId, artifactId) + METADATA_FILENAME;
+    }
+
+    /**
+     * Indicates whether the specified version is a Maven snapshot version. Maven snapshot versions are
+     * published using timestamped file names and are not supported by the plugin's own publishing tasks.
+     *
+     * @param version Version to test
+     * @return {@code true} if the version ends with {@code -SNAPSHOT}.
+     */
+    public static boolean isMavenSnapshot(final String version) {
+        return version.endsWith(SNAPSHOT_SUFFIX);
+    }
+}
@@ -0,0 +1,506 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Build service shared by all projects in a build which publishes through a single Nexus staging repository.
+ * The staging repository is opened when the first project starts uploading, and every project then uploads
+ * its publications into it concurrently through the {@link CThingRepoService}. Once all projects have
+ * uploaded their publications, the repository is closed, which causes Nexus to validate its contents, and
+ * then released to the repository of the staging profile. Consumers therefore only see the publications of
+ * the build once all of them have been completely uploaded and validated. A staging repository that fails
+ * validation, or that has not been released when the build finishes (e.g. because an upload failed), is
+ * dropped so that partially published builds never accumulate in Nexus.
+ *
+ * <p>The staging lifecycle requests are made using the Nexus 2 staging REST API. They are few and are not
+ * subject to the concurrency limit of the {@link CThingRepoService}, so a separate HTTP client is used which
+ * remains available to drop the repository when the build finishes.</p>
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class NexusStagingService implements BuildService<NexusStagingService.Params>, AutoCloseable {
+
+    /** Name under which the service is registered. */
+    public static final String NAME = "cthingNexusStagingService";
+
+    /**
+     * Parameters for the service.
+     */
+    public interface Params extends BuildServiceParameters {
+        /**
+         * Root URL of the Nexus server.
+         *
+         * @return Nexus URL property.
+         */
+        Property<String> getNexusUrl();
+
+        /**
+         * Identifier of the staging profile in which the staging repository is opened.
+         *
+         * @return Staging profile identifier property.
+         */
+        Property<String> getProfileId();
+
+        /**
+         * Username to access the repository.
+         *
+         * @return Username property.
+         */
+        Property<String> getUser();
+
+        /**
+         * Password to access the repository.
+         *
+         * @return Password property.
+         */
+        Property<String> getPassword();
+
+        /**
+         * Description of the staging repository displayed by Nexus.
+         *
+         * @return Description property.
+         */
+        Property<String> getDescription();
+
+        /**
+         * Maximum number of times a request rejected due to server load is retried.
+         *
+         * @return Maximum retries property.
+         */
+        Property<Integer> getMaxRetries();
+    }
+
+    private static final Logger LOGGER = Logging.getLogger(NexusStagingService.class);
+    private static final String JSON_TYPE = "application/json";
+    private static final String STAGING_PATH = "/service/local/staging/";
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final Set<String> participants = new ConcurrentSkipListSet<>();
+
+    @Nullable
+    private volatile String repositoryId;
+    private volatile boolean finished;
+
+    /**
+     * Constructs the service.
+     */
+    public NexusStagingService() {
+        this.client = HttpClient.newBuilder()
+                                .connectTimeout(CONNECT_TIMEOUT)
+                                .followRedirects(HttpClient.Redirect.NORMAL)
+                                .build();
+    }
+
+    /**
+     * Registers the service with the build, if it has not already been registered. The service parameters
+     * are obtained from the repository extension of the first project to register the service.
+     *
+     * @param project Project publishing through the staging repository
+     * @param repoExtension Repository extension of the project
+     * @return Provider of the shared service.
+     */
+    public static Provider<NexusStagingService> register(final Project project, final CThingRepoExtension repoExtension) {
+        return project.getGradle().getSharedServices().registerIfAbsent(NAME, NexusStagingService.class, spec -> {
+            final Params params = spec.getParameters();
+            params.getNexusUrl().set(project.provider(repoExtension::getStagingUrl));
+            params.getProfileId().set(project.provider(repoExtension::getStagingProfileId));
+            params.getUser().set(project.provider(repoExtension::getUser));
+            params.getPassword().set(project.provider(repoExtension::getPassword));
+            params.getDescription().set(project.provider(() -> project.getName() + ' ' + project.getVersion()));
+            params.getMaxRetries().set(project.provider(repoExtension::getMaxUploadRetries));
+        });
+    }
+
+    /**
+     * Records that a project publishes through the staging repository. Participants must be recorded while
+     * the build is being configured.
+     *
+     * @param projectPath Path of the participating project
+     */
+    void addParticipant(final String projectPath) {
+        this.participants.add(projectPath);
+    }
+
+    /**
+     * Obtains the paths of the projects publishing through the staging repository. The participants are
+     * only recorded while the build is being configured.
+     *
+     * @return Paths of the participating projects, sorted.
+     */
+    public SortedSet<String> getParticipants() {
+        return new TreeSet<>(this.participants);
+    }
+
+    /**
+     * Obtains the identifier of the staging repository.
+     *
+     * @return Identifier of the staging repository, or {@code null} if it has not been opened.
+     */
+    @Nullable
+    public String getRepositoryId() {
+        return this.repositoryId;
+    }
+
+    /**
+     * Obtains the URL to which files are uploaded to publish them in the staging repository. The staging
+     * repository is opened by the first call to this method. Subsequent calls, from any project, return the
+     * same repository.
+     *
+     * @return Root URL of the staging repository, ending with a slash.
+     * @throws GradleException if the staging repository could not be opened or has already been closed
+     */
+    public synchronized String getRepositoryUrl() {
+        if (this.finished) {
+            throw new GradleException("Staging repository " + this.repositoryId + " has already been closed");
+        }
+        String id = this.repositoryId;
+        if (id == null) {
+            final Map<String, Object> response = stagingRequest("profiles/" + getProfileId() + "/start",
+                                                                Map.of("description", describe()), "open");
+            final Object stagedId = data(response).get("stagedRepositoryId");
+            if (stagedId == null) {
+                throw new GradleException("Nexus did not return the identifier of the opened staging repository");
+            }
+            id = stagedId.toString();
+            this.repositoryId = id;
+            LOGGER.lifecycle("Opened staging repository {}", id);
+        }
+        return getNexusUrl() + STAGING_PATH + "deployByRepositoryId/" + id + '/';
+    }
+
+    /**
+     * Closes the staging repository, waits for Nexus to validate its contents, and then releases it. If the
+     * repository fails validation or cannot be released, it is dropped. If no staging repository has been
+     * opened, or the repository has already been released or dropped, nothing is done.
+     *
+     * @param pollInterval Time between requests for the state of the repository
+     * @param timeout Maximum time to wait for each of the close and release operations to complete
+     * @throws GradleException if the repository could not be closed or released
+     */
+    public synchronized void release(final Duration pollInterval, final Duration timeout) {
+        final String id = this.repositoryId;
+        if (id == null) {
+            LOGGER.lifecycle("No staging repository has been opened");
+            return;
+        }
+        if (this.finished) {
+            LOGGER.lifecycle("Staging repository {} has already been released or dropped", id);
+            return;
+        }
+        this.finished = true;
+
+        boolean dropped = false;
+        try {
+            bulkRequest("close", id, Map.of());
+            final Map<String, Object> closed = awaitTransition(id, pollInterval, timeout, "close");
+            if (!"closed".equals(closed.get("type"))) {
+                final List<String> failures = findFailures(id);
+                dropped = true;
+                drop(id);
+                throw new GradleException("Staging repository " + id + " failed validation and has been dropped"
+                                                  + (failures.isEmpty() ? "" : ":\n  " + String.join("\n  ", failures)));
+            }
+            LOGGER.lifecycle("Closed staging repository {}", id);
+
+            bulkRequest("promote", id, Map.of("autoDropAfterRelease", Boolean.TRUE));
+            final Map<String, Object> released = awaitTransition(id, pollInterval, timeout, "release");
+            if (!released.isEmpty() && !"released".equals(released.get("type"))) {
+                dropped = true;
+                drop(id);
+                throw new GradleException("Staging repository " + id + " could not be released and has been dropped");
+            }
+        } catch (final GradleException ex) {
+            if (!dropped) {
+                dropQuietly(id);
+            }
+            throw ex;
+        }
+        LOGGER.lifecycle("Released staging repository {}", id);
+    }
+
+    /**
+     * Drops the staging repository if it has been opened but not released, so that the partial contents of a
+     * failed build are discarded.
+     */
+    @Override
+    public void close() {
+        final String id = this.repositoryId;
+        if (id != null && !this.finished) {
+            this.finished = true;
+            LOGGER.warn("Dropping staging repository {} because it was not released", id);
+            dropQuietly(id);
+        }
+    }
+
+    private void drop(final String id) {
+        bulkRequest("drop", id, Map.of());
+        LOGGER.lifecycle("Dropped staging repository {}", id);
+    }
+
+    private void dropQuietly(final String id) {
+        try {
+            drop(id);
+        } catch (final GradleException ex) {
+            LOGGER.warn("Could not drop staging repository {}: {}", id, ex.getMessage());
+        }
+    }
+
+    /**
+     * Waits for a close or release operation on the staging repository to complete.
+     *
+     * @param id Identifier of the staging repository
+     * @param pollInterval Time between requests for the state of the repository
+     * @param timeout Maximum time to wait
+     * @param operation Name of the operation used in messages
+     * @return State of the repository once it is no longer transitioning, or an empty map if the repository
+     *      no longer exists (e.g. because it was dropped automatically after being released).
+     * @throws GradleException if the operation does not complete within the timeout
+     */
+    private Map<String, Object> awaitTransition(final String id, final Duration pollInterval, final Duration timeout,
+                                                final String operation) {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            while (true) {
+                final HttpResponse<String> response = send(newRequest("repository/" + id).GET().build(),
+                                                           "obtain the state of staging repository " + id);
+                if (response.statusCode() == 404) {
+                    return Map.of();
+                }
+                final Map<String, Object> state = data(parse(response, "obtain the state of staging repository " + id));
+                if (!Boolean.TRUE.equals(state.get("transitioning"))) {
+                    return state;
+                }
+                if (System.nanoTime() - deadline > 0) {
+                    throw new GradleException("Timed out waiting for staging repository " + id + " to " + operation);
+                }
+                Thread.sleep(pollInterval.toMillis());
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Interrupted while waiting for staging repository " + id + " to " + operation, ex);
+        }
+    }
+
+    /**
+     * Obtains the reasons a staging repository failed validation from its activity.
+     *
+     * @param id Identifier of the staging repository
+     * @return Failure messages reported by the staging rules. An empty list is returned if the activity
+     *      could not be obtained.
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> findFailures(final String id) {
+        final List<String> failures = new ArrayList<>();
+        try {
+            final HttpResponse<String> response = send(newRequest("repository/" + id + "/activity").GET().build(),
+                                                       "obtain the activity of staging repository " + id);
+            if (response.statusCode() >= 300) {
+                return failures;
+            }
+            final Object activities = JsonReader.parse(response.body());
+            if (!(activities instanceof List<?> list)) {
+                return failures;
+            }
+            for (final Object activity : list) {
+                for (final Object event : (List<Object>)((Map<String, Object>)activity).getOrDefault("events", List.of())) {
+                    for (final Object property : (List<Object>)((Map<String, Object>)event).getOrDefault("properties",
+                                                                                                       List.of())) {
+                        final Map<String, Object> member = (Map<String, Object>)property;
+                        if ("failureMessage".equals(member.get("name")) && member.get("value") != null) {
+                            failures.add(member.get("value").toString());
+                        }
+                    }
+                }
+            }
+        } catch (final GradleException | ClassCastException ex) {
+            LOGGER.info("Could not obtain the activity of staging repository {}: {}", id, ex.getMessage());
+        }
+        return failures;
+    }
+
+    /**
+     * Performs an operation on the staging repository using the bulk staging API.
+     *
+     * @param operation Name of the operation (e.g. {@code close})
+     * @param id Identifier of the staging repository
+     * @param options Additional members of the request data
+     * @throws GradleException if the operation is rejected
+     */
+    private void bulkRequest(final String operation, final String id, final Map<String, Boolean> options) {
+        final StringWriter body = new StringWriter();
+        try {
+            final JsonWriter writer = new JsonWriter(body);
+            writer.beginObject().name("data").beginObject();
+            writer.name("stagedRepositoryIds").beginArray().value(id).endArray();
+            writer.member("description", describe());
+            for (final Map.Entry<String, Boolean> option : options.entrySet()) {
+                writer.name(option.getKey()).value(option.getValue().booleanValue());
+            }
+            writer.endObject().endObject().finish();
+        } catch (final IOException ex) {
+            throw new GradleException("Could not create the staging request to " + operation + ' ' + id, ex);
+        }
+        final String description = operation + " staging repository " + id;
+        parse(send(newRequest("bulk/" + operation).POST(HttpRequest.BodyPublishers.ofString(body.toString(),
+                                                                                         StandardCharsets.UTF_8))
+                                                  .header("Content-Type", JSON_TYPE)
+                                                  .build(), description), description);
+    }
+
+    private Map<String, Object> stagingRequest(final String path, final Map<String, String> data,
+                                               final String operation) {
+        final StringWriter body = new StringWriter();
+        try {
+            final JsonWriter writer = new JsonWriter(body);
+            writer.beginObject().name("data").beginObject();
+            for (final Map.Entry<String, String> member : data.entrySet()) {
+                writer.member(member.getKey(), member.getValue());
+            }
+            writer.endObject().endObject().finish();
+        } catch (final IOException ex) {
+            throw new GradleException("Could not create the staging request to " + operation, ex);
+        }
+        final String description = operation + " a staging repository in profile " + getProfileId();
+        return parse(send(newRequest(path).POST(HttpRequest.BodyPublishers.ofString(body.toString(),
+                                                                                    StandardCharsets.UTF_8))
+                                          .header("Content-Type", JSON_TYPE)
+                                          .build(), description), description);
+    }
+
+    private HttpRequest.Builder newRequest(final String path) {
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(getNexusUrl() + STAGING_PATH + path))
+                                                       .header("Accept", JSON_TYPE);
+        final Params params = getParameters();
+        if (params.getUser().isPresent() && params.getPassword().isPresent()) {
+            final String credentials = params.getUser().get() + ':' + params.getPassword().get();
+            builder.header("Authorization", "Basic " + Base64.getEncoder().encodeToString(
+                    credentials.getBytes(StandardCharsets.UTF_8)));
+        }
+        return builder;
+    }
+
+    /**
+     * Sends a request, retrying with the backoff of {@link CThingRepoService} if the server is overloaded or
+     * the connection fails.
+     *
+     * @param request Request to send
+     * @param description Description of the request used in messages
+     * @return Response from the server. The response may indicate an error.
+     * @throws GradleException if the request could not be sent after all retries or the thread is interrupted
+     */
+    private HttpResponse<String> send(final HttpRequest request, final String description) {
+        final int maxRetries = getParameters().getMaxRetries().getOrElse(CThingRepoExtension.DEFAULT_MAX_UPLOAD_RETRIES);
+        int attempt = 0;
+        try {
+            while (true) {
+                final HttpResponse<String> response;
+                try {
+                    response = this.client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+                } catch (final IOException ex) {
+                    if (attempt >= maxRetries) {
+                        throw new GradleException("Could not " + description + ": " + ex.getMessage(), ex);
+                    }
+                    LOGGER.info("Retrying {} after error: {}", description, ex.getMessage());
+                    Thread.sleep(CThingRepoService.backoff(attempt, null));
+                    attempt++;
+                    continue;
+                }
+
+                final int status = response.statusCode();
+                if (CThingRepoService.OVERLOADED_STATUS.contains(status) && attempt < maxRetries) {
+                    LOGGER.info("Retrying {} after status {}", description, status);
+                    Thread.sleep(CThingRepoService.backoff(attempt,
+                                                           response.headers().firstValue("Retry-After").orElse(null)));
+                    attempt++;
+                    continue;
+                }
+                return response;
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Interrupted while trying to " + description, ex);
+        }
+    }
+
+    /**
+     * Interprets the JSON response to a staging request.
+     *
+     * @param response Response to interpret
+     * @param description Description of the request used in messages
+     * @return Members of the response object. An empty map is returned if the response has no body.
+     * @throws GradleException if the response indicates that the request failed
+     */
+    private static Map<String, Object> parse(final HttpResponse<String> response, final String description) {
+        final String body = response.body();
+        if (response.statusCode() >= 300) {
+            throw new GradleException("Nexus could not " + description + " (HTTP status " + response.statusCode()
+                                              + ")" + (body == null || body.isBlank() ? "" : ": " + body.strip()));
+        }
+        return body == null || body.isBlank() ? Map.of() : JsonReader.parseObject(body);
+    }
+
+    /**
+     * Obtains the data of a staging response. Most responses wrap their content in a {@code data} member,
+     * while others return the content directly.
+     *
+     * @param response Members of the response object
+     * @return Content of the response.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> data(final Map<String, Object> response) {
+        return response.get("data") instanceof Map<?, ?> data ? (Map<String, Object>)data : response;
+    }
+
+    private String describe() {
+        return getParameters().getDescription().getOrElse("C Thing Software publication");
+    }
+
+    private String getNexusUrl() {
+        final String url = getParameters().getNexusUrl().getOrNull();
+        if (url == null) {
+            throw new GradleException("The Nexus staging URL is not defined. Define the "
+                                              + CThingRepoExtension.STAGING_URL_PROPERTY + " property.");
+        }
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    private String getProfileId() {
+        final String profileId = getParameters().getProfileId().getOrNull();
+        if (profileId == null) {
+            throw new GradleException("The Nexus staging profile is not defined. Define the "
+                                              + CThingRepoExtension.STAGING_PROFILE_ID_PROPERTY + " property.");
+        }
+        return profileId;
+    }
+}
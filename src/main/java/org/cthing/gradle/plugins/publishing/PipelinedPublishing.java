@@ -0,0 +1,353 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.publish.PublishingExtension;
+import org.gradle.api.publish.maven.MavenArtifact;
+import org.gradle.api.publish.maven.MavenPublication;
+import org.gradle.api.publish.maven.tasks.GenerateMavenPom;
+import org.gradle.api.publish.tasks.GenerateModuleMetadata;
+import org.gradle.api.tasks.TaskProvider;
+import org.gradle.plugins.signing.Sign;
+import org.gradle.plugins.signing.SigningExtension;
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Creates the tasks which publish Maven publications in a pipelined manner. Each artifact of a publication
+ * is signed (if signing is possible) and uploaded by its own tasks, which depend only on the task producing
+ * the artifact. Uploads therefore start as soon as each artifact has been built and proceed while the
+ * remaining artifacts are being built. Once all artifacts have been uploaded, a commit task uploads the POM
+ * and module metadata and then updates the repository metadata.
+ */
+final class PipelinedPublishing {
+
+    /** Name of the task which publishes all publications using pipelined publishing. */
+    static final String LIFECYCLE_TASK_NAME = "publishPipelined";
+
+    private static final String TASK_GROUP = "publishing";
+
+    private PipelinedPublishing() {
+    }
+
+    /**
+     * Creates the pipelined publishing tasks for all Maven publications in the specified project.
+     *
+     * @param project Project whose publications are to be published
+     * @param repoExtension Repository extension providing the repository service and locations
+     */
+    static void configure(final Project project, final CThingRepoExtension repoExtension) {
+        final Provider<CThingRepoService> service = repoExtension.getRepoService();
+        final Provider<String> repositoryUrl = project.provider(repoExtension::getRepoUrl);
+        final Provider<List<String>> mirrorUrls = project.provider(repoExtension::getMirrorUrls);
+
+        project.getPluginManager().withPlugin("maven-publish", plugin -> {
+            final TaskProvider<Task> lifecycleTask = project.getTasks().register(LIFECYCLE_TASK_NAME, task -> {
+                task.setGroup(TASK_GROUP);
+                task.setDescription("Publishes all Maven publications to the C Thing Software repository, "
+                                            + "uploading each artifact as soon as it has been built.");
+            });
+
+            // The artifacts of a publication are only known once the project has been evaluated.
+            project.afterEvaluate(p -> {
+                final PublishingExtension publishing = project.getExtensions().getByType(PublishingExtension.class);
+                @Nullable final Provider<NexusStagingService> staging = repoExtension.getStagingService();
+                publishing.getPublications().withType(MavenPublication.class).forEach(publication -> {
+                    final TaskProvider<CommitPipelinedPublication> commitTask =
+                            configurePublication(project, publication, service, staging, repositoryUrl, mirrorUrls);
+                    final TaskProvider<VerifyPublication> verifyTask =
+                            configureVerification(project, publication, repoExtension, staging, commitTask);
+                    lifecycleTask.configure(task -> {
+                        task.dependsOn(commitTask);
+                        if (repoExtension.getUploadVerification() != UploadVerification.NONE) {
+                            task.dependsOn(verifyTask);
+                        }
+                    });
+                });
+            });
+        });
+    }
+
+    /**
+     * Ensures that a repository URL has been defined.
+     *
+     * @param repositoryUrl Repository URL to test
+     * @return The repository URL.
+     * @throws GradleException if the URL has not been defined.
+     */
+    static String requireRepositoryUrl(final Provider<String> repositoryUrl) {
+        final String url = repositoryUrl.getOrNull();
+        if (url == null) {
+            throw new GradleException("The C Thing Software repository URL is not defined. Define the "
+                                              + CThingRepoExtension.CANDIDATES_URL_PROPERTY + " or "
+                                              + CThingRepoExtension.SNAPSHOTS_URL_PROPERTY + " property.");
+        }
+        return url;
+    }
+
+    /**
+     * Obtains the repository to which a publication is published. If the publication is staged, the staging
+     * repository is opened if it has not already been opened.
+     *
+     * @param staging Service coordinating the staging repository. Not set if the publication is not staged.
+     * @param repositoryUrl Repository URL used if the publication is not staged
+     * @return Root URL of the repository.
+     * @throws GradleException if the publication is not staged and the repository URL has not been defined,
+     *      or the staging repository could not be opened.
+     */
+    static String resolveRepositoryUrl(final Provider<NexusStagingService> staging,
+                                       final Provider<String> repositoryUrl) {
+        return staging.isPresent() ? staging.get().getRepositoryUrl() : requireRepositoryUrl(repositoryUrl);
+    }
+
+    /**
+     * Ensures that the specified version can be published by the plugin's publishing tasks.
+     *
+     * @param version Version to be published
+     * @throws GradleException if the version is a Maven snapshot version.
+     */
+    static void requireReleaseLayout(final String version) {
+        if (MavenRepositoryLayout.isMavenSnapshot(version)) {
+            throw new GradleException("Maven snapshot version " + version + " cannot be published by the "
+                                              + "C Thing Software publishing tasks. Use the standard publish task.");
+        }
+    }
+
+    /**
+     * Converts the first character of the specified string to uppercase for use in a task name.
+     *
+     * @param str String to capitalize. May be {@code null}.
+     * @return Capitalized string or the empty string if the specified string is {@code null} or empty.
+     */
+    static String capitalize(@Nullable final String str) {
+        if (str == null || str.isEmpty()) {
+            return "";
+        }
+        return str.substring(0, 1).toUpperCase(Locale.ROOT) + str.substring(1);
+    }
+
+    private static TaskProvider<CommitPipelinedPublication> configurePublication(
+            final Project project, final MavenPublication publication, final Provider<CThingRepoService> service,
+            @Nullable final Provider<NexusStagingService> staging, final Provider<String> repositoryUrl,
+            final Provider<List<String>> mirrorUrls) {
+        final String publicationName = capitalize(publication.getName()) + "Publication";
+        final Provider<String> groupId = project.provider(publication::getGroupId);
+        final Provider<String> artifactId = project.provider(publication::getArtifactId);
+        final Provider<String> version = project.provider(publication::getVersion);
+        @Nullable final SigningExtension signing = findSigning(project);
+
+        final TaskProvider<CommitPipelinedPublication> commitTask =
+                project.getTasks().register("commit" + publicationName, CommitPipelinedPublication.class, task -> {
+                    task.setDescription("Publishes the POM and metadata of the " + publication.getName()
+                                                + " publication after all of its artifacts have been uploaded.");
+                    task.getService().set(service);
+                    task.usesService(service);
+                    useStaging(task, task.getStaging(), staging);
+                    task.getRepositoryUrl().set(repositoryUrl);
+                    task.getMirrorUrls().set(mirrorUrls);
+                    task.getGroupId().set(groupId);
+                    task.getArtifactId().set(artifactId);
+                    task.getVersion().set(version);
+                });
+
+        for (final MavenArtifact artifact : publication.getArtifacts()) {
+            final String suffix = capitalize(artifact.getClassifier()) + capitalize(artifact.getExtension());
+            final File artifactFile = artifact.getFile();
+            @Nullable final TaskProvider<Sign> signTask = signing == null
+                    ? null
+                    : registerSign(project, signing, "sign" + publicationName + suffix,
+                                   project.provider(() -> artifactFile), artifact.getBuildDependencies());
+
+            final TaskProvider<UploadArtifact> uploadTask =
+                    project.getTasks().register("upload" + publicationName + suffix, UploadArtifact.class, task -> {
+                        task.setDescription("Uploads " + artifactFile.getName() + " as soon as it has been built.");
+                        task.dependsOn(artifact.getBuildDependencies());
+                        task.getService().set(service);
+                        task.usesService(service);
+                        useStaging(task, task.getStaging(), staging);
+                        task.getRepositoryUrl().set(repositoryUrl);
+                        task.getMirrorUrls().set(mirrorUrls);
+                        task.getGroupId().set(groupId);
+                        task.getArtifactId().set(artifactId);
+                        task.getVersion().set(version);
+                        task.getClassifier().set(artifact.getClassifier());
+                        task.getExtension().set(artifact.getExtension());
+                        task.getArtifactFile().set(artifactFile);
+                        if (signTask != null) {
+                            task.getSignatureFile().fileProvider(signTask.map(PipelinedPublishing::signatureFile));
+                        }
+                    });
+            commitTask.configure(task -> task.dependsOn(uploadTask));
+        }
+
+        final TaskProvider<GenerateMavenPom> pomTask =
+                project.getTasks().named("generatePomFileFor" + publicationName, GenerateMavenPom.class);
+        final Provider<File> pomFile = pomTask.map(GenerateMavenPom::getDestination);
+        @Nullable final TaskProvider<Sign> pomSignTask = signing == null
+                ? null
+                : registerSign(project, signing, "sign" + publicationName + "Pom", pomFile, pomTask);
+        commitTask.configure(task -> {
+            task.dependsOn(pomTask);
+            task.getPomFile().fileProvider(pomFile);
+            if (pomSignTask != null) {
+                task.getPomSignatureFile().fileProvider(pomSignTask.map(PipelinedPublishing::signatureFile));
+            }
+        });
+
+        final String moduleTaskName = "generateMetadataFileFor" + publicationName;
+        if (project.getTasks().getNames().contains(moduleTaskName)) {
+            final TaskProvider<GenerateModuleMetadata> moduleTask =
+                    project.getTasks().named(moduleTaskName, GenerateModuleMetadata.class);
+            final Provider<File> moduleFile = moduleTask.map(task -> task.getOutputFile().get().getAsFile());
+            @Nullable final TaskProvider<Sign> moduleSignTask = signing == null
+                    ? null
+                    : registerSign(project, signing, "sign" + publicationName + "Module", moduleFile, moduleTask);
+            commitTask.configure(task -> {
+                task.dependsOn(moduleTask);
+                task.getModuleFile().fileProvider(moduleFile);
+                if (moduleSignTask != null) {
+                    task.dependsOn(moduleSignTask);
+                    task.getModuleSignatureFile().fileProvider(moduleSignTask.map(PipelinedPublishing::signatureFile));
+                }
+            });
+        }
+
+        return commitTask;
+    }
+
+    /**
+     * Creates the task which verifies the files uploaded for a publication. The task uses the same
+     * repositories and files as the specified commit task and runs after it.
+     *
+     * @param project Project containing the publication
+     * @param publication Publication whose files are to be verified
+     * @param repoExtension Repository extension providing the repository service and locations
+     * @param staging Service coordinating the staging repository, or {@code null} if the publication is not
+     *      staged
+     * @param commitTask Task which completes the publication
+     * @return Verification task.
+     */
+    private static TaskProvider<VerifyPublication> configureVerification(
+            final Project project, final MavenPublication publication, final CThingRepoExtension repoExtension,
+            @Nullable final Provider<NexusStagingService> staging,
+            final TaskProvider<CommitPipelinedPublication> commitTask) {
+        final String publicationName = capitalize(publication.getName()) + "Publication";
+        final Provider<String> groupId = project.provider(publication::getGroupId);
+        final Provider<String> artifactId = project.provider(publication::getArtifactId);
+        final Provider<String> version = project.provider(publication::getVersion);
+
+        return project.getTasks().register("verify" + publicationName, VerifyPublication.class, task -> {
+            task.setGroup(TASK_GROUP);
+            task.setDescription("Verifies the files uploaded for the " + publication.getName() + " publication.");
+            task.dependsOn(commitTask);
+            task.getService().set(repoExtension.getRepoService());
+            task.usesService(repoExtension.getRepoService());
+            useStaging(task, task.getStaging(), staging);
+            task.getRepositoryUrl().set(project.provider(repoExtension::getRepoUrl));
+            task.getMirrorUrls().set(project.provider(repoExtension::getMirrorUrls));
+            task.getVersion().set(version);
+            task.getStrict().set(project.provider(() -> repoExtension.getUploadVerification() == UploadVerification.STRICT));
+
+            for (final MavenArtifact artifact : publication.getArtifacts()) {
+                task.getFiles().putAll(project.provider(() -> Map.of(
+                        MavenRepositoryLayout.artifactPath(groupId.get(), artifactId.get(), version.get(),
+                                                           artifact.getClassifier(), artifact.getExtension()),
+                        artifact.getFile())));
+            }
+            task.getFiles().putAll(commitTask.map(commit -> {
+                final Map<String, File> files = new HashMap<>();
+                files.put(MavenRepositoryLayout.artifactPath(groupId.get(), artifactId.get(), version.get(), null, "pom"),
+                          commit.getPomFile().get().getAsFile());
+                if (commit.getModuleFile().isPresent()) {
+                    files.put(MavenRepositoryLayout.artifactPath(groupId.get(), artifactId.get(), version.get(), null,
+                                                                 "module"),
+                              commit.getModuleFile().get().getAsFile());
+                }
+                return files;
+            }));
+        });
+    }
+
+    /**
+     * Configures a task to publish through the staging repository, if the publication is staged.
+     *
+     * @param task Task accessing the repository
+     * @param property Staging service property of the task
+     * @param staging Service coordinating the staging repository, or {@code null} if the publication is not
+     *      staged
+     */
+    private static void useStaging(final Task task, final Property<NexusStagingService> property,
+                                   @Nullable final Provider<NexusStagingService> staging) {
+        if (staging != null) {
+            property.set(staging);
+            task.usesService(staging);
+        }
+    }
+
+    /**
+     * Obtains the signing extension if artifacts can be signed.
+     *
+     * @param project Project whose artifacts are to be signed
+     * @return Signing extension or {@code null} if the signing plugin has not been applied or the signing
+     *      credentials have not been defined.
+     */
+    @Nullable
+    static SigningExtension findSigning(final Project project) {
+        final CThingPublishingExtension publishingExtension =
+                project.getExtensions().getByType(CThingPublishingExtension.class);
+        return publishingExtension.canSign() ? project.getExtensions().findByType(SigningExtension.class) : null;
+    }
+
+    /**
+     * Obtains the task signing the specified file, creating it if it does not already exist. Sign tasks are
+     * shared by the pipelined publishing tasks and the {@link PublishToPluginPortal} task, so a file
+     * published by both is signed only once.
+     *
+     * @param project Project containing the file
+     * @param signing Signing extension providing the signatory
+     * @param name Name of the sign task
+     * @param file File to sign. The file is only queried when the sign task is configured.
+     * @param producer Task or build dependency producing the file
+     * @return Sign task.
+     */
+    static TaskProvider<Sign> registerSign(final Project project, final SigningExtension signing,
+                                           final String name, final Provider<File> file, final Object producer) {
+        if (project.getTasks().getNames().contains(name)) {
+            return project.getTasks().named(name, Sign.class);
+        }
+        return project.getTasks().register(name, Sign.class, task -> {
+            final File fileToSign = file.get();
+            task.setDescription("Signs " + fileToSign.getName() + " as soon as it has been built.");
+            task.dependsOn(producer);
+            task.setSignatory(signing.getSignatory());
+            task.setSignatureType(signing.getSignatureType());
+            task.setRequired(signing.isRequired());
+            task.onlyIf("File to sign exists", t -> fileToSign.isFile());
+            task.sign(fileToSign);
+        });
+    }
+
+    /**
+     * Obtains the signature file produced by the specified sign task.
+     *
+     * @param signTask Task signing a single file
+     * @return Signature file.
+     */
+    static File signatureFile(final Sign signTask) {
+        return signTask.getSingleSignature().getFile();
+    }
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Publishes plugin versions to the Gradle plugin portal. A version of a plugin is published in three steps.
+ * First, the new version is requested, listing the type and SHA-256 hash of each artifact of the version.
+ * The portal responds with the location to which each artifact it does not already have must be uploaded.
+ * The artifacts are then uploaded and, finally, the version is activated. Requests to the portal are signed
+ * using OAuth 1.0 with the portal key and secret of the publisher. Requests failing because the server is
+ * overloaded, or because the connection fails, are retried with the same backoff as
+ * {@link CThingRepoService#send(HttpRequest, HttpResponse.BodyHandler)}. Each attempt is signed again so
+ * that the portal never sees a reused nonce. The client can be used concurrently.
+ */
+final class PluginPortalClient {
+
+    /** Location of the Gradle plugin portal. */
+    static final String DEFAULT_URL = "https://plugins.gradle.org";
+
+    private static final Logger LOGGER = Logging.getLogger(PluginPortalClient.class);
+    private static final String SIGNATURE_METHOD = "HMAC-SHA1";
+    private static final String MAC_ALGORITHM = "HmacSHA1";
+    private static final String JSON_TYPE = "application/json";
+
+    private final HttpClient client;
+    private final String portalUrl;
+    private final String key;
+    private final String secret;
+    private final int maxRetries;
+    private final SecureRandom random;
+
+    /**
+     * Constructs a client.
+     *
+     * @param client HTTP client used to send the requests
+     * @param portalUrl Root URL of the portal (e.g. {@value #DEFAULT_URL})
+     * @param key Portal key of the publisher
+     * @param secret Portal secret of the publisher
+     * @param maxRetries Maximum number of times a request is retried
+     */
+    PluginPortalClient(final HttpClient client, final String portalUrl, final String key, final String secret,
+                       final int maxRetries) {
+        this.client = client;
+        this.portalUrl = portalUrl.endsWith("/") ? portalUrl.substring(0, portalUrl.length() - 1) : portalUrl;
+        this.key = key;
+        this.secret = secret;
+        this.maxRetries = maxRetries;
+        this.random = new SecureRandom();
+    }
+
+    /**
+     * Requests the publication of a new version of a plugin.
+     *
+     * @param plugin Plugin to publish
+     * @param groupId Group of the plugin artifacts
+     * @param artifactId Name of the plugin artifacts
+     * @param version Version of the plugin
+     * @param website Web site of the plugin, or {@code null} if the plugin does not have a web site
+     * @param vcsUrl Location of the source code of the plugin, or {@code null} if not known
+     * @param artifactHashes SHA-256 hash of each artifact of the version, keyed by artifact type (see
+     *      {@link #artifactType(String, String)})
+     * @return Location to which each artifact must be uploaded, keyed by artifact hash. Artifacts that the
+     *      portal already has are not included.
+     * @throws GradleException if the portal rejects the version or cannot be reached
+     */
+    Map<String, URI> requestVersion(final PortalPlugin plugin, final String groupId, final String artifactId,
+                                    final String version, @Nullable final String website,
+                                    @Nullable final String vcsUrl, final Map<String, String> artifactHashes) {
+        final StringWriter body = new StringWriter();
+        try {
+            final JsonWriter writer = new JsonWriter(body);
+            writer.beginObject()
+                  .member("pluginId", plugin.getId())
+                  .member("pluginVersion", version)
+                  .member("displayName", plugin.getDisplayName());
+            if (plugin.getDescription() != null) {
+                writer.member("description", plugin.getDescription());
+            }
+            writer.name("tags").beginArray();
+            for (final String tag : plugin.getTags()) {
+                writer.value(tag);
+            }
+            writer.endArray();
+            if (website != null) {
+                writer.member("webSite", website);
+            }
+            if (vcsUrl != null) {
+                writer.member("vcsUrl", vcsUrl);
+            }
+            writer.name("mavenCoordinates").beginObject()
+                  .member("groupId", groupId)
+                  .member("artifactId", artifactId)
+                  .member("version", version)
+                  .endObject();
+            writer.name("artifacts").beginArray();
+            for (final Map.Entry<String, String> entry : artifactHashes.entrySet()) {
+                writer.beginObject().member("type", entry.getKey()).member("hash", entry.getValue()).endObject();
+            }
+            writer.endArray().endObject().finish();
+        } catch (final IOException ex) {
+            throw new GradleException("Could not create the portal request for " + plugin.getId(), ex);
+        }
+
+        final String description = "request " + plugin.getId() + " version " + version;
+        final URI uri = URI.create(this.portalUrl + "/api/v1/publish/versions/new/" + plugin.getId());
+        final Map<String, Object> response = portalRequest(uri, body.toString(), description);
+
+        final Map<String, URI> publishTo = new LinkedHashMap<>();
+        if (response.get("publishTo") instanceof final Map<?, ?> locations) {
+            locations.forEach((hash, location) -> publishTo.put(String.valueOf(hash),
+                                                                URI.create(String.valueOf(location))));
+        }
+        return publishTo;
+    }
+
+    /**
+     * Uploads an artifact to the location provided by the portal. The location is pre-authorized by the
+     * portal, so the upload is not signed.
+     *
+     * @param location Location to which the artifact is uploaded
+     * @param file Artifact to upload
+     * @throws GradleException if the artifact could not be uploaded
+     */
+    void upload(final URI location, final StagedFile file) {
+        final HttpResponse<String> response = send(() -> HttpRequest.newBuilder(location)
+                                                                    .PUT(getBodyPublisher(file))
+                                                                    .build(),
+                                                   "upload " + file.getPath().getFileName());
+        if (response.statusCode() >= 400) {
+            throw new GradleException("Could not upload " + file.getPath() + " to the Gradle plugin portal (status "
+                                              + response.statusCode() + "): " + response.body());
+        }
+    }
+
+    /**
+     * Activates a plugin version once all of its artifacts have been uploaded.
+     *
+     * @param pluginId Identifier of the plugin
+     * @param version Version of the plugin to activate
+     * @throws GradleException if the portal rejects the activation or cannot be reached
+     */
+    void activate(final String pluginId, final String version) {
+        final URI uri = URI.create(this.portalUrl + "/api/v1/publish/versions/activate/" + pluginId + '/' + version);
+        portalRequest(uri, "{}", "activate " + pluginId + " version " + version);
+    }
+
+    /**
+     * Determines the portal type of an artifact. The type is the extension of the artifact followed by its
+     * classifier, if any (e.g. {@code jar}, {@code jar-sources} or {@code pom.asc}).
+     *
+     * @param classifier Classifier of the artifact, or {@code null} if the artifact does not have a classifier
+     * @param extension Extension of the artifact
+     * @return Portal type of the artifact.
+     */
+    static String artifactType(@Nullable final String classifier, final String extension) {
+        return classifier == null || classifier.isEmpty() ? extension : extension + '-' + classifier;
+    }
+
+    /**
+     * Creates the OAuth 1.0 {@code Authorization} header signing a request with the HMAC-SHA1 method. The
+     * publisher is identified by the consumer key and secret, and no token is used.
+     *
+     * @param method HTTP method of the request
+     * @param uri Location of the request. Query parameters are included in the signature.
+     * @param key Consumer key
+     * @param secret Consumer secret
+     * @param nonce Random value unique to the request
+     * @param timestamp Time of the request in seconds since the epoch
+     * @return Value of the {@code Authorization} header.
+     */
+    static String authorization(final String method, final URI uri, final String key, final String secret,
+                                final String nonce, final long timestamp) {
+        final Map<String, String> oauthParams = new LinkedHashMap<>();
+        oauthParams.put("oauth_consumer_key", key);
+        oauthParams.put("oauth_nonce", nonce);
+        oauthParams.put("oauth_signature_method", SIGNATURE_METHOD);
+        oauthParams.put("oauth_timestamp", Long.toString(timestamp));
+        oauthParams.put("oauth_version", "1.0");
+
+        final List<String[]> params = new ArrayList<>();
+        oauthParams.forEach((name, value) -> params.add(new String[] { encode(name), encode(value) }));
+        final String query = uri.getRawQuery();
+        if (query != null && !query.isEmpty()) {
+            for (final String param : query.split("&")) {
+                final int equals = param.indexOf('=');
+                final String name = equals < 0 ? param : param.substring(0, equals);
+                final String value = equals < 0 ? "" : param.substring(equals + 1);
+                params.add(new String[] { encode(URLDecoder.decode(name, StandardCharsets.UTF_8)),
+                                          encode(URLDecoder.decode(value, StandardCharsets.UTF_8)) });
+            }
+        }
+        params.sort((p1, p2) -> p1[0].equals(p2[0]) ? p1[1].compareTo(p2[1]) : p1[0].compareTo(p2[0]));
+
+        final StringBuilder normalized = new StringBuilder();
+        for (final String[] param : params) {
+            if (!normalized.isEmpty()) {
+                normalized.append('&');
+            }
+            normalized.append(param[0]).append('=').append(param[1]);
+        }
+
+        final String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        final int port = uri.getPort();
+        final boolean defaultPort = port < 0 || ("http".equals(scheme) && port == 80)
+                || ("https".equals(scheme) && port == 443);
+        final String baseUri = scheme + "://" + uri.getHost().toLowerCase(Locale.ROOT)
+                + (defaultPort ? "" : ":" + port) + uri.getRawPath();
+        final String baseString = method.toUpperCase(Locale.ROOT) + '&' + encode(baseUri) + '&'
+                + encode(normalized.toString());
+
+        final String signature;
+        try {
+            final Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(new SecretKeySpec((encode(secret) + '&').getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM));
+            signature = Base64.getEncoder().encodeToString(mac.doFinal(baseString.getBytes(StandardCharsets.UTF_8)));
+        } catch (final GeneralSecurityException ex) {
+            throw new GradleException("Could not sign the Gradle plugin portal request", ex);
+        }
+        oauthParams.put("oauth_signature", signature);
+
+        final StringBuilder header = new StringBuilder("OAuth ");
+        oauthParams.forEach((name, value) -> {
+            if (header.length() > "OAuth ".length()) {
+                header.append(", ");
+            }
+            header.append(encode(name)).append("=\"").append(encode(value)).append('"');
+        });
+        return header.toString();
+    }
+
+    /**
+     * Percent encodes a string as required by OAuth 1.0 (RFC 3986 unreserved characters are not encoded).
+     *
+     * @param str String to encode
+     * @return Encoded string.
+     */
+    static String encode(final String str) {
+        return URLEncoder.encode(str, StandardCharsets.UTF_8)
+                         .replace("+", "%20")
+                         .replace("*", "%2A")
+                         .replace("%7E", "~");
+    }
+
+    /**
+     * Sends a signed JSON request to the portal and interprets the JSON response.
+     *
+     * @param uri Location of the request
+     * @param body JSON body of the request
+     * @param description Description of the request used in messages
+     * @return Members of the response object.
+     * @throws GradleException if the request fails or the portal reports a failure
+     */
+    private Map<String, Object> portalRequest(final URI uri, final String body, final String description) {
+        final HttpResponse<String> response = send(() -> {
+            final byte[] nonce = new byte[16];
+            this.random.nextBytes(nonce);
+            return HttpRequest.newBuilder(uri)
+                              .header("Content-Type", JSON_TYPE)
+                              .header("Accept", JSON_TYPE)
+                              .header("Authorization", authorization("POST", uri, this.key, this.secret,
+                                                                     HexFormat.of().formatHex(nonce),
+                                                                     System.currentTimeMillis() / 1000))
+                              .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                              .build();
+        }, description);
+
+        final String responseBody = response.body();
+        final Map<String, Object> result = responseBody == null || responseBody.isBlank()
+                                           ? Map.of()
+                                           : JsonReader.parseObject(responseBody);
+        if (response.statusCode() >= 400 || Boolean.TRUE.equals(result.get("failed"))) {
+            final Object message = result.get("errorMessage");
+            throw new GradleException("Gradle plugin portal could not " + description + " (status "
+                                              + response.statusCode() + "): "
+                                              + (message == null ? responseBody : message));
+        }
+        final Object warning = result.get("warningMessage");
+        if (warning != null) {
+            LOGGER.warn("Gradle plugin portal warning for {}: {}", description, warning);
+        }
+        return result;
+    }
+
+    /**
+     * Sends a request, retrying if the server is overloaded or the connection fails.
+     *
+     * @param requestSupplier Creates the request for each attempt
+     * @param description Description of the request used in messages
+     * @return Response from the server. The response may indicate an error.
+     * @throws GradleException if the request could not be sent after all retries or the thread is interrupted
+     */
+    private HttpResponse<String> send(final Supplier<HttpRequest> requestSupplier, final String description) {
+        int attempt = 0;
+        try {
+            while (true) {
+                final HttpRequest request = requestSupplier.get();
+                final HttpResponse<String> response;
+                try {
+                    response = this.client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+                } catch (final IOException ex) {
+                    if (attempt >= this.maxRetries) {
+                        throw new GradleException("Could not " + description + " on the Gradle plugin portal: "
+                                                          + ex.getMessage(), ex);
+                    }
+                    LOGGER.info("Retrying {} after error: {}", description, ex.getMessage());
+                    Thread.sleep(CThingRepoService.backoff(attempt, null));
+                    attempt++;
+                    continue;
+                }
+
+                final int status = response.statusCode();
+                if (CThingRepoService.OVERLOADED_STATUS.contains(status) && attempt < this.maxRetries) {
+                    LOGGER.info("Retrying {} after status {}", description, status);
+                    Thread.sleep(CThingRepoService.backoff(attempt,
+                                                           response.headers().firstValue("Retry-After").orElse(null)));
+                    attempt++;
+                    continue;
+                }
+                return response;
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Interrupted while trying to " + description, ex);
+        }
+    }
+
+    private static HttpRequest.BodyPublisher getBodyPublisher(final StagedFile file) {
+        try {
+            return file.getBodyPublisher();
+        } catch (final IOException ex) {
+            throw new GradleException("Could not read " + file.getPath(), ex);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.gradle.api.Project;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.publish.PublishingExtension;
+import org.gradle.api.publish.maven.MavenArtifact;
+import org.gradle.api.publish.maven.MavenPublication;
+import org.gradle.api.publish.maven.tasks.GenerateMavenPom;
+import org.gradle.api.publish.tasks.GenerateModuleMetadata;
+import org.gradle.api.tasks.TaskProvider;
+import org.gradle.plugin.devel.GradlePluginDevelopmentExtension;
+import org.gradle.plugin.devel.PluginDeclaration;
+import org.gradle.plugins.signing.Sign;
+import org.gradle.plugins.signing.SigningExtension;
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Creates the {@link PublishToPluginPortal} task, which publishes all plugins declared in the
+ * {@code gradlePlugin} block of a project to the Gradle plugin portal concurrently. The task publishes the
+ * artifacts of the {@code pluginMaven} publication created by the {@code java-gradle-plugin} plugin. If
+ * artifacts can be signed, the signatures are produced by the same sign tasks used by pipelined publishing
+ * (see {@link PipelinedPublishing}), so each artifact is signed once regardless of where it is published.
+ */
+final class PluginPortalPublishing {
+
+    /** Name of the task publishing the plugins. */
+    static final String TASK_NAME = "publishPluginsToPortal";
+
+    /** Property specifying the portal key of the publisher. */
+    static final String KEY_PROPERTY = "gradle.publish.key";
+
+    /** Property specifying the portal secret of the publisher. */
+    static final String SECRET_PROPERTY = "gradle.publish.secret";
+
+    /** Property overriding the location of the portal (e.g. to publish to a test server). */
+    static final String PORTAL_URL_PROPERTY = "gradle.portal.url";
+
+    /** Default maximum number of requests made to the portal concurrently. */
+    static final int DEFAULT_MAX_PARALLEL_REQUESTS = 4;
+
+    private static final String PUBLICATION_NAME = "pluginMaven";
+
+    private PluginPortalPublishing() {
+    }
+
+    /**
+     * Creates the portal publishing task if the project applies the {@code java-gradle-plugin} and
+     * {@code maven-publish} plugins.
+     *
+     * @param project Project whose plugins are to be published
+     * @param repoExtension Repository extension providing the repository service and retry configuration
+     */
+    static void configure(final Project project, final CThingRepoExtension repoExtension) {
+        project.getPluginManager().withPlugin("java-gradle-plugin", pluginDevPlugin ->
+                project.getPluginManager().withPlugin("maven-publish", mavenPlugin -> {
+                    final TaskProvider<PublishToPluginPortal> portalTask =
+                            project.getTasks().register(TASK_NAME, PublishToPluginPortal.class, task -> {
+                                task.setGroup("publishing");
+                                task.setDescription("Publishes all plugins of the project to the Gradle plugin "
+                                                            + "portal concurrently.");
+                                task.getService().set(repoExtension.getRepoService());
+                                task.usesService(repoExtension.getRepoService());
+                                task.getPortalUrl().set(project.provider(() -> {
+                                    final String url = ProjectProperties.findString(project, PORTAL_URL_PROPERTY);
+                                    return url == null ? PluginPortalClient.DEFAULT_URL : url;
+                                }));
+                                task.getKey().set(project.provider(
+                                        () -> ProjectProperties.findString(project, KEY_PROPERTY)));
+                                task.getSecret().set(project.provider(
+                                        () -> ProjectProperties.findString(project, SECRET_PROPERTY)));
+                                task.getMaxParallelRequests().convention(DEFAULT_MAX_PARALLEL_REQUESTS);
+                                task.getMaxRetries().convention(project.provider(repoExtension::getMaxUploadRetries));
+                            });
+
+                    // The pluginMaven publication and its artifacts are only known once the project has been
+                    // evaluated.
+                    project.afterEvaluate(p -> configureArtifacts(project, portalTask));
+                }));
+    }
+
+    private static void configureArtifacts(final Project project,
+                                           final TaskProvider<PublishToPluginPortal> portalTask) {
+        final GradlePluginDevelopmentExtension pluginDev =
+                project.getExtensions().getByType(GradlePluginDevelopmentExtension.class);
+        final PublishingExtension publishing = project.getExtensions().getByType(PublishingExtension.class);
+        @Nullable final MavenPublication publication =
+                publishing.getPublications().withType(MavenPublication.class).findByName(PUBLICATION_NAME);
+
+        portalTask.configure(task -> {
+            task.getWebsite().set(pluginDev.getWebsite());
+            task.getVcsUrl().set(pluginDev.getVcsUrl());
+            task.getPlugins().set(project.provider(() -> pluginDev.getPlugins()
+                                                                  .stream()
+                                                                  .map(PluginPortalPublishing::toPortalPlugin)
+                                                                  .collect(Collectors.toList())));
+        });
+        if (publication == null) {
+            return;
+        }
+
+        final String publicationName = PipelinedPublishing.capitalize(publication.getName()) + "Publication";
+        @Nullable final SigningExtension signing = PipelinedPublishing.findSigning(project);
+        portalTask.configure(task -> {
+            task.getGroupId().set(project.provider(publication::getGroupId));
+            task.getArtifactId().set(project.provider(publication::getArtifactId));
+            task.getVersion().set(project.provider(publication::getVersion));
+        });
+
+        for (final MavenArtifact artifact : publication.getArtifacts()) {
+            final String suffix = PipelinedPublishing.capitalize(artifact.getClassifier())
+                    + PipelinedPublishing.capitalize(artifact.getExtension());
+            addArtifact(project, portalTask, signing, "sign" + publicationName + suffix, artifact.getClassifier(),
+                        artifact.getExtension(), project.provider(artifact::getFile),
+                        artifact.getBuildDependencies());
+        }
+
+        final TaskProvider<GenerateMavenPom> pomTask =
+                project.getTasks().named("generatePomFileFor" + publicationName, GenerateMavenPom.class);
+        addArtifact(project, portalTask, signing, "sign" + publicationName + "Pom", null, "pom",
+                    pomTask.map(GenerateMavenPom::getDestination), pomTask);
+
+        final String moduleTaskName = "generateMetadataFileFor" + publicationName;
+        if (project.getTasks().getNames().contains(moduleTaskName)) {
+            final TaskProvider<GenerateModuleMetadata> moduleTask =
+                    project.getTasks().named(moduleTaskName, GenerateModuleMetadata.class);
+            addArtifact(project, portalTask, signing, "sign" + publicationName + "Module", null, "module",
+                        moduleTask.map(task -> task.getOutputFile().get().getAsFile()), moduleTask);
+        }
+    }
+
+    private static void addArtifact(final Project project, final TaskProvider<PublishToPluginPortal> portalTask,
+                                    @Nullable final SigningExtension signing, final String signTaskName,
+                                    @Nullable final String classifier, final String extension,
+                                    final Provider<File> file, final Object producer) {
+        @Nullable final TaskProvider<Sign> signTask = signing == null
+                ? null
+                : PipelinedPublishing.registerSign(project, signing, signTaskName, file, producer);
+        portalTask.configure(task -> {
+            task.dependsOn(producer);
+            task.getArtifacts().put(PluginPortalClient.artifactType(classifier, extension), file);
+            if (signTask != null) {
+                task.dependsOn(signTask);
+                final Provider<File> signatureFile = signTask.map(PipelinedPublishing::signatureFile);
+                task.getArtifacts().put(PluginPortalClient.artifactType(classifier, extension + ".asc"),
+                                        signatureFile);
+            }
+        });
+    }
+
+    private static PortalPlugin toPortalPlugin(final PluginDeclaration declaration) {
+        final String displayName = declaration.getDisplayName();
+        return new PortalPlugin(declaration.getId(), displayName == null ? declaration.getId() : displayName,
+                                declaration.getDescription(), List.copyOf(declaration.getTags().get()));
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Represents a dependency, or a managed dependency, written to a POM by the {@link StreamingPomWriter}.
+ */
+public final class PomDependency implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String groupId;
+    private final String artifactId;
+    @Nullable
+    private final String version;
+    @Nullable
+    private final String classifier;
+    @Nullable
+    private final String type;
+    @Nullable
+    private final String scope;
+    private final boolean optional;
+    private final List<String> exclusions;
+
+    /**
+     * Constructs a dependency.
+     *
+     * @param groupId Group of the dependency
+     * @param artifactId Name of the dependency
+     * @param version Version of the dependency, or {@code null} if the version is managed elsewhere
+     *      (e.g. by a platform)
+     * @param classifier Classifier of the dependency artifact, or {@code null} for the main artifact
+     * @param type Type of the dependency artifact, or {@code null} for a jar
+     * @param scope Maven scope of the dependency, or {@code null} for the default (i.e. {@code compile}) scope
+     * @param optional {@code true} if the dependency is optional
+     * @param exclusions Transitive dependencies to exclude in {@code group:artifact} notation. Either part
+     *      may be {@code *} to exclude all groups or artifacts.
+     */
+    public PomDependency(final String groupId, final String artifactId, @Nullable final String version,
+                         @Nullable final String classifier, @Nullable final String type, @Nullable final String scope,
+                         final boolean optional, final List<String> exclusions) {
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+        this.classifier = classifier;
+        this.type = type;
+        this.scope = scope;
+        this.optional = optional;
+        this.exclusions = List.copyOf(exclusions);
+    }
+
+    /**
+     * Constructs a dependency on the main jar of the specified module.
+     *
+     * @param groupId Group of the dependency
+     * @param artifactId Name of the dependency
+     * @param version Version of the dependency, or {@code null} if the version is managed elsewhere
+     * @param scope Maven scope of the dependency, or {@code null} for the default scope
+     */
+    public PomDependency(final String groupId, final String artifactId, @Nullable final String version,
+                         @Nullable final String scope) {
+        this(groupId, artifactId, version, null, null, scope, false, List.of());
+    }
+
+    /**
+     * Obtains the group of the dependency.
+     *
+     * @return Group of the dependency.
+     */
+    public String getGroupId() {
+        return this.groupId;
+    }
+
+    /**
+     * Obtains the name of the dependency.
+     *
+     * @return Name of the dependency.
+     */
+    public String getArtifactId() {
+        return this.artifactId;
+    }
+
+    /**
+     * Obtains the version of the dependency.
+     *
+     * @return Version of the dependency, or {@code null} if the version is managed elsewhere.
+     */
+    @Nullable
+    public String getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Obtains the classifier of the dependency artifact.
+     *
+     * @return Classifier of the dependency artifact, or {@code null} for the main artifact.
+     */
+    @Nullable
+    public String getClassifier() {
+        return this.classifier;
+    }
+
+    /**
+     * Obtains the type of the dependency artifact.
+     *
+     * @return Type of the dependency artifact, or {@code null} for a jar.
+     */
+    @Nullable
+    public String getType() {
+        return this.type;
+    }
+
+    /**
+     * Obtains the Maven scope of the dependency.
+     *
+     * @return Scope of the dependency, or {@code null} for the default scope.
+     */
+    @Nullable
+    public String getScope() {
+        return this.scope;
+    }
+
+    /**
+     * Indicates whether the dependency is optional.
+     *
+     * @return {@code true} if the dependency is optional.
+     */
+    public boolean isOptional() {
+        return this.optional;
+    }
+
+    /**
+     * Obtains the transitive dependencies excluded from the dependency.
+     *
+     * @return Exclusions in {@code group:artifact} notation. If there are no exclusions, an empty list is returned.
+     */
+    public List<String> getExclusions() {
+        return this.exclusions;
+    }
+
+    @Override
+    public String toString() {
+        return this.groupId + ':' + this.artifactId + ':' + this.version;
+    }
+
+    @Override
+    public boolean equals(@Nullable final Object obj) {
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        final PomDependency that = (PomDependency)obj;
+        return this.optional == that.optional
+                && Objects.equals(this.groupId, that.groupId)
+                && Objects.equals(this.artifactId, that.artifactId)
+                && Objects.equals(this.version, that.version)
+                && Objects.equals(this.classifier, that.classifier)
+                && Objects.equals(this.type, that.type)
+                && Objects.equals(this.scope, that.scope)
+                && Objects.equals(this.exclusions, that.exclusions);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.groupId, this.artifactId, this.version, this.classifier, this.type, this.scope,
+                            this.optional, this.exclusions);
+    }
+}
@@ -4,13 +4,18 @@
  */
 package org.cthing.gradle.plugins.publishing;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.Objects;
 
 
 /**
  * Represents a project developer.
  */
-public class PomDeveloper {
+public class PomDeveloper implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
 
     private final String id;
     private final String name;
@@ -0,0 +1,483 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Content of a POM written by the {@link StreamingPomWriter}. The model holds only the information needed
+ * to write the POM, so even a POM with thousands of dependencies occupies little memory.
+ */
+public final class PomModel implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String groupId;
+    private final String artifactId;
+    private final String version;
+    @Nullable
+    private String packaging;
+    @Nullable
+    private String name;
+    @Nullable
+    private String description;
+    @Nullable
+    private String url;
+    @Nullable
+    private String organizationName;
+    @Nullable
+    private String organizationUrl;
+    @Nullable
+    private PomLicense license;
+    private final List<PomDeveloper> developers;
+    @Nullable
+    private String scmConnection;
+    @Nullable
+    private String scmDeveloperConnection;
+    @Nullable
+    private String scmUrl;
+    @Nullable
+    private String scmTag;
+    @Nullable
+    private String issueSystem;
+    @Nullable
+    private String issueUrl;
+    @Nullable
+    private String ciSystem;
+    @Nullable
+    private String ciUrl;
+    private final Map<String, String> properties;
+    private final List<PomDependency> managedDependencies;
+    private final List<PomDependency> dependencies;
+    private boolean publishedWithGradleMetadata;
+
+    /**
+     * Constructs a model for the specified coordinates.
+     *
+     * @param groupId Group of the publication
+     * @param artifactId Name of the publication
+     * @param version Version of the publication
+     */
+    public PomModel(final String groupId, final String artifactId, final String version) {
+        this.groupId = groupId;
+        this.artifactId = artifactId;
+        this.version = version;
+        this.developers = new ArrayList<>();
+        this.properties = new LinkedHashMap<>();
+        this.managedDependencies = new ArrayList<>();
+        this.dependencies = new ArrayList<>();
+    }
+
+    /**
+     * Obtains the group of the publication.
+     *
+     * @return Group of the publication.
+     */
+    public String getGroupId() {
+        return this.groupId;
+    }
+
+    /**
+     * Obtains the name of the publication.
+     *
+     * @return Name of the publication.
+     */
+    public String getArtifactId() {
+        return this.artifactId;
+    }
+
+    /**
+     * Obtains the version of the publication.
+     *
+     * @return Version of the publication.
+     */
+    public String getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Obtains the packaging of the publication.
+     *
+     * @return Packaging of the publication, or {@code null} for the default (i.e. {@code jar}) packaging.
+     */
+    @Nullable
+    public String getPackaging() {
+        return this.packaging;
+    }
+
+    /**
+     * Sets the packaging of the publication.
+     *
+     * @param packaging Packaging of the publication (e.g. {@code pom}), or {@code null} for the default packaging
+     * @return This model
+     */
+    public PomModel setPackaging(@Nullable final String packaging) {
+        this.packaging = packaging;
+        return this;
+    }
+
+    /**
+     * Obtains the display name of the project.
+     *
+     * @return Display name of the project, or {@code null} if not specified.
+     */
+    @Nullable
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Sets the display name of the project.
+     *
+     * @param name Display name of the project
+     * @return This model
+     */
+    public PomModel setName(@Nullable final String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * Obtains the description of the project.
+     *
+     * @return Description of the project, or {@code null} if not specified.
+     */
+    @Nullable
+    public String getDescription() {
+        return this.description;
+    }
+
+    /**
+     * Sets the description of the project.
+     *
+     * @param description Description of the project
+     * @return This model
+     */
+    public PomModel setDescription(@Nullable final String description) {
+        this.description = description;
+        return this;
+    }
+
+    /**
+     * Obtains the URL of the project's home page.
+     *
+     * @return URL of the project, or {@code null} if not specified.
+     */
+    @Nullable
+    public String getUrl() {
+        return this.url;
+    }
+
+    /**
+     * Sets the URL of the project's home page.
+     *
+     * @param url URL of the project
+     * @return This model
+     */
+    public PomModel setUrl(@Nullable final String url) {
+        this.url = url;
+        return this;
+    }
+
+    /**
+     * Obtains the name of the organization responsible for the project.
+     *
+     * @return Name of the organization, or {@code null} if not specified.
+     */
+    @Nullable
+    public String getOrganizationName() {
+        return this.organizationName;
+    }
+
+    /**
+     * Obtains the URL of the organization responsible for the project.
+     *
+     * @return URL of the organization, or {@code null} if not specified.
+     */
+    @Nullable
+    public String getOrganizationUrl() {
+        return this.organizationUrl;
+    }
+
+    /**
+     * Sets the organization responsible for the project. The organization is also written for each developer.
+     *
+     * @param orgName Name of the organization
+     * @param orgUrl URL of the organization
+     * @return This model
+     */
+    public PomModel setOrganization(@Nullable final String orgName, @Nullable final String orgUrl) {
+        this.organizationName = orgName;
+        this.organizationUrl = orgUrl;
+        return this;
+    }
+
+    /**
+     * Obtains the license of the project.
+     *
+     * @return License of the project, or {@code null} if not specified.
+     */
+    @Nullable
+    public PomLicense getLicense() {
+        return this.license;
+    }
+
+    /**
+     * Sets the license of the project.
+     *
+     * @param license License of the project
+     * @return This model
+     */
+    public PomModel setLicense(@Nullable final PomLicense license) {
+        this.license = license;
+        return this;
+    }
+
+    /**
+     * Obtains the developers of the project.
+     *
+     * @return Developers of the project in the order they were added.
+     */
+    public List<PomDeveloper> getDevelopers() {
+        return Collections.unmodifiableList(this.developers);
+    }
+
+    /**
+     * Adds a developer of the project.
+     *
+     * @param developer Developer to add
+     * @return This model
+     */
+    public PomModel addDeveloper(final PomDeveloper developer) {
+        this.developers.add(developer);
+        return this;
+    }
+
+    /**
+     * Obtains the URL for read-only access to the source code repository.
+     *
+     * @return SCM connection URL, or {@code null} if not specified.
+     */
+    @Nullable
+    public String getScmConnection() {
+        return this.scmConnection;
+    }
+
+    /**
+     * Obtains the URL for read-write access to the source code repository.
+     *
+     * @return SCM developer connection URL, or {@code null} if not specified.
+     */
+    @Nullable
+    public String getScmDeveloperConnection() {
+        return this.scmDeveloperConnection;
+    }
+
+    /**
+     * Obtains the URL for browsing the source code repository.
+     *
+     * @return SCM browse URL, or {@code null} if not specified.
+     */
+    @Nullable
+    public String getScmUrl() {
+        return this.scmUrl;
+    }
+
+    /**
+     * Sets the source code repository information.
+     *
+     * @param connection URL for read-only access to the repository
+     * @param developerConnection URL for read-write access to the repository
+     * @param browseUrl URL for browsing the repository
+     * @return This model
+     */
+    public PomModel setScm(@Nullable final String connection, @Nullable final String developerConnection,
+                           @Nullable final String browseUrl) {
+        this.scmConnection = connection;
+        this.scmDeveloperConnection = developerConnection;
+        this.scmUrl = browseUrl;
+        return this;
+    }
+
+    /**
+     * Obtains the revision of the source code from which the artifacts were built.
+     *
+     * @return SCM tag, or {@code null} if not specified.
+     */
+    @Nullable
+    public String getScmTag() {
+        return this.scmTag;
+    }
+
+    /**
+     * Sets the revision of the source code from which the artifacts were built (e.g. a tag name or commit).
+     *
+     * @param tag SCM tag
+     * @return This model
+     */
+    public PomModel setScmTag(@Nullable final String tag) {
+        this.scmTag = tag;
+        return this;
+    }
+
+    /**
+     * Obtains the name of the issue tracking system.
+     *
+     * @return Issue tracking system, or {@code null} if not specified.
+     */
+    @Nullable
+    public String getIssueSystem() {
+        return this.issueSystem;
+    }
+
+    /**
+     * Obtains the URL of the issue tracking system.
+     *
+     * @return Issue tracking URL, or {@code null} if not specified.
+     */
+    @Nullable
+    public String getIssueUrl() {
+        return this.issueUrl;
+    }
+
+    /**
+     * Sets the issue tracking system.
+     *
+     * @param system Name of the issue tracking system
+     * @param issuesUrl URL of the issue tracking system
+     * @return This model
+     */
+    public PomModel setIssueManagement(@Nullable final String system, @Nullable final String issuesUrl) {
+        this.issueSystem = system;
+        this.issueUrl = issuesUrl;
+        return this;
+    }
+
+    /**
+     * Obtains the name of the continuous integration system.
+     *
+     * @return CI system, or {@code null} if not specified.
+     */
+    @Nullable
+    public String getCiSystem() {
+        return this.ciSystem;
+    }
+
+    /**
+     * Obtains the URL of the continuous integration system.
+     *
+     * @return CI URL, or {@code null} if not specified.
+     */
+    @Nullable
+    public String getCiUrl() {
+        return this.ciUrl;
+    }
+
+    /**
+     * Sets the continuous integration system.
+     *
+     * @param system Name of the CI system
+     * @param systemUrl URL of the CI system
+     * @return This model
+     */
+    public PomModel setCiManagement(@Nullable final String system, @Nullable final String systemUrl) {
+        this.ciSystem = system;
+        this.ciUrl = systemUrl;
+        return this;
+    }
+
+    /**
+     * Obtains the POM properties.
+     *
+     * @return Properties in the order they were added.
+     */
+    public Map<String, String> getProperties() {
+        return Collections.unmodifiableMap(this.properties);
+    }
+
+    /**
+     * Sets a POM property.
+     *
+     * @param key Name of the property
+     * @param value Value of the property
+     * @return This model
+     */
+    public PomModel putProperty(final String key, final String value) {
+        this.properties.put(key, value);
+        return this;
+    }
+
+    /**
+     * Obtains the dependencies written to the {@code dependencyManagement} section.
+     *
+     * @return Managed dependencies in the order they were added.
+     */
+    public List<PomDependency> getManagedDependencies() {
+        return Collections.unmodifiableList(this.managedDependencies);
+    }
+
+    /**
+     * Adds a dependency to the {@code dependencyManagement} section.
+     *
+     * @param dependency Managed dependency to add
+     * @return This model
+     */
+    public PomModel addManagedDependency(final PomDependency dependency) {
+        this.managedDependencies.add(dependency);
+        return this;
+    }
+
+    /**
+     * Obtains the dependencies of the project.
+     *
+     * @return Dependencies in the order they were added.
+     */
+    public List<PomDependency> getDependencies() {
+        return Collections.unmodifiableList(this.dependencies);
+    }
+
+    /**
+     * Adds a dependency of the project.
+     *
+     * @param dependency Dependency to add
+     * @return This model
+     */
+    public PomModel addDependency(final PomDependency dependency) {
+        this.dependencies.add(dependency);
+        return this;
+    }
+
+    /**
+     * Indicates whether the publication is also published with Gradle module metadata.
+     *
+     * @return {@code true} if the POM should direct Gradle to the module metadata.
+     */
+    public boolean isPublishedWithGradleMetadata() {
+        return this.publishedWithGradleMetadata;
+    }
+
+    /**
+     * Sets whether the publication is also published with Gradle module metadata. If so, the POM contains
+     * the marker comment which directs Gradle to use the module metadata instead of the POM.
+     *
+     * @param published {@code true} if module metadata is published
+     * @return This model
+     */
+    public PomModel setPublishedWithGradleMetadata(final boolean published) {
+        this.publishedWithGradleMetadata = published;
+        return this;
+    }
+}
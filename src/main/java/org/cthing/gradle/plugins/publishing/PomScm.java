@@ -6,10 +6,9 @@ package org.cthing.gradle.plugins.publishing;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.StringReader;
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -22,7 +21,12 @@ import org.jspecify.annotations.Nullable;
 /**
  * Provides the source code management URLs. Assumes that Git is being used and parses the
  * {@code .git/config} file to determine the origin URL. The URL is parsed so that an
- * appropriate URL for the POM {@code scm} section can be generated.
+ * appropriate URL for the POM {@code scm} section can be generated. The file is read through a
+ * Gradle provider so that it is tracked as an input of the configuration cache. In a work tree
+ * created using {@code git worktree add}, the configuration of the main repository is read.
+ *
+ * <p>The current commit and tag are also provided. These are read directly from the Git repository
+ * by the {@link GitMetadataService} once per build, rather than by running {@code git}.</p>
  */
 public class PomScm {
 
@@ -32,6 +36,7 @@ public class PomScm {
     private static final Pattern GIT_EXTENSION_REGEX = Pattern.compile("\\.git$");
 
     private final Project project;
+    private final Provider<GitMetadata> metadata;
 
     @Nullable
     private String originalUrl;
@@ -52,6 +57,7 @@ public class PomScm {
      */
     public PomScm(final Project project) {
         this.project = project;
+        this.metadata = GitMetadataService.getMetadata(project);
 
         parseConfig();
     }
@@ -92,6 +98,24 @@ public class PomScm {
         return this.project.provider(() -> this.browseUrl);
     }
 
+    /**
+     * Provides the value for the POM SCM {@code tag} tag.
+     *
+     * @return Name of the tag pointing at the current commit, or the current commit if it is not tagged.
+     */
+    public Provider<String> getTag() {
+        return this.metadata.map(GitMetadata::getScmTag);
+    }
+
+    /**
+     * Provides the full object identifier of the current commit.
+     *
+     * @return Current commit.
+     */
+    public Provider<String> getCommit() {
+        return this.metadata.map(GitMetadata::getCommit);
+    }
+
     /**
      * Provides the URL as found in the Git config file.
      *
@@ -105,9 +129,16 @@ public class PomScm {
      * Parses the Git config file to find the remote URL.
      */
     private void parseConfig() {
-        final File configFile = new File(this.project.getRootDir(), ".git/config");
-        if (configFile.exists()) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(configFile, StandardCharsets.UTF_8))) {
+        final File rootDir = this.project.getRootDir();
+        final GitRepository repository = GitRepository.locate(rootDir.toPath());
+        final File configFile = repository == null ? new File(rootDir, ".git/config")
+                                                   : repository.getConfigFile().toFile();
+        final String config = this.project.getProviders()
+                                          .fileContents(this.project.getObjects().fileProperty().fileValue(configFile))
+                                          .getAsText()
+                                          .getOrNull();
+        if (config != null) {
+            try (BufferedReader reader = new BufferedReader(new StringReader(config))) {
                 this.originalUrl = parseRemote(reader);
                 if (this.originalUrl == null) {
                     return;
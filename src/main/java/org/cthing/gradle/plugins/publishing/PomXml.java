@@ -0,0 +1,104 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+
+/**
+ * Utilities for reading and writing Maven XML files (e.g. POMs and repository metadata) using the
+ * streaming XML API.
+ */
+final class PomXml {
+
+    private static final String INDENT = "  ";
+    private static final String[] INDENTS = createIndents(8);
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private PomXml() {
+    }
+
+    /**
+     * Creates a reader for the specified XML content. Document type declarations and external entities
+     * are not processed.
+     *
+     * @param input XML content to read. The stream is not closed by the reader.
+     * @return Streaming XML reader.
+     * @throws XMLStreamException if the reader could not be created
+     */
+    static XMLStreamReader createReader(final InputStream input) throws XMLStreamException {
+        return INPUT_FACTORY.createXMLStreamReader(input);
+    }
+
+    /**
+     * Creates a writer which writes UTF-8 encoded XML to the specified stream. The XML is encoded through a
+     * buffered character writer because the JDK writer encodes each write individually when given a byte
+     * stream, which is several times slower. The writer must be flushed before the stream is used.
+     *
+     * @param output Stream to which the XML is written. The stream is not closed by the writer.
+     * @return Streaming XML writer.
+     * @throws XMLStreamException if the writer could not be created
+     */
+    static XMLStreamWriter createWriter(final OutputStream output) throws XMLStreamException {
+        return OUTPUT_FACTORY.createXMLStreamWriter(
+                new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE));
+    }
+
+    /**
+     * Writes a newline followed by indentation for the specified nesting depth.
+     *
+     * @param writer Writer to use
+     * @param depth Nesting depth of the next element
+     * @throws XMLStreamException if there was a problem writing
+     */
+    static void indent(final XMLStreamWriter writer, final int depth) throws XMLStreamException {
+        writer.writeCharacters(depth < INDENTS.length ? INDENTS[depth] : "\n" + INDENT.repeat(depth));
+    }
+
+    /**
+     * Writes an indented element containing only text.
+     *
+     * @param writer Writer to use
+     * @param depth Nesting depth of the element
+     * @param name Name of the element
+     * @param value Text content of the element
+     * @throws XMLStreamException if there was a problem writing
+     */
+    static void writeElement(final XMLStreamWriter writer, final int depth, final String name, final String value)
+            throws XMLStreamException {
+        indent(writer, depth);
+        writer.writeStartElement(name);
+        writer.writeCharacters(value);
+        writer.writeEndElement();
+    }
+
+    private static String[] createIndents(final int count) {
+        final String[] indents = new String[count];
+        for (int i = 0; i < count; i++) {
+            indents[i] = "\n" + INDENT.repeat(i);
+        }
+        return indents;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Describes a Gradle plugin published to the Gradle plugin portal.
+ */
+public final class PortalPlugin implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String id;
+    private final String displayName;
+    @Nullable
+    private final String description;
+    private final List<String> tags;
+
+    /**
+     * Constructs a plugin description.
+     *
+     * @param id Identifier of the plugin (e.g. {@code org.cthing.cthing-publishing})
+     * @param displayName Name of the plugin displayed by the portal
+     * @param description Description of the plugin displayed by the portal, or {@code null} if the plugin is
+     *      not described
+     * @param tags Tags with which the plugin is categorized by the portal
+     */
+    public PortalPlugin(final String id, final String displayName, @Nullable final String description,
+                        final List<String> tags) {
+        this.id = id;
+        this.displayName = displayName;
+        this.description = description;
+        this.tags = List.copyOf(tags);
+    }
+
+    /**
+     * Obtains the identifier of the plugin.
+     *
+     * @return Plugin identifier.
+     */
+    public String getId() {
+        return this.id;
+    }
+
+    /**
+     * Obtains the name of the plugin displayed by the portal.
+     *
+     * @return Display name of the plugin.
+     */
+    public String getDisplayName() {
+        return this.displayName;
+    }
+
+    /**
+     * Obtains the description of the plugin displayed by the portal.
+     *
+     * @return Description of the plugin, or {@code null} if the plugin is not described.
+     */
+    @Nullable
+    public String getDescription() {
+        return this.description;
+    }
+
+    /**
+     * Obtains the tags with which the plugin is categorized by the portal.
+     *
+     * @return Tags of the plugin.
+     */
+    public List<String> getTags() {
+        return this.tags;
+    }
+
+    @Override
+    public String toString() {
+        return this.id;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        final PortalPlugin that = (PortalPlugin)obj;
+        return Objects.equals(this.id, that.id)
+                && Objects.equals(this.displayName, that.displayName)
+                && Objects.equals(this.description, that.description)
+                && Objects.equals(this.tags, that.tags);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id, this.displayName, this.description, this.tags);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import org.gradle.api.Project;
+import org.gradle.api.plugins.ExtraPropertiesExtension;
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Looks up the properties configuring the plugin (e.g. repository URLs and credentials) using only the
+ * state of the project itself. {@link Project#findProperty(String)} searches the parent projects when a
+ * property is not defined in a project, which is not permitted when Gradle's Isolated Projects feature
+ * is enabled and prevents projects from being configured in parallel. Instead, the extra properties of the
+ * project are searched, followed by the Gradle properties of the build (i.e. {@code gradle.properties}
+ * files, {@code -P} command line options and {@code ORG_GRADLE_PROJECT_} environment variables).
+ */
+final class ProjectProperties {
+
+    private ProjectProperties() {
+    }
+
+    /**
+     * Obtains the value of the specified property.
+     *
+     * @param project Project whose property is to be obtained
+     * @param name Name of the property
+     * @return Value of the property, or {@code null} if the property is not defined.
+     */
+    @Nullable
+    static Object find(final Project project, final String name) {
+        final ExtraPropertiesExtension extra = project.getExtensions().getExtraProperties();
+        if (extra.has(name)) {
+            return extra.get(name);
+        }
+        return project.getProviders().gradleProperty(name).getOrNull();
+    }
+
+    /**
+     * Obtains the value of the specified property as a string.
+     *
+     * @param project Project whose property is to be obtained
+     * @param name Name of the property
+     * @return Value of the property, or {@code null} if the property is not defined.
+     */
+    @Nullable
+    static String findString(final Project project, final String name) {
+        final Object value = find(project, name);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Indicates whether the specified property is defined.
+     *
+     * @param project Project whose property is to be tested
+     * @param name Name of the property
+     * @return {@code true} if the property is defined.
+     */
+    static boolean has(final Project project, final String name) {
+        return find(project, name) != null;
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.TaskAction;
+
+
+/**
+ * Publishes all Gradle plugins of a project to the Gradle plugin portal concurrently. The plugins of a
+ * project share the same artifacts (plugin JAR, POM, sources, Javadoc and their signatures), so each plugin
+ * version is requested concurrently with the others, each distinct artifact is uploaded once as soon as the
+ * portal has provided its location, and each plugin is activated as soon as its artifacts have been uploaded.
+ * The artifact hashes are obtained from the repository service, so artifacts already staged for publication
+ * to the C Thing Software repository are not read again, and the signatures are those produced for pipelined
+ * publishing. A failure to publish one plugin does not prevent the other plugins from being published.
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class PublishToPluginPortal extends DefaultTask {
+
+    /**
+     * Constructs the task.
+     */
+    public PublishToPluginPortal() {
+        doNotTrackState("Publishing changes the state of the plugin portal rather than producing outputs");
+    }
+
+    /**
+     * Service used to stage the artifacts and to access the portal.
+     *
+     * @return Repository service property.
+     */
+    @Internal
+    public abstract Property<CThingRepoService> getService();
+
+    /**
+     * Root URL of the Gradle plugin portal.
+     *
+     * @return Portal URL property.
+     */
+    @Input
+    public abstract Property<String> getPortalUrl();
+
+    /**
+     * Portal key of the publisher.
+     *
+     * @return Key property.
+     */
+    @Internal
+    public abstract Property<String> getKey();
+
+    /**
+     * Portal secret of the publisher.
+     *
+     * @return Secret property.
+     */
+    @Internal
+    public abstract Property<String> getSecret();
+
+    /**
+     * Group of the plugin artifacts.
+     *
+     * @return Group property.
+     */
+    @Input
+    public abstract Property<String> getGroupId();
+
+    /**
+     * Name of the plugin artifacts.
+     *
+     * @return Artifact name property.
+     */
+    @Input
+    public abstract Property<String> getArtifactId();
+
+    /**
+     * Version of the plugins.
+     *
+     * @return Version property.
+     */
+    @Input
+    public abstract Property<String> getVersion();
+
+    /**
+     * Web site of the plugins.
+     *
+     * @return Web site property.
+     */
+    @Input
+    @Optional
+    public abstract Property<String> getWebsite();
+
+    /**
+     * Location of the source code of the plugins.
+     *
+     * @return VCS URL property.
+     */
+    @Input
+    @Optional
+    public abstract Property<String> getVcsUrl();
+
+    /**
+     * Plugins to publish.
+     *
+     * @return Plugins property.
+     */
+    @Input
+    public abstract ListProperty<PortalPlugin> getPlugins();
+
+    /**
+     * Artifacts shared by the plugins, keyed by portal artifact type (see
+     * {@link PluginPortalClient#artifactType(String, String)}). Artifacts whose files do not exist (e.g.
+     * signatures that were not produced) are not published.
+     *
+     * @return Artifacts property.
+     */
+    @Internal
+    public abstract MapProperty<String, File> getArtifacts();
+
+    /**
+     * Maximum number of requests made to the portal concurrently.
+     *
+     * @return Maximum parallel requests property.
+     */
+    @Input
+    public abstract Property<Integer> getMaxParallelRequests();
+
+    /**
+     * Maximum number of times a request is retried if the portal is overloaded or cannot be reached.
+     *
+     * @return Maximum retries property.
+     */
+    @Input
+    public abstract Property<Integer> getMaxRetries();
+
+    /**
+     * Publishes the plugins.
+     */
+    @TaskAction
+    public void publish() {
+        final String version = getVersion().get();
+        if (MavenRepositoryLayout.isMavenSnapshot(version)) {
+            throw new GradleException("Snapshot version " + version + " cannot be published to the Gradle plugin portal");
+        }
+        if (!getKey().isPresent() || !getSecret().isPresent()) {
+            throw new GradleException("Gradle plugin portal credentials are not defined. Define the "
+                                              + PluginPortalPublishing.KEY_PROPERTY + " and "
+                                              + PluginPortalPublishing.SECRET_PROPERTY + " properties.");
+        }
+
+        final CThingRepoService service = getService().get();
+        final SortedMap<String, String> hashes = new TreeMap<>();
+        final Map<String, StagedFile> filesByHash = new HashMap<>();
+        getArtifacts().get().forEach((type, file) -> {
+            if (file.isFile()) {
+                try {
+                    final StagedFile staged = service.stage(file.toPath());
+                    final String hash = staged.getChecksum(Checksum.SHA256);
+                    hashes.put(type, hash);
+                    filesByHash.put(hash, staged);
+                } catch (final IOException ex) {
+                    throw new GradleException("Could not read " + file, ex);
+                }
+            }
+        });
+        if (hashes.isEmpty()) {
+            throw new GradleException("No plugin artifacts found to publish to the Gradle plugin portal");
+        }
+
+        final PluginPortalClient client = new PluginPortalClient(service.getClient(), getPortalUrl().get(),
+                                                                 getKey().get(), getSecret().get(),
+                                                                 getMaxRetries().get());
+        final String groupId = getGroupId().get();
+        final String artifactId = getArtifactId().get();
+        final String website = getWebsite().getOrNull();
+        final String vcsUrl = getVcsUrl().getOrNull();
+
+        final Map<String, CompletableFuture<Void>> uploads = new ConcurrentHashMap<>();
+        final Map<String, CompletableFuture<Void>> publications = new LinkedHashMap<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, getMaxParallelRequests().get()));
+        try {
+            for (final PortalPlugin plugin : getPlugins().get()) {
+                publications.put(plugin.getId(), CompletableFuture.supplyAsync(
+                        () -> client.requestVersion(plugin, groupId, artifactId, version, website, vcsUrl, hashes),
+                        executor)
+                    .thenCompose(publishTo -> CompletableFuture.allOf(publishTo.entrySet().stream().map(entry -> {
+                        final String hash = entry.getKey();
+                        final URI location = entry.getValue();
+                        final StagedFile file = filesByHash.get(hash);
+                        if (file == null) {
+                            throw new GradleException("Gradle plugin portal requested an unknown artifact with hash "
+                                                              + hash);
+                        }
+                        return uploads.computeIfAbsent(hash, h -> CompletableFuture.runAsync(
+                                () -> client.upload(location, file), executor));
+                    }).toArray(CompletableFuture<?>[]::new)))
+                    .thenRunAsync(() -> client.activate(plugin.getId(), version), executor));
+            }
+
+            final Map<String, String> failures = new TreeMap<>();
+            publications.forEach((pluginId, publication) -> {
+                try {
+                    publication.join();
+                    getLogger().lifecycle("Published {} version {} to the Gradle plugin portal", pluginId, version);
+                } catch (final CompletionException ex) {
+                    final Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+                    getLogger().error("Could not publish {} to the Gradle plugin portal: {}", pluginId,
+                                      cause.getMessage());
+                    failures.put(pluginId, cause.getMessage());
+                }
+            });
+            if (!failures.isEmpty()) {
+                throw new GradleException("Could not publish " + String.join(", ", failures.keySet())
+                                                  + " to the Gradle plugin portal");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
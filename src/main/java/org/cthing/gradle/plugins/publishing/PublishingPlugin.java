@@ -5,8 +5,17 @@
 
 package org.cthing.gradle.plugins.publishing;
 
+import java.io.File;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.TaskProvider;
+import org.gradle.language.base.plugins.LifecycleBasePlugin;
+import org.jspecify.annotations.Nullable;
 
 
 /**
@@ -17,9 +26,118 @@ public class PublishingPlugin implements Plugin<Project> {
     public static final String PUBLISHING_EXTENSION_NAME = "cthingPublishing";
     public static final String REPO_EXTENSION_NAME = "cthingRepo";
 
+    /** Property specifying the Maven repository directory indexed by the {@code indexCThingDependents} task. */
+    public static final String INDEX_REPOSITORY_PROPERTY = "cthing.index.repositoryDir";
+
     @Override
     public void apply(final Project project) {
-        project.getExtensions().create(PUBLISHING_EXTENSION_NAME, CThingPublishingExtension.class, project);
-        project.getExtensions().create(REPO_EXTENSION_NAME, CThingRepoExtension.class, project);
+        final CThingPublishingExtension publishingExtension =
+                project.getExtensions().create(PUBLISHING_EXTENSION_NAME, CThingPublishingExtension.class, project);
+        final CThingRepoExtension repoExtension =
+                project.getExtensions().create(REPO_EXTENSION_NAME, CThingRepoExtension.class, project);
+
+        final Provider<CThingRepoService> repoService = repoExtension.getRepoService();
+
+        CThingBom.configureModule(project);
+        ReleaseTrain.configureModule(project, publishingExtension::getCThingDependencies);
+
+        project.getTasks().register(VerifyPublishingSetup.TASK_NAME, VerifyPublishingSetup.class, task -> {
+            task.setGroup("publishing");
+            task.setDescription("Checks that the repository endpoints are reachable with the configured credentials "
+                                        + "and that the signing key material is valid.");
+            task.getService().set(repoService);
+            task.usesService(repoService);
+            task.getEndpoints().set(project.provider(() -> {
+                final Map<String, String> endpoints = new LinkedHashMap<>();
+                endpoints.put(CThingRepoExtension.RELEASES_URL_PROPERTY, repoExtension.getReleasesUrl());
+                endpoints.put(CThingRepoExtension.CANDIDATES_URL_PROPERTY, repoExtension.getCandidatesUrl());
+                endpoints.put(CThingRepoExtension.SNAPSHOTS_URL_PROPERTY, repoExtension.getSnapshotsUrl());
+                endpoints.put(CThingRepoExtension.DOWNLOAD_URL_PROPERTY, repoExtension.getDownloadUrl());
+                endpoints.put(CThingRepoExtension.APT_RELEASES_URL_PROPERTY, repoExtension.getAptReleasesUrl());
+                endpoints.put(CThingRepoExtension.APT_CANDIDATES_URL_PROPERTY, repoExtension.getAptCandidatesUrl());
+                endpoints.put(CThingRepoExtension.APT_SNAPSHOTS_URL_PROPERTY, repoExtension.getAptSnapshotsUrl());
+                endpoints.replaceAll((property, url) -> url == null ? "" : url);
+                return endpoints;
+            }));
+            task.getSigningKeyId().set(project.provider(() -> ProjectProperties.findString(project, "signing.keyId")));
+            task.getSigningPassword().set(project.provider(() -> ProjectProperties.findString(project, "signing.password")));
+            task.getSecretKeyRingFile().set(project.provider(() -> ProjectProperties.findString(project, "signing.secretKeyRingFile")));
+        });
+
+        project.getTasks().withType(BuildDebianPackage.class).configureEach(task -> {
+            task.getPackageName().convention(project.getName());
+            task.getVersion().convention(project.provider(() -> project.getVersion().toString()));
+            task.getArchitecture().convention(BuildDebianPackage.DEFAULT_ARCHITECTURE);
+            task.getDestination().convention(project.getLayout().getBuildDirectory().file(
+                    task.getPackageName().zip(task.getVersion(), (name, version) ->
+                                    name + '_' + version.substring(version.indexOf(':') + 1))
+                        .zip(task.getArchitecture(), (prefix, architecture) ->
+                                    "distributions/" + prefix + '_' + architecture + ".deb")));
+        });
+
+        if (project.equals(project.getRootProject())) {
+            final TaskProvider<IndexCThingDependents> indexTask =
+                    project.getTasks().register(IndexCThingDependents.TASK_NAME, IndexCThingDependents.class, task -> {
+                        task.setGroup("publishing");
+                        task.setDescription("Indexes the C Thing Software dependencies of the POMs in a Maven "
+                                                    + "repository directory.");
+                        task.getRepositoryDirectory().convention(project.getLayout().dir(project.provider(() -> {
+                            final String repository = ProjectProperties.findString(project, INDEX_REPOSITORY_PROPERTY);
+                            return new File(repository == null ? System.getProperty("user.home") + "/.m2/repository"
+                                                               : repository);
+                        })));
+                        task.getParallelism().convention(Runtime.getRuntime().availableProcessors());
+                        task.getIndexFile().convention(project.getLayout().getBuildDirectory()
+                                                              .file("cthing/dependents.idx"));
+                    });
+            project.getTasks().register(ListCThingDependents.TASK_NAME, ListCThingDependents.class, task -> {
+                task.setGroup("publishing");
+                task.setDescription("Lists the modules that depend on a C Thing Software module.");
+                task.getIndexFile().convention(indexTask.flatMap(IndexCThingDependents::getIndexFile));
+            });
+
+            project.getTasks().register(IndexAptRepository.TASK_NAME, IndexAptRepository.class, task -> {
+                task.setGroup("publishing");
+                task.setDescription("Updates the package and release indexes of a flat APT repository directory.");
+                task.getRepositoryDirectory().convention(project.getLayout().dir(project.provider(() ->
+                        toDirectory(repoExtension.getAptSnapshotsUrl()))));
+                task.getParallelism().convention(Runtime.getRuntime().availableProcessors());
+                task.getOrigin().convention("C Thing Software");
+                task.getLabel().convention("C Thing Software");
+                task.getIndexFile().convention(project.getLayout().getBuildDirectory().file("cthing/apt.idx"));
+            });
+
+            final TaskProvider<CheckCThingDependencyVersions> versionsTask =
+                    project.getTasks().register(CheckCThingDependencyVersions.TASK_NAME,
+                                                CheckCThingDependencyVersions.class, task -> {
+                        task.setGroup("verification");
+                        task.setDescription("Checks that the publications of the build depend on consistent versions "
+                                                    + "of the C Thing Software modules.");
+                        task.getManifest().set(project.getTasks()
+                                                      .named(ReleaseTrain.MANIFEST_TASK, WriteReleaseManifest.class)
+                                                      .flatMap(WriteReleaseManifest::getDestination));
+                        task.getReport().set(project.getLayout().getBuildDirectory()
+                                                    .file("cthing/dependency-versions.txt"));
+                    });
+            project.getPluginManager().withPlugin("lifecycle-base", plugin ->
+                    project.getTasks().named(LifecycleBasePlugin.CHECK_TASK_NAME).configure(task -> task.dependsOn(versionsTask)));
+        }
+    }
+
+    /**
+     * Obtains the directory referenced by a repository location that is either a {@code file:} URL or a path.
+     *
+     * @param url Repository location
+     * @return Directory of the repository, or {@code null} if the location is not defined or is a remote URL.
+     */
+    @Nullable
+    private static File toDirectory(@Nullable final String url) {
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        if (url.regionMatches(true, 0, "file:", 0, 5)) {
+            return new File(URI.create(url));
+        }
+        return url.contains("://") ? null : new File(url);
     }
 }
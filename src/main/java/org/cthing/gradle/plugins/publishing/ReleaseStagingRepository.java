@@ -0,0 +1,63 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.time.Duration;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.TaskAction;
+
+
+/**
+ * Closes and releases the Nexus staging repository into which the publications of the build have been
+ * uploaded. This task runs after the {@code publishPipelined} task of every project publishing through the
+ * staging repository, so the repository is only closed once all publications have been uploaded. If the
+ * repository fails validation or cannot be released, it is dropped and the task fails.
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class ReleaseStagingRepository extends DefaultTask {
+
+    /**
+     * Constructs the task.
+     */
+    public ReleaseStagingRepository() {
+        doNotTrackState("Releasing changes the state of the Nexus server rather than producing outputs");
+    }
+
+    /**
+     * Service coordinating the staging repository.
+     *
+     * @return Staging service property.
+     */
+    @Internal
+    public abstract Property<NexusStagingService> getStaging();
+
+    /**
+     * Time between requests for the state of the staging repository while it is being closed or released.
+     *
+     * @return Poll interval property.
+     */
+    @Internal
+    public abstract Property<Duration> getPollInterval();
+
+    /**
+     * Maximum time to wait for the staging repository to be closed, and then to be released.
+     *
+     * @return Release timeout property.
+     */
+    @Internal
+    public abstract Property<Duration> getReleaseTimeout();
+
+    /**
+     * Closes and releases the staging repository.
+     */
+    @TaskAction
+    public void release() {
+        getStaging().get().release(getPollInterval().get(), getReleaseTimeout().get());
+    }
+}
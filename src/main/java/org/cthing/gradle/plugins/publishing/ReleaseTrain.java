@@ -0,0 +1,146 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.attributes.Category;
+import org.gradle.api.initialization.IncludedBuild;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.TaskProvider;
+
+
+/**
+ * Configures the release of a set of builds as a release train. Each project that applies the plugin exposes
+ * a release manifest listing its Maven publications and their C Thing Software dependencies through a
+ * consumable configuration, in the same manner as the publication coordinates used by {@link CThingBom}.
+ * The root project of each build merges the manifests of its subprojects into a single manifest for the
+ * build. The root project of a composite build including the builds to be released runs the release train
+ * using the manifests of the included builds (see {@link RunReleaseTrain}).
+ */
+final class ReleaseTrain {
+
+    /** Name of the configuration and task providing the release manifest of a project. */
+    static final String MODULES_NAME = "cthingReleaseModules";
+
+    /** Category of the variant providing the release manifest of a project. */
+    static final String MODULES_CATEGORY = "cthing-release-modules";
+
+    /** Name of the task writing the release manifest of a build. */
+    static final String MANIFEST_TASK = "cthingReleaseManifest";
+
+    /** Location of the release manifest of a build relative to the build directory of its root project. */
+    static final String MANIFEST_PATH = "cthing/release-manifest.txt";
+
+    /** Default maximum number of builds published concurrently by the release train. */
+    static final int DEFAULT_MAX_PARALLEL_BUILDS = 4;
+
+    /** Default time to wait for the modules of a build to appear in the candidates repository. */
+    static final Duration DEFAULT_VERIFICATION_TIMEOUT = Duration.ofMinutes(10);
+
+    private ReleaseTrain() {
+    }
+
+    /**
+     * Exposes the release manifest of the specified project. If the project is the root project of its build,
+     * a task merging the manifests of all projects in the build that apply the plugin is also created.
+     *
+     * @param project Project whose release manifest is to be exposed
+     * @param dependencies Provides the C Thing Software dependencies of the project. The supplier is called
+     *      when the manifest is written.
+     */
+    static void configureModule(final Project project, final Supplier<Set<String>> dependencies) {
+        final TaskProvider<WriteReleaseManifest> modulesTask =
+                project.getTasks().register(MODULES_NAME, WriteReleaseManifest.class, task -> {
+                    task.setDescription("Writes the release manifest of the project.");
+                    task.getModules().set(project.provider(() -> collectModules(project, dependencies.get())));
+                    task.getDestination().set(project.getLayout().getBuildDirectory()
+                                                     .file("cthing/release-modules.txt"));
+                });
+
+        final ObjectFactory objects = project.getObjects();
+        project.getConfigurations().consumable(MODULES_NAME, config -> {
+            config.attributes(attributes -> attributes.attribute(Category.CATEGORY_ATTRIBUTE,
+                                                                 objects.named(Category.class, MODULES_CATEGORY)));
+            config.getOutgoing().artifact(modulesTask);
+        });
+
+        if (project.equals(project.getRootProject())) {
+            final Provider<CThingModuleRegistry> registry = CThingModuleRegistry.getService(project);
+            project.getTasks().register(MANIFEST_TASK, WriteReleaseManifest.class, task -> {
+                task.setDescription("Writes the release manifest of the build.");
+                task.getMergedManifests().from(modulesTask);
+                // A detached configuration is used for the same reason as for the BOM
+                task.getMergedManifests().from(project.provider(() -> {
+                    final Dependency[] modules = registry.get()
+                                                         .getDescendants(project.getPath())
+                                                         .stream()
+                                                         .map(path -> project.getDependencies().project(Map.of("path", path)))
+                                                         .toArray(Dependency[]::new);
+                    final Configuration config = project.getConfigurations().detachedConfiguration(modules);
+                    config.attributes(attributes -> attributes.attribute(Category.CATEGORY_ATTRIBUTE,
+                                                                         objects.named(Category.class, MODULES_CATEGORY)));
+                    return config.getIncoming().getFiles();
+                }));
+                task.getDestination().set(project.getLayout().getBuildDirectory().file(MANIFEST_PATH));
+            });
+        }
+    }
+
+    /**
+     * Obtains the lines of the release manifest of the specified project.
+     *
+     * @param project Project whose publications are to be described
+     * @param dependencies C Thing Software dependencies of the project
+     * @return Coordinates of each Maven publication of the project followed by the dependencies, separated
+     *      by spaces. Gradle plugin marker publications are not included.
+     */
+    static List<String> collectModules(final Project project, final Set<String> dependencies) {
+        final String suffix = dependencies.isEmpty() ? "" : ' ' + String.join(" ", dependencies);
+        final List<String> modules = new ArrayList<>();
+        CThingBom.collectCoordinates(project).forEach(coordinates -> modules.add(coordinates + suffix));
+        return modules;
+    }
+
+    /**
+     * Creates the task running a release train of the builds included in the build of the specified project.
+     * The root project of each included build must apply the plugin.
+     *
+     * @param project Root project of the composite build
+     * @param repoExtension Provides the candidates repository in which the published modules are verified
+     */
+    static void configure(final Project project, final CThingRepoExtension repoExtension) {
+        final Provider<CThingRepoService> service = repoExtension.getRepoService();
+        project.getTasks().register(RunReleaseTrain.TASK_NAME, RunReleaseTrain.class, task -> {
+            task.setGroup("publishing");
+            task.setDescription("Publishes the included builds in the order of their C Thing Software dependencies.");
+            for (final IncludedBuild build : project.getGradle().getIncludedBuilds()) {
+                task.dependsOn(build.task(':' + MANIFEST_TASK));
+                task.getBuildDirectories().put(build.getName(), build.getProjectDir());
+                task.getManifests().put(build.getName(), new File(build.getProjectDir(), "build/" + MANIFEST_PATH));
+            }
+            task.getService().set(service);
+            task.usesService(service);
+            task.getRepositoryUrl().set(project.provider(repoExtension::getCandidatesUrl));
+            task.getPublishTasks().convention(List.of("publish"));
+            task.getArguments().convention(List.of());
+            task.getMaxParallelBuilds().convention(DEFAULT_MAX_PARALLEL_BUILDS);
+            task.getVerificationTimeout().convention(DEFAULT_VERIFICATION_TIMEOUT);
+            task.getGradleHome().fileValue(project.getGradle().getGradleHomeDir());
+            task.getLogDirectory().convention(project.getLayout().getBuildDirectory().dir("cthing/release-train"));
+        });
+    }
+}
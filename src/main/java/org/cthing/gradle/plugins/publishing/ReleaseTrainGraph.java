@@ -0,0 +1,183 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.gradle.api.GradleException;
+
+
+/**
+ * Graph of the dependencies between the builds taking part in a release train. Each build is described by
+ * its release manifest (see {@link WriteReleaseManifest}), which lists the modules published by the build
+ * and the C Thing Software dependencies of each module. A build is a prerequisite of another build if it
+ * publishes a module on which a module of the other build depends. The builds are arranged in levels: the
+ * first level contains the builds without prerequisites and each subsequent level contains the builds whose
+ * prerequisites are all in preceding levels. The number of levels is the length of the critical path of
+ * the release.
+ */
+final class ReleaseTrainGraph {
+
+    private final SortedMap<String, SortedSet<String>> modules;
+    private final SortedMap<String, SortedSet<String>> prerequisites;
+    private final List<SortedSet<String>> levels;
+
+    private ReleaseTrainGraph(final SortedMap<String, SortedSet<String>> modules,
+                              final SortedMap<String, SortedSet<String>> prerequisites,
+                              final List<SortedSet<String>> levels) {
+        this.modules = modules;
+        this.prerequisites = prerequisites;
+        this.levels = levels;
+    }
+
+    /**
+     * Creates the graph from the release manifests of the builds.
+     *
+     * @param manifests Lines of the release manifest of each build, keyed by build name. Each line contains
+     *      the coordinates of a module ({@code group:artifact:version}) followed by its C Thing Software
+     *      dependencies in Gradle notation, separated by whitespace.
+     * @return Graph of the builds.
+     * @throws GradleException if a module is published by more than one build or the builds depend on each
+     *      other cyclically.
+     */
+    static ReleaseTrainGraph create(final Map<String, List<String>> manifests) {
+        final SortedMap<String, SortedSet<String>> modules = new TreeMap<>();
+        final SortedMap<String, SortedSet<String>> dependencies = new TreeMap<>();
+        final Map<String, String> publishers = new HashMap<>();
+
+        for (final Map.Entry<String, List<String>> manifest : manifests.entrySet()) {
+            final String build = manifest.getKey();
+            final SortedSet<String> buildModules = modules.computeIfAbsent(build, key -> new TreeSet<>());
+            final SortedSet<String> buildDependencies = dependencies.computeIfAbsent(build, key -> new TreeSet<>());
+
+            for (final String line : manifest.getValue()) {
+                final String[] fields = line.trim().split("\\s+");
+                final String module = DependentsIndex.toModule(fields[0]);
+                if (module == null) {
+                    continue;
+                }
+                buildModules.add(fields[0]);
+
+                final String publisher = publishers.putIfAbsent(module, build);
+                if (publisher != null && !publisher.equals(build)) {
+                    throw new GradleException("Module " + module + " is published by both the " + publisher
+                                                      + " and " + build + " builds");
+                }
+
+                for (int i = 1; i < fields.length; i++) {
+                    final String dependency = DependentsIndex.toModule(fields[i]);
+                    if (dependency != null) {
+                        buildDependencies.add(dependency);
+                    }
+                }
+            }
+        }
+
+        final SortedMap<String, SortedSet<String>> prerequisites = new TreeMap<>();
+        dependencies.forEach((build, buildDependencies) -> {
+            final SortedSet<String> buildPrerequisites = new TreeSet<>();
+            for (final String dependency : buildDependencies) {
+                final String publisher = publishers.get(dependency);
+                if (publisher != null && !publisher.equals(build)) {
+                    buildPrerequisites.add(publisher);
+                }
+            }
+            prerequisites.put(build, Collections.unmodifiableSortedSet(buildPrerequisites));
+        });
+
+        modules.replaceAll((build, buildModules) -> Collections.unmodifiableSortedSet(buildModules));
+        return new ReleaseTrainGraph(modules, prerequisites, arrange(prerequisites));
+    }
+
+    /**
+     * Obtains the names of the builds in the release train.
+     *
+     * @return Names of the builds, sorted.
+     */
+    SortedSet<String> getBuilds() {
+        return Collections.unmodifiableSortedSet(new TreeSet<>(this.modules.keySet()));
+    }
+
+    /**
+     * Obtains the modules published by a build.
+     *
+     * @param build Name of the build
+     * @return Coordinates of the modules published by the build ({@code group:artifact:version}), sorted.
+     */
+    SortedSet<String> getModules(final String build) {
+        return this.modules.getOrDefault(build, Collections.emptySortedSet());
+    }
+
+    /**
+     * Obtains the builds that must be released before a build.
+     *
+     * @param build Name of the build
+     * @return Names of the builds publishing modules on which the build depends, sorted.
+     */
+    SortedSet<String> getPrerequisites(final String build) {
+        return this.prerequisites.getOrDefault(build, Collections.emptySortedSet());
+    }
+
+    /**
+     * Obtains the levels of the graph. The builds in a level do not depend on each other and can be released
+     * concurrently once the builds in the preceding levels have been released.
+     *
+     * @return Names of the builds in each level, starting with the builds without prerequisites.
+     */
+    List<SortedSet<String>> getLevels() {
+        return this.levels;
+    }
+
+    private static List<SortedSet<String>> arrange(final SortedMap<String, SortedSet<String>> prerequisites) {
+        final List<SortedSet<String>> levels = new ArrayList<>();
+        final SortedSet<String> remaining = new TreeSet<>(prerequisites.keySet());
+        final SortedSet<String> released = new TreeSet<>();
+
+        while (!remaining.isEmpty()) {
+            final SortedSet<String> level = new TreeSet<>();
+            for (final String build : remaining) {
+                if (released.containsAll(prerequisites.get(build))) {
+                    level.add(build);
+                }
+            }
+            if (level.isEmpty()) {
+                throw new GradleException("The builds in the release train depend on each other cyclically: "
+                                                  + String.join(" -> ", findCycle(prerequisites, remaining)));
+            }
+            remaining.removeAll(level);
+            released.addAll(level);
+            levels.add(Collections.unmodifiableSortedSet(level));
+        }
+
+        return Collections.unmodifiableList(levels);
+    }
+
+    /**
+     * Finds a cycle among builds that could not be arranged in levels. Every such build has a prerequisite
+     * that also could not be arranged, so following prerequisites from any of the builds must eventually
+     * revisit a build.
+     */
+    private static List<String> findCycle(final SortedMap<String, SortedSet<String>> prerequisites,
+                                          final SortedSet<String> remaining) {
+        final List<String> path = new ArrayList<>();
+        String build = remaining.first();
+        while (!path.contains(build)) {
+            path.add(build);
+            build = prerequisites.get(build).stream().filter(remaining::contains).findFirst().orElseThrow();
+        }
+        final List<String> cycle = new ArrayList<>(path.subList(path.indexOf(build), path.size()));
+        cycle.add(build);
+        return cycle;
+    }
+}
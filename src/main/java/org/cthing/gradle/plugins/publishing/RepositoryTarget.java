@@ -0,0 +1,144 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * A Maven repository to which files can be published. All paths are relative to the root of the repository.
+ */
+public interface RepositoryTarget {
+
+    /**
+     * Computes the new content of a file from its existing content.
+     */
+    @FunctionalInterface
+    interface ContentUpdater {
+        /**
+         * Computes the new content of a file.
+         *
+         * @param existing Existing content of the file, or {@code null} if the file does not exist
+         * @return New content of the file.
+         * @throws IOException if the existing content could not be processed
+         */
+        byte[] update(byte @Nullable [] existing) throws IOException;
+    }
+
+    /**
+     * Information about a file as stored by the repository, derived by the repository from the content it
+     * received rather than from the checksum sidecar files published alongside the file.
+     *
+     * @param size Size of the stored file in bytes, or -1 if the repository does not report it
+     * @param checksums Checksums of the stored file reported by the repository, as lowercase hexadecimal
+     *      strings. Empty if the repository does not report any checksums.
+     */
+    record StoredFile(long size, Map<Checksum, String> checksums) {
+    }
+
+    /**
+     * Obtains a description of the repository for use in messages.
+     *
+     * @return Location of the repository.
+     */
+    String getLocation();
+
+    /**
+     * Publishes a file along with its checksum sidecar files.
+     *
+     * @param path Location of the file in the repository
+     * @param file File to publish
+     * @throws IOException if the file could not be published
+     */
+    void upload(String path, StagedFile file) throws IOException;
+
+    /**
+     * Publishes the specified content along with its checksum sidecar files.
+     *
+     * @param path Location of the file in the repository
+     * @param content Content of the file to publish
+     * @throws IOException if the content could not be published
+     */
+    void upload(String path, byte[] content) throws IOException;
+
+    /**
+     * Publishes a file without checksum sidecar files (e.g. a signature file).
+     *
+     * @param path Location of the file in the repository
+     * @param file File to publish
+     * @throws IOException if the file could not be published
+     */
+    void uploadWithoutChecksums(String path, Path file) throws IOException;
+
+    /**
+     * Obtains the content of a file in the repository.
+     *
+     * @param path Location of the file in the repository
+     * @return Content of the file or {@code null} if the file does not exist.
+     * @throws IOException if the file could not be read
+     */
+    byte @Nullable [] download(String path) throws IOException;
+
+    /**
+     * Replaces the content of a file in the repository with content derived from its existing content
+     * (e.g. to add a version to the repository metadata). The new content is published along with its
+     * checksum sidecar files.
+     *
+     * @param path Location of the file in the repository
+     * @param updater Computes the new content of the file
+     * @throws IOException if the file could not be read or published
+     */
+    default void update(final String path, final ContentUpdater updater) throws IOException {
+        upload(path, updater.update(download(path)));
+    }
+
+    /**
+     * Obtains a checksum of a file from its checksum sidecar file in the repository.
+     *
+     * @param path Location of the file in the repository
+     * @param checksum Checksum to obtain
+     * @return Checksum of the file as a lowercase hexadecimal string, or {@code null} if the sidecar file
+     *      does not exist or is empty.
+     * @throws IOException if the sidecar file could not be read
+     */
+    @Nullable
+    default String downloadChecksum(final String path, final Checksum checksum) throws IOException {
+        final byte[] content = download(path + '.' + checksum.getExtension());
+        return content == null ? null : Checksum.parseSidecar(content);
+    }
+
+    /**
+     * Obtains information about a file as stored by the repository, without downloading its content if
+     * possible.
+     *
+     * @param path Location of the file in the repository
+     * @return Information about the stored file, or {@code null} if the file does not exist.
+     * @throws IOException if the information could not be obtained
+     */
+    @Nullable
+    default StoredFile getStoredFile(final String path) throws IOException {
+        final byte[] content = download(path);
+        return content == null ? null : new StoredFile(content.length, Map.of());
+    }
+
+    /**
+     * Reads a file in the repository and calculates its checksums.
+     *
+     * @param path Location of the file in the repository
+     * @return Checksums of the file as lowercase hexadecimal strings, or {@code null} if the file does not
+     *      exist.
+     * @throws IOException if the file could not be read
+     */
+    @Nullable
+    default Map<Checksum, String> computeChecksums(final String path) throws IOException {
+        final byte[] content = download(path);
+        return content == null ? null : Checksum.digest(content);
+    }
+}
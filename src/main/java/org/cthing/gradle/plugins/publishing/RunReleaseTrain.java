@@ -0,0 +1,324 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.inject.Inject;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.process.ExecOperations;
+import org.gradle.process.ExecResult;
+
+
+/**
+ * Releases the builds included in a composite build in the order given by their C Thing Software
+ * dependencies. The release manifests of the included builds (see {@link WriteReleaseManifest}) are used to
+ * create a {@link ReleaseTrainGraph}. Each build is published by running its publishing tasks in a separate
+ * Gradle invocation, using the build's wrapper if it has one. A build is published as soon as the builds on
+ * which it depends have been published and their POMs have been found in the candidates repository, so the
+ * builds in each level of the graph are published concurrently and the release takes as long as its critical
+ * path rather than the sum of the builds. If a build fails, the builds that depend on it are skipped while
+ * unrelated builds continue. The output of each build is written to a log file named after the build.
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class RunReleaseTrain extends DefaultTask {
+
+    /** Name of the task. */
+    public static final String TASK_NAME = "releaseTrain";
+
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(5);
+
+    /**
+     * Constructs the task.
+     */
+    public RunReleaseTrain() {
+        doNotTrackState("Publishing changes the state of the repository rather than producing outputs");
+    }
+
+    /**
+     * Service used to access the repository.
+     *
+     * @return Repository service property.
+     */
+    @Internal
+    public abstract Property<CThingRepoService> getService();
+
+    /**
+     * Root URL of the candidates repository in which the published modules are verified.
+     *
+     * @return Repository URL property.
+     */
+    @Input
+    @Optional
+    public abstract Property<String> getRepositoryUrl();
+
+    /**
+     * Root directories of the builds in the release train, keyed by build name.
+     *
+     * @return Build directories property.
+     */
+    @Internal
+    public abstract MapProperty<String, File> getBuildDirectories();
+
+    /**
+     * Release manifests of the builds in the release train, keyed by build name.
+     *
+     * @return Manifests property.
+     */
+    @Internal
+    public abstract MapProperty<String, File> getManifests();
+
+    /**
+     * Tasks run to publish each build.
+     *
+     * @return Publishing tasks property.
+     */
+    @Input
+    public abstract ListProperty<String> getPublishTasks();
+
+    /**
+     * Additional command line arguments passed to each build (e.g. {@code -Pcthing.nexus.verifyUploads=checksum}).
+     *
+     * @return Arguments property.
+     */
+    @Input
+    public abstract ListProperty<String> getArguments();
+
+    /**
+     * Maximum number of builds published concurrently.
+     *
+     * @return Maximum parallel builds property.
+     */
+    @Input
+    public abstract Property<Integer> getMaxParallelBuilds();
+
+    /**
+     * Maximum time to wait for the modules of a build to appear in the candidates repository after the build
+     * has been published.
+     *
+     * @return Verification timeout property.
+     */
+    @Input
+    public abstract Property<Duration> getVerificationTimeout();
+
+    /**
+     * Gradle installation used to publish builds that do not have a wrapper.
+     *
+     * @return Gradle home directory property.
+     */
+    @Internal
+    public abstract DirectoryProperty getGradleHome();
+
+    /**
+     * Directory to which the output of each build is written.
+     *
+     * @return Log directory property.
+     */
+    @Internal
+    public abstract DirectoryProperty getLogDirectory();
+
+    /**
+     * Obtains the service used to run the builds.
+     *
+     * @return Exec operations service.
+     */
+    @Inject
+    protected abstract ExecOperations getExecOperations();
+
+    /**
+     * Runs the release train.
+     */
+    @TaskAction
+    public void release() {
+        final ReleaseTrainGraph graph = ReleaseTrainGraph.create(readManifests());
+        graph.getBuilds().forEach(build -> graph.getModules(build).forEach(
+                module -> PipelinedPublishing.requireReleaseLayout(module.substring(module.lastIndexOf(':') + 1))));
+        final RepositoryTarget target = getService().get().createTarget(
+                PipelinedPublishing.requireRepositoryUrl(getRepositoryUrl()));
+
+        final List<SortedSet<String>> levels = graph.getLevels();
+        getLogger().lifecycle("Release train of {} builds in {} levels", graph.getBuilds().size(), levels.size());
+        for (int i = 0; i < levels.size(); i++) {
+            getLogger().lifecycle("  Level {}: {}", i + 1, String.join(", ", levels.get(i)));
+        }
+
+        final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+        final Map<String, CompletableFuture<Void>> releases = new HashMap<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, getMaxParallelBuilds().get()));
+        final long start = System.nanoTime();
+        try {
+            for (final SortedSet<String> level : levels) {
+                for (final String build : level) {
+                    final CompletableFuture<?>[] prerequisites = graph.getPrerequisites(build)
+                                                                      .stream()
+                                                                      .map(releases::get)
+                                                                      .toArray(CompletableFuture<?>[]::new);
+                    releases.put(build, CompletableFuture.allOf(prerequisites).thenRunAsync(() -> {
+                        try {
+                            release(build, graph.getModules(build), target);
+                        } catch (final RuntimeException ex) {
+                            failures.put(build, ex);
+                            throw ex;
+                        }
+                    }, executor));
+                }
+            }
+
+            final SortedSet<String> skipped = new TreeSet<>();
+            releases.forEach((build, release) -> {
+                try {
+                    release.join();
+                } catch (final CompletionException ex) {
+                    if (!failures.containsKey(build)) {
+                        skipped.add(build);
+                    }
+                }
+            });
+
+            if (!failures.isEmpty()) {
+                final List<String> problems = new ArrayList<>();
+                new TreeMap<>(failures).forEach((build, ex) -> problems.add(build + ": " + ex.getMessage()));
+                if (!skipped.isEmpty()) {
+                    problems.add("Skipped because a prerequisite failed: " + String.join(", ", skipped));
+                }
+                throw new GradleException("Release train failed:\n  " + String.join("\n  ", problems));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        getLogger().lifecycle("Released {} builds in {} s", graph.getBuilds().size(),
+                              (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    /**
+     * Publishes a build and waits for its modules to appear in the candidates repository.
+     *
+     * @param build Name of the build
+     * @param modules Coordinates of the modules published by the build
+     * @param target Candidates repository
+     */
+    private void release(final String build, final SortedSet<String> modules, final RepositoryTarget target) {
+        final long start = System.nanoTime();
+        final File buildDir = getBuildDirectories().get().get(build);
+        final Path logFile = getLogDirectory().get().getAsFile().toPath().resolve(build + ".log");
+        getLogger().lifecycle("Publishing {}", build);
+
+        try {
+            Files.createDirectories(logFile.getParent());
+            final ExecResult result;
+            try (OutputStream log = Files.newOutputStream(logFile)) {
+                result = getExecOperations().exec(spec -> {
+                    spec.setWorkingDir(buildDir);
+                    spec.setExecutable(findGradle(buildDir));
+                    spec.args(getPublishTasks().get());
+                    spec.args(getArguments().get());
+                    spec.setStandardOutput(log);
+                    spec.setErrorOutput(log);
+                    spec.setIgnoreExitValue(true);
+                });
+            }
+            if (result.getExitValue() != 0) {
+                throw new GradleException("Publishing failed with exit code " + result.getExitValue() + ", see "
+                                                  + logFile);
+            }
+        } catch (final IOException ex) {
+            throw new GradleException("Could not write the build log " + logFile, ex);
+        }
+
+        for (final String module : modules) {
+            verify(module, target);
+        }
+
+        getLogger().lifecycle("Released {} ({} modules) in {} s", build, modules.size(),
+                              (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    /**
+     * Waits for the POM of a module to appear in the candidates repository.
+     *
+     * @param module Coordinates of the module ({@code group:artifact:version})
+     * @param target Candidates repository
+     */
+    private void verify(final String module, final RepositoryTarget target) {
+        final String[] coordinates = module.split(":");
+        final String path = MavenRepositoryLayout.artifactPath(coordinates[0], coordinates[1], coordinates[2], null,
+                                                               "pom");
+        final long deadline = System.nanoTime() + getVerificationTimeout().get().toNanos();
+        try {
+            while (target.download(path) == null) {
+                if (System.nanoTime() > deadline) {
+                    throw new GradleException(module + " was not found in " + target.getLocation() + " within "
+                                                      + getVerificationTimeout().get().toSeconds() + " s");
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+        } catch (final IOException ex) {
+            throw new GradleException("Could not verify " + module + " in " + target.getLocation(), ex);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Interrupted while verifying " + module, ex);
+        }
+    }
+
+    /**
+     * Obtains the Gradle executable used to publish a build. The build's wrapper is used if present,
+     * otherwise the Gradle installation running the release train is used.
+     *
+     * @param buildDir Root directory of the build
+     * @return Path of the Gradle executable.
+     */
+    private String findGradle(final File buildDir) {
+        final boolean windows = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+        final File wrapper = new File(buildDir, windows ? "gradlew.bat" : "gradlew");
+        if (wrapper.isFile()) {
+            return wrapper.getAbsolutePath();
+        }
+        return new File(getGradleHome().get().getAsFile(), windows ? "bin/gradle.bat" : "bin/gradle").getAbsolutePath();
+    }
+
+    private Map<String, List<String>> readManifests() {
+        final Map<String, List<String>> manifests = new TreeMap<>();
+        getManifests().get().forEach((build, manifest) -> {
+            try {
+                manifests.put(build, Files.readAllLines(manifest.toPath(), StandardCharsets.UTF_8));
+            } catch (final IOException ex) {
+                throw new GradleException("Could not read the release manifest of the " + build + " build: "
+                                                  + manifest, ex);
+            }
+        });
+        return manifests;
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Reads a staged file once and shares its content among several request bodies, so that a file can be
+ * uploaded to several servers concurrently without each upload reading the file. The file is read in chunks
+ * as the bodies consume it, and a chunk is released as soon as every body has been sent past it. At most
+ * {@value #WINDOW} chunks are held in memory, so a body that is sent faster than the others waits for them
+ * to catch up. A body that is sent again (e.g. when its request is retried) after the start of the file
+ * has been released reads the file itself.
+ */
+final class SharedFileContent implements Closeable {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int WINDOW = 16;
+
+    /** Indicates that a body has been sent to the end of the file. */
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final StagedFile file;
+    private final List<ByteBuffer> chunks;
+    private final List<Body> bodies;
+    private long firstIndex;
+    private long bytesRead;
+    private boolean endOfFile;
+    private boolean closed;
+    @Nullable
+    private FileChannel channel;
+    @Nullable
+    private IOException failure;
+
+    /**
+     * Constructs the shared content of a file.
+     *
+     * @param file File whose content is shared. The file is opened when its content is first requested.
+     */
+    SharedFileContent(final StagedFile file) {
+        this.file = file;
+        this.chunks = new ArrayList<>();
+        this.bodies = new ArrayList<>();
+    }
+
+    /**
+     * Creates a request body for the content of the file. Chunks of the file are retained for the body
+     * until it has been sent or is closed, so a body must be created before any body is sent and must be
+     * closed once its request is complete.
+     *
+     * @return Request body for the content of the file.
+     */
+    synchronized Body newBody() {
+        final Body body = new Body();
+        this.bodies.add(body);
+        return body;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.closed = true;
+        this.chunks.clear();
+        if (this.channel != null) {
+            this.channel.close();
+            this.channel = null;
+        }
+    }
+
+    /**
+     * Obtains the next chunk to be sent by a body, reading it from the file if no other body has done so.
+     *
+     * @param body Body requesting the chunk
+     * @return Next chunk to send, {@link #END} if the body has been sent to the end of the file, or
+     *      {@code null} if the chunk cannot be read until the other bodies have been sent further.
+     * @throws IOException if the file could not be read or has changed since it was staged
+     */
+    @Nullable
+    private synchronized ByteBuffer next(final Body body) throws IOException {
+        while (body.index >= this.firstIndex + this.chunks.size()) {
+            if (this.failure != null) {
+                throw this.failure;
+            }
+            if (this.endOfFile) {
+                return END;
+            }
+            if (this.chunks.size() >= WINDOW) {
+                return null;
+            }
+            try {
+                read();
+            } catch (final IOException ex) {
+                this.failure = ex;
+                throw ex;
+            }
+        }
+        return this.chunks.get((int)(body.index - this.firstIndex)).duplicate();
+    }
+
+    /**
+     * Indicates whether a body has been sent to the end of the file.
+     *
+     * @param body Body to test
+     * @return {@code true} if the entire file has been sent by the body.
+     */
+    private synchronized boolean isEnd(final Body body) {
+        return this.endOfFile && body.index >= this.firstIndex + this.chunks.size();
+    }
+
+    private void read() throws IOException {
+        if (this.closed) {
+            throw new IOException("Content of " + this.file.getPath() + " is no longer available");
+        }
+        if (this.channel == null) {
+            if (this.file.isStale()) {
+                throw changed();
+            }
+            this.channel = FileChannel.open(this.file.getPath(), StandardOpenOption.READ);
+        }
+
+        final ByteBuffer chunk = ByteBuffer.allocate((int)Math.min(CHUNK_SIZE, this.file.getSize() - this.bytesRead));
+        while (chunk.hasRemaining()) {
+            if (this.channel.read(chunk) < 0) {
+                throw changed();
+            }
+        }
+        chunk.flip();
+        this.bytesRead += chunk.remaining();
+        if (chunk.hasRemaining()) {
+            this.chunks.add(chunk.asReadOnlyBuffer());
+        }
+        if (this.bytesRead == this.file.getSize()) {
+            this.endOfFile = true;
+            this.channel.close();
+            this.channel = null;
+        }
+    }
+
+    private IOException changed() {
+        return new IOException(this.file.getPath() + " has changed since its checksums were calculated");
+    }
+
+    /**
+     * Releases the chunks that all bodies have been sent past, and resumes the sending of the bodies that
+     * were waiting for them to be released.
+     */
+    private void release() {
+        final List<Body> waiting = new ArrayList<>();
+        synchronized (this) {
+            final long slowest = this.bodies.stream().mapToLong(body -> body.index).min().orElse(Long.MAX_VALUE);
+            final int count = (int)Math.min(slowest - this.firstIndex, this.chunks.size());
+            if (count <= 0) {
+                return;
+            }
+            this.chunks.subList(0, count).clear();
+            this.firstIndex += count;
+            for (final Body body : this.bodies) {
+                if (body.subscription != null) {
+                    waiting.add(body);
+                }
+            }
+        }
+        waiting.forEach(body -> {
+            final ChunkSubscription subscription = body.subscription;
+            if (subscription != null) {
+                subscription.drain();
+            }
+        });
+    }
+
+    /**
+     * Request body for the shared content of the file.
+     */
+    final class Body implements HttpRequest.BodyPublisher, Closeable {
+
+        /** Index of the next chunk to send, or {@link Long#MAX_VALUE} once the body no longer needs chunks. */
+        private long index;
+        private boolean subscribed;
+        @Nullable
+        private volatile ChunkSubscription subscription;
+
+        @Override
+        public long contentLength() {
+            return SharedFileContent.this.file.getSize();
+        }
+
+        @Override
+        public void subscribe(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+            final boolean shared;
+            synchronized (SharedFileContent.this) {
+                shared = !this.subscribed && SharedFileContent.this.firstIndex == 0 && this.index == 0
+                        && !SharedFileContent.this.closed;
+                this.subscribed = true;
+            }
+            if (!shared) {
+                subscribeToFile(subscriber);
+                return;
+            }
+
+            final ChunkSubscription sub = new ChunkSubscription(this, subscriber);
+            subscriber.onSubscribe(sub);
+            this.subscription = sub;
+            sub.drain();
+        }
+
+        @Override
+        public void close() {
+            finish();
+        }
+
+        /**
+         * Stops retaining chunks for this body.
+         */
+        private void finish() {
+            synchronized (SharedFileContent.this) {
+                this.index = Long.MAX_VALUE;
+                this.subscription = null;
+                SharedFileContent.this.bodies.remove(this);
+            }
+            release();
+        }
+
+        private void subscribeToFile(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+            final HttpRequest.BodyPublisher publisher;
+            try {
+                publisher = HttpRequest.BodyPublishers.ofFile(SharedFileContent.this.file.getPath());
+            } catch (final FileNotFoundException ex) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(final long count) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(ex);
+                return;
+            }
+            publisher.subscribe(subscriber);
+        }
+    }
+
+    /**
+     * Emits the shared chunks to a subscriber as they are requested. Emission is serialized so that the
+     * subscriber can request more chunks from within {@code onNext}, and so that a body waiting for chunks to
+     * be released can be resumed from any thread.
+     */
+    private final class ChunkSubscription implements Flow.Subscription {
+
+        private final Body body;
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private final AtomicLong demand;
+        private final AtomicInteger workInProgress;
+        private volatile boolean done;
+
+        ChunkSubscription(final Body body, final Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.body = body;
+            this.subscriber = subscriber;
+            this.demand = new AtomicLong();
+            this.workInProgress = new AtomicInteger();
+        }
+
+        @Override
+        public void request(final long count) {
+            if (this.done) {
+                return;
+            }
+            if (count <= 0) {
+                this.done = true;
+                this.body.finish();
+                this.subscriber.onError(new IllegalArgumentException("Requested " + count + " chunks"));
+                return;
+            }
+            this.demand.getAndAccumulate(count, (current, added) -> {
+                final long sum = current + added;
+                return sum < 0 ? Long.MAX_VALUE : sum;
+            });
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (!this.done) {
+                this.done = true;
+                this.body.finish();
+            }
+        }
+
+        void drain() {
+            if (this.workInProgress.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                while (!this.done) {
+                    if (this.demand.get() == 0) {
+                        if (isEnd(this.body)) {
+                            complete();
+                        }
+                        break;
+                    }
+
+                    final ByteBuffer chunk;
+                    try {
+                        chunk = next(this.body);
+                    } catch (final IOException ex) {
+                        this.done = true;
+                        this.body.finish();
+                        this.subscriber.onError(ex);
+                        break;
+                    }
+                    if (chunk == null) {
+                        break;
+                    }
+                    if (chunk == END) {
+                        complete();
+                        break;
+                    }
+
+                    this.demand.decrementAndGet();
+                    synchronized (SharedFileContent.this) {
+                        this.body.index++;
+                    }
+                    this.subscriber.onNext(chunk);
+                    release();
+                }
+            } while (this.workInProgress.decrementAndGet() != 0);
+        }
+
+        private void complete() {
+            this.done = true;
+            this.body.finish();
+            this.subscriber.onComplete();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * A local file ready to be published, together with its checksums. The checksums for all algorithms are
+ * calculated in a single pass over the file, which is read through a small buffer. The content of the file
+ * is not retained, so staged files can be cached for the duration of the build. When a file is published to
+ * several repositories, the uploads share a single reading of the file (see {@link SharedFileContent}).
+ */
+public final class StagedFile {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final long size;
+    private final long lastModified;
+    private final Map<Checksum, String> checksums;
+    private final HttpRequest.@Nullable BodyPublisher content;
+
+    private StagedFile(final Path path, final long size, final long lastModified,
+                       final Map<Checksum, String> checksums, final HttpRequest.@Nullable BodyPublisher content) {
+        this.path = path;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.checksums = Collections.unmodifiableMap(checksums);
+        this.content = content;
+    }
+
+    /**
+     * Reads the specified file and calculates its checksums.
+     *
+     * @param path File to stage
+     * @return Staged file.
+     * @throws IOException if the file could not be read
+     */
+    public static StagedFile stage(final Path path) throws IOException {
+        final long size = Files.size(path);
+        final long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+        final ChecksumCalculator calculator = new ChecksumCalculator();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream input = Files.newInputStream(path)) {
+            int count;
+            while ((count = input.read(buffer)) != -1) {
+                calculator.update(buffer, 0, count);
+            }
+        }
+
+        final Map<Checksum, String> checksums = calculator.finish();
+        return new StagedFile(path, size, lastModified, checksums, null);
+    }
+
+    /**
+     * Creates a copy of this staged file whose content is obtained from the specified request body rather
+     * than by reading the file.
+     *
+     * @param body Request body providing the content of the file (e.g. a {@link SharedFileContent.Body})
+     * @return Staged file whose content is provided by the specified body.
+     */
+    StagedFile withContent(final HttpRequest.BodyPublisher body) {
+        return new StagedFile(this.path, this.size, this.lastModified, this.checksums, body);
+    }
+
+    /**
+     * Obtains the location of the file.
+     *
+     * @return Location of the file.
+     */
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Obtains the size of the file at the time it was staged.
+     *
+     * @return Size of the file in bytes.
+     */
+    public long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Obtains a request body for the content of the file, for uploading the file using HTTP.
+     *
+     * @return Request body providing the content of the file. Unless the content is shared with uploads to
+     *      other repositories, the body reads the file.
+     * @throws FileNotFoundException if the file does not exist
+     */
+    public HttpRequest.BodyPublisher getBodyPublisher() throws FileNotFoundException {
+        return this.content == null ? HttpRequest.BodyPublishers.ofFile(this.path) : this.content;
+    }
+
+    /**
+     * Obtains the checksums of the file.
+     *
+     * @return Checksums of the file as lowercase hexadecimal strings.
+     */
+    public Map<Checksum, String> getChecksums() {
+        return this.checksums;
+    }
+
+    /**
+     * Obtains the specified checksum of the file.
+     *
+     * @param checksum Checksum algorithm
+     * @return Checksum of the file as a lowercase hexadecimal string.
+     */
+    public String getChecksum(final Checksum checksum) {
+        return this.checksums.get(checksum);
+    }
+
+    /**
+     * Indicates whether the file has changed since it was staged.
+     *
+     * @return {@code true} if the size or modification time of the file differs from when it was staged.
+     * @throws IOException if the file attributes could not be read
+     */
+    public boolean isStale() throws IOException {
+        return !Files.exists(this.path)
+                || Files.size(this.path) != this.size
+                || Files.getLastModifiedTime(this.path).toMillis() != this.lastModified;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.time.Duration;
+
+import org.gradle.api.Project;
+import org.gradle.api.provider.Provider;
+
+
+/**
+ * Creates the {@link ReleaseStagingRepository} task in the root project of a build using staged publishing.
+ * The task depends on the {@code publishPipelined} task of every project that has enabled staged publishing.
+ * The participating projects are obtained from the {@link NexusStagingService} when the task graph is
+ * calculated, so the root project never accesses the model of another project, and a release of any number
+ * of projects is performed as a single staging session.
+ */
+final class StagedPublishing {
+
+    /** Name of the task closing and releasing the staging repository. */
+    static final String TASK_NAME = "releaseStagingRepository";
+
+    /** Default time between requests for the state of the staging repository. */
+    static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(5);
+
+    /** Default maximum time to wait for the staging repository to be closed or released. */
+    static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(10);
+
+    private StagedPublishing() {
+    }
+
+    /**
+     * Records that the specified project publishes through the staging repository once it applies the
+     * {@code maven-publish} plugin, and creates the release task if the project is the root project.
+     *
+     * @param project Project publishing through the staging repository
+     * @param staging Service coordinating the staging repository
+     */
+    static void configure(final Project project, final Provider<NexusStagingService> staging) {
+        final String projectPath = project.getPath();
+        project.getPluginManager().withPlugin("maven-publish",
+                                              plugin -> staging.get().addParticipant(projectPath));
+
+        if (!project.equals(project.getRootProject())) {
+            return;
+        }
+
+        project.getTasks().register(TASK_NAME, ReleaseStagingRepository.class, task -> {
+            task.setGroup("publishing");
+            task.setDescription("Publishes all Maven publications of the build to a Nexus staging repository, "
+                                        + "then closes and releases it.");
+            task.dependsOn(project.provider(() -> staging.get()
+                                                         .getParticipants()
+                                                         .stream()
+                                                         .map(StagedPublishing::publishTaskPath)
+                                                         .toList()));
+            task.getStaging().set(staging);
+            task.usesService(staging);
+            task.getPollInterval().convention(DEFAULT_POLL_INTERVAL);
+            task.getReleaseTimeout().convention(DEFAULT_TIMEOUT);
+        });
+    }
+
+    /**
+     * Obtains the path of the task publishing the publications of a project.
+     *
+     * @param projectPath Path of the project
+     * @return Path of the project's {@code publishPipelined} task.
+     */
+    static String publishTaskPath(final String projectPath) {
+        return (":".equals(projectPath) ? "" : projectPath) + ':' + PipelinedPublishing.LIFECYCLE_TASK_NAME;
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Writes a POM directly to a stream using the streaming XML API. Unlike the POM generation performed by
+ * Gradle, no document object model of the POM is built, so the memory used is independent of the number
+ * of dependencies and the length of property values. The elements are written in the order defined by
+ * the Maven POM schema and elements with no value are omitted.
+ */
+public final class StreamingPomWriter {
+
+    private static final String POM_NAMESPACE = "http://maven.apache.org/POM/4.0.0";
+    private static final String XSI_NAMESPACE = "http://www.w3.org/2001/XMLSchema-instance";
+    private static final String SCHEMA_LOCATION = POM_NAMESPACE + " https://maven.apache.org/xsd/maven-4.0.0.xsd";
+    private static final List<String> GRADLE_METADATA_COMMENT = List.of(
+            " This module was also published with a richer model, Gradle metadata,  ",
+            " which should be used instead. Do not delete the following line which  ",
+            " is to indicate to Gradle or any Gradle module metadata file consumer  ",
+            " that they should prefer consuming it instead. ",
+            " do_not_remove: published-with-gradle-metadata "
+    );
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private StreamingPomWriter() {
+    }
+
+    /**
+     * Writes the POM to the specified file, creating its parent directories if necessary.
+     *
+     * @param model Content of the POM
+     * @param file File to write
+     * @throws IOException if the file could not be written
+     */
+    public static void write(final PomModel model, final Path file) throws IOException {
+        final Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE)) {
+            write(model, output);
+        }
+    }
+
+    /**
+     * Writes the POM to the specified stream.
+     *
+     * @param model Content of the POM
+     * @param output Stream to which the POM is written. The stream is flushed but not closed.
+     * @throws IOException if the POM could not be written
+     */
+    public static void write(final PomModel model, final OutputStream output) throws IOException {
+        try {
+            final XMLStreamWriter writer = PomXml.createWriter(output);
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeCharacters("\n");
+            writer.writeStartElement("project");
+            writer.writeDefaultNamespace(POM_NAMESPACE);
+            writer.writeNamespace("xsi", XSI_NAMESPACE);
+            writer.writeAttribute("xsi", XSI_NAMESPACE, "schemaLocation", SCHEMA_LOCATION);
+
+            if (model.isPublishedWithGradleMetadata()) {
+                for (final String line : GRADLE_METADATA_COMMENT) {
+                    PomXml.indent(writer, 1);
+                    writer.writeComment(line);
+                }
+            }
+
+            PomXml.writeElement(writer, 1, "modelVersion", "4.0.0");
+            PomXml.writeElement(writer, 1, "groupId", model.getGroupId());
+            PomXml.writeElement(writer, 1, "artifactId", model.getArtifactId());
+            PomXml.writeElement(writer, 1, "version", model.getVersion());
+            writeOptional(writer, 1, "packaging", model.getPackaging());
+            writeOptional(writer, 1, "name", model.getName());
+            writeOptional(writer, 1, "description", model.getDescription());
+            writeOptional(writer, 1, "url", model.getUrl());
+
+            if (model.getOrganizationName() != null || model.getOrganizationUrl() != null) {
+                startElement(writer, 1, "organization");
+                writeOptional(writer, 2, "name", model.getOrganizationName());
+                writeOptional(writer, 2, "url", model.getOrganizationUrl());
+                endElement(writer, 1);
+            }
+
+            final PomLicense license = model.getLicense();
+            if (license != null) {
+                startElement(writer, 1, "licenses");
+                startElement(writer, 2, "license");
+                PomXml.writeElement(writer, 3, "name", license.getName());
+                PomXml.writeElement(writer, 3, "url", license.getUrl());
+                endElement(writer, 2);
+                endElement(writer, 1);
+            }
+
+            if (!model.getDevelopers().isEmpty()) {
+                startElement(writer, 1, "developers");
+                for (final PomDeveloper developer : model.getDevelopers()) {
+                    startElement(writer, 2, "developer");
+                    PomXml.writeElement(writer, 3, "id", developer.getId());
+                    PomXml.writeElement(writer, 3, "name", developer.getName());
+                    PomXml.writeElement(writer, 3, "email", developer.getEmail());
+                    writeOptional(writer, 3, "organization", model.getOrganizationName());
+                    writeOptional(writer, 3, "organizationUrl", model.getOrganizationUrl());
+                    endElement(writer, 2);
+                }
+                endElement(writer, 1);
+            }
+
+            if (model.getScmConnection() != null || model.getScmDeveloperConnection() != null
+                    || model.getScmUrl() != null || model.getScmTag() != null) {
+                startElement(writer, 1, "scm");
+                writeOptional(writer, 2, "connection", model.getScmConnection());
+                writeOptional(writer, 2, "developerConnection", model.getScmDeveloperConnection());
+                writeOptional(writer, 2, "tag", model.getScmTag());
+                writeOptional(writer, 2, "url", model.getScmUrl());
+                endElement(writer, 1);
+            }
+
+            if (model.getIssueSystem() != null || model.getIssueUrl() != null) {
+                startElement(writer, 1, "issueManagement");
+                writeOptional(writer, 2, "system", model.getIssueSystem());
+                writeOptional(writer, 2, "url", model.getIssueUrl());
+                endElement(writer, 1);
+            }
+
+            if (model.getCiSystem() != null || model.getCiUrl() != null) {
+                startElement(writer, 1, "ciManagement");
+                writeOptional(writer, 2, "system", model.getCiSystem());
+                writeOptional(writer, 2, "url", model.getCiUrl());
+                endElement(writer, 1);
+            }
+
+            if (!model.getProperties().isEmpty()) {
+                startElement(writer, 1, "properties");
+                for (final Map.Entry<String, String> property : model.getProperties().entrySet()) {
+                    PomXml.writeElement(writer, 2, property.getKey(), property.getValue());
+                }
+                endElement(writer, 1);
+            }
+
+            if (!model.getManagedDependencies().isEmpty()) {
+                startElement(writer, 1, "dependencyManagement");
+                writeDependencies(writer, 2, model.getManagedDependencies());
+                endElement(writer, 1);
+            }
+
+            if (!model.getDependencies().isEmpty()) {
+                writeDependencies(writer, 1, model.getDependencies());
+            }
+
+            writer.writeCharacters("\n");
+            writer.writeEndElement();
+            writer.writeCharacters("\n");
+            writer.writeEndDocument();
+            writer.flush();
+            writer.close();
+        } catch (final XMLStreamException ex) {
+            throw new IOException("Could not write POM for " + model.getGroupId() + ':' + model.getArtifactId() + ':'
+                                          + model.getVersion(), ex);
+        }
+        output.flush();
+    }
+
+    private static void writeDependencies(final XMLStreamWriter writer, final int depth,
+                                          final List<PomDependency> dependencies) throws XMLStreamException {
+        startElement(writer, depth, "dependencies");
+        for (final PomDependency dependency : dependencies) {
+            startElement(writer, depth + 1, "dependency");
+            PomXml.writeElement(writer, depth + 2, "groupId", dependency.getGroupId());
+            PomXml.writeElement(writer, depth + 2, "artifactId", dependency.getArtifactId());
+            writeOptional(writer, depth + 2, "version", dependency.getVersion());
+            writeOptional(writer, depth + 2, "classifier", dependency.getClassifier());
+            writeOptional(writer, depth + 2, "type", dependency.getType());
+            writeOptional(writer, depth + 2, "scope", dependency.getScope());
+            if (dependency.isOptional()) {
+                PomXml.writeElement(writer, depth + 2, "optional", "true");
+            }
+            if (!dependency.getExclusions().isEmpty()) {
+                startElement(writer, depth + 2, "exclusions");
+                for (final String exclusion : dependency.getExclusions()) {
+                    final int separator = exclusion.indexOf(':');
+                    startElement(writer, depth + 3, "exclusion");
+                    PomXml.writeElement(writer, depth + 4, "groupId",
+                                        separator < 0 ? exclusion : exclusion.substring(0, separator));
+                    PomXml.writeElement(writer, depth + 4, "artifactId",
+                                        separator < 0 ? "*" : exclusion.substring(separator + 1));
+                    endElement(writer, depth + 3);
+                }
+                endElement(writer, depth + 2);
+            }
+            endElement(writer, depth + 1);
+        }
+        endElement(writer, depth);
+    }
+
+    private static void writeOptional(final XMLStreamWriter writer, final int depth, final String name,
+                                      @Nullable final String value) throws XMLStreamException {
+        if (value != null && !value.isEmpty()) {
+            PomXml.writeElement(writer, depth, name, value);
+        }
+    }
+
+    private static void startElement(final XMLStreamWriter writer, final int depth, final String name)
+            throws XMLStreamException {
+        PomXml.indent(writer, depth);
+        writer.writeStartElement(name);
+    }
+
+    private static void endElement(final XMLStreamWriter writer, final int depth) throws XMLStreamException {
+        PomXml.indent(writer, depth);
+        writer.writeEndElement();
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.DependencyArtifact;
+import org.gradle.api.artifacts.DependencyConstraint;
+import org.gradle.api.artifacts.ExcludeRule;
+import org.gradle.api.artifacts.ModuleDependency;
+import org.gradle.api.attributes.Category;
+import org.gradle.api.publish.PublishingExtension;
+import org.gradle.api.publish.maven.MavenArtifact;
+import org.gradle.api.publish.maven.MavenPublication;
+import org.gradle.api.publish.maven.tasks.GenerateMavenPom;
+import org.gradle.api.tasks.TaskProvider;
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Replaces the POM generation of each Maven publication with the {@link StreamingPomWriter}. The POM
+ * contains the coordinates of the publication, the information provided by a {@link CThingPomAction} and
+ * the dependencies and dependency constraints declared in the {@code apiElements} and
+ * {@code runtimeElements} configurations. These are the configurations published by the {@code java},
+ * {@code java-library} and {@code java-platform} plugins. Dependencies declared in {@code apiElements}
+ * have {@code compile} scope and the remaining dependencies in {@code runtimeElements} have
+ * {@code runtime} scope. Dependency constraints and platform dependencies are written to the
+ * {@code dependencyManagement} section. Customizations made using {@link MavenPublication#pom} other than
+ * by the POM action, including {@code withXml} hooks, are not applied. The POMs of Gradle plugin marker
+ * publications and of the BOM publication, which is generated by {@link CThingBom}, are not replaced.
+ */
+final class StreamingPoms {
+
+    private static final String API_ELEMENTS = "apiElements";
+    private static final String RUNTIME_ELEMENTS = "runtimeElements";
+
+    private StreamingPoms() {
+    }
+
+    /**
+     * Replaces the POM generation of all Maven publications in the specified project.
+     *
+     * @param project Project whose publications are to be generated using the streaming writer
+     * @param pomActionSupplier Provides the POM action supplying the C Thing Software information for the
+     *      POMs. The supplier is called once, after the project has been evaluated.
+     */
+    static void configure(final Project project, final Supplier<CThingPomAction> pomActionSupplier) {
+        project.getPluginManager().withPlugin("maven-publish", plugin -> project.afterEvaluate(p -> {
+            final CThingPomAction pomAction = pomActionSupplier.get();
+            final PublishingExtension publishing = project.getExtensions().getByType(PublishingExtension.class);
+            publishing.getPublications()
+                      .withType(MavenPublication.class)
+                      .matching(StreamingPoms::isStreamed)
+                      .forEach(publication -> configurePublication(project, publication, pomAction));
+        }));
+    }
+
+    /**
+     * Indicates whether the POM of the specified publication is generated using the streaming writer. The
+     * POMs of Gradle plugin marker publications, whose only dependency is the plugin artifact, are generated
+     * by Gradle and the POM of the BOM publication is generated by {@link CThingBom}.
+     *
+     * @param publication Publication to test
+     * @return {@code true} if the POM of the publication is generated using the streaming writer.
+     */
+    static boolean isStreamed(final MavenPublication publication) {
+        return !CThingPublishingExtension.isGradlePluginMarker(publication.getArtifactId())
+                && !CThingBom.BOM_PUBLICATION.equals(publication.getName());
+    }
+
+    private static void configurePublication(final Project project, final MavenPublication publication,
+                                             final CThingPomAction pomAction) {
+        final String publicationName = PipelinedPublishing.capitalize(publication.getName()) + "Publication";
+        final TaskProvider<GenerateMavenPom> pomTask =
+                project.getTasks().named("generatePomFileFor" + publicationName, GenerateMavenPom.class);
+        final File destination = pomTask.get().getDestination();
+        final boolean hasModule = project.getTasks().getNames().contains("generateMetadataFileFor" + publicationName);
+        final CThingPomAction.Snapshot settings = pomAction.getSnapshot();
+
+        final TaskProvider<GenerateStreamingPom> streamingTask =
+                project.getTasks().register("generateStreamingPomFor" + publicationName, GenerateStreamingPom.class,
+                                            task -> {
+                    task.setDescription("Generates the POM for the " + publication.getName()
+                                                + " publication using the streaming POM writer.");
+                    task.getDestination().set(destination);
+                    task.getPom().set(project.provider(() -> createModel(project, publication, pomAction, settings,
+                                                                                 hasModule)));
+                });
+
+        // The publishing tasks obtain the POM from the standard task, so that task is retained but replaced
+        // by the streaming task, which writes to the same file.
+        pomTask.configure(task -> {
+            task.dependsOn(streamingTask);
+            task.setEnabled(false);
+        });
+    }
+
+    /**
+     * Creates the model of the POM for the specified publication.
+     *
+     * @param project Project containing the publication
+     * @param publication Publication whose POM is to be generated
+     * @param pomAction Provides the C Thing Software information for the POM
+     * @param settings Configuration of the POM action when the publication was configured
+     * @param hasModule {@code true} if Gradle module metadata is published for the publication
+     * @return Model of the POM.
+     */
+    static PomModel createModel(final Project project, final MavenPublication publication,
+                                final CThingPomAction pomAction, final CThingPomAction.Snapshot settings,
+                                final boolean hasModule) {
+        final PomModel model = new PomModel(publication.getGroupId(), publication.getArtifactId(),
+                                            publication.getVersion());
+        model.setPackaging(determinePackaging(publication));
+        model.setPublishedWithGradleMetadata(hasModule);
+        pomAction.populate(model, settings);
+        addDependencies(project, model);
+        return model;
+    }
+
+    /**
+     * Determines the packaging of a publication in the same manner as Gradle. If the packaging has been
+     * set explicitly, it is used. If the publication has a single artifact without a classifier, the
+     * extension of that artifact is used. Otherwise, the packaging is {@code pom}.
+     *
+     * @param publication Publication whose packaging is to be determined
+     * @return Packaging of the publication, or {@code null} if the packaging is {@code jar}.
+     */
+    @Nullable
+    static String determinePackaging(final MavenPublication publication) {
+        String packaging = publication.getPom().getPackaging();
+        if (packaging == null) {
+            final List<MavenArtifact> mainArtifacts = new ArrayList<>();
+            for (final MavenArtifact artifact : publication.getArtifacts()) {
+                if (artifact.getClassifier() == null || artifact.getClassifier().isEmpty()) {
+                    mainArtifacts.add(artifact);
+                }
+            }
+            packaging = mainArtifacts.size() == 1 ? mainArtifacts.get(0).getExtension() : "pom";
+        }
+        return "jar".equals(packaging) ? null : packaging;
+    }
+
+    /**
+     * Adds the dependencies and dependency constraints published by the project to the model.
+     *
+     * @param project Project whose dependencies are to be added
+     * @param model Model to which the dependencies are added
+     */
+    static void addDependencies(final Project project, final PomModel model) {
+        final Set<String> added = new HashSet<>();
+        final Set<String> addedManaged = new HashSet<>();
+        addDependencies(project.getConfigurations().findByName(API_ELEMENTS), "compile", null, model, added,
+                        addedManaged);
+        addDependencies(project.getConfigurations().findByName(RUNTIME_ELEMENTS), "runtime", "runtime", model, added,
+                        addedManaged);
+    }
+
+    private static void addDependencies(@Nullable final Configuration config, final String scope,
+                                        @Nullable final String constraintScope, final PomModel model,
+                                        final Set<String> added, final Set<String> addedManaged) {
+        if (config == null) {
+            return;
+        }
+
+        for (final Dependency dependency : config.getAllDependencies()) {
+            final String group = dependency.getGroup();
+            if (group == null || !(dependency instanceof ModuleDependency moduleDependency)) {
+                continue;
+            }
+
+            if (isPlatform(moduleDependency)) {
+                if (addedManaged.add(group + ':' + dependency.getName())) {
+                    model.addManagedDependency(new PomDependency(group, dependency.getName(), dependency.getVersion(),
+                                                                 null, "pom", "import", false, List.of()));
+                }
+                continue;
+            }
+
+            final List<String> exclusions = new ArrayList<>();
+            if (moduleDependency.isTransitive()) {
+                for (final ExcludeRule rule : moduleDependency.getExcludeRules()) {
+                    exclusions.add(valueOrWildcard(rule.getGroup()) + ':' + valueOrWildcard(rule.getModule()));
+                }
+            } else {
+                exclusions.add("*:*");
+            }
+
+            final Set<DependencyArtifact> artifacts = moduleDependency.getArtifacts();
+            if (artifacts.isEmpty()) {
+                if (added.add(group + ':' + dependency.getName())) {
+                    model.addDependency(new PomDependency(group, dependency.getName(), dependency.getVersion(), null,
+                                                          null, scope, false, exclusions));
+                }
+            } else {
+                for (final DependencyArtifact artifact : artifacts) {
+                    final String classifier = artifact.getClassifier();
+                    if (added.add(group + ':' + artifact.getName() + ':' + classifier)) {
+                        final String extension = artifact.getExtension();
+                        model.addDependency(new PomDependency(group, artifact.getName(), dependency.getVersion(),
+                                                              classifier, "jar".equals(extension) ? null : extension,
+                                                              scope, false, exclusions));
+                    }
+                }
+            }
+        }
+
+        for (final DependencyConstraint constraint : config.getAllDependencyConstraints()) {
+            if (addedManaged.add(constraint.getGroup() + ':' + constraint.getName())) {
+                model.addManagedDependency(new PomDependency(constraint.getGroup(), constraint.getName(),
+                                                             constraint.getVersion(), constraintScope));
+            }
+        }
+    }
+
+    private static boolean isPlatform(final ModuleDependency dependency) {
+        final Category category = dependency.getAttributes().getAttribute(Category.CATEGORY_ATTRIBUTE);
+        return category != null && (Category.REGULAR_PLATFORM.equals(category.getName())
+                || Category.ENFORCED_PLATFORM.equals(category.getName()));
+    }
+
+    private static String valueOrWildcard(@Nullable final String value) {
+        return value == null || value.isEmpty() ? "*" : value;
+    }
+}
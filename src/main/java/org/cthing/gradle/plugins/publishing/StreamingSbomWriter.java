@@ -0,0 +1,219 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.result.DependencyResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.artifacts.result.ResolvedDependencyResult;
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Writes a <a href="https://cyclonedx.org/">CycloneDX</a> software bill of materials in JSON format
+ * directly to a stream. The components and dependencies are obtained from the result of resolving a
+ * configuration, so the dependency graph resolved for the build is reused rather than resolved again.
+ * Only the identities of the components are recorded, so the artifacts of the components are not
+ * downloaded. The components and dependencies are written in sorted order and the serial number of the
+ * bill of materials is derived from its content, so the same dependency graph always produces the same
+ * file.
+ */
+public final class StreamingSbomWriter {
+
+    /** Version of the CycloneDX specification to which the bill of materials conforms. */
+    public static final String SPEC_VERSION = "1.5";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private StreamingSbomWriter() {
+    }
+
+    /**
+     * Writes the bill of materials to the specified file, creating its parent directories if necessary.
+     *
+     * @param component Coordinates of the published component ({@code group:artifact:version})
+     * @param license License of the published component, or {@code null} if not known
+     * @param supplierName Name of the organization supplying the component
+     * @param supplierUrl Web site of the organization supplying the component
+     * @param root Root of the resolved dependency graph of the published component
+     * @param file File to write
+     * @throws IOException if the file could not be written
+     */
+    public static void write(final String component, @Nullable final PomLicense license,
+                             final String supplierName, final String supplierUrl,
+                             final ResolvedComponentResult root, final Path file) throws IOException {
+        final Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (OutputStream output = Files.newOutputStream(file)) {
+            write(component, license, supplierName, supplierUrl, root, output);
+        }
+    }
+
+    /**
+     * Writes the bill of materials to the specified stream.
+     *
+     * @param component Coordinates of the published component ({@code group:artifact:version})
+     * @param license License of the published component, or {@code null} if not known
+     * @param supplierName Name of the organization supplying the component
+     * @param supplierUrl Web site of the organization supplying the component
+     * @param root Root of the resolved dependency graph of the published component
+     * @param output Stream to which the bill of materials is written. The stream is flushed but not closed.
+     * @throws IOException if the bill of materials could not be written
+     */
+    public static void write(final String component, @Nullable final PomLicense license,
+                             final String supplierName, final String supplierUrl,
+                             final ResolvedComponentResult root, final OutputStream output) throws IOException {
+        final String[] coordinates = component.split(":");
+        final String rootRef = purl(coordinates[0], coordinates[1], coordinates[2]);
+
+        // Assign a reference to every component reachable from the root, and record the direct dependencies
+        // of each component. Only references are retained, so the memory used is proportional to the number
+        // of components and edges rather than to the size of the resolution result.
+        final Map<ComponentIdentifier, String> refs = new HashMap<>();
+        final SortedMap<String, SortedSet<String>> dependencies = new TreeMap<>();
+        final SortedMap<String, ModuleVersionIdentifier> components = new TreeMap<>();
+        final Deque<ResolvedComponentResult> queue = new ArrayDeque<>();
+        refs.put(root.getId(), rootRef);
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            final ResolvedComponentResult current = queue.remove();
+            final SortedSet<String> dependsOn = new TreeSet<>();
+            for (final DependencyResult result : current.getDependencies()) {
+                if (result.isConstraint() || !(result instanceof ResolvedDependencyResult resolved)) {
+                    continue;
+                }
+                final ResolvedComponentResult selected = resolved.getSelected();
+                String ref = refs.get(selected.getId());
+                if (ref == null) {
+                    final ModuleVersionIdentifier module = selected.getModuleVersion();
+                    if (module == null) {
+                        continue;
+                    }
+                    ref = purl(module.getGroup(), module.getName(), module.getVersion());
+                    refs.put(selected.getId(), ref);
+                    components.put(ref, module);
+                    queue.add(selected);
+                }
+                if (!ref.equals(rootRef)) {
+                    dependsOn.add(ref);
+                }
+            }
+            dependencies.put(refs.get(current.getId()), dependsOn);
+        }
+
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        final JsonWriter json = new JsonWriter(writer);
+        json.beginObject()
+            .member("bomFormat", "CycloneDX")
+            .member("specVersion", SPEC_VERSION)
+            .member("serialNumber", "urn:uuid:" + serialNumber(rootRef, dependencies))
+            .name("version").value(1);
+
+        json.name("metadata").beginObject();
+        json.name("component").beginObject()
+            .member("type", "library")
+            .member("bom-ref", rootRef)
+            .member("group", coordinates[0])
+            .member("name", coordinates[1])
+            .member("version", coordinates[2])
+            .member("purl", rootRef);
+        if (license != null) {
+            json.name("licenses").beginArray().beginObject().name("license").beginObject();
+            if (license.getName().startsWith("LicenseRef-")) {
+                json.member("name", license.getName());
+            } else {
+                json.member("id", license.getName());
+            }
+            json.member("url", license.getUrl()).endObject().endObject().endArray();
+        }
+        json.endObject();
+        json.name("supplier").beginObject()
+            .member("name", supplierName)
+            .name("url").beginArray().value(supplierUrl).endArray()
+            .endObject();
+        json.endObject();
+
+        json.name("components").beginArray();
+        for (final Map.Entry<String, ModuleVersionIdentifier> entry : components.entrySet()) {
+            final ModuleVersionIdentifier module = entry.getValue();
+            json.beginObject()
+                .member("type", "library")
+                .member("bom-ref", entry.getKey())
+                .member("group", module.getGroup())
+                .member("name", module.getName())
+                .member("version", module.getVersion())
+                .member("purl", entry.getKey())
+                .endObject();
+        }
+        json.endArray();
+
+        json.name("dependencies").beginArray();
+        for (final Map.Entry<String, SortedSet<String>> entry : dependencies.entrySet()) {
+            json.beginObject().member("ref", entry.getKey()).name("dependsOn").beginArray();
+            for (final String dependency : entry.getValue()) {
+                json.value(dependency);
+            }
+            json.endArray().endObject();
+        }
+        json.endArray();
+
+        json.endObject().finish();
+    }
+
+    /**
+     * Creates the <a href="https://github.com/package-url/purl-spec">package URL</a> of a Maven component.
+     *
+     * @param group Group of the component
+     * @param name Name of the component
+     * @param version Version of the component
+     * @return Package URL of the component.
+     */
+    static String purl(final String group, final String name, final String version) {
+        return "pkg:maven/" + encode(group) + '/' + encode(name) + '@' + encode(version);
+    }
+
+    private static String encode(final String value) {
+        final StringBuilder encoded = new StringBuilder(value.length());
+        for (final byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            final char ch = (char)(b & 0xFF);
+            if ((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9')
+                    || ch == '.' || ch == '-' || ch == '_' || ch == '~') {
+                encoded.append(ch);
+            } else {
+                encoded.append('%').append(Character.toUpperCase(Character.forDigit(ch >> 4, 16)))
+                       .append(Character.toUpperCase(Character.forDigit(ch & 0xF, 16)));
+            }
+        }
+        return encoded.toString();
+    }
+
+    private static UUID serialNumber(final String rootRef, final SortedMap<String, SortedSet<String>> dependencies) {
+        final StringBuilder content = new StringBuilder(rootRef);
+        dependencies.forEach((ref, dependsOn) -> content.append('\n').append(ref).append(dependsOn));
+        return UUID.nameUUIDFromBytes(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import javax.inject.Inject;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkerExecutor;
+
+
+/**
+ * Uploads a single artifact of a publication to the C Thing Software repository as soon as the artifact
+ * has been produced. The upload is performed in the background so that the build can continue producing
+ * other artifacts while the upload is in progress.
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class UploadArtifact extends DefaultTask {
+
+    /**
+     * Service used to access the repository.
+     *
+     * @return Repository service property.
+     */
+    @Internal
+    public abstract Property<CThingRepoService> getService();
+
+    /**
+     * Service coordinating the staging repository into which the publication is published.
+     *
+     * @return Staging service property. Not set if the publication is not staged.
+     */
+    @Internal
+    public abstract Property<NexusStagingService> getStaging();
+
+    /**
+     * Root URL of the repository.
+     *
+     * @return Repository URL property.
+     */
+    @Input
+    @Optional
+    public abstract Property<String> getRepositoryUrl();
+
+    /**
+     * Root URLs of the repositories to which the publication is mirrored.
+     *
+     * @return Mirror repository URLs property.
+     */
+    @Input
+    public abstract ListProperty<String> getMirrorUrls();
+
+    /**
+     * Group of the publication.
+     *
+     * @return Group property.
+     */
+    @Input
+    public abstract Property<String> getGroupId();
+
+    /**
+     * Name of the publication.
+     *
+     * @return Artifact name property.
+     */
+    @Input
+    public abstract Property<String> getArtifactId();
+
+    /**
+     * Version of the publication.
+     *
+     * @return Version property.
+     */
+    @Input
+    public abstract Property<String> getVersion();
+
+    /**
+     * Classifier of the artifact.
+     *
+     * @return Classifier property. Not set if the artifact does not have a classifier.
+     */
+    @Input
+    @Optional
+    public abstract Property<String> getClassifier();
+
+    /**
+     * Extension of the artifact.
+     *
+     * @return Extension property.
+     */
+    @Input
+    public abstract Property<String> getExtension();
+
+    /**
+     * Artifact file to upload.
+     *
+     * @return Artifact file property.
+     */
+    @InputFile
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getArtifactFile();
+
+    /**
+     * Signature of the artifact file.
+     *
+     * @return Signature file property. Not set if the artifact is not signed.
+     */
+    @InputFile
+    @Optional
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getSignatureFile();
+
+    /**
+     * Obtains the executor used to perform the upload in the background.
+     *
+     * @return Worker executor.
+     */
+    @Inject
+    protected abstract WorkerExecutor getWorkerExecutor();
+
+    /**
+     * Obtains the location of the artifact in the repository.
+     *
+     * @return Location of the artifact relative to the repository root.
+     */
+    @Internal
+    public String getRemotePath() {
+        return MavenRepositoryLayout.artifactPath(getGroupId().get(), getArtifactId().get(), getVersion().get(),
+                                                  getClassifier().getOrNull(), getExtension().get());
+    }
+
+    /**
+     * Submits the upload of the artifact.
+     */
+    @TaskAction
+    public void upload() {
+        final String repositoryUrl = PipelinedPublishing.resolveRepositoryUrl(getStaging(), getRepositoryUrl());
+        PipelinedPublishing.requireReleaseLayout(getVersion().get());
+
+        final String remotePath = getRemotePath();
+        getWorkerExecutor().noIsolation().submit(UploadArtifactWork.class, params -> {
+            params.getService().set(getService());
+            params.getRepositoryUrl().set(repositoryUrl);
+            params.getMirrorUrls().set(getMirrorUrls());
+            params.getRemotePath().set(remotePath);
+            params.getArtifactFile().set(getArtifactFile());
+            params.getSignatureFile().set(getSignatureFile());
+        });
+    }
+}
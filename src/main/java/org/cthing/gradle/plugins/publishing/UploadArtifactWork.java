@@ -0,0 +1,90 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+
+/**
+ * Uploads a single artifact, its checksums and its signature, if any. The work is performed in the
+ * background so that other tasks can run while the upload proceeds.
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class UploadArtifactWork implements WorkAction<UploadArtifactWork.Params> {
+
+    /**
+     * Parameters for the upload.
+     */
+    public interface Params extends WorkParameters {
+        /**
+         * Service used to access the repository.
+         *
+         * @return Repository service property.
+         */
+        Property<CThingRepoService> getService();
+
+        /**
+         * Root URL of the repository.
+         *
+         * @return Repository URL property.
+         */
+        Property<String> getRepositoryUrl();
+
+        /**
+         * Root URLs of the repositories to which the artifact is mirrored.
+         *
+         * @return Mirror repository URLs property.
+         */
+        ListProperty<String> getMirrorUrls();
+
+        /**
+         * Location of the artifact in the repository.
+         *
+         * @return Remote path property.
+         */
+        Property<String> getRemotePath();
+
+        /**
+         * Artifact file to upload.
+         *
+         * @return Artifact file property.
+         */
+        RegularFileProperty getArtifactFile();
+
+        /**
+         * Signature of the artifact file, if the artifact is signed.
+         *
+         * @return Signature file property.
+         */
+        RegularFileProperty getSignatureFile();
+    }
+
+    @Override
+    public void execute() {
+        final Params params = getParameters();
+        final CThingRepoService service = params.getService().get();
+        final RepositoryTarget target = service.createTarget(params.getRepositoryUrl().get(), params.getMirrorUrls().get());
+        final String remotePath = params.getRemotePath().get();
+        final Path artifactFile = params.getArtifactFile().get().getAsFile().toPath();
+
+        try {
+            target.upload(remotePath, service.stage(artifactFile));
+            if (params.getSignatureFile().isPresent()) {
+                target.uploadWithoutChecksums(remotePath + ".asc", params.getSignatureFile().get().getAsFile().toPath());
+            }
+        } catch (final IOException ex) {
+            throw new GradleException("Could not upload " + artifactFile + " to " + target.getLocation(), ex);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.util.Locale;
+
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Verification performed on the files of a publication after they have been uploaded.
+ */
+public enum UploadVerification {
+
+    /** Uploaded files are not verified. */
+    NONE,
+
+    /**
+     * The size of each uploaded file reported by the repository (e.g. the {@code Content-Length} of a
+     * {@code HEAD} response), and any checksums the repository reports for the content it stored (e.g. an
+     * {@code X-Checksum-Sha1} header), are compared with those of the local file. This detects files that
+     * were stored incompletely. The checksum sidecar files are then compared with the checksums of the local
+     * file, which detects sidecar files that were not stored correctly. This requires two small requests per
+     * file. A file that was corrupted without changing its size is only detected if the repository reports
+     * its checksums.
+     */
+    CHECKSUMS,
+
+    /**
+     * Each uploaded file is downloaded and its checksums are calculated and compared with those of the
+     * local file. This detects corruption even if the repository calculated its sidecar files from the
+     * corrupted content, at the cost of downloading every file.
+     */
+    STRICT;
+
+    /**
+     * Obtains the verification corresponding to the specified property value.
+     *
+     * @param value Property value. The values {@code true} and {@code false} are accepted as synonyms for
+     *      {@link #CHECKSUMS} and {@link #NONE}, respectively.
+     * @return Verification corresponding to the value, or {@code null} if the value is not recognized.
+     */
+    @Nullable
+    public static UploadVerification fromValue(final String value) {
+        final String normalized = value.trim().toUpperCase(Locale.ROOT);
+        return switch (normalized) {
+            case "TRUE" -> CHECKSUMS;
+            case "FALSE", "" -> NONE;
+            default -> {
+                for (final UploadVerification verification : values()) {
+                    if (verification.name().equals(normalized)) {
+                        yield verification;
+                    }
+                }
+                yield null;
+            }
+        };
+    }
+}
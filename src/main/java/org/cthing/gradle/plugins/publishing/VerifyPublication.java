@@ -0,0 +1,207 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.TaskAction;
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Verifies that the files of a publication were uploaded intact by comparing the size and checksums of the
+ * local files with those of the files in the repository and in each mirror repository. All files are checked
+ * concurrently, so the time taken depends on the number of files divided by the number of concurrent
+ * requests allowed by the {@link CThingRepoService} rather than on the sum of the request round trips.
+ * All mismatches are reported together.
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class VerifyPublication extends DefaultTask {
+
+    /**
+     * Service used to access the repository.
+     *
+     * @return Repository service property.
+     */
+    @Internal
+    public abstract Property<CThingRepoService> getService();
+
+    /**
+     * Service coordinating the staging repository into which the publication is published.
+     *
+     * @return Staging service property. Not set if the publication is not staged.
+     */
+    @Internal
+    public abstract Property<NexusStagingService> getStaging();
+
+    /**
+     * Root URL of the repository.
+     *
+     * @return Repository URL property.
+     */
+    @Input
+    @Optional
+    public abstract Property<String> getRepositoryUrl();
+
+    /**
+     * Root URLs of the repositories to which the publication is mirrored.
+     *
+     * @return Mirror repository URLs property.
+     */
+    @Input
+    public abstract ListProperty<String> getMirrorUrls();
+
+    /**
+     * Version of the publication.
+     *
+     * @return Version property.
+     */
+    @Input
+    public abstract Property<String> getVersion();
+
+    /**
+     * Whether each file is downloaded and its checksums calculated rather than relying on the checksum
+     * sidecar files in the repository.
+     *
+     * @return Strict verification property.
+     */
+    @Input
+    public abstract Property<Boolean> getStrict();
+
+    /**
+     * Files to verify, keyed by their location in the repository. Local files that do not exist are
+     * not verified.
+     *
+     * @return Files property.
+     */
+    @Internal
+    public abstract MapProperty<String, File> getFiles();
+
+    /**
+     * Verifies the uploaded files.
+     */
+    @TaskAction
+    public void verify() {
+        final String repositoryUrl = PipelinedPublishing.resolveRepositoryUrl(getStaging(), getRepositoryUrl());
+        PipelinedPublishing.requireReleaseLayout(getVersion().get());
+
+        final CThingRepoService service = getService().get();
+        final List<RepositoryTarget> targets = new ArrayList<>();
+        targets.add(service.createTarget(repositoryUrl));
+        getMirrorUrls().get().forEach(url -> targets.add(service.createTarget(url)));
+        final boolean strict = getStrict().get();
+
+        final List<CompletableFuture<@Nullable String>> checks = new ArrayList<>();
+        for (final Map.Entry<String, File> entry : getFiles().get().entrySet()) {
+            final File file = entry.getValue();
+            if (!file.isFile()) {
+                continue;
+            }
+            for (final RepositoryTarget target : targets) {
+                checks.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return verify(service.stage(file.toPath()), target, entry.getKey(), strict);
+                    } catch (final IOException ex) {
+                        throw new CompletionException(ex);
+                    }
+                }, service.getExecutor()));
+            }
+        }
+
+        final List<String> problems = new ArrayList<>();
+        for (final CompletableFuture<@Nullable String> check : checks) {
+            try {
+                final String problem = check.join();
+                if (problem != null) {
+                    problems.add(problem);
+                }
+            } catch (final CompletionException ex) {
+                final Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+                problems.add(cause.getMessage());
+            }
+        }
+
+        if (!problems.isEmpty()) {
+            problems.sort(null);
+            throw new GradleException("Verification of uploaded files failed:\n  " + String.join("\n  ", problems));
+        }
+
+        getLogger().info("Verified {} uploaded files", checks.size());
+    }
+
+    /**
+     * Verifies a single uploaded file.
+     *
+     * @param local Local file
+     * @param target Repository containing the uploaded file
+     * @param path Location of the file in the repository
+     * @param strict {@code true} to download the file and calculate its checksums, {@code false} to compare
+     *      the size and checksums reported by the repository and the checksum sidecar files
+     * @return Description of the problem with the uploaded file, or {@code null} if the file was uploaded
+     *      intact.
+     * @throws IOException if the repository could not be accessed
+     */
+    @Nullable
+    static String verify(final StagedFile local, final RepositoryTarget target, final String path,
+                         final boolean strict) throws IOException {
+        final String location = target.getLocation() + path;
+
+        if (strict) {
+            final Map<Checksum, String> remote = target.computeChecksums(path);
+            if (remote == null) {
+                return location + ": file is missing";
+            }
+            final String expected = local.getChecksum(Checksum.SHA256);
+            final String actual = remote.get(Checksum.SHA256);
+            return expected.equals(actual) ? null : mismatch(location, Checksum.SHA256, expected, actual);
+        }
+
+        // The sidecar files were published by the plugin from the local checksums, so they cannot reveal a file
+        // stored incompletely. The size and any checksums the repository reports are derived from the content
+        // it actually stored.
+        final RepositoryTarget.StoredFile stored = target.getStoredFile(path);
+        if (stored == null) {
+            return location + ": file is missing";
+        }
+        if (stored.size() >= 0 && stored.size() != local.getSize()) {
+            return location + ": expected size " + local.getSize() + " but was " + stored.size();
+        }
+        for (final Map.Entry<Checksum, String> entry : stored.checksums().entrySet()) {
+            final String expected = local.getChecksum(entry.getKey());
+            if (!expected.equals(entry.getValue())) {
+                return mismatch(location, entry.getKey(), expected, entry.getValue());
+            }
+        }
+
+        for (final Checksum checksum : List.of(Checksum.SHA256, Checksum.SHA1)) {
+            final String actual = target.downloadChecksum(path, checksum);
+            if (actual != null) {
+                final String expected = local.getChecksum(checksum);
+                return expected.equals(actual) ? null : mismatch(location, checksum, expected, actual);
+            }
+        }
+        return location + ": checksum file is missing";
+    }
+
+    private static String mismatch(final String location, final Checksum checksum, final String expected,
+                                   @Nullable final String actual) {
+        return location + ": expected " + checksum.getExtension() + ' ' + expected + " but was " + actual;
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.TaskAction;
+import org.jspecify.annotations.Nullable;
+
+
+/**
+ * Checks that publishing is possible before any artifacts are built. Every repository endpoint is probed
+ * concurrently using an authenticated {@code HEAD} request, so the check takes roughly as long as the
+ * slowest endpoint. The probes are sent directly rather than through the concurrency limit of the
+ * {@link CThingRepoService} and are not retried, so that a misconfigured endpoint is reported promptly.
+ * Endpoints with {@code file:} URLs are checked for a writable directory instead. The signing key material
+ * is also validated. The status and latency of each endpoint are reported, and the task fails if an
+ * endpoint cannot be reached, rejects the credentials or does not exist, or if the signing key material is
+ * invalid. Endpoints that are not configured and the absence of signing properties are reported but do not
+ * fail the task.
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class VerifyPublishingSetup extends DefaultTask {
+
+    /** Name of the task. */
+    public static final String TASK_NAME = "verifyPublishingSetup";
+
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(30);
+    private static final Pattern KEY_ID_PATTERN = Pattern.compile("(?:0x)?(?:[0-9A-Fa-f]{8}|[0-9A-Fa-f]{16})");
+    private static final int SECRET_KEY_PACKET_TAG = 5;
+
+    /**
+     * Result of probing a single endpoint.
+     */
+    static final class Probe {
+
+        private final String name;
+        private final String url;
+        private final int status;
+        private final long millis;
+
+        @Nullable
+        private final String problem;
+
+        Probe(final String name, final String url, final int status, final long millis,
+              @Nullable final String problem) {
+            this.name = name;
+            this.url = url;
+            this.status = status;
+            this.millis = millis;
+            this.problem = problem;
+        }
+
+        /**
+         * Obtains the name of the endpoint.
+         *
+         * @return Endpoint name.
+         */
+        String getName() {
+            return this.name;
+        }
+
+        /**
+         * Obtains the URL of the endpoint.
+         *
+         * @return Endpoint URL.
+         */
+        String getUrl() {
+            return this.url;
+        }
+
+        /**
+         * Obtains the HTTP status returned by the endpoint.
+         *
+         * @return HTTP status, or 0 if no response was received.
+         */
+        int getStatus() {
+            return this.status;
+        }
+
+        /**
+         * Obtains the time taken to probe the endpoint.
+         *
+         * @return Latency in milliseconds.
+         */
+        long getMillis() {
+            return this.millis;
+        }
+
+        /**
+         * Obtains the problem found with the endpoint.
+         *
+         * @return Description of the problem, or {@code null} if the endpoint is usable.
+         */
+        @Nullable
+        String getProblem() {
+            return this.problem;
+        }
+    }
+
+    /**
+     * Service used to access the repository.
+     *
+     * @return Repository service property.
+     */
+    @Internal
+    public abstract Property<CThingRepoService> getService();
+
+    /**
+     * Repository endpoints to probe, keyed by the name of the property defining them. An empty URL indicates
+     * that the endpoint is not configured.
+     *
+     * @return Endpoints property.
+     */
+    @Input
+    public abstract MapProperty<String, String> getEndpoints();
+
+    /**
+     * Identifier of the signing key ({@code signing.keyId}).
+     *
+     * @return Signing key identifier property.
+     */
+    @Input
+    @Optional
+    public abstract Property<String> getSigningKeyId();
+
+    /**
+     * Password of the signing key ({@code signing.password}).
+     *
+     * @return Signing password property.
+     */
+    @Internal
+    public abstract Property<String> getSigningPassword();
+
+    /**
+     * Location of the secret key ring containing the signing key ({@code signing.secretKeyRingFile}).
+     *
+     * @return Secret key ring location property.
+     */
+    @Input
+    @Optional
+    public abstract Property<String> getSecretKeyRingFile();
+
+    /**
+     * Probes the endpoints and validates the signing key material.
+     */
+    @TaskAction
+    public void verifySetup() {
+        final CThingRepoService service = getService().get();
+
+        final Map<String, String> configured = new LinkedHashMap<>();
+        getEndpoints().get().forEach((name, url) -> {
+            if (url.isBlank()) {
+                getLogger().lifecycle("  {}: not configured", name);
+            } else {
+                configured.put(name, url);
+            }
+        });
+
+        final List<String> problems = new ArrayList<>();
+        for (final Probe probe : probe(service.getClient(), service::newRequest, configured, PROBE_TIMEOUT)) {
+            final String problem = probe.getProblem();
+            getLogger().lifecycle("  {}: {} {} ({} ms){}", probe.getName(), probe.getUrl(),
+                                  probe.getStatus() == 0 ? "-" : probe.getStatus(), probe.getMillis(),
+                                  problem == null ? "" : " - " + problem);
+            if (problem != null) {
+                problems.add(probe.getName() + " (" + probe.getUrl() + "): " + problem);
+            }
+        }
+
+        if (getSigningKeyId().isPresent() || getSigningPassword().isPresent() || getSecretKeyRingFile().isPresent()) {
+            problems.addAll(checkSigning(getSigningKeyId().getOrNull(), getSigningPassword().getOrNull(),
+                                         getSecretKeyRingFile().getOrNull()));
+            getLogger().lifecycle("  signing: key {}", getSigningKeyId().getOrElse("-"));
+        } else {
+            getLogger().lifecycle("  signing: not configured");
+        }
+
+        if (!problems.isEmpty()) {
+            throw new GradleException("Publishing setup is invalid:\n  " + String.join("\n  ", problems));
+        }
+    }
+
+    /**
+     * Probes the specified endpoints concurrently.
+     *
+     * @param client HTTP client with which to send the probes
+     * @param requestFactory Creates an authenticated request builder for a location
+     * @param endpoints URLs of the endpoints to probe, keyed by name
+     * @param timeout Maximum time to wait for each endpoint to respond
+     * @return Result of probing each endpoint, in the order the endpoints were specified.
+     */
+    static List<Probe> probe(final HttpClient client, final Function<URI, HttpRequest.Builder> requestFactory,
+                             final Map<String, String> endpoints, final Duration timeout) {
+        final List<CompletableFuture<Probe>> probes = new ArrayList<>();
+        endpoints.forEach((name, url) -> {
+            final long start = System.nanoTime();
+            if (url.regionMatches(true, 0, "file:", 0, 5)) {
+                final String problem = checkDirectory(url);
+                final long millis = (System.nanoTime() - start) / 1_000_000;
+                probes.add(CompletableFuture.completedFuture(new Probe(name, url, 0, millis, problem)));
+                return;
+            }
+            final HttpRequest request;
+            try {
+                request = requestFactory.apply(URI.create(url))
+                                        .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                                        .timeout(timeout)
+                                        .build();
+            } catch (final IllegalArgumentException ex) {
+                probes.add(CompletableFuture.completedFuture(new Probe(name, url, 0, 0, "invalid URL: "
+                        + ex.getMessage())));
+                return;
+            }
+            probes.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                             .handle((response, ex) -> {
+                                 final long millis = (System.nanoTime() - start) / 1_000_000;
+                                 if (ex != null) {
+                                     final Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+                                     return new Probe(name, url, 0, millis, "could not connect: " + cause);
+                                 }
+                                 final int status = response.statusCode();
+                                 return new Probe(name, url, status, millis, checkStatus(status));
+                             }));
+        });
+        return probes.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Determines whether a {@code file:} repository can be published to.
+     *
+     * @param url URL of the repository directory
+     * @return Description of the problem, or {@code null} if the directory is usable.
+     */
+    @Nullable
+    static String checkDirectory(final String url) {
+        final Path directory;
+        try {
+            directory = Path.of(URI.create(url));
+        } catch (final IllegalArgumentException | FileSystemNotFoundException ex) {
+            return "invalid URL: " + ex.getMessage();
+        }
+        if (!Files.isDirectory(directory)) {
+            return "directory does not exist";
+        }
+        if (!Files.isWritable(directory)) {
+            return "directory is not writable";
+        }
+        return null;
+    }
+
+    /**
+     * Determines whether a probe response indicates a problem.
+     *
+     * @param status HTTP status returned by the endpoint
+     * @return Description of the problem, or {@code null} if the endpoint is usable.
+     */
+    @Nullable
+    static String checkStatus(final int status) {
+        if (status < 400 || status == 405) {
+            // Some repositories do not support HEAD requests on directories, which still shows that the
+            // endpoint exists and accepted the credentials.
+            return null;
+        }
+        if (status == 401 || status == 403) {
+            return "credentials were rejected (status " + status + ")";
+        }
+        if (status == 404) {
+            return "endpoint does not exist (status 404)";
+        }
+        return "unexpected status " + status;
+    }
+
+    /**
+     * Validates the signing key material.
+     *
+     * @param keyId Identifier of the signing key
+     * @param password Password of the signing key
+     * @param keyRingFile Location of the secret key ring
+     * @return Problems found with the key material. If there are no problems, an empty list is returned.
+     */
+    static List<String> checkSigning(@Nullable final String keyId, @Nullable final String password,
+                                     @Nullable final String keyRingFile) {
+        final List<String> problems = new ArrayList<>();
+
+        if (keyId == null || keyId.isBlank()) {
+            problems.add("signing.keyId is not set");
+        } else if (!KEY_ID_PATTERN.matcher(keyId.trim()).matches()) {
+            problems.add("signing.keyId '" + keyId + "' is not an 8 or 16 digit hexadecimal key identifier");
+        }
+
+        if (password == null || password.isEmpty()) {
+            problems.add("signing.password is not set");
+        }
+
+        if (keyRingFile == null || keyRingFile.isBlank()) {
+            problems.add("signing.secretKeyRingFile is not set");
+        } else {
+            final File file = new File(keyRingFile);
+            if (!file.isFile() || !file.canRead()) {
+                problems.add("signing.secretKeyRingFile " + file + " does not exist or cannot be read");
+            } else {
+                try (InputStream input = Files.newInputStream(file.toPath())) {
+                    final int header = input.read();
+                    if (header < 0 || packetTag(header) != SECRET_KEY_PACKET_TAG) {
+                        problems.add("signing.secretKeyRingFile " + file + " is not a binary OpenPGP secret key ring"
+                                             + (header == '-' ? " (ASCII armored key rings are not supported)" : ""));
+                    }
+                } catch (final IOException ex) {
+                    problems.add("signing.secretKeyRingFile " + file + " cannot be read: " + ex.getMessage());
+                }
+            }
+        }
+
+        return problems;
+    }
+
+    /**
+     * Obtains the tag of an OpenPGP packet from its first byte (RFC 4880 section 4.2).
+     *
+     * @param header First byte of the packet
+     * @return Packet tag, or -1 if the byte is not a valid packet header.
+     */
+    private static int packetTag(final int header) {
+        if ((header & 0x80) == 0) {
+            return -1;
+        }
+        return (header & 0x40) == 0 ? (header >> 2) & 0x0F : header & 0x3F;
+    }
+
+}
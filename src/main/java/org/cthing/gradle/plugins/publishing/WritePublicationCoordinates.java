@@ -0,0 +1,59 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.TreeSet;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+
+/**
+ * Writes the coordinates of the Maven publications of a project to a file, one {@code group:artifact:version}
+ * per line in sorted order. The file is consumed by the root project to generate the aggregated C Thing
+ * Software BOM (see {@link GenerateBom}).
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class WritePublicationCoordinates extends DefaultTask {
+
+    /**
+     * Coordinates of the publications in the form {@code group:artifact:version}.
+     *
+     * @return Coordinates property.
+     */
+    @Input
+    public abstract ListProperty<String> getCoordinates();
+
+    /**
+     * File to which the coordinates are written.
+     *
+     * @return Destination file property.
+     */
+    @OutputFile
+    public abstract RegularFileProperty getDestination();
+
+    /**
+     * Writes the coordinates.
+     */
+    @TaskAction
+    public void write() {
+        final Path destination = getDestination().get().getAsFile().toPath();
+        try {
+            Files.write(destination, new TreeSet<>(getCoordinates().get()), StandardCharsets.UTF_8);
+        } catch (final IOException ex) {
+            throw new GradleException("Could not write publication coordinates to " + destination, ex);
+        }
+    }
+}
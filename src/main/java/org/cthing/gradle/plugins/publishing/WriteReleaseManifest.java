@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+
+/**
+ * Writes a release manifest describing the Maven publications of a project, or of an entire build, for use
+ * by a release train (see {@link RunReleaseTrain}). Each line of the manifest contains the coordinates of a
+ * publication ({@code group:artifact:version}) followed by the C Thing Software dependencies of the project
+ * in Gradle notation, separated by spaces. The lines are written in sorted order.
+ */
+@SuppressWarnings("AbstractClassName")
+public abstract class WriteReleaseManifest extends DefaultTask {
+
+    /**
+     * Lines describing the publications of the project.
+     *
+     * @return Modules property.
+     */
+    @Input
+    public abstract ListProperty<String> getModules();
+
+    /**
+     * Manifests of other projects to merge into the manifest (e.g. the manifests of the subprojects of a build).
+     *
+     * @return Manifest files.
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract ConfigurableFileCollection getMergedManifests();
+
+    /**
+     * File to which the manifest is written.
+     *
+     * @return Destination file property.
+     */
+    @OutputFile
+    public abstract RegularFileProperty getDestination();
+
+    /**
+     * Writes the manifest.
+     */
+    @TaskAction
+    public void write() {
+        final SortedSet<String> lines = new TreeSet<>(getModules().get());
+        for (final File manifest : getMergedManifests().getFiles()) {
+            try {
+                Files.readAllLines(manifest.toPath(), StandardCharsets.UTF_8)
+                     .stream()
+                     .filter(line -> !line.isBlank())
+                     .forEach(lines::add);
+            } catch (final IOException ex) {
+                throw new GradleException("Could not read release manifest " + manifest, ex);
+            }
+        }
+
+        final Path destination = getDestination().get().getAsFile().toPath();
+        try {
+            Files.write(destination, lines, StandardCharsets.UTF_8);
+        } catch (final IOException ex) {
+            throw new GradleException("Could not write release manifest to " + destination, ex);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    public void testConstruction() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 8, 1000, 0.5);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getInFlight()).isEqualTo(0);
+
+        assertThat(new AdaptiveConcurrencyLimiter(20, 8, 1000, 0.5).getLimit()).isEqualTo(8);
+        assertThat(new AdaptiveConcurrencyLimiter(0, 8, 1000, 0.5).getLimit()).isEqualTo(1);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> new AdaptiveConcurrencyLimiter(1, 0, 1000, 0.5));
+        assertThatIllegalArgumentException().isThrownBy(() -> new AdaptiveConcurrencyLimiter(1, 4, 1000, 1.0));
+        assertThatIllegalArgumentException().isThrownBy(() -> new AdaptiveConcurrencyLimiter(1, 4, 1000, 0.0));
+    }
+
+    @Test
+    public void testAdditiveIncrease() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 4, 60_000, 0.5);
+
+        // Two successful rounds of two operations each increase the limit by one.
+        for (int i = 0; i < 2; i++) {
+            limiter.acquire().release(AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+            limiter.acquire().release(AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(3);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire().release(AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void testMultiplicativeDecrease() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 8, 60_000, 0.5);
+
+        final List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            permits.add(limiter.acquire());
+        }
+
+        // All four operations were started before the first decrease so only one decrease is applied.
+        permits.forEach(permit -> permit.release(AdaptiveConcurrencyLimiter.Outcome.OVERLOADED));
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        limiter.acquire().release(AdaptiveConcurrencyLimiter.Outcome.OVERLOADED);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        limiter.acquire().release(AdaptiveConcurrencyLimiter.Outcome.OVERLOADED);
+        limiter.acquire().release(AdaptiveConcurrencyLimiter.Outcome.OVERLOADED);
+        assertThat(limiter.getLimit()).isEqualTo(1);
+
+        limiter.acquire().release(AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+        assertThat(limiter.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    public void testLatencyDecrease() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 4, 0, 0.5);
+        final AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+        Thread.sleep(2);
+        permit.release(AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void testDoubleRelease() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1000, 0.5);
+        final AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+        permit.release(AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        assertThatIllegalStateException().isThrownBy(() -> permit.release(AdaptiveConcurrencyLimiter.Outcome.SUCCESS));
+    }
+
+    @Test
+    public void testConcurrencyBounded() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(3, 3, 60_000, 0.5);
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(30);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            for (int i = 0; i < 30; i++) {
+                executor.execute(() -> {
+                    try {
+                        final AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+                        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                        Thread.sleep(5);
+                        active.decrementAndGet();
+                        permit.release(AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(maxActive.get()).isLessThanOrEqualTo(3);
+        assertThat(limiter.getInFlight()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+/**
+ * Measures building the {@link AptIndex} of a repository containing a large number of packages, updating it
+ * when a single package has been added, and writing the repository index files. Run using the
+ * {@code benchmark} task.
+ */
+@Tag("benchmark")
+public class AptIndexBenchmarkTest {
+
+    private static final int PACKAGE_COUNT = 20_000;
+
+    @TempDir
+    private Path tempDir;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void benchmarkIndex() throws IOException {
+        final Path repository = this.tempDir.resolve("repository");
+        for (int i = 0; i < PACKAGE_COUNT; i++) {
+            writePackage(repository, i);
+        }
+
+        long start = System.nanoTime();
+        final AptIndex full = AptIndex.update(repository, null, this.executor);
+        final long fullNanos = System.nanoTime() - start;
+        assertThat(full.size()).isEqualTo(PACKAGE_COUNT);
+
+        final Path indexFile = this.tempDir.resolve("apt.idx");
+        full.write(indexFile);
+        start = System.nanoTime();
+        final AptIndex previous = AptIndex.read(indexFile);
+        final long readNanos = System.nanoTime() - start;
+        assertThat(previous).isNotNull();
+
+        writePackage(repository, PACKAGE_COUNT);
+        start = System.nanoTime();
+        final AptIndex incremental = AptIndex.update(repository, previous, this.executor);
+        final long incrementalNanos = System.nanoTime() - start;
+        assertThat(incremental.size()).isEqualTo(PACKAGE_COUNT + 1);
+        assertThat(incremental.getParsedCount()).isEqualTo(1);
+
+        start = System.nanoTime();
+        incremental.writeRepositoryIndex(repository, "C Thing Software", "C Thing Software", Instant.now());
+        final long writeNanos = System.nanoTime() - start;
+
+        System.out.printf("Index of %d packages (%d KiB, Packages %d KiB, Packages.gz %d KiB, Packages.xz %d KiB)%n",
+                          PACKAGE_COUNT, Files.size(indexFile) / 1024,
+                          Files.size(repository.resolve(AptIndex.PACKAGES_FILE)) / 1024,
+                          Files.size(repository.resolve(AptIndex.PACKAGES_GZ_FILE)) / 1024,
+                          Files.size(repository.resolve(AptIndex.PACKAGES_XZ_FILE)) / 1024);
+        System.out.printf("  Full update:               %8.1f ms%n", fullNanos / 1e6);
+        System.out.printf("  Read index:                %8.1f ms%n", readNanos / 1e6);
+        System.out.printf("  Incremental update:        %8.1f ms%n", incrementalNanos / 1e6);
+        System.out.printf("  Write repository index:    %8.1f ms%n", writeNanos / 1e6);
+    }
+
+    private static void writePackage(final Path repository, final int index) throws IOException {
+        final String name = "package" + index;
+        AptIndexTest.writePackage(repository, "pool/" + name.charAt(name.length() - 1) + '/' + name
+                + "_1.0.0_amd64.deb", name, "1.0.0", "amd64");
+    }
+}
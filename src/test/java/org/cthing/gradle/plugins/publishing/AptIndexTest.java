@@ -0,0 +1,390 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZInputStream;
+import org.tukaani.xz.XZOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+
+public class AptIndexTest {
+
+    private static final Instant DATE = Instant.parse("2025-10-04T12:30:00Z");
+
+    @TempDir
+    private Path tempDir;
+
+    private Path repository;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        this.repository = this.tempDir.resolve("repository");
+        this.executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testReadPackage() throws IOException {
+        final byte[] deb = createPackage("hello", "1.2.3", "amd64");
+
+        final AptIndex.Entry entry = AptIndex.readPackage(new ByteArrayInputStream(deb), "pool/hello_1.2.3_amd64.deb",
+                                                          1000L, deb.length);
+
+        final Map<Checksum, String> checksums = Checksum.digest(deb);
+        assertThat(entry.getPath()).isEqualTo("pool/hello_1.2.3_amd64.deb");
+        assertThat(entry.getArchitecture()).isEqualTo("amd64");
+        assertThat(entry.getStanza()).isEqualTo("""
+                Package: hello
+                Version: 1.2.3
+                Architecture: amd64
+                Maintainer: C Thing Software <support@cthing.com>
+                Filename: pool/hello_1.2.3_amd64.deb
+                Size: %d
+                MD5sum: %s
+                SHA1: %s
+                SHA256: %s
+                SHA512: %s
+                Description: The hello package
+                 Says hello.
+                 .
+                 Version 1.2.3.
+                """.formatted(deb.length, checksums.get(Checksum.MD5), checksums.get(Checksum.SHA1),
+                              checksums.get(Checksum.SHA256), checksums.get(Checksum.SHA512)));
+    }
+
+    @Test
+    public void testReadUncompressedControl() throws IOException {
+        final byte[] deb = createPackage("control.tar", tar("control", control("hello", "1.0.0", "all")));
+
+        final AptIndex.Entry entry = AptIndex.readPackage(new ByteArrayInputStream(deb), "hello.deb", 1000L,
+                                                          deb.length);
+
+        assertThat(entry.getArchitecture()).isEqualTo("all");
+        assertThat(entry.getStanza()).startsWith("Package: hello\nVersion: 1.0.0\n");
+    }
+
+    @Test
+    public void testReadXzControl() throws IOException {
+        final byte[] deb = createPackage("control.tar.xz", xz(tar("./control", control("hello", "1.0.0", "arm64"))));
+
+        final AptIndex.Entry entry = AptIndex.readPackage(new ByteArrayInputStream(deb), "hello.deb", 1000L,
+                                                          deb.length);
+
+        assertThat(entry.getArchitecture()).isEqualTo("arm64");
+        assertThat(entry.getStanza()).startsWith("Package: hello\nVersion: 1.0.0\n");
+    }
+
+    @Test
+    public void testReadUnsupportedControl() {
+        final byte[] deb = createPackage("control.tar.zst", new byte[] { 1, 2, 3 });
+
+        assertThatThrownBy(() -> AptIndex.readPackage(new ByteArrayInputStream(deb), "hello.deb", 1000L, deb.length))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("control.tar.zst")
+                .hasMessageContaining("dpkg-deb -Zxz");
+    }
+
+    @Test
+    public void testReadInvalidPackage() {
+        final byte[] content = "not a package".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> AptIndex.readPackage(new ByteArrayInputStream(content), "hello.deb", 1000L,
+                                                      content.length))
+                .isInstanceOf(IOException.class)
+                .hasMessage("The file is not a Debian package");
+    }
+
+    @Test
+    public void testParseControl() {
+        final Map<String, String> fields = AptIndex.parseControl("""
+                Package: hello
+                Depends: libc6 (>= 2.34),
+                 libssl3
+                Description: Hello
+                 World
+
+                Ignored: value
+                """);
+
+        assertThat(fields).containsExactly(entry("Package", "Package: hello"),
+                                           entry("Depends", "Depends: libc6 (>= 2.34),\n libssl3"),
+                                           entry("Description", "Description: Hello\n World"));
+    }
+
+    @Test
+    public void testUpdate() throws IOException {
+        writePackage(this.repository, "pool/a/alpha_1.0.0_amd64.deb", "alpha", "1.0.0", "amd64");
+        writePackage(this.repository, "pool/b/beta_1.0.0_all.deb", "beta", "1.0.0", "all");
+        Files.writeString(this.repository.resolve("pool/b/broken_1.0.0_all.deb"), "broken");
+        Files.writeString(this.repository.resolve("pool/b/README"), "Not a package");
+
+        final AptIndex full = AptIndex.update(this.repository, null, this.executor);
+        assertThat(full.size()).isEqualTo(2);
+        assertThat(full.getParsedCount()).isEqualTo(3);
+        assertThat(full.getFailures()).containsExactly(entry("pool/b/broken_1.0.0_all.deb",
+                                                             "The file is not a Debian package"));
+
+        final Path indexFile = this.tempDir.resolve("apt.idx");
+        full.write(indexFile);
+        final AptIndex previous = AptIndex.read(indexFile);
+        assertThat(previous).isNotNull();
+        assertThat(previous.size()).isEqualTo(2);
+        assertThat(previous.getEntry("pool/a/alpha_1.0.0_amd64.deb").getStanza())
+                .isEqualTo(full.getEntry("pool/a/alpha_1.0.0_amd64.deb").getStanza());
+
+        final Path beta = this.repository.resolve("pool/b/beta_1.0.0_all.deb");
+        writePackage(this.repository, "pool/b/beta_1.0.0_all.deb", "beta", "1.0.1", "all");
+        Files.setLastModifiedTime(beta, FileTime.fromMillis(Files.getLastModifiedTime(beta).toMillis() + 2000));
+        Files.delete(this.repository.resolve("pool/a/alpha_1.0.0_amd64.deb"));
+        writePackage(this.repository, "pool/g/gamma_2.0.0_arm64.deb", "gamma", "2.0.0", "arm64");
+
+        final AptIndex incremental = AptIndex.update(this.repository, previous, this.executor);
+        assertThat(incremental.size()).isEqualTo(2);
+        assertThat(incremental.getParsedCount()).isEqualTo(3);
+        assertThat(incremental.getEntry("pool/a/alpha_1.0.0_amd64.deb")).isNull();
+        assertThat(incremental.getEntry("pool/b/beta_1.0.0_all.deb").getStanza()).contains("Version: 1.0.1\n");
+        assertThat(incremental.getEntry("pool/g/gamma_2.0.0_arm64.deb").getArchitecture()).isEqualTo("arm64");
+
+        final AptIndex unchanged = AptIndex.update(this.repository, incremental, this.executor);
+        assertThat(unchanged.getParsedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testReadWrongFormat() throws IOException {
+        final Path indexFile = Files.writeString(this.tempDir.resolve("apt.idx"), "not an index");
+
+        assertThat(AptIndex.read(indexFile)).isNull();
+        assertThat(AptIndex.read(this.tempDir.resolve("missing.idx"))).isNull();
+    }
+
+    @Test
+    public void testWriteRepositoryIndex() throws IOException {
+        writePackage(this.repository, "pool/beta_1.0.0_all.deb", "beta", "1.0.0", "all");
+        writePackage(this.repository, "pool/alpha_1.0.0_amd64.deb", "alpha", "1.0.0", "amd64");
+        final AptIndex index = AptIndex.update(this.repository, null, this.executor);
+
+        index.writeRepositoryIndex(this.repository, "C Thing Software", "Snapshots", DATE);
+
+        final byte[] packages = Files.readAllBytes(this.repository.resolve(AptIndex.PACKAGES_FILE));
+        assertThat(new String(packages, StandardCharsets.UTF_8))
+                .isEqualTo(index.getEntry("pool/alpha_1.0.0_amd64.deb").getStanza() + "\n"
+                                   + index.getEntry("pool/beta_1.0.0_all.deb").getStanza());
+
+        final byte[] packagesGz = Files.readAllBytes(this.repository.resolve(AptIndex.PACKAGES_GZ_FILE));
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(packagesGz))) {
+            assertThat(input.readAllBytes()).isEqualTo(packages);
+        }
+
+        final byte[] packagesXz = Files.readAllBytes(this.repository.resolve(AptIndex.PACKAGES_XZ_FILE));
+        try (InputStream input = new XZInputStream(new ByteArrayInputStream(packagesXz))) {
+            assertThat(input.readAllBytes()).isEqualTo(packages);
+        }
+
+        final Map<Checksum, String> packagesChecksums = Checksum.digest(packages);
+        final Map<Checksum, String> packagesGzChecksums = Checksum.digest(packagesGz);
+        final Map<Checksum, String> packagesXzChecksums = Checksum.digest(packagesXz);
+        final StringBuilder expected = new StringBuilder("""
+                Origin: C Thing Software
+                Label: Snapshots
+                Date: Sat, 04 Oct 2025 12:30:00 UTC
+                Architectures: all amd64
+                """);
+        for (final Checksum checksum : Checksum.values()) {
+            expected.append(checksum == Checksum.MD5 ? "MD5Sum" : checksum.name()).append(":\n")
+                    .append(' ').append(packagesChecksums.get(checksum)).append(' ').append(packages.length)
+                    .append(" Packages\n")
+                    .append(' ').append(packagesGzChecksums.get(checksum)).append(' ').append(packagesGz.length)
+                    .append(" Packages.gz\n")
+                    .append(' ').append(packagesXzChecksums.get(checksum)).append(' ').append(packagesXz.length)
+                    .append(" Packages.xz\n");
+        }
+        assertThat(this.repository.resolve(AptIndex.RELEASE_FILE)).hasContent(expected.toString());
+
+        try (Stream<Path> files = Files.list(this.repository)) {
+            assertThat(files.map(file -> file.getFileName().toString()))
+                    .containsExactlyInAnyOrder("pool", "Packages", "Packages.gz", "Packages.xz", "Release");
+        }
+    }
+
+    @Test
+    public void testTaskRegistration() {
+        final Project root = ProjectBuilder.builder().withName("root").withProjectDir(this.tempDir.toFile()).build();
+        final Project child = ProjectBuilder.builder().withName("child").withParent(root).build();
+        root.getPluginManager().apply("org.cthing.cthing-publishing");
+        child.getPluginManager().apply("org.cthing.cthing-publishing");
+        root.getExtensions().getExtraProperties().set(CThingRepoExtension.APT_SNAPSHOTS_URL_PROPERTY,
+                                                      this.repository.toUri().toString());
+
+        assertThat(child.getTasks().findByName(IndexAptRepository.TASK_NAME)).isNull();
+        final IndexAptRepository task = (IndexAptRepository)root.getTasks().getByName(IndexAptRepository.TASK_NAME);
+        assertThat(task.getRepositoryDirectory().get().getAsFile().toPath()).isEqualTo(this.repository);
+        assertThat(task.getIndexFile().get().getAsFile().toPath())
+                .isEqualTo(root.getLayout().getBuildDirectory().file("cthing/apt.idx").get().getAsFile().toPath());
+
+        root.getExtensions().getExtraProperties().set(CThingRepoExtension.APT_SNAPSHOTS_URL_PROPERTY,
+                                                      "https://repo.cthing.com/apt-snapshots");
+        assertThat(task.getRepositoryDirectory().isPresent()).isFalse();
+    }
+
+    @Test
+    public void testTaskFailsForUnreadablePackages() throws IOException {
+        writePackage(this.repository, "pool/alpha_1.0.0_all.deb", "alpha", "1.0.0", "all");
+        Files.write(this.repository.resolve("pool/zeta_1.0.0_all.deb"),
+                    createPackage("control.tar.zst", new byte[] { 1, 2, 3 }));
+        final Project project = ProjectBuilder.builder().withProjectDir(this.tempDir.toFile()).build();
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        project.getExtensions().getExtraProperties().set(CThingRepoExtension.APT_SNAPSHOTS_URL_PROPERTY,
+                                                         this.repository.toUri().toString());
+        final IndexAptRepository task =
+                (IndexAptRepository)project.getTasks().getByName(IndexAptRepository.TASK_NAME);
+
+        assertThatThrownBy(task::index)
+                .isInstanceOf(GradleException.class)
+                .hasMessageStartingWith("The following packages in the APT repository " + this.repository
+                                                + " could not be read and have been omitted from its index:\n"
+                                                + "  pool/zeta_1.0.0_all.deb: The control archive control.tar.zst");
+        assertThat(this.repository.resolve(AptIndex.PACKAGES_FILE)).content().startsWith("Package: alpha\n")
+                                                                     .doesNotContain("zeta");
+    }
+
+    /**
+     * Writes a Debian package to the specified location in a repository.
+     *
+     * @param repository Root directory of the repository
+     * @param path Location of the package relative to the repository root
+     * @param name Name of the package
+     * @param version Version of the package
+     * @param architecture Architecture of the package
+     * @throws IOException if the package could not be written
+     */
+    static void writePackage(final Path repository, final String path, final String name, final String version,
+                             final String architecture) throws IOException {
+        final Path file = repository.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, createPackage(name, version, architecture));
+    }
+
+    private static byte[] createPackage(final String name, final String version, final String architecture) {
+        return createPackage("control.tar.gz", gzip(tar("./control", control(name, version, architecture))));
+    }
+
+    private static byte[] createPackage(final String controlName, final byte[] controlArchive) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        output.writeBytes("!<arch>\n".getBytes(StandardCharsets.US_ASCII));
+        arMember(output, "debian-binary", "2.0\n".getBytes(StandardCharsets.US_ASCII));
+        arMember(output, controlName, controlArchive);
+        arMember(output, "data.tar.gz", gzip(new byte[1024]));
+        return output.toByteArray();
+    }
+
+    private static byte[] control(final String name, final String version, final String architecture) {
+        return """
+                Package: %s
+                Version: %s
+                Architecture: %s
+                Maintainer: C Thing Software <support@cthing.com>
+                Description: The %s package
+                 Says hello.
+                 .
+                 Version %s.
+                """.formatted(name, version, architecture, name, version).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void arMember(final ByteArrayOutputStream output, final String name, final byte[] content) {
+        final String header = String.format(Locale.ROOT, "%-16s%-12s%-6s%-6s%-8s%-10s`\n", name, "0", "0", "0",
+                                            "100644", content.length);
+        output.writeBytes(header.getBytes(StandardCharsets.US_ASCII));
+        output.writeBytes(content);
+        if (content.length % 2 != 0) {
+            output.write('\n');
+        }
+    }
+
+    private static byte[] tar(final String name, final byte[] content) {
+        final byte[] header = new byte[512];
+        put(header, 0, name);
+        put(header, 100, "0000644");
+        put(header, 108, "0000000");
+        put(header, 116, "0000000");
+        put(header, 124, String.format(Locale.ROOT, "%011o", content.length));
+        put(header, 136, "00000000000");
+        header[156] = '0';
+        put(header, 257, "ustar");
+        put(header, 263, "00");
+        Arrays.fill(header, 148, 156, (byte)' ');
+        int checksum = 0;
+        for (final byte b : header) {
+            checksum += b & 0xFF;
+        }
+        put(header, 148, String.format(Locale.ROOT, "%06o", checksum));
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        output.writeBytes(header);
+        output.writeBytes(content);
+        output.writeBytes(new byte[(512 - content.length % 512) % 512]);
+        output.writeBytes(new byte[1024]);
+        return output.toByteArray();
+    }
+
+    private static void put(final byte[] header, final int offset, final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, offset, bytes.length);
+    }
+
+    private static byte[] xz(final byte[] content) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (XZOutputStream xz = new XZOutputStream(output, new LZMA2Options())) {
+            xz.write(content);
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] gzip(final byte[] content) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(content);
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return output.toByteArray();
+    }
+}
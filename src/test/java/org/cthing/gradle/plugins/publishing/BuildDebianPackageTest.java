@@ -0,0 +1,137 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+public class BuildDebianPackageTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private Project project;
+    private BuildDebianPackage task;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.project = ProjectBuilder.builder().withName("hello").withProjectDir(this.tempDir.toFile()).build();
+        this.project.setVersion("1.2.3");
+        this.project.getPluginManager().apply("org.cthing.cthing-publishing");
+
+        Files.createDirectories(this.tempDir.resolve("docs/examples"));
+        Files.writeString(this.tempDir.resolve("docs/README"), "Hello");
+        Files.writeString(this.tempDir.resolve("docs/examples/hello.txt"), "Hello, world");
+        Files.writeString(this.tempDir.resolve("hello.sh"), "#!/bin/sh\necho hello\n");
+
+        this.task = this.project.getTasks().register("helloDeb", BuildDebianPackage.class, deb -> {
+            deb.getMaintainer().set("C Thing Software <support@cthing.com>");
+            deb.getSummary().set("Says hello");
+            deb.getExtendedDescription().set("""
+                    Prints a greeting.
+
+                    Greetings are printed to the standard output.
+                    """);
+            deb.getControlFields().put("Depends", "libc6 (>= 2.34)");
+            deb.getControlFields().put("Section", "utils");
+        }).get();
+    }
+
+    @Test
+    public void testConventions() {
+        assertThat(this.task.getPackageName().get()).isEqualTo("hello");
+        assertThat(this.task.getVersion().get()).isEqualTo("1.2.3");
+        assertThat(this.task.getArchitecture().get()).isEqualTo(BuildDebianPackage.DEFAULT_ARCHITECTURE);
+        assertThat(this.task.getDestination().get().getAsFile().toPath())
+                .isEqualTo(this.tempDir.resolve("build/distributions/hello_1.2.3_all.deb"));
+
+        this.task.getVersion().set("1:2.0.0");
+        this.task.getArchitecture().set("amd64");
+        assertThat(this.task.getDestination().get().getAsFile().toPath())
+                .isEqualTo(this.tempDir.resolve("build/distributions/hello_2.0.0_amd64.deb"));
+    }
+
+    @Test
+    public void testBuild() throws IOException {
+        this.task.into("/usr/share/doc/hello/", this.project.file("docs"));
+        this.task.into("/usr/bin", this.project.file("hello.sh")).getExecutable().set(true);
+
+        this.task.build();
+
+        final Path deb = this.task.getDestination().get().getAsFile().toPath();
+        final Map<String, byte[]> members = DebianPackageWriterTest.readArchive(Files.readAllBytes(deb));
+        final Map<String, DebianPackageWriterTest.TarEntry> control =
+                DebianPackageWriterTest.readTar(new ByteArrayInputStream(members.get("control.tar")));
+        assertThat(control.get("./control").text()).isEqualTo("""
+                Package: hello
+                Version: 1.2.3
+                Architecture: all
+                Maintainer: C Thing Software <support@cthing.com>
+                Installed-Size: 9
+                Depends: libc6 (>= 2.34)
+                Section: utils
+                Description: Says hello
+                 Prints a greeting.
+                 .
+                 Greetings are printed to the standard output.
+                """);
+
+        final Map<String, DebianPackageWriterTest.TarEntry> data;
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(members.get("data.tar.gz")))) {
+            data = DebianPackageWriterTest.readTar(input);
+        }
+        assertThat(data.keySet()).containsExactly("./", "./usr/", "./usr/bin/", "./usr/bin/hello.sh", "./usr/share/",
+                                                  "./usr/share/doc/", "./usr/share/doc/hello/",
+                                                  "./usr/share/doc/hello/README", "./usr/share/doc/hello/examples/",
+                                                  "./usr/share/doc/hello/examples/hello.txt");
+        assertThat(data.get("./usr/bin/hello.sh").mode()).isEqualTo(0755);
+        assertThat(data.get("./usr/share/doc/hello/examples/hello.txt").mode()).isEqualTo(0644);
+        assertThat(data.get("./usr/share/doc/hello/examples/hello.txt").text()).isEqualTo("Hello, world");
+    }
+
+    @Test
+    public void testDuplicateFile() {
+        this.task.into("/usr/share/hello", this.project.file("docs/README"));
+        this.task.into("/usr/share/hello", this.project.file("docs/README"));
+
+        assertThatThrownBy(this.task::build).isInstanceOf(GradleException.class)
+                                            .hasMessage("The file /usr/share/hello/README is installed more than "
+                                                                + "once by the hello package");
+    }
+
+    @Test
+    public void testInvalidPackageName() {
+        this.task.getPackageName().set("Hello");
+
+        assertThatThrownBy(this.task::build).isInstanceOf(GradleException.class)
+                                            .hasMessageContaining("Invalid Debian package name 'Hello'");
+    }
+
+    @Test
+    public void testInvalidControlField() {
+        this.task.getControlFields().put("Version", "2.0.0");
+
+        assertThatThrownBy(this.task::build).isInstanceOf(GradleException.class)
+                                            .hasMessage("The control field 'Version' cannot be specified for the "
+                                                                + "hello package");
+    }
+}
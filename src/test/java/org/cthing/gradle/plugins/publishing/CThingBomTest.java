@@ -0,0 +1,126 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.gradle.api.Project;
+import org.gradle.api.publish.PublishingExtension;
+import org.gradle.api.publish.maven.MavenPublication;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+
+public class CThingBomTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void testModuleCoordinates() {
+        final Project project = ProjectBuilder.builder().withName("module").build();
+        project.setGroup("org.cthing");
+        project.setVersion("1.2.3");
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+
+        assertThat(CThingBom.collectCoordinates(project)).isEmpty();
+
+        project.getPluginManager().apply("maven-publish");
+        final PublishingExtension publishing = project.getExtensions().getByType(PublishingExtension.class);
+        publishing.getPublications().create("main", MavenPublication.class);
+        publishing.getPublications().create("marker", MavenPublication.class,
+                                            pub -> pub.setArtifactId("org.cthing.module.gradle.plugin"));
+        publishing.getPublications().create("extra", MavenPublication.class, pub -> pub.setArtifactId("extra"));
+
+        assertThat(CThingBom.collectCoordinates(project)).containsExactly("org.cthing:extra:1.2.3",
+                                                                          "org.cthing:module:1.2.3");
+        assertThat(project.getConfigurations().findByName(CThingBom.COORDINATES_NAME)).isNotNull();
+        final WritePublicationCoordinates task = (WritePublicationCoordinates)project.getTasks()
+                                                                                    .getByName(CThingBom.COORDINATES_NAME);
+        assertThat(task.getCoordinates().get()).containsExactly("org.cthing:extra:1.2.3", "org.cthing:module:1.2.3");
+    }
+
+    @Test
+    public void testEnableBom() {
+        final Project root = ProjectBuilder.builder().withName("root").build();
+        final Project child1 = ProjectBuilder.builder().withName("child1").withParent(root).build();
+        final Project child2 = ProjectBuilder.builder().withName("child2").withParent(root).build();
+        ProjectBuilder.builder().withName("other").withParent(root).build();
+        root.setGroup("org.cthing");
+        root.setVersion("2.0.0");
+
+        root.getPluginManager().apply("org.cthing.cthing-publishing");
+        child1.getPluginManager().apply("org.cthing.cthing-publishing");
+        child2.getPluginManager().apply("org.cthing.cthing-publishing");
+
+        final CThingPublishingExtension extension = root.getExtensions().getByType(CThingPublishingExtension.class);
+        extension.enableBom(pub -> pub.setArtifactId("cthing-bom"));
+
+        final PublishingExtension publishing = root.getExtensions().getByType(PublishingExtension.class);
+        final MavenPublication publication = (MavenPublication)publishing.getPublications()
+                                                                         .getByName(CThingBom.BOM_PUBLICATION);
+        assertThat(publication.getArtifactId()).isEqualTo("cthing-bom");
+        assertThat(publication.getPom().getPackaging()).isEqualTo("pom");
+
+        final GenerateBom task = (GenerateBom)root.getTasks().getByName(CThingBom.BOM_TASK);
+        final PomModel model = task.getPom().get();
+        assertThat(model.getArtifactId()).isEqualTo("cthing-bom");
+        assertThat(model.getVersion()).isEqualTo("2.0.0");
+        assertThat(model.getPackaging()).isEqualTo("pom");
+        assertThat(model.getProperties()).doesNotContainKey("cthing.dependencies");
+        assertThat(task.getModuleCoordinates().getFiles())
+                .extracting(file -> file.getParentFile().getParentFile().getParentFile().getName())
+                .containsExactlyInAnyOrder("child1", "child2");
+        assertThat(task.getDestination().get().getAsFile())
+                .isEqualTo(new File(root.getLayout().getBuildDirectory().getAsFile().get(),
+                                    "publications/cthingBom/pom-default.xml"));
+    }
+
+    @Test
+    public void testModuleRegistry() {
+        final Project root = ProjectBuilder.builder().withName("root").build();
+        final Project child = ProjectBuilder.builder().withName("child").withParent(root).build();
+        final Project grandchild = ProjectBuilder.builder().withName("grandchild").withParent(child).build();
+        final Project childish = ProjectBuilder.builder().withName("childish").withParent(root).build();
+        root.getPluginManager().apply("org.cthing.cthing-publishing");
+        child.getPluginManager().apply("org.cthing.cthing-publishing");
+        grandchild.getPluginManager().apply("org.cthing.cthing-publishing");
+        childish.getPluginManager().apply("org.cthing.cthing-publishing");
+
+        final CThingModuleRegistry registry = CThingModuleRegistry.getService(root).get();
+        assertThat(registry.getDescendants(":")).containsExactly(":child", ":child:grandchild", ":childish");
+        assertThat(registry.getDescendants(":child")).containsExactly(":child:grandchild");
+        assertThat(registry.getDescendants(":childish")).isEmpty();
+    }
+
+    @Test
+    public void testState() throws Exception {
+        final Path stateFile = this.tempDir.resolve("state/bom-modules.txt");
+        final Map<String, List<String>> modules = Map.of("/a/coordinates.txt", List.of("org.cthing:a:1.0"),
+                                                         "/b/coordinates.txt", List.of("org.cthing:b:1.0",
+                                                                                       "org.cthing:b-extra:1.0"));
+        GenerateBom.writeState(stateFile, modules);
+
+        assertThat(GenerateBom.readState(stateFile)).containsOnly(
+                entry("/a/coordinates.txt", List.of("org.cthing:a:1.0")),
+                entry("/b/coordinates.txt", List.of("org.cthing:b:1.0", "org.cthing:b-extra:1.0")));
+    }
+
+    @Test
+    public void testMergeCoordinates() {
+        final Map<String, List<String>> modules = Map.of("/b", List.of("org.cthing:b:1.0", "", "org.cthing:a:1.0"),
+                                                         "/a", List.of("org.cthing:a:1.0 ", "org.cthing:a2:1.0"));
+        assertThat(GenerateBom.mergeCoordinates(modules)).containsExactly("org.cthing:a:1.0", "org.cthing:a2:1.0",
+                                                                          "org.cthing:b:1.0");
+    }
+}
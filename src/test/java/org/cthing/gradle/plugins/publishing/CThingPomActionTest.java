@@ -12,10 +12,14 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.cthing.projectversion.BuildType;
 import org.cthing.projectversion.ProjectVersion;
 import org.gradle.api.Action;
+import org.gradle.api.GradleException;
 import org.gradle.api.Project;
 import org.gradle.api.XmlProvider;
 import org.gradle.api.provider.MapProperty;
@@ -39,12 +43,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.atIndex;
-import static org.mockito.Mockito.doAnswer;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
-import static org.mockito.ArgumentMatchers.any;
 
 
 public class CThingPomActionTest {
@@ -477,6 +484,19 @@ public class CThingPomActionTest {
         assertThat(pom.getProperties().getOrNull()).isEmpty();
     }
 
+    @Test
+    public void testDiscoveryMemoized() {
+        final CThingPublishingExtension publishingExtension = spy(new CThingPublishingExtension(this.project));
+
+        for (int i = 0; i < 5; i++) {
+            final CThingPomAction action = publishingExtension.createPomAction();
+            action.populate(new PomModel("org.cthing", "test" + i, "1.0.0"));
+        }
+
+        verify(publishingExtension, times(1)).findCThingDependencies();
+        verify(publishingExtension, times(1)).findCThingGradlePlugins();
+    }
+
     @Test
     public void testWithProjectVersion() {
         final ProjectVersion version = new ProjectVersion("1.2.3", BuildType.snapshot);
@@ -604,6 +624,105 @@ public class CThingPomActionTest {
         });
     }
 
+    @Test
+    public void testSnapshot() {
+        final CThingPomAction action = new CThingPomAction(this.project, this.extension::findCThingDependencies,
+                                                           this.extension::findCThingGradlePlugins);
+        final Set<PomDeveloper> developers = action.getDevelopers();
+        final CThingPomAction.Snapshot snapshot = action.getSnapshot();
+
+        action.setLicense(PomLicense.MIT)
+              .setCiSystem(PomCISystem.CThingJenkins)
+              .addDeveloper(new PomDeveloper("a", "b", "c"));
+
+        assertThat(developers).hasSize(1);
+        assertThat(action.getDevelopers()).hasSize(2);
+        assertThat(action.getSnapshot()).isNotSameAs(snapshot);
+
+        final PomModel model = new PomModel("org.cthing", "test", "1.0.0");
+        action.populate(model, snapshot);
+        assertThat(model.getLicense()).isEqualTo(PomLicense.ASL2);
+        assertThat(model.getCiSystem()).isEqualTo("GitHub Actions");
+        assertThat(model.getDevelopers()).containsExactly(new PomDeveloper("baron", "Baron Roberts", "baron@cthing.com"));
+    }
+
+    @Test
+    public void testDeveloperRegistry() throws IOException {
+        final Path registryFile = this.project.getRootDir().toPath().resolve(DeveloperRegistry.FILE);
+        Files.createDirectories(registryFile.getParent());
+        Files.writeString(registryFile, """
+                [organization]
+                name = "Acme"
+                url = "https://acme.example.com"
+
+                [developers.jane]
+                name = "Jane Doe"
+                email = "jane@acme.example.com"
+                default = true
+
+                [developers.john]
+                name = "John Doe"
+                email = "john@acme.example.com"
+                """);
+
+        final CThingPomAction action1 = new CThingPomAction(this.project, this.extension::findCThingDependencies,
+                                                            this.extension::findCThingGradlePlugins);
+        final CThingPomAction action2 = new CThingPomAction(this.project, this.extension::findCThingDependencies,
+                                                            this.extension::findCThingGradlePlugins);
+        assertThat(action1.getDevelopers()).containsExactly(new PomDeveloper("jane", "Jane Doe",
+                                                                             "jane@acme.example.com"));
+
+        action1.addDeveloper("john");
+        action2.addDeveloper("john");
+        assertThat(action1.getDevelopers()).extracting(PomDeveloper::getId).containsExactly("jane", "john");
+        assertThat(List.copyOf(action1.getDevelopers()).get(1)).isSameAs(List.copyOf(action2.getDevelopers()).get(1));
+        assertThatThrownBy(() -> action1.addDeveloper("baron"))
+                .isInstanceOf(GradleException.class)
+                .hasMessageContaining("Developer 'baron' is not in the developer registry");
+
+        final TestPom pom = new TestPom(this.project);
+        action1.execute(pom);
+        assertThat(pom.organization.getName().getOrNull()).isEqualTo("Acme");
+        assertThat(pom.organization.getUrl().getOrNull()).isEqualTo("https://acme.example.com");
+        assertThat(pom.developers.developers).allSatisfy(developer ->
+                assertThat(developer.getOrganization().getOrNull()).isEqualTo("Acme"));
+
+        final PomModel model = new PomModel("org.cthing", "test", "1.0.0");
+        action1.populate(model);
+        assertThat(model.getOrganizationName()).isEqualTo("Acme");
+        assertThat(model.getOrganizationUrl()).isEqualTo("https://acme.example.com");
+    }
+
+    @Test
+    public void testConcurrentConfiguration() throws Exception {
+        final CThingPomAction action = new CThingPomAction(this.project, this.extension::findCThingDependencies,
+                                                           this.extension::findCThingGradlePlugins);
+        final int threadCount = 8;
+        final int developerCount = 100;
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < developerCount; i++) {
+                        action.addDeveloper(new PomDeveloper("dev" + thread + "-" + i, "Developer", "dev@cthing.com"));
+                        final PomModel model = new PomModel("org.cthing", "test", "1.0.0");
+                        action.populate(model);
+                        assertThat(model.getDevelopers()).hasSizeGreaterThan(i + 1);
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(action.getDevelopers()).hasSize(threadCount * developerCount + 1);
+    }
+
     @Test
     public void testWithPlugins() {
         final CThingPomAction action = new CThingPomAction(this.project, this.extension::findCThingDependencies,
@@ -614,7 +733,6 @@ public class CThingPomActionTest {
         plugins.add("c");
 
         when(this.extension.findCThingGradlePlugins()).thenReturn(plugins);
-        executeAfterEvaluate();
 
         final TestPom pom = new TestPom(this.project);
         action.execute(pom);
@@ -632,7 +750,6 @@ public class CThingPomActionTest {
         dependencies.add("c");
 
         when(this.extension.findCThingDependencies()).thenReturn(dependencies);
-        executeAfterEvaluate();
 
         final TestPom pom = new TestPom(this.project);
         action.execute(pom);
@@ -640,12 +757,45 @@ public class CThingPomActionTest {
         assertThat(pom.getProperties().getOrNull()).containsEntry("cthing.dependencies", "a b c");
     }
 
-    @SuppressWarnings("unchecked")
-    private void executeAfterEvaluate() {
-        doAnswer(invocation -> {
-            final Action<@NonNull Project> a = invocation.getArgument(0);
-            a.execute(this.project);
-            return null;
-        }).when(this.project).afterEvaluate(any(Action.class));
+    @Test
+    public void testDependenciesFoundLazily() {
+        final CThingPomAction action = new CThingPomAction(this.project, this.extension::findCThingDependencies,
+                                                           this.extension::findCThingGradlePlugins);
+        when(this.extension.findCThingDependencies()).thenReturn(Set.of("org.cthing:a:1.0.0"));
+
+        final TestPom pom = new TestPom(this.project);
+        action.execute(pom);
+        verify(this.extension, never()).findCThingDependencies();
+        verify(this.extension, never()).findCThingGradlePlugins();
+
+        assertThat(pom.getProperties().getOrNull()).containsEntry("cthing.dependencies", "org.cthing:a:1.0.0");
+        verify(this.extension).findCThingDependencies();
+    }
+
+    @Test
+    public void testPopulate() {
+        final CThingPomAction action = new CThingPomAction(this.project, this.extension::findCThingDependencies,
+                                                           this.extension::findCThingGradlePlugins);
+        when(this.extension.findCThingDependencies()).thenReturn(Set.of("org.cthing:a:1.0.0"));
+        when(this.extension.findCThingGradlePlugins()).thenReturn(Set.of());
+
+        final PomModel model = new PomModel("org.cthing", "test", "1.0.0");
+        action.populate(model);
+
+        assertThat(model.getName()).isEqualTo("test");
+        assertThat(model.getDescription()).isNull();
+        assertThat(model.getUrl()).isEqualTo("https://github.com/cthing/test");
+        assertThat(model.getOrganizationName()).isEqualTo("C Thing Software");
+        assertThat(model.getOrganizationUrl()).isEqualTo("https://www.cthing.com");
+        assertThat(model.getLicense()).isEqualTo(PomLicense.ASL2);
+        assertThat(model.getDevelopers()).containsExactly(new PomDeveloper("baron", "Baron Roberts", "baron@cthing.com"));
+        assertThat(model.getScmConnection()).isEqualTo("scm:git:git://github.com/cthing/test.git");
+        assertThat(model.getScmDeveloperConnection()).isEqualTo("scm:git:ssh://git@github.com/cthing/test.git");
+        assertThat(model.getScmUrl()).isEqualTo("https://github.com/cthing/test");
+        assertThat(model.getIssueSystem()).isEqualTo("GitHub Issues");
+        assertThat(model.getIssueUrl()).isEqualTo("https://github.com/cthing/test/issues");
+        assertThat(model.getCiSystem()).isEqualTo("GitHub Actions");
+        assertThat(model.getCiUrl()).isEqualTo("https://github.com/cthing/test/actions");
+        assertThat(model.getProperties()).containsExactly(entry("cthing.dependencies", "org.cthing:a:1.0.0"));
     }
 }
@@ -5,6 +5,10 @@
 
 package org.cthing.gradle.plugins.publishing;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -12,16 +16,25 @@ import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.gradle.api.GradleException;
 import org.gradle.api.NamedDomainObjectContainer;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.ConfigurationContainer;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.DependencySet;
+import org.gradle.api.artifacts.ModuleDependency;
 import org.gradle.api.artifacts.ResolvedArtifact;
 import org.gradle.api.artifacts.ResolvedConfiguration;
 import org.gradle.api.artifacts.ResolvedDependency;
+import org.gradle.api.artifacts.component.ComponentArtifactIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.component.ProjectComponentIdentifier;
 import org.gradle.api.initialization.dsl.ScriptHandler;
 import org.gradle.api.plugins.ExtensionContainer;
 import org.gradle.api.plugins.ExtraPropertiesExtension;
+import org.gradle.api.publish.PublishingExtension;
+import org.gradle.api.publish.maven.MavenPublication;
 import org.gradle.plugin.devel.GradlePluginDevelopmentExtension;
 import org.gradle.plugin.devel.PluginDeclaration;
 import org.gradle.testfixtures.ProjectBuilder;
@@ -29,14 +42,18 @@ import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -114,6 +131,27 @@ public class CThingPublishingExtensionTest {
         }
     }
 
+    @Test
+    public void testRecordIncludedBuildDependency() {
+        final Project project = ProjectBuilder.builder().withName("testProject").build();
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        final CThingPublishingExtension publishingExtension = new CThingPublishingExtension(project);
+
+        final ComponentArtifactIdentifier id = mock(ComponentArtifactIdentifier.class);
+        when(id.getComponentIdentifier()).thenReturn(mock(ProjectComponentIdentifier.class));
+        final ResolvedArtifact classes = mock(ResolvedArtifact.class);
+        when(classes.getId()).thenReturn(id);
+        when(classes.getName()).thenReturn("main");
+        final ResolvedArtifact resources = mock(ResolvedArtifact.class);
+        when(resources.getId()).thenReturn(id);
+        when(resources.getName()).thenReturn("main");
+        final ResolvedDependency resolvedDependency = makeDependency("lib", "org.cthing", "1.2.3", classes, resources);
+
+        final Set<String> resolvedDependencies = new HashSet<>();
+        publishingExtension.recordDependency(resolvedDependencies, resolvedDependency);
+        assertThat(resolvedDependencies).containsExactly("org.cthing:lib:1.2.3");
+    }
+
     public static Stream<Arguments> signingProvider() {
         return Stream.of(
             Arguments.of(true,  true,  true,  true),
@@ -268,7 +306,10 @@ public class CThingPublishingExtensionTest {
         final ConfigurationContainer configurationContainer2 = mock(ConfigurationContainer.class);
         doAnswer(invocation -> {
             final Consumer<Configuration> consumer = invocation.getArgument(0);
-            consumer.accept(makeConfiguration(true, resolvedConfiguration));
+            consumer.accept(makeConfiguration(true, resolvedConfiguration,
+                                              makeDeclaredDependency("org.cthing", "dep1", "1.2.3"),
+                                              makeDeclaredDependency("com.cthing", "dep2", "2.0.0"),
+                                              makeDeclaredDependency("com.foobar", "dep3", "3.0.0")));
             return null;
         }).when(configurationContainer2).forEach(any());
         when(project.getConfigurations()).thenReturn(configurationContainer2);
@@ -300,7 +341,8 @@ public class CThingPublishingExtensionTest {
         final ConfigurationContainer configurationContainer1 = mock(ConfigurationContainer.class);
         doAnswer(invocation -> {
             final Consumer<Configuration> consumer = invocation.getArgument(0);
-            consumer.accept(makeConfiguration(true, resolvedConfiguration));
+            consumer.accept(makeConfiguration(true, resolvedConfiguration,
+                                              makeDeclaredDependency("org.cthing", "foo.gradle.plugin", "1.2.3")));
             return null;
         }).when(configurationContainer1).forEach(any());
         when(scriptHandler.getConfigurations()).thenReturn(configurationContainer1);
@@ -335,7 +377,8 @@ public class CThingPublishingExtensionTest {
         final ConfigurationContainer configurationContainer2 = mock(ConfigurationContainer.class);
         doAnswer(invocation -> {
             final Consumer<Configuration> consumer = invocation.getArgument(0);
-            consumer.accept(makeConfiguration(false, resolvedConfiguration));
+            consumer.accept(makeConfiguration(false, resolvedConfiguration,
+                                              makeDeclaredDependency("org.cthing", "dep1", "1.2.3")));
             return null;
         }).when(configurationContainer2).forEach(any());
         when(project.getConfigurations()).thenReturn(configurationContainer2);
@@ -344,9 +387,160 @@ public class CThingPublishingExtensionTest {
         assertThat(publishingExtension.findCThingDependencies()).isEmpty();
     }
 
+    @Test
+    public void testConfigureAllPublications() {
+        final Project project = ProjectBuilder.builder().withName("testProject").build();
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        project.getPluginManager().apply("maven-publish");
+
+        final PublishingExtension publishing = project.getExtensions().getByType(PublishingExtension.class);
+        publishing.getPublications().register("jar", MavenPublication.class);
+
+        final CThingPublishingExtension publishingExtension =
+                project.getExtensions().getByType(CThingPublishingExtension.class);
+        publishingExtension.configureAllPublications(action -> action.setLicense(PomLicense.MIT));
+
+        publishing.getPublications().register("other", MavenPublication.class);
+
+        publishing.getPublications().withType(MavenPublication.class).forEach(publication -> {
+            assertThat(publication.getPom().getName().getOrNull()).isEqualTo("testProject");
+            assertThat(publication.getPom().getUrl().getOrNull()).isNull();
+        });
+        assertThat(publishing.getPublications().withType(MavenPublication.class)).hasSize(2);
+
+        assertThatThrownBy(publishingExtension::configureAllPublications).isInstanceOf(GradleException.class);
+    }
+
+    @Test
+    @DisplayName("Project with overlapping configurations")
+    public void testFindCThingDependencies5() {
+        final Dependency dep1 = makeDeclaredDependency("org.cthing", "dep1", "1.0.0");
+        final Dependency dep2 = makeDeclaredDependency("org.cthing", "dep2", "2.0.0");
+        final Dependency dep3 = makeDeclaredDependency("org.cthing", "dep3", "3.0.0");
+        final Dependency other = makeDeclaredDependency("com.foobar", "other", "1.0.0");
+
+        final ResolvedConfiguration compileResolved = makeResolvedConfiguration(
+                makeDependency("dep1", "org.cthing", "1.0.0", makeArtifact("dep1", null, "jar")));
+        final ResolvedConfiguration runtimeResolved = makeResolvedConfiguration(
+                makeDependency("dep1", "org.cthing", "1.0.0", makeArtifact("dep1", null, "jar")),
+                makeDependency("dep2", "org.cthing", "2.0.0", makeArtifact("dep2", null, "jar")));
+        final ResolvedConfiguration testRuntimeResolved = makeResolvedConfiguration(
+                makeDependency("dep1", "org.cthing", "1.0.0", makeArtifact("dep1", null, "jar")),
+                makeDependency("dep2", "org.cthing", "2.0.0", makeArtifact("dep2", null, "jar")),
+                makeDependency("dep3", "org.cthing", "3.0.0", makeArtifact("dep3", null, "jar")));
+        final ResolvedConfiguration annotationResolved = makeResolvedConfiguration();
+
+        final Configuration compileClasspath = makeConfiguration(true, compileResolved, dep1);
+        final Configuration runtimeClasspath = makeConfiguration(true, runtimeResolved, dep1, dep2);
+        final Configuration testRuntimeClasspath = makeConfiguration(true, testRuntimeResolved, dep1, dep2, dep3);
+        final Configuration annotationProcessor = makeConfiguration(true, annotationResolved, other);
+
+        final ScriptHandler scriptHandler = mock(ScriptHandler.class);
+        when(scriptHandler.getConfigurations()).thenReturn(mock(ConfigurationContainer.class));
+
+        final Project project = mock(Project.class);
+        when(project.getName()).thenReturn("test");
+        when(project.getGroup()).thenReturn("testGroup");
+        when(project.getBuildscript()).thenReturn(scriptHandler);
+
+        final ConfigurationContainer configurationContainer = mock(ConfigurationContainer.class);
+        doAnswer(invocation -> {
+            final Consumer<Configuration> consumer = invocation.getArgument(0);
+            consumer.accept(compileClasspath);
+            consumer.accept(runtimeClasspath);
+            consumer.accept(testRuntimeClasspath);
+            consumer.accept(annotationProcessor);
+            return null;
+        }).when(configurationContainer).forEach(any());
+        when(project.getConfigurations()).thenReturn(configurationContainer);
+
+        final CThingPublishingExtension publishingExtension = new CThingPublishingExtension(project);
+        assertThat(publishingExtension.findCThingDependencies()).containsExactly("org.cthing:dep1:1.0.0",
+                                                                                 "org.cthing:dep2:2.0.0",
+                                                                                 "org.cthing:dep3:3.0.0");
+
+        verify(testRuntimeClasspath).getResolvedConfiguration();
+        verify(compileClasspath, never()).getResolvedConfiguration();
+        verify(runtimeClasspath, never()).getResolvedConfiguration();
+        verify(annotationProcessor, never()).getResolvedConfiguration();
+    }
+
+    @Test
+    public void testIsCThingCandidate() {
+        assertThat(CThingPublishingExtension.isCThingCandidate(makeDeclaredDependency("org.cthing", "a", "1")))
+                .isTrue();
+        assertThat(CThingPublishingExtension.isCThingCandidate(makeDeclaredDependency("com.cthing", "a", "1")))
+                .isTrue();
+        assertThat(CThingPublishingExtension.isCThingCandidate(
+                makeDeclaredDependency("org.cthing.cthing-publishing", "org.cthing.cthing-publishing.gradle.plugin",
+                                       "1"))).isTrue();
+        assertThat(CThingPublishingExtension.isCThingCandidate(
+                makeDeclaredDependency("com.github.spotbugs", "com.github.spotbugs.gradle.plugin", "1"))).isTrue();
+        assertThat(CThingPublishingExtension.isCThingCandidate(makeDeclaredDependency("org.cthingx", "a", "1")))
+                .isFalse();
+        assertThat(CThingPublishingExtension.isCThingCandidate(makeDeclaredDependency("org.apache", "a", "1")))
+                .isFalse();
+        assertThat(CThingPublishingExtension.isCThingCandidate(mock(Dependency.class))).isFalse();
+    }
+
+    @Test
+    public void testFindCThingLockedDependencies(@TempDir final Path projectDir) throws IOException {
+        final Project project = ProjectBuilder.builder().withName("testProject").withProjectDir(projectDir.toFile())
+                                              .build();
+        project.setGroup("org.cthing");
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        final CThingPublishingExtension publishingExtension =
+                project.getExtensions().getByType(CThingPublishingExtension.class);
+        publishingExtension.setDependencySource(DependencySource.LOCKFILE);
+        assertThat(publishingExtension.getDependencySource()).isEqualTo(DependencySource.LOCKFILE);
+
+        assertThatThrownBy(publishingExtension::findCThingDependencies).isInstanceOf(GradleException.class);
+
+        Files.writeString(projectDir.resolve("gradle.lockfile"), """
+                # This is a Gradle generated file for dependency locking.
+                # Manual edits can break the build and are not advised.
+                # This file is expected to be part of source control.
+                com.cthing:artifact3:3.0.0=runtimeClasspath
+                org.cthing:artifact1:1.2.3=compileClasspath,runtimeClasspath
+                org.cthing:testProject:1.0.0=runtimeClasspath
+                org.apache:commons:2.0=compileClasspath
+                empty=annotationProcessor
+                """);
+        Files.writeString(projectDir.resolve("buildscript-gradle.lockfile"), """
+                org.cthing.cthing-publishing:org.cthing.cthing-publishing.gradle.plugin:4.0.0=classpath
+                org.cthing:gradle-cthing-publishing:4.0.0=classpath
+                org.cthing:artifact1:1.2.3=classpath
+                empty=
+                """);
+
+        assertThat(publishingExtension.findCThingDependencies()).containsExactly(
+                "com.cthing:artifact3:3.0.0",
+                "org.cthing:artifact1:1.2.3",
+                "org.cthing:gradle-cthing-publishing:4.0.0"
+        );
+    }
+
+    @Test
+    public void testFindCThingLockedDependenciesCustomLocation(@TempDir final Path projectDir) throws IOException {
+        final Project project = ProjectBuilder.builder().withName("testProject").withProjectDir(projectDir.toFile())
+                                              .build();
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        final File lockfile = projectDir.resolve("locks/custom.lockfile").toFile();
+        project.getDependencyLocking().getLockFile().set(lockfile);
+        Files.createDirectories(lockfile.toPath().getParent());
+        Files.writeString(lockfile.toPath(), "org.cthing:artifact1:1.2.3=compileClasspath\n");
+
+        final CThingPublishingExtension publishingExtension =
+                project.getExtensions().getByType(CThingPublishingExtension.class);
+        assertThat(publishingExtension.findCThingLockedDependencies()).containsExactly("org.cthing:artifact1:1.2.3");
+    }
+
     private ResolvedArtifact makeArtifact(final String name, @Nullable final String classifier,
                                           @Nullable final String extension) {
+        final ComponentArtifactIdentifier id = mock(ComponentArtifactIdentifier.class);
+        when(id.getComponentIdentifier()).thenReturn(mock(ModuleComponentIdentifier.class));
         final ResolvedArtifact artifact = mock(ResolvedArtifact.class);
+        when(artifact.getId()).thenReturn(id);
         when(artifact.getName()).thenReturn(name);
         when(artifact.getClassifier()).thenReturn(classifier);
         when(artifact.getExtension()).thenReturn(extension);
@@ -370,10 +564,23 @@ public class CThingPublishingExtensionTest {
     }
 
     private Configuration makeConfiguration(final boolean resolvable,
-                                            final ResolvedConfiguration resolvedConfiguration) {
+                                            final ResolvedConfiguration resolvedConfiguration,
+                                            final Dependency... declaredDependencies) {
+        final DependencySet dependencySet = mock(DependencySet.class);
+        when(dependencySet.iterator()).thenAnswer(invocation -> List.of(declaredDependencies).iterator());
+
         final Configuration configuration = mock(Configuration.class);
         when(configuration.isCanBeResolved()).thenReturn(resolvable);
         when(configuration.getResolvedConfiguration()).thenReturn(resolvedConfiguration);
+        when(configuration.getAllDependencies()).thenReturn(dependencySet);
         return configuration;
     }
+
+    private Dependency makeDeclaredDependency(final String group, final String name, final String version) {
+        final ModuleDependency dependency = mock(ModuleDependency.class);
+        when(dependency.getGroup()).thenReturn(group);
+        when(dependency.getName()).thenReturn(name);
+        when(dependency.getVersion()).thenReturn(version);
+        return dependency;
+    }
 }
@@ -8,6 +8,7 @@ import java.util.stream.Stream;
 
 import org.cthing.projectversion.BuildType;
 import org.cthing.projectversion.ProjectVersion;
+import org.gradle.api.GradleException;
 import org.gradle.api.Project;
 import org.gradle.api.plugins.ExtraPropertiesExtension;
 import org.gradle.testfixtures.ProjectBuilder;
@@ -17,6 +18,7 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 
 public class CThingRepoExtensionTest {
@@ -37,6 +39,10 @@ public class CThingRepoExtensionTest {
         assertThat(extension.getAptReleasesUrl()).isNull();
         assertThat(extension.getAptCandidatesUrl()).isNull();
         assertThat(extension.getAptSnapshotsUrl()).isNull();
+        assertThat(extension.getMaxConcurrentUploads()).isEqualTo(CThingRepoExtension.DEFAULT_MAX_CONCURRENT_UPLOADS);
+        assertThat(extension.getUploadLatencyThreshold()).isEqualTo(CThingRepoExtension.DEFAULT_UPLOAD_LATENCY_THRESHOLD);
+        assertThat(extension.getMaxUploadRetries()).isEqualTo(CThingRepoExtension.DEFAULT_MAX_UPLOAD_RETRIES);
+        assertThat(extension.isLinkFiles()).isFalse();
     }
 
     @Test
@@ -110,4 +116,85 @@ public class CThingRepoExtensionTest {
 
         assertThat(extension.hasCredentials()).isEqualTo(result);
     }
+
+    @Test
+    public void testUploadProperties() {
+        final Project project = ProjectBuilder.builder().build();
+        final ExtraPropertiesExtension properties = project.getExtensions().getExtraProperties();
+        final CThingRepoExtension extension = new CThingRepoExtension(project);
+
+        properties.set(CThingRepoExtension.MAX_CONCURRENT_UPLOADS_PROPERTY, "4");
+        properties.set(CThingRepoExtension.UPLOAD_LATENCY_THRESHOLD_PROPERTY, 2000);
+        properties.set(CThingRepoExtension.MAX_UPLOAD_RETRIES_PROPERTY, " 0 ");
+
+        assertThat(extension.getMaxConcurrentUploads()).isEqualTo(4);
+        assertThat(extension.getUploadLatencyThreshold()).isEqualTo(2000L);
+        assertThat(extension.getMaxUploadRetries()).isEqualTo(0);
+
+        properties.set(CThingRepoExtension.MAX_CONCURRENT_UPLOADS_PROPERTY, "many");
+        assertThatThrownBy(extension::getMaxConcurrentUploads).isInstanceOf(GradleException.class);
+    }
+
+    @Test
+    public void testLinkFiles() {
+        final Project project = ProjectBuilder.builder().build();
+        final ExtraPropertiesExtension properties = project.getExtensions().getExtraProperties();
+        final CThingRepoExtension extension = new CThingRepoExtension(project);
+
+        properties.set(CThingRepoExtension.LINK_FILES_PROPERTY, "true");
+        assertThat(extension.isLinkFiles()).isTrue();
+
+        properties.set(CThingRepoExtension.LINK_FILES_PROPERTY, false);
+        assertThat(extension.isLinkFiles()).isFalse();
+    }
+
+    @Test
+    public void testStagingProperties() {
+        final Project project = ProjectBuilder.builder().build();
+        final ExtraPropertiesExtension properties = project.getExtensions().getExtraProperties();
+        final CThingRepoExtension extension = new CThingRepoExtension(project);
+
+        assertThat(extension.getStagingUrl()).isNull();
+        assertThat(extension.getStagingProfileId()).isNull();
+        assertThat(extension.getStagingService()).isNull();
+
+        properties.set(CThingRepoExtension.STAGING_URL_PROPERTY, "https://repo.cthing.com/nexus");
+        properties.set(CThingRepoExtension.STAGING_PROFILE_ID_PROPERTY, "1a2b3c");
+        assertThat(extension.getStagingUrl()).isEqualTo("https://repo.cthing.com/nexus");
+        assertThat(extension.getStagingProfileId()).isEqualTo("1a2b3c");
+    }
+
+    @Test
+    public void testMirrorUrls() {
+        final Project project = ProjectBuilder.builder().build();
+        final ExtraPropertiesExtension properties = project.getExtensions().getExtraProperties();
+        final CThingRepoExtension extension = new CThingRepoExtension(project);
+
+        assertThat(extension.getMirrorUrls()).isEmpty();
+
+        properties.set(CThingRepoExtension.MIRROR_URLS_PROPERTY, " https://dr1.cthing.com/repo ,,https://dr2.cthing.com/repo,"
+                + "https://dr1.cthing.com/repo");
+        assertThat(extension.getMirrorUrls()).containsExactly("https://dr1.cthing.com/repo", "https://dr2.cthing.com/repo");
+    }
+
+    @Test
+    public void testUploadVerification() {
+        final Project project = ProjectBuilder.builder().build();
+        final ExtraPropertiesExtension properties = project.getExtensions().getExtraProperties();
+        final CThingRepoExtension extension = new CThingRepoExtension(project);
+
+        assertThat(extension.getUploadVerification()).isEqualTo(UploadVerification.NONE);
+
+        properties.set(CThingRepoExtension.VERIFY_UPLOADS_PROPERTY, "true");
+        assertThat(extension.getUploadVerification()).isEqualTo(UploadVerification.CHECKSUMS);
+        properties.set(CThingRepoExtension.VERIFY_UPLOADS_PROPERTY, true);
+        assertThat(extension.getUploadVerification()).isEqualTo(UploadVerification.CHECKSUMS);
+        properties.set(CThingRepoExtension.VERIFY_UPLOADS_PROPERTY, "Strict");
+        assertThat(extension.getUploadVerification()).isEqualTo(UploadVerification.STRICT);
+        properties.set(CThingRepoExtension.VERIFY_UPLOADS_PROPERTY, "false");
+        assertThat(extension.getUploadVerification()).isEqualTo(UploadVerification.NONE);
+
+        properties.set(CThingRepoExtension.VERIFY_UPLOADS_PROPERTY, "sometimes");
+        assertThatThrownBy(extension::getUploadVerification).isInstanceOf(GradleException.class);
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import org.gradle.api.Project;
+import org.gradle.api.publish.PublishingExtension;
+import org.gradle.api.publish.maven.MavenArtifact;
+import org.gradle.api.publish.maven.MavenPublication;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+
+public class CThingSbomsTest {
+
+    @Test
+    public void testEnableSbom() {
+        final Project project = ProjectBuilder.builder().withName("module").build();
+        project.setGroup("org.cthing");
+        project.setVersion("1.2.3");
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        project.getPluginManager().apply("java-library");
+        project.getPluginManager().apply("maven-publish");
+
+        final CThingPublishingExtension extension = project.getExtensions().getByType(CThingPublishingExtension.class);
+        extension.configureAllPublications(action -> action.setLicense(PomLicense.MIT));
+        extension.enableSbom();
+
+        final PublishingExtension publishing = project.getExtensions().getByType(PublishingExtension.class);
+        final MavenPublication main = publishing.getPublications().create("main", MavenPublication.class);
+        final MavenPublication marker = publishing.getPublications().create("fooPluginMarkerMaven",
+                                                                             MavenPublication.class);
+
+        final GenerateSbom task = (GenerateSbom)project.getTasks().getByName(CThingSboms.taskName(main));
+        assertThat(task.getComponent().get()).isEqualTo("org.cthing:module:1.2.3");
+        assertThat(task.getLicense().get()).isEqualTo(PomLicense.MIT);
+        assertThat(task.getDestination().get().getAsFile().toPath())
+                .isEqualTo(project.getLayout().getBuildDirectory().getAsFile().get().toPath()
+                                  .resolve("publications/main/sbom-cyclonedx.json"));
+
+        assertThat(main.getArtifacts()).extracting(MavenArtifact::getClassifier, MavenArtifact::getExtension)
+                                       .containsExactly(tuple(CThingSboms.CLASSIFIER, CThingSboms.EXTENSION));
+        assertThat(marker.getArtifacts()).isEmpty();
+        assertThat(project.getTasks().findByName(CThingSboms.taskName(marker))).isNull();
+    }
+
+    @Test
+    public void testNotJava() {
+        final Project project = ProjectBuilder.builder().withName("module").build();
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        project.getPluginManager().apply("maven-publish");
+        project.getExtensions().getByType(CThingPublishingExtension.class).enableSbom();
+
+        final PublishingExtension publishing = project.getExtensions().getByType(PublishingExtension.class);
+        final MavenPublication main = publishing.getPublications().create("main", MavenPublication.class);
+
+        assertThat(main.getArtifacts()).isEmpty();
+        assertThat(project.getTasks().findByName(CThingSboms.taskName(main))).isNull();
+    }
+
+    @Test
+    public void testIsDescribed() {
+        final Project project = ProjectBuilder.builder().withName("module").build();
+        project.getPluginManager().apply("maven-publish");
+        final PublishingExtension publishing = project.getExtensions().getByType(PublishingExtension.class);
+
+        assertThat(CThingSboms.isDescribed(publishing.getPublications().create("pluginMaven", MavenPublication.class)))
+                .isTrue();
+        assertThat(CThingSboms.isDescribed(publishing.getPublications().create("fooPluginMarkerMaven",
+                                                                               MavenPublication.class))).isFalse();
+        assertThat(CThingSboms.isDescribed(publishing.getPublications().create(CThingBom.BOM_PUBLICATION,
+                                                                               MavenPublication.class))).isFalse();
+    }
+}
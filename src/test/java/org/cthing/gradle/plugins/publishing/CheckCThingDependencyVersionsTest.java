@@ -0,0 +1,102 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+public class CheckCThingDependencyVersionsTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void testNoConflicts() {
+        final List<String> manifest = List.of("org.cthing:a:1.0.0",
+                                              "org.cthing:b:1.0.0 org.cthing:a:1.0.0 org.cthing:x:2.0.0:linux@zip",
+                                              "",
+                                              "org.cthing:c:1.0.0 org.cthing:a:1.0.0 org.cthing:x:2.0.0");
+        assertThat(CheckCThingDependencyVersions.findConflicts(manifest)).isEmpty();
+    }
+
+    @Test
+    public void testConflicts() {
+        final List<String> manifest = List.of("org.cthing:a:1.0.0",
+                                              "org.cthing:b:1.0.0 org.cthing:a:0.9.0 org.cthing:x:2.0.0:linux@zip",
+                                              "org.cthing:c:1.0.0 org.cthing:a:1.0.0 org.cthing:x:1.0.0@zip",
+                                              "org.cthing:d:1.0.0 org.cthing:x:1.0.0 org.cthing:y@zip");
+
+        final SortedMap<String, SortedMap<String, SortedSet<String>>> conflicts =
+                CheckCThingDependencyVersions.findConflicts(manifest);
+        assertThat(conflicts).containsOnlyKeys("org.cthing:a", "org.cthing:x");
+        assertThat(conflicts.get("org.cthing:a")).containsOnlyKeys("0.9.0", "1.0.0");
+        assertThat(conflicts.get("org.cthing:a").get("1.0.0")).containsExactly("org.cthing:c:1.0.0", "published");
+        assertThat(conflicts.get("org.cthing:x").get("1.0.0")).containsExactly("org.cthing:c:1.0.0",
+                                                                                 "org.cthing:d:1.0.0");
+
+        assertThat(CheckCThingDependencyVersions.format(conflicts)).containsExactly(
+                "org.cthing:a: 0.9.0 (org.cthing:b:1.0.0), 1.0.0 (org.cthing:c:1.0.0, published)",
+                "org.cthing:x: 1.0.0 (org.cthing:c:1.0.0, org.cthing:d:1.0.0), 2.0.0 (org.cthing:b:1.0.0)");
+    }
+
+    @Test
+    public void testCheck() throws IOException {
+        final Path manifest = this.tempDir.resolve("release-manifest.txt");
+        final Path report = this.tempDir.resolve("report.txt");
+        Files.write(manifest, List.of("org.cthing:b:1.0.0 org.cthing:a:1.0.0", "org.cthing:c:1.0.0 org.cthing:a:2.0.0"),
+                    StandardCharsets.UTF_8);
+
+        final Project project = ProjectBuilder.builder().withName("root").withProjectDir(this.tempDir.toFile()).build();
+        final CheckCThingDependencyVersions task =
+                project.getTasks().register("versions", CheckCThingDependencyVersions.class).get();
+        task.getManifest().set(manifest.toFile());
+        task.getReport().set(report.toFile());
+
+        assertThatThrownBy(task::check).isInstanceOf(GradleException.class)
+                                       .hasMessage("Conflicting versions of C Thing Software modules:\n  "
+                                                           + "org.cthing:a: 1.0.0 (org.cthing:b:1.0.0), "
+                                                           + "2.0.0 (org.cthing:c:1.0.0)");
+        assertThat(Files.readAllLines(report, StandardCharsets.UTF_8)).hasSize(1);
+
+        Files.write(manifest, List.of("org.cthing:b:1.0.0 org.cthing:a:1.0.0"), StandardCharsets.UTF_8);
+        task.check();
+        assertThat(Files.readAllLines(report, StandardCharsets.UTF_8)).isEmpty();
+    }
+
+    @Test
+    public void testWiredIntoCheck() {
+        final Project project = ProjectBuilder.builder().withName("root").build();
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        project.getPluginManager().apply("base");
+
+        final Task check = project.getTasks().getByName("check");
+        final Set<? extends Task> dependencies = check.getTaskDependencies().getDependencies(check);
+        assertThat(dependencies).extracting(Task::getName).contains(CheckCThingDependencyVersions.TASK_NAME);
+
+        final CheckCThingDependencyVersions task = (CheckCThingDependencyVersions)project.getTasks()
+                                                                                         .getByName(CheckCThingDependencyVersions.TASK_NAME);
+        assertThat(task.getManifest().get().getAsFile().toPath())
+                .isEqualTo(project.getLayout().getBuildDirectory().getAsFile().get().toPath()
+                                  .resolve(ReleaseTrain.MANIFEST_PATH));
+    }
+}
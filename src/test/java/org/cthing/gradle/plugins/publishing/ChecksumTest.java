@@ -0,0 +1,32 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class ChecksumTest {
+
+    @Test
+    public void testDigest() {
+        assertThat(Checksum.digest(new byte[0]))
+                .containsEntry(Checksum.MD5, "d41d8cd98f00b204e9800998ecf8427e")
+                .containsEntry(Checksum.SHA1, "da39a3ee5e6b4b0d3255bfef95601890afd80709")
+                .containsEntry(Checksum.SHA256, "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855")
+                .containsKey(Checksum.SHA512);
+    }
+
+    @Test
+    public void testParseSidecar() {
+        assertThat(Checksum.parseSidecar("ABCdef\n".getBytes(StandardCharsets.US_ASCII))).isEqualTo("abcdef");
+        assertThat(Checksum.parseSidecar("abcdef  foo-1.0.jar".getBytes(StandardCharsets.US_ASCII))).isEqualTo("abcdef");
+        assertThat(Checksum.parseSidecar(" \n".getBytes(StandardCharsets.US_ASCII))).isNull();
+    }
+}
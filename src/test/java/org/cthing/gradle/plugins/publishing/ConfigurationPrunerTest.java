@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.util.List;
+import java.util.Set;
+
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.DependencyArtifact;
+import org.gradle.api.artifacts.DependencySet;
+import org.gradle.api.artifacts.ModuleDependency;
+import org.gradle.api.artifacts.capability.CapabilitySelector;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+public class ConfigurationPrunerTest {
+
+    @Test
+    public void testPruneEmpty() {
+        assertThat(ConfigurationPruner.prune(List.of(), dep -> true)).isEmpty();
+
+        final Configuration config = makeConfiguration();
+        assertThat(ConfigurationPruner.prune(List.of(config), dep -> true)).isEmpty();
+    }
+
+    @Test
+    public void testPruneHierarchy() {
+        final Dependency dep1 = makeDependency("org.cthing", "dep1");
+        final Dependency dep2 = makeDependency("org.cthing", "dep2");
+        final Dependency dep3 = makeDependency("org.cthing", "dep3");
+        final Dependency dep4 = makeDependency("org.cthing", "dep4");
+
+        final Configuration compileClasspath = makeConfiguration(dep1);
+        final Configuration runtimeClasspath = makeConfiguration(dep1, dep2);
+        final Configuration testCompileClasspath = makeConfiguration(dep1, dep3);
+        final Configuration testRuntimeClasspath = makeConfiguration(dep1, dep2, dep3);
+        final Configuration other = makeConfiguration(dep4);
+
+        assertThat(ConfigurationPruner.prune(List.of(compileClasspath, runtimeClasspath, testCompileClasspath,
+                                                     testRuntimeClasspath, other), dep -> true))
+                .containsExactly(testRuntimeClasspath, other);
+    }
+
+    @Test
+    public void testPruneDisjoint() {
+        final Configuration config1 = makeConfiguration(makeDependency("org.cthing", "dep1"));
+        final Configuration config2 = makeConfiguration(makeDependency("org.cthing", "dep2"));
+
+        assertThat(ConfigurationPruner.prune(List.of(config1, config2), dep -> true))
+                .containsExactly(config1, config2);
+    }
+
+    @Test
+    public void testPruneIrrelevant() {
+        final Configuration config1 = makeConfiguration(makeDependency("org.cthing", "dep1"));
+        final Configuration config2 = makeConfiguration(makeDependency("org.apache", "dep2"));
+
+        assertThat(ConfigurationPruner.prune(List.of(config1, config2), dep -> "org.cthing".equals(dep.getGroup())))
+                .containsExactly(config1);
+    }
+
+    @Test
+    public void testDescribe() {
+        final ModuleDependency dependency = (ModuleDependency)makeDependency("org.cthing", "dep1");
+        assertThat(ConfigurationPruner.describe(dependency)).isEqualTo("org.cthing:dep1:1.0.0[][]");
+
+        final DependencyArtifact artifact = mock(DependencyArtifact.class);
+        when(artifact.getClassifier()).thenReturn("linux");
+        when(artifact.getExtension()).thenReturn("zip");
+        final CapabilitySelector capability = mock(CapabilitySelector.class);
+        when(capability.getDisplayName()).thenReturn("org.cthing:dep1-test-fixtures");
+        when(dependency.getArtifacts()).thenReturn(Set.of(artifact));
+        when(dependency.getCapabilitySelectors()).thenReturn(Set.of(capability));
+        assertThat(ConfigurationPruner.describe(dependency))
+                .isEqualTo("org.cthing:dep1:1.0.0[linux@zip][org.cthing:dep1-test-fixtures]");
+    }
+
+    private Dependency makeDependency(final String group, final String name) {
+        final ModuleDependency dependency = mock(ModuleDependency.class);
+        when(dependency.getGroup()).thenReturn(group);
+        when(dependency.getName()).thenReturn(name);
+        when(dependency.getVersion()).thenReturn("1.0.0");
+        return dependency;
+    }
+
+    private Configuration makeConfiguration(final Dependency... dependencies) {
+        final DependencySet dependencySet = mock(DependencySet.class);
+        when(dependencySet.iterator()).thenAnswer(invocation -> List.of(dependencies).iterator());
+        final Configuration configuration = mock(Configuration.class);
+        when(configuration.getAllDependencies()).thenReturn(dependencySet);
+        return configuration;
+    }
+}
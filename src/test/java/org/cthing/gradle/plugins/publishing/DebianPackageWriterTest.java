@@ -0,0 +1,218 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class DebianPackageWriterTest {
+
+    private static final String CONTROL = """
+            Package: hello
+            Version: 1.2.3
+            Architecture: all
+            Maintainer: C Thing Software <support@cthing.com>
+            Description: Says hello
+            """;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void testWrite() throws IOException {
+        final Path script = Files.writeString(this.tempDir.resolve("hello.sh"), "#!/bin/sh\necho hello\n");
+        final Path readme = Files.writeString(this.tempDir.resolve("README"), "Hello");
+        final SortedMap<String, DebianPackageWriter.DataFile> files = new TreeMap<>();
+        files.put("usr/bin/hello", new DebianPackageWriter.DataFile(script, Files.size(script), true));
+        files.put("usr/share/doc/hello/README", new DebianPackageWriter.DataFile(readme, Files.size(readme), false));
+        final Path deb = this.tempDir.resolve("hello.deb");
+
+        DebianPackageWriter.write(deb, CONTROL, files);
+
+        final Map<String, byte[]> members = readArchive(Files.readAllBytes(deb));
+        assertThat(members.keySet()).containsExactly("debian-binary", "control.tar", "data.tar.gz");
+        assertThat(new String(members.get("debian-binary"), StandardCharsets.US_ASCII)).isEqualTo("2.0\n");
+
+        final Map<String, TarEntry> control = readTar(new ByteArrayInputStream(members.get("control.tar")));
+        assertThat(control.keySet()).containsExactly("./", "./control", "./md5sums");
+        assertThat(control.get("./control").text()).isEqualTo(CONTROL);
+        assertThat(control.get("./md5sums").text())
+                .isEqualTo(Checksum.digest(Files.readAllBytes(script)).get(Checksum.MD5) + "  usr/bin/hello\n"
+                                   + Checksum.digest(Files.readAllBytes(readme)).get(Checksum.MD5)
+                                   + "  usr/share/doc/hello/README\n");
+
+        final Map<String, TarEntry> data;
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(members.get("data.tar.gz")))) {
+            data = readTar(input);
+        }
+        assertThat(data.keySet()).containsExactly("./", "./usr/", "./usr/bin/", "./usr/bin/hello", "./usr/share/",
+                                                  "./usr/share/doc/", "./usr/share/doc/hello/",
+                                                  "./usr/share/doc/hello/README");
+        assertThat(data.get("./usr/bin/").mode()).isEqualTo(0755);
+        assertThat(data.get("./usr/bin/").type()).isEqualTo('5');
+        assertThat(data.get("./usr/bin/hello").mode()).isEqualTo(0755);
+        assertThat(data.get("./usr/bin/hello").text()).isEqualTo("#!/bin/sh\necho hello\n");
+        assertThat(data.get("./usr/share/doc/hello/README").mode()).isEqualTo(0644);
+        assertThat(data.get("./usr/share/doc/hello/README").mtime()).isEqualTo(DebianPackageWriter.TIMESTAMP);
+        assertThat(data.get("./usr/share/doc/hello/README").text()).isEqualTo("Hello");
+
+        final byte[] content = Files.readAllBytes(deb);
+        final AptIndex.Entry entry = AptIndex.readPackage(new ByteArrayInputStream(content), "hello.deb", 0L,
+                                                          content.length);
+        assertThat(entry.getStanza()).startsWith("Package: hello\n");
+    }
+
+    @Test
+    public void testReproducible() throws IOException {
+        final Path readme = Files.writeString(this.tempDir.resolve("README"), "Hello");
+        final SortedMap<String, DebianPackageWriter.DataFile> files = new TreeMap<>();
+        files.put("usr/share/doc/hello/README", new DebianPackageWriter.DataFile(readme, Files.size(readme), false));
+        final Path first = this.tempDir.resolve("first.deb");
+        final Path second = this.tempDir.resolve("second.deb");
+
+        DebianPackageWriter.write(first, CONTROL, files);
+        Files.setLastModifiedTime(readme, FileTime.from(Instant.now().plusSeconds(60)));
+        DebianPackageWriter.write(second, CONTROL, files);
+
+        assertThat(Files.readAllBytes(second)).isEqualTo(Files.readAllBytes(first));
+    }
+
+    @Test
+    public void testLongNames() throws IOException {
+        final Path file = Files.writeString(this.tempDir.resolve("file"), "content");
+        final String splittable = "usr/share/" + "d".repeat(120) + "/file.txt";
+        final String unsplittable = "usr/share/" + "f".repeat(150) + ".txt";
+        final SortedMap<String, DebianPackageWriter.DataFile> files = new TreeMap<>();
+        files.put(splittable, new DebianPackageWriter.DataFile(file, Files.size(file), false));
+        files.put(unsplittable, new DebianPackageWriter.DataFile(file, Files.size(file), false));
+        final Path deb = this.tempDir.resolve("long.deb");
+
+        DebianPackageWriter.write(deb, CONTROL, files);
+
+        final Map<String, byte[]> members = readArchive(Files.readAllBytes(deb));
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(members.get("data.tar.gz")))) {
+            final Map<String, TarEntry> data = readTar(input);
+            assertThat(data.get("./" + splittable).text()).isEqualTo("content");
+            assertThat(data.get("./" + unsplittable).text()).isEqualTo("content");
+        }
+    }
+
+    @Test
+    public void testInstalledSize() throws IOException {
+        final Path small = Files.writeString(this.tempDir.resolve("small"), "x");
+        final Path large = Files.write(this.tempDir.resolve("large"), new byte[2049]);
+        final SortedMap<String, DebianPackageWriter.DataFile> files = new TreeMap<>();
+        files.put("usr/share/hello/small", new DebianPackageWriter.DataFile(small, 1, false));
+        files.put("usr/share/hello/large", new DebianPackageWriter.DataFile(large, 2049, false));
+
+        // 3 directories, 1 KiB for the small file and 3 KiB for the large file
+        assertThat(DebianPackageWriter.installedSize(files)).isEqualTo(7L);
+    }
+
+    /**
+     * Content of an entry in a tar archive.
+     *
+     * @param mode Permissions of the entry
+     * @param type Type of the entry
+     * @param mtime Modification time of the entry, in seconds since the epoch
+     * @param content Content of the entry
+     */
+    record TarEntry(int mode, char type, long mtime, byte[] content) {
+
+        String text() {
+            return new String(this.content, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Reads the members of an ar archive.
+     *
+     * @param archive Content of the archive
+     * @return Content of each member, keyed by name in the order in which they appear.
+     */
+    static Map<String, byte[]> readArchive(final byte[] archive) {
+        assertThat(new String(archive, 0, 8, StandardCharsets.US_ASCII)).isEqualTo("!<arch>\n");
+        final Map<String, byte[]> members = new LinkedHashMap<>();
+        int offset = 8;
+        while (offset < archive.length) {
+            final String name = new String(archive, offset, 16, StandardCharsets.US_ASCII).trim();
+            final int size = Integer.parseInt(new String(archive, offset + 48, 10, StandardCharsets.US_ASCII).trim());
+            assertThat(new String(archive, offset + 58, 2, StandardCharsets.US_ASCII)).isEqualTo("`\n");
+            offset += 60;
+            members.put(name, Arrays.copyOfRange(archive, offset, offset + size));
+            offset += size + size % 2;
+        }
+        return members;
+    }
+
+    /**
+     * Reads the entries of a tar archive, resolving GNU long names and ustar prefixes.
+     *
+     * @param input Content of the archive
+     * @return Each entry, keyed by name in the order in which they appear.
+     * @throws IOException if the archive could not be read
+     */
+    static Map<String, TarEntry> readTar(final InputStream input) throws IOException {
+        final Map<String, TarEntry> entries = new LinkedHashMap<>();
+        String longName = null;
+        while (true) {
+            final byte[] header = input.readNBytes(512);
+            if (header.length < 512 || header[0] == 0) {
+                return entries;
+            }
+            int checksum = 0;
+            for (int i = 0; i < 512; i++) {
+                checksum += i >= 148 && i < 156 ? ' ' : header[i] & 0xFF;
+            }
+            assertThat(Integer.parseInt(string(header, 148, 7), 8)).isEqualTo(checksum);
+
+            String name = string(header, 0, 100);
+            final String prefix = string(header, 345, 155);
+            if (!prefix.isEmpty()) {
+                name = prefix + '/' + name;
+            }
+            final int size = Integer.parseInt(string(header, 124, 12), 8);
+            final byte[] content = input.readNBytes(size);
+            input.readNBytes((512 - size % 512) % 512);
+
+            final char type = (char)header[156];
+            if (type == 'L') {
+                longName = new String(content, 0, content.length - 1, StandardCharsets.UTF_8);
+                continue;
+            }
+            entries.put(longName == null ? name : longName,
+                        new TarEntry(Integer.parseInt(string(header, 100, 8), 8), type,
+                                     Long.parseLong(string(header, 136, 12), 8), content));
+            longName = null;
+        }
+    }
+
+    private static String string(final byte[] header, final int offset, final int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+/**
+ * Measures building the {@link DependentsIndex} of a repository containing a large number of POMs, updating
+ * it when a single POM has changed, and querying it. Run using the {@code benchmark} task.
+ */
+@Tag("benchmark")
+public class DependentsIndexBenchmarkTest {
+
+    private static final int POM_COUNT = 20_000;
+    private static final int DEPENDENCY_COUNT = 5;
+
+    @TempDir
+    private Path tempDir;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void benchmarkIndex() throws IOException {
+        final Path repository = this.tempDir.resolve("repository");
+        for (int i = 0; i < POM_COUNT; i++) {
+            writePom(repository, i);
+        }
+
+        long start = System.nanoTime();
+        final DependentsIndex full = DependentsIndex.update(repository, null, this.executor);
+        final long fullNanos = System.nanoTime() - start;
+        assertThat(full.size()).isEqualTo(POM_COUNT);
+
+        final Path indexFile = this.tempDir.resolve("dependents.idx");
+        full.write(indexFile);
+        start = System.nanoTime();
+        final DependentsIndex previous = DependentsIndex.read(indexFile);
+        final long readNanos = System.nanoTime() - start;
+        assertThat(previous).isNotNull();
+
+        writePom(repository, POM_COUNT);
+        start = System.nanoTime();
+        final DependentsIndex incremental = DependentsIndex.update(repository, previous, this.executor);
+        final long incrementalNanos = System.nanoTime() - start;
+        assertThat(incremental.size()).isEqualTo(POM_COUNT + 1);
+        assertThat(incremental.getParsedCount()).isEqualTo(1);
+
+        start = System.nanoTime();
+        final int dependents = incremental.findTransitiveDependents("org.cthing:module0").size();
+        final long queryNanos = System.nanoTime() - start;
+        assertThat(dependents).isEqualTo(POM_COUNT);
+
+        System.out.printf("Index of %d POMs (%d KiB)%n", POM_COUNT, Files.size(indexFile) / 1024);
+        System.out.printf("  Full update:               %8.1f ms%n", fullNanos / 1e6);
+        System.out.printf("  Read index:                %8.1f ms%n", readNanos / 1e6);
+        System.out.printf("  Incremental update:        %8.1f ms%n", incrementalNanos / 1e6);
+        System.out.printf("  Transitive dependents:     %8.1f ms%n", queryNanos / 1e6);
+    }
+
+    private static void writePom(final Path repository, final int index) throws IOException {
+        final String artifactId = "module" + index;
+        final StringBuilder dependencies = new StringBuilder();
+        for (int i = 1; i <= DEPENDENCY_COUNT && index - i >= 0; i++) {
+            dependencies.append("org.cthing:module").append(index - i).append(":1.0.0 ");
+        }
+        final Path pom = repository.resolve("org/cthing/" + artifactId + "/1.0.0/" + artifactId + "-1.0.0.pom");
+        Files.createDirectories(pom.getParent());
+        Files.writeString(pom, """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <project xmlns="http://maven.apache.org/POM/4.0.0">
+                  <modelVersion>4.0.0</modelVersion>
+                  <groupId>org.cthing</groupId>
+                  <artifactId>%s</artifactId>
+                  <version>1.0.0</version>
+                  <properties>
+                    <cthing.dependencies>%s</cthing.dependencies>
+                  </properties>
+                </project>
+                """.formatted(artifactId, dependencies.toString().trim()), StandardCharsets.UTF_8);
+    }
+}
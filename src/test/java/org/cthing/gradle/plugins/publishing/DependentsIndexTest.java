@@ -0,0 +1,197 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+
+public class DependentsIndexTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private Path repository;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        this.repository = this.tempDir.resolve("repository");
+        this.executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testReadProperties() throws IOException {
+        final String pom = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <project xmlns="http://maven.apache.org/POM/4.0.0">
+                  <modelVersion>4.0.0</modelVersion>
+                  <properties>
+                    <cthing.build.number>12</cthing.build.number>
+                    <cthing.dependencies>org.cthing:a:1.0.0 org.cthing:b:2.0.0:linux@zip</cthing.dependencies>
+                    <cthing.gradle.plugins>org.cthing.foo</cthing.gradle.plugins>
+                  </properties>
+                  <dependencies>
+                    <dependency>
+                      <properties><cthing.dependencies>ignored</cthing.dependencies></properties>
+                    </dependency>
+                  </dependencies>
+                </project>
+                """;
+        assertThat(DependentsIndex.readProperties(new ByteArrayInputStream(pom.getBytes(StandardCharsets.UTF_8))))
+                .containsOnly(entry("cthing.dependencies", "org.cthing:a:1.0.0 org.cthing:b:2.0.0:linux@zip"),
+                              entry("cthing.gradle.plugins", "org.cthing.foo"));
+
+        final String empty = "<project><modelVersion>4.0.0</modelVersion></project>";
+        assertThat(DependentsIndex.readProperties(new ByteArrayInputStream(empty.getBytes(StandardCharsets.UTF_8))))
+                .isEmpty();
+    }
+
+    @Test
+    public void testToModule() {
+        assertThat(DependentsIndex.toModule("org.cthing:a:1.0.0")).isEqualTo("org.cthing:a");
+        assertThat(DependentsIndex.toModule("org.cthing:a:1.0.0:linux@zip")).isEqualTo("org.cthing:a");
+        assertThat(DependentsIndex.toModule("org.cthing:a@zip")).isEqualTo("org.cthing:a");
+        assertThat(DependentsIndex.toModule("org.cthing:a")).isEqualTo("org.cthing:a");
+        assertThat(DependentsIndex.toModule("org.cthing")).isNull();
+        assertThat(DependentsIndex.toModule(":a:1.0.0")).isNull();
+        assertThat(DependentsIndex.toModule("org.cthing::1.0.0")).isNull();
+    }
+
+    @Test
+    public void testDependents() throws IOException {
+        writePom("org.cthing", "base", "1.0.0", "", "");
+        writePom("org.cthing", "base", "2.0.0", "", "");
+        writePom("org.cthing", "lib", "1.0.0", "org.cthing:base:1.0.0", "");
+        writePom("org.cthing", "app", "3.0.0", "org.cthing:lib:1.0.0 org.cthing:base:2.0.0@zip", "");
+        writePom("org.cthing", "gradle-plugin", "1.0.0", "org.cthing:lib:1.0.0", "org.cthing.plugin");
+        writePom("com.cthing", "tool", "1.0.0",
+                 "org.cthing.plugin:org.cthing.plugin.gradle.plugin:1.0.0", "");
+
+        final DependentsIndex index = DependentsIndex.update(this.repository, null, this.executor);
+        assertThat(index.size()).isEqualTo(6);
+        assertThat(index.getParsedCount()).isEqualTo(6);
+
+        assertThat(index.findDirectDependents("org.cthing:base")).containsExactly("org.cthing:app:3.0.0",
+                                                                                  "org.cthing:lib:1.0.0");
+        assertThat(index.findDirectDependents("org.cthing:lib")).containsExactly("org.cthing:app:3.0.0",
+                                                                                 "org.cthing:gradle-plugin:1.0.0");
+        assertThat(index.findDirectDependents("org.cthing:gradle-plugin")).containsExactly("com.cthing:tool:1.0.0");
+        assertThat(index.findDirectDependents("org.cthing:app")).isEmpty();
+        assertThat(index.findTransitiveDependents("org.cthing:base"))
+                .containsExactly("com.cthing:tool", "org.cthing:app", "org.cthing:gradle-plugin", "org.cthing:lib");
+
+        final DependentsIndex.Entry entry = index.getEntry("org/cthing/app/3.0.0/app-3.0.0.pom");
+        assertThat(entry).isNotNull();
+        assertThat(entry.getModule()).isEqualTo("org.cthing:app");
+        assertThat(entry.getVersion()).isEqualTo("3.0.0");
+        assertThat(entry.getDependencies()).containsExactly("org.cthing:lib:1.0.0", "org.cthing:base:2.0.0@zip");
+    }
+
+    @Test
+    public void testDependencyCycle() throws IOException {
+        writePom("org.cthing", "a", "1.0.0", "org.cthing:b:1.0.0", "");
+        writePom("org.cthing", "b", "1.0.0", "org.cthing:a:1.0.0", "");
+
+        final DependentsIndex index = DependentsIndex.update(this.repository, null, this.executor);
+        assertThat(index.findTransitiveDependents("org.cthing:a")).containsExactly("org.cthing:b");
+    }
+
+    @Test
+    public void testIncrementalUpdate() throws IOException {
+        writePom("org.cthing", "base", "1.0.0", "", "");
+        final Path lib = writePom("org.cthing", "lib", "1.0.0", "org.cthing:base:1.0.0", "");
+        final Path app = writePom("org.cthing", "app", "1.0.0", "org.cthing:lib:1.0.0", "");
+        final Path indexFile = this.tempDir.resolve("build/dependents.idx");
+
+        DependentsIndex.update(this.repository, null, this.executor).write(indexFile);
+        final DependentsIndex previous = DependentsIndex.read(indexFile);
+        assertThat(previous).isNotNull();
+        assertThat(previous.size()).isEqualTo(3);
+        assertThat(previous.findDirectDependents("org.cthing:base")).containsExactly("org.cthing:lib:1.0.0");
+
+        DependentsIndex index = DependentsIndex.update(this.repository, previous, this.executor);
+        assertThat(index.getParsedCount()).isZero();
+        assertThat(index.size()).isEqualTo(3);
+
+        writePom("org.cthing", "lib", "1.0.0", "", "");
+        Files.setLastModifiedTime(lib, FileTime.fromMillis(Files.getLastModifiedTime(lib).toMillis() + 2000));
+        Files.delete(app);
+        writePom("org.cthing", "tool", "1.0.0", "org.cthing:base:1.0.0", "");
+
+        index = DependentsIndex.update(this.repository, index, this.executor);
+        assertThat(index.getParsedCount()).isEqualTo(2);
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.findDirectDependents("org.cthing:base")).containsExactly("org.cthing:tool:1.0.0");
+        assertThat(index.findDirectDependents("org.cthing:lib")).isEmpty();
+    }
+
+    @Test
+    public void testIgnoredFiles() throws IOException {
+        writePom("org.cthing", "base", "1.0.0", "", "");
+        write("org/cthing/base/1.0.0/other-1.0.0.pom", "<project/>");
+        write("base.pom", "<project/>");
+        write("org/cthing/broken/1.0.0/broken-1.0.0.pom", "<project><properties>");
+
+        final DependentsIndex index = DependentsIndex.update(this.repository, null, this.executor);
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.getEntry("org/cthing/broken/1.0.0/broken-1.0.0.pom")).isNotNull();
+    }
+
+    @Test
+    public void testMissingRepository() throws IOException {
+        assertThat(DependentsIndex.update(this.repository, null, this.executor).size()).isZero();
+        assertThat(DependentsIndex.read(this.tempDir.resolve("missing.idx"))).isNull();
+
+        final Path invalid = this.tempDir.resolve("invalid.idx");
+        Files.write(invalid, new byte[] { 0, 0, 0, 0, 0, 0, 0, 0 });
+        assertThat(DependentsIndex.read(invalid)).isNull();
+    }
+
+    private Path writePom(final String group, final String artifact, final String version, final String dependencies,
+                          final String plugins) throws IOException {
+        return write(group.replace('.', '/') + '/' + artifact + '/' + version + '/' + artifact + '-' + version + ".pom",
+                     """
+                     <?xml version="1.0" encoding="UTF-8"?>
+                     <project xmlns="http://maven.apache.org/POM/4.0.0">
+                       <modelVersion>4.0.0</modelVersion>
+                       <groupId>%s</groupId>
+                       <artifactId>%s</artifactId>
+                       <version>%s</version>
+                       <properties>
+                         <cthing.dependencies>%s</cthing.dependencies>
+                         <cthing.gradle.plugins>%s</cthing.gradle.plugins>
+                       </properties>
+                     </project>
+                     """.formatted(group, artifact, version, dependencies, plugins));
+    }
+
+    private Path write(final String path, final String content) throws IOException {
+        final Path file = this.repository.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
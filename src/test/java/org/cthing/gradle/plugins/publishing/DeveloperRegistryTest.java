@@ -0,0 +1,126 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+public class DeveloperRegistryTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void testParse() {
+        final DeveloperRegistry registry = DeveloperRegistry.parse(List.of(
+                "# C Thing Software developers",
+                "",
+                "[organization]",
+                "name = \"Acme \\\"Widgets\\\"\"   # Trailing comment",
+                "url = 'https://acme.example.com/#home'",
+                "",
+                "[ developers . baron ]",
+                "name = \"Baron Roberts\"",
+                "email = \"baron@cthing.com\"",
+                "default = true",
+                "",
+                "[developers.\"jane.doe\"]",
+                "\"name\" = \"Jane D\\u00f6e\"",
+                "email = \"jane@cthing.com\"",
+                "default = false"), "test.toml");
+
+        assertThat(registry.getOrganizationName()).isEqualTo("Acme \"Widgets\"");
+        assertThat(registry.getOrganizationUrl()).isEqualTo("https://acme.example.com/#home");
+        assertThat(registry.getDevelopers()).containsOnlyKeys("baron", "jane.doe");
+        assertThat(registry.getDeveloper("jane.doe")).isEqualTo(new PomDeveloper("jane.doe", "Jane Döe",
+                                                                                 "jane@cthing.com"));
+        assertThat(registry.getDefaultDevelopers()).containsExactly(registry.getDeveloper("baron"));
+    }
+
+    @Test
+    public void testDefaultOrganization() {
+        final DeveloperRegistry registry = DeveloperRegistry.parse(List.of(
+                "[developers.a]",
+                "name = \"A\"",
+                "email = \"a@cthing.com\""), "test.toml");
+
+        assertThat(registry.getOrganizationName()).isEqualTo(DeveloperRegistry.DEFAULT.getOrganizationName());
+        assertThat(registry.getOrganizationUrl()).isEqualTo(DeveloperRegistry.DEFAULT.getOrganizationUrl());
+        assertThat(registry.getDefaultDevelopers()).isEmpty();
+    }
+
+    @Test
+    public void testErrors() {
+        assertError(List.of("[developers.a]", "name = \"A\""),
+                    "test.toml: Key 'email' is required in table [developers.a]");
+        assertError(List.of("[developers.a]", "name = \"A\"", "email = \"a\"", "url = \"b\""),
+                    "test.toml: Unknown key 'url' in table [developers.a]");
+        assertError(List.of("[developers.a]", "name = \"A\"", "email = \"a\"", "default = \"yes\""),
+                    "test.toml: Key 'default' in table [developers.a] must be a boolean");
+        assertError(List.of("[organization]", "name = true"),
+                    "test.toml: Key 'name' in table [organization] must be a string");
+        assertError(List.of("[people]"), "test.toml: Unknown table [people]");
+        assertError(List.of("name = \"A\""), "test.toml: Unknown key 'name'");
+        assertError(List.of("[organization]", "name = \"A\"", "name = \"B\""),
+                    "test.toml:3: Key 'name' is defined more than once");
+        assertError(List.of("[organization]", "[organization]"),
+                    "test.toml:2: Table [organization] is defined more than once");
+        assertError(List.of("[organization", "name = \"A\""), "test.toml:1: Expected ']'");
+        assertError(List.of("[organization]", "name = \"A"), "test.toml:2: Unterminated string");
+        assertError(List.of("[organization]", "name = A"), "test.toml:2: Expected a string or boolean value");
+        assertError(List.of("[organization]", "name = \"A\" B"), "test.toml:2: Unexpected text 'B'");
+        assertError(List.of("[organization]", "name = \"\\q\""), "test.toml:2: Invalid escape sequence '\\q'");
+    }
+
+    @Test
+    public void testGetDeveloperUnknown() {
+        assertThatThrownBy(() -> DeveloperRegistry.DEFAULT.getDeveloper("jane"))
+                .isInstanceOf(GradleException.class)
+                .hasMessage("Developer 'jane' is not in the developer registry gradle/cthing-developers.toml. "
+                                    + "Known developers: baron");
+    }
+
+    @Test
+    public void testReadMissing() {
+        assertThat(DeveloperRegistryService.read(this.tempDir.resolve("missing.toml")))
+                .isSameAs(DeveloperRegistry.DEFAULT);
+    }
+
+    @Test
+    public void testSharedAcrossProjects() throws IOException {
+        final Path registryFile = this.tempDir.resolve(DeveloperRegistry.FILE);
+        Files.createDirectories(registryFile.getParent());
+        Files.write(registryFile, List.of("[developers.a]", "name = \"A\"", "email = \"a@cthing.com\"",
+                                          "default = true"), StandardCharsets.UTF_8);
+
+        final Project root = ProjectBuilder.builder().withProjectDir(this.tempDir.toFile()).build();
+        final Project child = ProjectBuilder.builder().withName("child").withParent(root).build();
+
+        final DeveloperRegistry rootRegistry = DeveloperRegistryService.getRegistry(root).get();
+        final DeveloperRegistry childRegistry = DeveloperRegistryService.getRegistry(child).get();
+        assertThat(childRegistry).isSameAs(rootRegistry);
+        assertThat(rootRegistry.getDeveloper("a")).isEqualTo(new PomDeveloper("a", "A", "a@cthing.com"));
+    }
+
+    private static void assertError(final List<String> lines, final String message) {
+        assertThatThrownBy(() -> DeveloperRegistry.parse(lines, "test.toml"))
+                .isInstanceOf(GradleException.class)
+                .hasMessage(message);
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+
+public class FanOutRepositoryTargetTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        this.executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testUploadToAllTargets() throws IOException {
+        final Path file = this.tempDir.resolve("foo-1.0.0.jar");
+        Files.writeString(file, "artifact", StandardCharsets.UTF_8);
+        final StagedFile staged = StagedFile.stage(file);
+
+        final MemoryTarget primary = new MemoryTarget("primary", null);
+        final MemoryTarget mirror = new MemoryTarget("mirror", null);
+        final FanOutRepositoryTarget target = new FanOutRepositoryTarget(List.of(primary, mirror), this.executor);
+        assertThat(target.getLocation()).isEqualTo("primary, mirror");
+        assertThat(target.getTargets()).containsExactly(primary, mirror);
+
+        target.upload("org/cthing/foo/1.0.0/foo-1.0.0.jar", staged);
+        target.uploadWithoutChecksums("org/cthing/foo/1.0.0/foo-1.0.0.jar.asc", file);
+
+        assertThat(primary.files).containsOnlyKeys("org/cthing/foo/1.0.0/foo-1.0.0.jar",
+                                                   "org/cthing/foo/1.0.0/foo-1.0.0.jar.asc");
+        assertThat(mirror.files).hasSameSizeAs(primary.files);
+        primary.files.forEach((path, content) -> assertThat(mirror.files.get(path)).isEqualTo(content));
+        assertThat(new String(mirror.files.get("org/cthing/foo/1.0.0/foo-1.0.0.jar"), StandardCharsets.UTF_8))
+                .isEqualTo("artifact");
+    }
+
+    @Test
+    public void testUploadLargeFile() throws IOException {
+        // The file is larger than the content held in memory, so the uploads must proceed together
+        final byte[] content = new byte[3 * 1024 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte)i;
+        }
+        final Path file = Files.write(this.tempDir.resolve("foo-1.0.0.jar"), content);
+
+        final MemoryTarget primary = new MemoryTarget("primary", null);
+        final MemoryTarget mirror = new MemoryTarget("mirror", null);
+        final FanOutRepositoryTarget target = new FanOutRepositoryTarget(List.of(primary, mirror), this.executor);
+        target.upload("foo-1.0.0.jar", StagedFile.stage(file));
+
+        assertThat(primary.files.get("foo-1.0.0.jar")).isEqualTo(content);
+        assertThat(mirror.files.get("foo-1.0.0.jar")).isEqualTo(content);
+    }
+
+    @Test
+    public void testUploadToHttpRepositories() throws IOException {
+        final byte[] content = new byte[3 * 1024 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte)(i * 7);
+        }
+        final StagedFile file = StagedFile.stage(Files.write(this.tempDir.resolve("foo-1.0.0.jar"), content));
+
+        final Project project = ProjectBuilder.builder().withProjectDir(this.tempDir.toFile()).build();
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        final CThingRepoService service =
+                project.getExtensions().getByType(CThingRepoExtension.class).getRepoService().get();
+        try (MavenRepositoryServer primary = new MavenRepositoryServer();
+             MavenRepositoryServer mirror = new MavenRepositoryServer()) {
+            final FanOutRepositoryTarget target =
+                    new FanOutRepositoryTarget(List.of(service.createTarget(primary.getUrl()),
+                                                       service.createTarget(mirror.getUrl())), this.executor);
+
+            // The retried upload to the mirror reads the file if the primary upload has progressed too far
+            mirror.failNext(1, 503);
+            target.upload("foo-1.0.0.jar", file);
+
+            assertThat(primary.getFile("foo-1.0.0.jar")).isEqualTo(content);
+            assertThat(mirror.getFile("foo-1.0.0.jar")).isEqualTo(content);
+            assertThat(mirror.getFaultCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testUploadsAreConcurrent() throws IOException {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final MemoryTarget primary = new MemoryTarget("primary", latch);
+        final MemoryTarget mirror = new MemoryTarget("mirror", latch);
+        final FanOutRepositoryTarget target = new FanOutRepositoryTarget(List.of(primary, mirror), this.executor);
+
+        // Each upload waits for the other to start, so sequential uploads would fail.
+        target.upload("a.txt", "a".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(primary.files).containsKey("a.txt");
+        assertThat(mirror.files).containsKey("a.txt");
+    }
+
+    @Test
+    public void testPartialFailure() {
+        final MemoryTarget primary = new MemoryTarget("primary", null);
+        final MemoryTarget mirror = new MemoryTarget("mirror", null);
+        mirror.failure = true;
+        final FanOutRepositoryTarget target = new FanOutRepositoryTarget(List.of(primary, mirror), this.executor);
+
+        assertThatIOException().isThrownBy(() -> target.upload("a.txt", "a".getBytes(StandardCharsets.UTF_8)))
+                               .withMessage("Could not publish a.txt to mirror (succeeded on primary)")
+                               .satisfies(ex -> assertThat(ex.getSuppressed()).hasSize(1));
+        assertThat(primary.files).containsKey("a.txt");
+    }
+
+    @Test
+    public void testUpdatePerTarget() throws IOException {
+        final MemoryTarget primary = new MemoryTarget("primary", null);
+        final MemoryTarget mirror = new MemoryTarget("mirror", null);
+        primary.files.put("meta", "1".getBytes(StandardCharsets.UTF_8));
+        final FanOutRepositoryTarget target = new FanOutRepositoryTarget(List.of(primary, mirror), this.executor);
+
+        target.update("meta", existing -> ((existing == null ? "" : new String(existing, StandardCharsets.UTF_8)) + "2")
+                .getBytes(StandardCharsets.UTF_8));
+
+        assertThat(target.download("meta")).asString(StandardCharsets.UTF_8).isEqualTo("12");
+        assertThat(mirror.download("meta")).asString(StandardCharsets.UTF_8).isEqualTo("2");
+    }
+
+    @Test
+    public void testNoTargets() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new FanOutRepositoryTarget(List.of(), this.executor));
+    }
+
+    private static final class MemoryTarget implements RepositoryTarget {
+
+        private final String location;
+        @Nullable
+        private final CountDownLatch latch;
+        private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+        private boolean failure;
+
+        MemoryTarget(final String location, @Nullable final CountDownLatch latch) {
+            this.location = location;
+            this.latch = latch;
+        }
+
+        @Override
+        public String getLocation() {
+            return this.location;
+        }
+
+        @Override
+        public void upload(final String path, final StagedFile file) throws IOException {
+            assertThat(file.getBodyPublisher()).isInstanceOf(SharedFileContent.Body.class);
+            try {
+                upload(path, SharedFileContentTest.read(file.getBodyPublisher()));
+            } catch (final InterruptedException | ExecutionException | TimeoutException ex) {
+                throw new IOException(ex);
+            }
+        }
+
+        @Override
+        public void upload(final String path, final byte[] content) throws IOException {
+            if (this.latch != null) {
+                this.latch.countDown();
+                try {
+                    if (!this.latch.await(5, TimeUnit.SECONDS)) {
+                        throw new IOException("Uploads were not performed concurrently");
+                    }
+                } catch (final InterruptedException ex) {
+                    throw new IOException(ex);
+                }
+            }
+            if (this.failure) {
+                throw new IOException("Upload failed");
+            }
+            this.files.put(path, content);
+        }
+
+        @Override
+        public void uploadWithoutChecksums(final String path, final Path file) throws IOException {
+            upload(path, Files.readAllBytes(file));
+        }
+
+        @Override
+        public byte @Nullable [] download(final String path) {
+            return this.files.get(path);
+        }
+    }
+}
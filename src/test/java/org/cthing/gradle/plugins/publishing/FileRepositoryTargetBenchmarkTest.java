@@ -0,0 +1,142 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+/**
+ * Compares publishing a large publication using the {@link FileRepositoryTarget} with copying each file
+ * through a stream and forcing it and its checksum files to storage one at a time. Run using the
+ * {@code benchmark} task.
+ */
+@Tag("benchmark")
+public class FileRepositoryTargetBenchmarkTest {
+
+    private static final int FILE_COUNT = 10_000;
+    private static final int FILE_SIZE = 16 * 1024;
+    private static final String VERSION_PATH = "org/cthing/large/1.0.0/";
+
+    @TempDir
+    private Path tempDir;
+
+    private ExecutorService executor;
+
+    @FunctionalInterface
+    private interface Publisher {
+        void publish(List<StagedFile> files, Path repository) throws IOException;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        this.executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void benchmarkLargePublication() throws IOException {
+        final List<StagedFile> files = createFiles();
+
+        final long stockNanos = measure(files, "stock", FileRepositoryTargetBenchmarkTest::publishStock);
+        final long copyNanos = measure(files, "copy", (staged, repository) ->
+                publishTarget(staged, new FileRepositoryTarget(repository, false, this.executor)));
+        final long linkNanos = measure(files, "link", (staged, repository) ->
+                publishTarget(staged, new FileRepositoryTarget(repository, true, this.executor)));
+
+        System.out.printf("Publication of %d files of %d KiB%n", FILE_COUNT, FILE_SIZE / 1024);
+        System.out.printf("  Stream copy, fsync per file: %8.1f ms%n", stockNanos / 1e6);
+        System.out.printf("  Target, copied files:        %8.1f ms%n", copyNanos / 1e6);
+        System.out.printf("  Target, linked files:        %8.1f ms%n", linkNanos / 1e6);
+    }
+
+    private List<StagedFile> createFiles() throws IOException {
+        final Path sourceDir = Files.createDirectory(this.tempDir.resolve("build"));
+        final byte[] content = new byte[FILE_SIZE];
+        final List<StagedFile> files = new ArrayList<>();
+        for (int i = 0; i < FILE_COUNT; i++) {
+            content[i % FILE_SIZE] = (byte)i;
+            final Path file = sourceDir.resolve("large-1.0.0-part" + i + ".jar");
+            Files.write(file, content);
+            files.add(StagedFile.stage(file));
+        }
+        return files;
+    }
+
+    private long measure(final List<StagedFile> files, final String name, final Publisher publisher)
+            throws IOException {
+        final Path repository = this.tempDir.resolve(name);
+        final long start = System.nanoTime();
+        publisher.publish(files, repository);
+        final long nanos = System.nanoTime() - start;
+
+        try (Stream<Path> published = Files.list(repository.resolve(VERSION_PATH))) {
+            assertThat(published.count()).isEqualTo(FILE_COUNT * (1L + Checksum.values().length));
+        }
+        assertThat(repository.resolve(MavenRepositoryLayout.metadataPath("org.cthing", "large"))).isRegularFile();
+        return nanos;
+    }
+
+    private static void publishTarget(final List<StagedFile> files, final FileRepositoryTarget target)
+            throws IOException {
+        for (final StagedFile file : files) {
+            target.upload(VERSION_PATH + file.getPath().getFileName(), file);
+        }
+        target.update(MavenRepositoryLayout.metadataPath("org.cthing", "large"),
+                      existing -> MavenMetadata.addVersion(existing, "org.cthing", "large", "1.0.0", Instant.now()));
+    }
+
+    private static void publishStock(final List<StagedFile> files, final Path repository) throws IOException {
+        final Path versionDir = Files.createDirectories(repository.resolve(VERSION_PATH));
+        for (final StagedFile file : files) {
+            final Path destination = versionDir.resolve(file.getPath().getFileName());
+            try (InputStream input = Files.newInputStream(file.getPath());
+                 OutputStream output = Files.newOutputStream(destination)) {
+                input.transferTo(output);
+            }
+            force(destination);
+            for (final Map.Entry<Checksum, String> entry : file.getChecksums().entrySet()) {
+                final Path sidecar = versionDir.resolve(destination.getFileName() + "." + entry.getKey().getExtension());
+                Files.writeString(sidecar, entry.getValue(), StandardCharsets.US_ASCII);
+                force(sidecar);
+            }
+        }
+        final Path metadata = repository.resolve(MavenRepositoryLayout.metadataPath("org.cthing", "large"));
+        Files.write(metadata, MavenMetadata.addVersion(null, "org.cthing", "large", "1.0.0", Instant.now()));
+        force(metadata);
+    }
+
+    private static void force(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+}
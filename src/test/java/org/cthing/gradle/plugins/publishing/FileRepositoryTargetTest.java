@@ -0,0 +1,179 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+
+public class FileRepositoryTargetTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        this.executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testUpload() throws IOException {
+        final Path repository = this.tempDir.resolve("repository");
+        final FileRepositoryTarget target = new FileRepositoryTarget(repository, false, this.executor);
+        assertThat(target.getRoot()).isEqualTo(repository.toAbsolutePath());
+        assertThat(target.getLocation()).isEqualTo(repository.toUri().toString());
+        assertThat(target.isLinkingFiles()).isFalse();
+
+        final Path file = this.tempDir.resolve("foo-1.0.0.jar");
+        Files.writeString(file, "artifact", StandardCharsets.UTF_8);
+        final StagedFile staged = StagedFile.stage(file);
+
+        target.upload("org/cthing/foo/1.0.0/foo-1.0.0.jar", staged);
+
+        final Path published = repository.resolve("org/cthing/foo/1.0.0/foo-1.0.0.jar");
+        assertThat(published).hasContent("artifact");
+        assertThat(Files.isSameFile(file, published)).isFalse();
+        for (final Checksum checksum : Checksum.values()) {
+            assertThat(target.downloadChecksum("org/cthing/foo/1.0.0/foo-1.0.0.jar", checksum))
+                    .isEqualTo(staged.getChecksum(checksum));
+        }
+        assertThat(target.computeChecksums("org/cthing/foo/1.0.0/foo-1.0.0.jar")).isEqualTo(staged.getChecksums());
+        assertThat(target.computeChecksums("org/cthing/foo/1.0.0/foo-2.0.0.jar")).isNull();
+        assertThat(listTemporaryFiles(repository)).isEmpty();
+    }
+
+    @Test
+    public void testUploadContent() throws IOException {
+        final FileRepositoryTarget target = new FileRepositoryTarget(this.tempDir, false, this.executor);
+        final byte[] content = "pom".getBytes(StandardCharsets.UTF_8);
+
+        target.upload("org/cthing/foo/1.0.0/foo-1.0.0.pom", content);
+        assertThat(target.download("org/cthing/foo/1.0.0/foo-1.0.0.pom")).isEqualTo(content);
+        assertThat(target.downloadChecksum("org/cthing/foo/1.0.0/foo-1.0.0.pom", Checksum.SHA1))
+                .isEqualTo(Checksum.digest(content).get(Checksum.SHA1));
+        assertThat(target.download("org/cthing/foo/1.0.0/foo-2.0.0.pom")).isNull();
+
+        target.upload("org/cthing/foo/1.0.0/foo-1.0.0.pom", "replaced".getBytes(StandardCharsets.UTF_8));
+        assertThat(this.tempDir.resolve("org/cthing/foo/1.0.0/foo-1.0.0.pom")).hasContent("replaced");
+    }
+
+    @Test
+    public void testUploadWithoutChecksums() throws IOException {
+        final Path repository = this.tempDir.resolve("repository");
+        final FileRepositoryTarget target = new FileRepositoryTarget(repository, false, this.executor);
+        final Path signature = this.tempDir.resolve("foo-1.0.0.jar.asc");
+        Files.writeString(signature, "signature", StandardCharsets.UTF_8);
+
+        target.uploadWithoutChecksums("org/cthing/foo/1.0.0/foo-1.0.0.jar.asc", signature);
+
+        try (Stream<Path> files = Files.list(repository.resolve("org/cthing/foo/1.0.0"))) {
+            assertThat(files.map(path -> path.getFileName().toString())).containsExactly("foo-1.0.0.jar.asc");
+        }
+    }
+
+    @Test
+    public void testUploadLinked() throws IOException {
+        final Path repository = this.tempDir.resolve("repository");
+        final FileRepositoryTarget target = new FileRepositoryTarget(repository, true, this.executor);
+        final Path file = this.tempDir.resolve("foo-1.0.0.jar");
+        Files.writeString(file, "artifact", StandardCharsets.UTF_8);
+
+        target.upload("org/cthing/foo/1.0.0/foo-1.0.0.jar", StagedFile.stage(file));
+
+        final Path published = repository.resolve("org/cthing/foo/1.0.0/foo-1.0.0.jar");
+        assertThat(published).hasContent("artifact");
+        if (target.isLinkingFiles()) {
+            assertThat(Files.isSameFile(file, published)).isTrue();
+        }
+        assertThat(listTemporaryFiles(repository)).isEmpty();
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        final FileRepositoryTarget target = new FileRepositoryTarget(this.tempDir, false, this.executor);
+        final String metadataPath = MavenRepositoryLayout.metadataPath("org.cthing", "foo");
+        final Instant timestamp = Instant.parse("2025-01-01T00:00:00Z");
+
+        target.upload("org/cthing/foo/1.0.0/foo-1.0.0.pom", "pom".getBytes(StandardCharsets.UTF_8));
+        assertThat(target.getUnsyncedCount()).isGreaterThan(0);
+
+        final ExecutorService updaters = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                final String version = "1.0." + i;
+                futures.add(updaters.submit(() -> {
+                    target.update(metadataPath, existing -> MavenMetadata.addVersion(existing, "org.cthing", "foo",
+                                                                                     version, timestamp));
+                    return null;
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            updaters.shutdownNow();
+        }
+
+        final byte[] metadata = target.download(metadataPath);
+        assertThat(metadata).isNotNull();
+        assertThat(MavenMetadata.readVersions(metadata)).hasSize(20);
+        assertThat(target.downloadChecksum(metadataPath, Checksum.SHA256))
+                .isEqualTo(Checksum.digest(metadata).get(Checksum.SHA256));
+        assertThat(target.getUnsyncedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testSync() throws IOException {
+        final FileRepositoryTarget target = new FileRepositoryTarget(this.tempDir, false, this.executor);
+        target.upload("org/cthing/foo/1.0.0/foo-1.0.0.pom", "pom".getBytes(StandardCharsets.UTF_8));
+        target.upload("org/cthing/foo/1.0.0/foo-1.0.0.module", "module".getBytes(StandardCharsets.UTF_8));
+
+        // 2 files and 4 checksums each, the version directory, and the directories created above it
+        assertThat(target.getUnsyncedCount()).isEqualTo(10 + 1 + 4);
+        target.sync();
+        assertThat(target.getUnsyncedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testResolveOutsideRepository() {
+        final FileRepositoryTarget target =
+                new FileRepositoryTarget(this.tempDir.resolve("repository"), false, this.executor);
+        assertThatIOException().isThrownBy(() -> target.upload("../escape.pom", new byte[0]))
+                               .withMessageContaining("is not within the repository");
+        assertThatIOException().isThrownBy(() -> target.download(""));
+    }
+
+    private static List<Path> listTemporaryFiles(final Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".tmp")).toList();
+        }
+    }
+}
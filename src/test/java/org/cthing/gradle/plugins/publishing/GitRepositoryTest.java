@@ -0,0 +1,164 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.DeflaterOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class GitRepositoryTest {
+
+    private static final String COMMIT1 = "1111111111111111111111111111111111111111";
+    private static final String COMMIT2 = "2222222222222222222222222222222222222222";
+    private static final String TAG_OBJECT = "3333333333333333333333333333333333333333";
+    private static final String TAG_OBJECT2 = "4444444444444444444444444444444444444444";
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void testNotRepository() {
+        assertThat(GitRepository.locate(this.tempDir)).isNull();
+    }
+
+    @Test
+    public void testLooseRefs() throws IOException {
+        write(".git/HEAD", "ref: refs/heads/main\n");
+        write(".git/refs/heads/main", COMMIT1 + "\n");
+
+        final GitRepository repository = GitRepository.locate(this.tempDir);
+        assertThat(repository).isNotNull();
+        assertThat(repository.getGitDir()).isEqualTo(this.tempDir.resolve(".git"));
+        assertThat(repository.getCommonDir()).isEqualTo(this.tempDir.resolve(".git"));
+        assertThat(repository.getConfigFile()).isEqualTo(this.tempDir.resolve(".git/config"));
+
+        final GitMetadata metadata = repository.readMetadata();
+        assertThat(metadata.getBranch()).isEqualTo("main");
+        assertThat(metadata.getCommit()).isEqualTo(COMMIT1);
+        assertThat(metadata.getTag()).isNull();
+        assertThat(metadata.getScmTag()).isEqualTo(COMMIT1);
+    }
+
+    @Test
+    public void testPackedRefs() throws IOException {
+        write(".git/HEAD", "ref: refs/heads/main\n");
+        write(".git/packed-refs", """
+                # pack-refs with: peeled fully-peeled sorted
+                %s refs/heads/feature
+                %s refs/heads/main
+                %s refs/tags/v1.0.0
+                ^%s
+                %s refs/tags/v1.0.0-light
+                %s refs/tags/v0.9.0
+                """.formatted(COMMIT2, COMMIT1, TAG_OBJECT, COMMIT1, COMMIT1, COMMIT2));
+
+        final GitRepository repository = GitRepository.locate(this.tempDir);
+        assertThat(repository).isNotNull();
+        assertThat(repository.resolve("refs/heads/feature")).isEqualTo(COMMIT2);
+        assertThat(repository.resolve("refs/heads/missing")).isNull();
+        assertThat(repository.findTags(COMMIT1)).containsExactly("v1.0.0", "v1.0.0-light");
+        assertThat(repository.findTags(COMMIT2)).containsExactly("v0.9.0");
+
+        final GitMetadata metadata = repository.readMetadata();
+        assertThat(metadata.getBranch()).isEqualTo("main");
+        assertThat(metadata.getCommit()).isEqualTo(COMMIT1);
+        assertThat(metadata.getTag()).isEqualTo("v1.0.0-light");
+        assertThat(metadata.getScmTag()).isEqualTo("v1.0.0-light");
+    }
+
+    @Test
+    public void testLooseRefOverridesPackedRef() throws IOException {
+        write(".git/HEAD", "ref: refs/heads/main\n");
+        write(".git/refs/heads/main", COMMIT2 + "\n");
+        write(".git/refs/tags/v1.0.0", COMMIT2 + "\n");
+        write(".git/packed-refs", """
+                %s refs/heads/main
+                %s refs/tags/v1.0.0
+                ^%s
+                """.formatted(COMMIT1, TAG_OBJECT, COMMIT1));
+
+        final GitRepository repository = GitRepository.locate(this.tempDir);
+        assertThat(repository).isNotNull();
+        assertThat(repository.findTags(COMMIT1)).isEmpty();
+        assertThat(repository.readMetadata()).isEqualTo(new GitMetadata("main", COMMIT2, "v1.0.0"));
+    }
+
+    @Test
+    public void testLooseAnnotatedTag() throws IOException {
+        write(".git/HEAD", COMMIT1 + "\n");
+        write(".git/refs/tags/release/v2.0.0", TAG_OBJECT + "\n");
+        writeObject(TAG_OBJECT, "tag", "object " + TAG_OBJECT2 + "\ntype tag\ntag v2.0.0\n");
+        writeObject(TAG_OBJECT2, "tag", "object " + COMMIT1 + "\ntype commit\ntag inner\n");
+        write(".git/refs/tags/other", COMMIT2 + "\n");
+
+        final GitRepository repository = GitRepository.locate(this.tempDir);
+        assertThat(repository).isNotNull();
+        assertThat(repository.findTags(COMMIT1)).containsExactly("release/v2.0.0");
+
+        final GitMetadata metadata = repository.readMetadata();
+        assertThat(metadata.getBranch()).isNull();
+        assertThat(metadata.getCommit()).isEqualTo(COMMIT1);
+        assertThat(metadata.getTag()).isEqualTo("release/v2.0.0");
+    }
+
+    @Test
+    public void testUnbornBranch() throws IOException {
+        write(".git/HEAD", "ref: refs/heads/main\n");
+
+        final GitRepository repository = GitRepository.locate(this.tempDir);
+        assertThat(repository).isNotNull();
+        assertThat(repository.readMetadata()).isEqualTo(new GitMetadata("main", null, null));
+    }
+
+    @Test
+    public void testWorktree() throws IOException {
+        write("main/.git/HEAD", "ref: refs/heads/main\n");
+        write("main/.git/config", "[core]\n");
+        write("main/.git/packed-refs", COMMIT1 + " refs/heads/main\n" + COMMIT2 + " refs/tags/v3.0.0\n");
+        write("main/.git/refs/heads/feature", COMMIT2 + "\n");
+        write("main/.git/worktrees/feature/HEAD", "ref: refs/heads/feature\n");
+        write("main/.git/worktrees/feature/commondir", "../..\n");
+        write("feature/.git", "gitdir: ../main/.git/worktrees/feature\n");
+
+        final GitRepository repository = GitRepository.locate(this.tempDir.resolve("feature"));
+        assertThat(repository).isNotNull();
+        assertThat(repository.getGitDir()).isEqualTo(this.tempDir.resolve("main/.git/worktrees/feature"));
+        assertThat(repository.getCommonDir()).isEqualTo(this.tempDir.resolve("main/.git"));
+        assertThat(repository.getConfigFile()).isEqualTo(this.tempDir.resolve("main/.git/config"));
+        assertThat(repository.readMetadata()).isEqualTo(new GitMetadata("feature", COMMIT2, "v3.0.0"));
+    }
+
+    @Test
+    public void testInvalidGitFile() throws IOException {
+        write(".git", "not a git file\n");
+        assertThat(GitRepository.locate(this.tempDir)).isNull();
+    }
+
+    private void write(final String path, final String content) throws IOException {
+        final Path file = this.tempDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    private void writeObject(final String id, final String type, final String content) throws IOException {
+        final Path file = this.tempDir.resolve(".git/objects").resolve(id.substring(0, 2)).resolve(id.substring(2));
+        Files.createDirectories(file.getParent());
+        final byte[] body = content.getBytes(StandardCharsets.UTF_8);
+        try (OutputStream output = new DeflaterOutputStream(Files.newOutputStream(file))) {
+            output.write((type + " " + body.length + "\0").getBytes(StandardCharsets.UTF_8));
+            output.write(body);
+        }
+    }
+}
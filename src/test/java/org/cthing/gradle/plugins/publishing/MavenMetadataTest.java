@@ -0,0 +1,75 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+
+public class MavenMetadataTest {
+
+    private static final Instant TIMESTAMP = Instant.parse("2025-10-01T12:34:56Z");
+
+    @Test
+    public void testNewMetadata() throws IOException {
+        final byte[] metadata = MavenMetadata.addVersion(null, "org.cthing", "foo", "1.0.0", TIMESTAMP);
+        assertThat(new String(metadata, StandardCharsets.UTF_8)).isEqualTo("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <metadata>
+                  <groupId>org.cthing</groupId>
+                  <artifactId>foo</artifactId>
+                  <versioning>
+                    <latest>1.0.0</latest>
+                    <release>1.0.0</release>
+                    <versions>
+                      <version>1.0.0</version>
+                    </versions>
+                    <lastUpdated>20251001123456</lastUpdated>
+                  </versioning>
+                </metadata>
+                """);
+    }
+
+    @Test
+    public void testExistingMetadata() throws IOException {
+        final byte[] existing = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <metadata>
+                  <groupId>org.cthing</groupId>
+                  <artifactId>foo</artifactId>
+                  <versioning>
+                    <latest>1.1.0</latest>
+                    <release>1.1.0</release>
+                    <versions>
+                      <version>1.0.0</version>
+                      <version> 1.1.0 </version>
+                    </versions>
+                    <lastUpdated>20240101000000</lastUpdated>
+                  </versioning>
+                </metadata>
+                """.getBytes(StandardCharsets.UTF_8);
+        assertThat(MavenMetadata.readVersions(existing)).containsExactly("1.0.0", "1.1.0");
+
+        final byte[] updated = MavenMetadata.addVersion(existing, "org.cthing", "foo", "2.0.0", TIMESTAMP);
+        assertThat(MavenMetadata.readVersions(updated)).containsExactly("1.0.0", "1.1.0", "2.0.0");
+        assertThat(new String(updated, StandardCharsets.UTF_8)).contains("<latest>2.0.0</latest>",
+                                                                         "<release>2.0.0</release>");
+
+        final byte[] republished = MavenMetadata.addVersion(updated, "org.cthing", "foo", "1.1.0", TIMESTAMP);
+        assertThat(MavenMetadata.readVersions(republished)).containsExactly("1.0.0", "1.1.0", "2.0.0");
+    }
+
+    @Test
+    public void testBadMetadata() {
+        assertThatIOException().isThrownBy(() -> MavenMetadata.readVersions("<metadata>".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class MavenRepositoryLayoutTest {
+
+    @Test
+    public void testArtifactPath() {
+        assertThat(MavenRepositoryLayout.artifactPath("org.cthing", "foo", "1.2.3", null, "jar"))
+                .isEqualTo("org/cthing/foo/1.2.3/foo-1.2.3.jar");
+        assertThat(MavenRepositoryLayout.artifactPath("org.cthing", "foo", "1.2.3", "", "pom"))
+                .isEqualTo("org/cthing/foo/1.2.3/foo-1.2.3.pom");
+        assertThat(MavenRepositoryLayout.artifactPath("com.cthing.tools", "bar", "2.0.0", "sources", "jar"))
+                .isEqualTo("com/cthing/tools/bar/2.0.0/bar-2.0.0-sources.jar");
+        assertThat(MavenRepositoryLayout.artifactPath("org.cthing", "foo", "1.2.3", "linux", ""))
+                .isEqualTo("org/cthing/foo/1.2.3/foo-1.2.3-linux");
+    }
+
+    @Test
+    public void testDirectories() {
+        assertThat(MavenRepositoryLayout.artifactDirectory("org.cthing", "foo")).isEqualTo("org/cthing/foo/");
+        assertThat(MavenRepositoryLayout.versionDirectory("org.cthing", "foo", "1.0")).isEqualTo("org/cthing/foo/1.0/");
+        assertThat(MavenRepositoryLayout.metadataPath("org.cthing", "foo")).isEqualTo("org/cthing/foo/maven-metadata.xml");
+    }
+
+    @Test
+    public void testIsMavenSnapshot() {
+        assertThat(MavenRepositoryLayout.isMavenSnapshot("1.0.0-SNAPSHOT")).isTrue();
+        assertThat(MavenRepositoryLayout.isMavenSnapshot("1.0.0-1706834525436")).isFalse();
+        assertThat(MavenRepositoryLayout.isMavenSnapshot("1.0.0")).isFalse();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+public class MavenRepositoryServerTest {
+
+    private static final String PATH = "org/cthing/hello/1.0.0/hello-1.0.0.jar";
+
+    @TempDir
+    private Path tempDir;
+
+    private MavenRepositoryServer server;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.server = new MavenRepositoryServer().setCredentials("user", "password");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.server.close();
+    }
+
+    @Test
+    public void testPublishAndRead() throws Exception {
+        final CThingRepoService service = createService("password");
+        final RepositoryTarget target = service.createTarget(this.server.getUrl());
+        final StagedFile file = stage("hello");
+
+        target.upload(PATH, file);
+
+        assertThat(this.server.getPaths()).containsExactly(PATH, PATH + ".md5", PATH + ".sha1", PATH + ".sha256",
+                                                           PATH + ".sha512");
+        assertThat(target.download(PATH)).isEqualTo("hello".getBytes(StandardCharsets.UTF_8));
+        assertThat(target.download(PATH + ".sha1")).asString(StandardCharsets.US_ASCII)
+                                                   .isEqualTo(file.getChecksum(Checksum.SHA1));
+        assertThat(target.computeChecksums(PATH)).isEqualTo(file.getChecksums());
+        assertThat(target.download("org/cthing/missing/maven-metadata.xml")).isNull();
+
+        assertThat(target.getStoredFile(PATH)).isEqualTo(
+                new RepositoryTarget.StoredFile(5, Map.of(Checksum.SHA1, file.getChecksum(Checksum.SHA1))));
+
+        assertThat(this.server.getRequestCount("PUT")).isEqualTo(5);
+        assertThat(this.server.getRequestCount("GET")).isEqualTo(4);
+        assertThat(this.server.getRequestCount("HEAD")).isEqualTo(1);
+        assertThat(this.server.getBytesReceived()).isGreaterThan(5);
+        assertThat(this.server.getFaultCount()).isZero();
+    }
+
+    @Test
+    public void testUnauthorized() throws Exception {
+        final RepositoryTarget target = createService("wrong").createTarget(this.server.getUrl());
+
+        assertThatThrownBy(() -> target.upload(PATH, stage("hello")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("HTTP status 401");
+        assertThat(this.server.getPaths()).isEmpty();
+    }
+
+    @Test
+    public void testFaultsRetried() throws Exception {
+        final RepositoryTarget target = createService("password").createTarget(this.server.getUrl());
+
+        this.server.failNext(2, 503);
+        target.upload(PATH, stage("hello"));
+        assertThat(this.server.getFaultCount()).isEqualTo(2);
+        assertThat(this.server.getRequestCount("PUT")).isEqualTo(7);
+
+        this.server.resetStatistics();
+        this.server.failNext(1, MavenRepositoryServer.DROP_CONNECTION);
+        assertThat(target.download(PATH)).isEqualTo("hello".getBytes(StandardCharsets.UTF_8));
+        assertThat(this.server.getFaultCount()).isEqualTo(1);
+        assertThat(this.server.getRequestCount("GET")).isEqualTo(2);
+    }
+
+    @Test
+    public void testFaultNotRetried() throws Exception {
+        final RepositoryTarget target = createService("password").createTarget(this.server.getUrl());
+
+        this.server.failNext(1, 500);
+        assertThatThrownBy(() -> target.upload(PATH, stage("hello")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("HTTP status 500");
+    }
+
+    @Test
+    public void testShaping() throws Exception {
+        final RepositoryTarget target = createService("password").createTarget(this.server.getUrl());
+        this.server.putFile(PATH, new byte[256 * 1024]);
+
+        this.server.setBandwidth(1024 * 1024);
+        long start = System.nanoTime();
+        target.download(PATH);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+        assertThat(this.server.getBytesSent()).isEqualTo(256 * 1024);
+
+        this.server.setBandwidth(0).setLatency(Duration.ofMillis(100));
+        start = System.nanoTime();
+        target.download("org/cthing/missing/maven-metadata.xml");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+    }
+
+    private CThingRepoService createService(final String password) {
+        final Project project = ProjectBuilder.builder().withProjectDir(this.tempDir.toFile()).build();
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        project.getExtensions().getExtraProperties().set(CThingRepoExtension.USER_PROPERTY, "user");
+        project.getExtensions().getExtraProperties().set(CThingRepoExtension.PASSWORD_PROPERTY, password);
+        return project.getExtensions().getByType(CThingRepoExtension.class).getRepoService().get();
+    }
+
+    private StagedFile stage(final String content) throws IOException {
+        return StagedFile.stage(Files.writeString(this.tempDir.resolve("hello-1.0.0.jar"), content));
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.cthing.projectversion.BuildType;
+import org.cthing.projectversion.ProjectVersion;
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.cthing.gradle.plugins.publishing.MavenRepositoryServer.respond;
+
+
+public class NexusStagingServiceTest {
+
+    private static final String STAGING_PATH = "/service/local/staging/";
+    private static final String REPOSITORY_ID = "cthing-1001";
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @TempDir
+    private Path tempDir;
+
+    private MavenRepositoryServer server;
+    private ExecutorService executor;
+    private String nexusUrl;
+    private final AtomicInteger startRequests = new AtomicInteger();
+    private final List<String> operations = new CopyOnWriteArrayList<>();
+    private final Set<String> uploads = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger transitioningResponses = new AtomicInteger();
+    private volatile String stateType = "open";
+    private volatile boolean failValidation;
+    private volatile Map<String, Object> startRequest;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.executor = Executors.newCachedThreadPool();
+        this.server = new MavenRepositoryServer().addRoute("nexus" + STAGING_PATH, this::handle);
+        this.nexusUrl = this.server.getUrl() + "nexus";
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.server.close();
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testRelease() throws IOException {
+        final Project project = createProject(new ProjectVersion("1.2.3", BuildType.release));
+        final CThingRepoExtension repoExtension = project.getExtensions().getByType(CThingRepoExtension.class);
+        final NexusStagingService staging = repoExtension.getStagingService().get();
+        final CThingRepoService service = repoExtension.getRepoService().get();
+        final StagedFile file = StagedFile.stage(Files.writeString(this.tempDir.resolve("hello.jar"), "hello"));
+
+        final List<CompletableFuture<Void>> uploadFutures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            final String path = "org/cthing/module" + i + "/1.2.3/module" + i + "-1.2.3.jar";
+            uploadFutures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    service.createTarget(staging.getRepositoryUrl()).upload(path, file);
+                } catch (final IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }, this.executor));
+        }
+        CompletableFuture.allOf(uploadFutures.toArray(CompletableFuture<?>[]::new)).join();
+
+        assertThat(this.startRequests.get()).isEqualTo(1);
+        assertThat(this.startRequest).containsEntry("data", Map.of("description", "hello 1.2.3"));
+        assertThat(staging.getRepositoryId()).isEqualTo(REPOSITORY_ID);
+        assertThat(staging.getRepositoryUrl())
+                .isEqualTo(this.nexusUrl + STAGING_PATH + "deployByRepositoryId/" + REPOSITORY_ID + "/");
+        assertThat(this.uploads).hasSize(16 * (1 + Checksum.values().length));
+
+        this.transitioningResponses.set(2);
+        staging.release(POLL_INTERVAL, TIMEOUT);
+        staging.release(POLL_INTERVAL, TIMEOUT);
+        staging.close();
+
+        assertThat(this.operations).containsExactly("close", "promote");
+        assertThat(this.stateType).isEqualTo("released");
+        assertThatThrownBy(staging::getRepositoryUrl).isInstanceOf(GradleException.class)
+                                                     .hasMessage("Staging repository " + REPOSITORY_ID
+                                                                         + " has already been closed");
+    }
+
+    @Test
+    public void testValidationFailure() {
+        final NexusStagingService staging = createStaging();
+        staging.getRepositoryUrl();
+        this.failValidation = true;
+
+        assertThatThrownBy(() -> staging.release(POLL_INTERVAL, TIMEOUT))
+                .isInstanceOf(GradleException.class)
+                .hasMessage("Staging repository " + REPOSITORY_ID + " failed validation and has been dropped:\n"
+                                    + "  Missing Signature: '/org/cthing/hello/1.2.3/hello-1.2.3.jar.asc' does not exist");
+        staging.close();
+
+        assertThat(this.operations).containsExactly("close", "drop");
+    }
+
+    @Test
+    public void testUnreleasedDropped() {
+        final NexusStagingService staging = createStaging();
+        staging.getRepositoryUrl();
+
+        staging.close();
+
+        assertThat(this.operations).containsExactly("drop");
+    }
+
+    @Test
+    public void testNothingStaged() {
+        final NexusStagingService staging = createStaging();
+
+        staging.release(POLL_INTERVAL, TIMEOUT);
+        staging.close();
+
+        assertThat(this.startRequests.get()).isZero();
+        assertThat(this.operations).isEmpty();
+    }
+
+    @Test
+    public void testMissingProfile() {
+        final Project project = ProjectBuilder.builder().withProjectDir(this.tempDir.toFile()).build();
+        project.setVersion(new ProjectVersion("1.2.3", BuildType.release));
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        project.getExtensions().getExtraProperties().set(CThingRepoExtension.STAGING_URL_PROPERTY, this.nexusUrl);
+        final CThingRepoExtension repoExtension = project.getExtensions().getByType(CThingRepoExtension.class);
+        repoExtension.enableStagedPublishing();
+
+        assertThatThrownBy(() -> repoExtension.getStagingService().get().getRepositoryUrl())
+                .isInstanceOf(GradleException.class)
+                .hasMessageContaining(CThingRepoExtension.STAGING_PROFILE_ID_PROPERTY);
+    }
+
+    @Test
+    public void testSnapshotNotStaged() {
+        final Project project = createProject(new ProjectVersion("1.2.3", BuildType.snapshot));
+        final CThingRepoExtension repoExtension = project.getExtensions().getByType(CThingRepoExtension.class);
+
+        assertThat(repoExtension.getStagingService()).isNull();
+    }
+
+    @Test
+    public void testTaskRegistration() {
+        final Project root = ProjectBuilder.builder().withName("root").build();
+        final Project child = ProjectBuilder.builder().withName("child").withParent(root).build();
+        final Project other = ProjectBuilder.builder().withName("other").withParent(root).build();
+        for (final Project project : List.of(root, child, other)) {
+            project.getPluginManager().apply("org.cthing.cthing-publishing");
+            project.getExtensions().getByType(CThingRepoExtension.class).enableStagedPublishing();
+        }
+        child.getPluginManager().apply("maven-publish");
+
+        assertThat(child.getTasks().findByName(StagedPublishing.TASK_NAME)).isNull();
+        final ReleaseStagingRepository task =
+                (ReleaseStagingRepository)root.getTasks().getByName(StagedPublishing.TASK_NAME);
+        assertThat(task.getStaging().get().getParticipants()).containsExactly(":child");
+        assertThat(task.getPollInterval().get()).isEqualTo(StagedPublishing.DEFAULT_POLL_INTERVAL);
+        assertThat(task.getReleaseTimeout().get()).isEqualTo(StagedPublishing.DEFAULT_TIMEOUT);
+        assertThat(child.getTasks().findByName(PipelinedPublishing.LIFECYCLE_TASK_NAME)).isNotNull();
+    }
+
+    @Test
+    public void testPublishTaskPath() {
+        assertThat(StagedPublishing.publishTaskPath(":")).isEqualTo(":publishPipelined");
+        assertThat(StagedPublishing.publishTaskPath(":lib:core")).isEqualTo(":lib:core:publishPipelined");
+    }
+
+    private NexusStagingService createStaging() {
+        return createProject(new ProjectVersion("1.2.3", BuildType.release))
+                .getExtensions().getByType(CThingRepoExtension.class).getStagingService().get();
+    }
+
+    private Project createProject(final ProjectVersion version) {
+        final Project project = ProjectBuilder.builder().withName("hello").withProjectDir(this.tempDir.toFile())
+                                              .build();
+        project.setVersion(version);
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        project.getExtensions().getExtraProperties().set(CThingRepoExtension.STAGING_URL_PROPERTY, this.nexusUrl);
+        project.getExtensions().getExtraProperties().set(CThingRepoExtension.STAGING_PROFILE_ID_PROPERTY, "12345");
+        project.getExtensions().getExtraProperties().set(CThingRepoExtension.USER_PROPERTY, "user");
+        project.getExtensions().getExtraProperties().set(CThingRepoExtension.PASSWORD_PROPERTY, "password");
+        project.getExtensions().getByType(CThingRepoExtension.class).enableStagedPublishing();
+        return project;
+    }
+
+    private void handle(final HttpExchange exchange, final String path) throws IOException {
+        final String body;
+        try (InputStream input = exchange.getRequestBody()) {
+            body = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        if (exchange.getRequestHeaders().getFirst("Authorization") == null) {
+            respond(exchange, 401, "");
+            return;
+        }
+
+        if ("profiles/12345/start".equals(path)) {
+            this.startRequests.incrementAndGet();
+            this.startRequest = JsonReader.parseObject(body);
+            respond(exchange, 201, "{\"data\":{\"stagedRepositoryId\":\"" + REPOSITORY_ID + "\"}}");
+        } else if (path.startsWith("deployByRepositoryId/" + REPOSITORY_ID + "/")) {
+            this.uploads.add(path);
+            respond(exchange, 201, "");
+        } else if (path.startsWith("bulk/")) {
+            final String operation = path.substring("bulk/".length());
+            this.operations.add(operation);
+            switch (operation) {
+                case "close" -> this.stateType = this.failValidation ? "open" : "closed";
+                case "promote" -> this.stateType = "released";
+                default -> this.stateType = "dropped";
+            }
+            respond(exchange, 201, "");
+        } else if (("repository/" + REPOSITORY_ID).equals(path)) {
+            final boolean transitioning = this.transitioningResponses.getAndUpdate(count -> Math.max(0, count - 1)) > 0;
+            respond(exchange, 200, "{\"repositoryId\":\"" + REPOSITORY_ID + "\",\"type\":\"" + this.stateType
+                    + "\",\"transitioning\":" + transitioning + "}");
+        } else if (("repository/" + REPOSITORY_ID + "/activity").equals(path)) {
+            respond(exchange, 200, """
+                    [{"name":"close","events":[
+                      {"name":"ruleEvaluate","properties":[{"name":"typeId","value":"signature-staging"}]},
+                      {"name":"ruleFailed","properties":[{"name":"typeId","value":"signature-staging"},
+                        {"name":"failureMessage",
+                         "value":"Missing Signature: '/org/cthing/hello/1.2.3/hello-1.2.3.jar.asc' does not exist"}]}
+                    ]}]
+                    """);
+        } else {
+            respond(exchange, 404, "");
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.cthing.projectversion.BuildType;
+import org.cthing.projectversion.ProjectVersion;
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.plugins.ExtraPropertiesExtension;
+import org.gradle.api.publish.PublishingExtension;
+import org.gradle.api.publish.maven.MavenPublication;
+import org.gradle.api.publish.maven.tasks.GenerateMavenPom;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationRunner;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.service.ServiceRegistry;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.gradle.workers.WorkerExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+public class PipelinedPublishingTest {
+
+    private static final String BASE_PATH = "org/cthing/hello/1.2.3/hello-1.2.3";
+    private static final String METADATA_PATH = "org/cthing/hello/maven-metadata.xml";
+
+    @TempDir
+    private Path tempDir;
+
+    private MavenRepositoryServer server;
+    private Project project;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.server = new MavenRepositoryServer().setCredentials("user", "password");
+
+        final Path jar = Files.writeString(this.tempDir.resolve("hello-1.2.3.jar"), "jar");
+        final Path sources = Files.writeString(this.tempDir.resolve("hello-1.2.3-sources.jar"), "sources");
+        final Path keyRing = this.tempDir.resolve("secring.gpg");
+        try (InputStream input = getClass().getResourceAsStream("/signing/secring.gpg")) {
+            assertThat(input).isNotNull();
+            Files.copy(input, keyRing);
+        }
+
+        this.project = ProjectBuilder.builder().withName("hello").withProjectDir(this.tempDir.toFile()).build();
+        this.project.setVersion(new ProjectVersion("1.2.3", BuildType.release));
+        this.project.setGroup("org.cthing");
+        final ExtraPropertiesExtension properties = this.project.getExtensions().getExtraProperties();
+        properties.set(CThingRepoExtension.CANDIDATES_URL_PROPERTY, this.server.getUrl());
+        properties.set(CThingRepoExtension.USER_PROPERTY, "user");
+        properties.set(CThingRepoExtension.PASSWORD_PROPERTY, "password");
+        properties.set("signing.keyId", "E051E9F0");
+        properties.set("signing.password", "secret");
+        properties.set("signing.secretKeyRingFile", keyRing.toString());
+
+        this.project.getPluginManager().apply("org.cthing.cthing-publishing");
+        this.project.getPluginManager().apply("maven-publish");
+        this.project.getPluginManager().apply("signing");
+        this.project.getExtensions().getByType(CThingRepoExtension.class).enablePipelinedPublishing();
+        this.project.getExtensions().getByType(PublishingExtension.class).getPublications()
+                    .register("jar", MavenPublication.class, publication -> {
+                        publication.artifact(jar.toFile());
+                        publication.artifact(sources.toFile(), artifact -> artifact.setClassifier("sources"));
+                    });
+        ((ProjectInternal)this.project).evaluate();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.server.close();
+    }
+
+    @Test
+    public void testPublish() throws IOException {
+        final Task commitTask = this.project.getTasks().getByName("commitJarPublication");
+        assertThat(commitTask.getTaskDependencies().getDependencies(commitTask))
+                .extracting(Task::getName)
+                .contains("uploadJarPublicationJar", "uploadJarPublicationSourcesJar",
+                          "generatePomFileForJarPublication");
+
+        execute("signJarPublicationJar");
+        execute("signJarPublicationSourcesJar");
+        execute("uploadJarPublicationJar");
+        execute("uploadJarPublicationSourcesJar");
+
+        // The artifacts are available but the publication has not yet been committed
+        assertThat(this.server.getPaths()).contains(BASE_PATH + ".jar", BASE_PATH + ".jar.sha1",
+                                                    BASE_PATH + ".jar.asc", BASE_PATH + "-sources.jar",
+                                                    BASE_PATH + "-sources.jar.sha256",
+                                                    BASE_PATH + "-sources.jar.asc")
+                                          .noneMatch(path -> path.endsWith(".pom") || path.equals(METADATA_PATH));
+        assertThat(new String(this.server.getFile(BASE_PATH + ".jar.asc"), StandardCharsets.US_ASCII))
+                .startsWith("-----BEGIN PGP SIGNATURE-----");
+        assertThat(this.server.getFile(BASE_PATH + ".jar.sha1"))
+                .isEqualTo(Checksum.digest("jar".getBytes(StandardCharsets.UTF_8)).get(Checksum.SHA1)
+                                   .getBytes(StandardCharsets.US_ASCII));
+
+        generatePom();
+        execute("signJarPublicationPom");
+        execute("commitJarPublication");
+
+        assertThat(this.server.getPaths()).contains(BASE_PATH + ".pom", BASE_PATH + ".pom.md5",
+                                                    BASE_PATH + ".pom.asc", METADATA_PATH);
+        assertThat(new String(this.server.getFile(METADATA_PATH), StandardCharsets.UTF_8))
+                .contains("<release>1.2.3</release>");
+    }
+
+    @Test
+    public void testUploadFailure() throws IOException {
+        // A failed artifact upload fails its task, so the commit task depending on it does not run
+        this.server.failNext(1, 500);
+        assertThatThrownBy(() -> execute("uploadJarPublicationJar")).hasStackTraceContaining("HTTP status 500");
+        assertThat(this.server.getPaths()).doesNotContain(BASE_PATH + ".jar");
+
+        generatePom();
+        this.server.failNext(1, 500);
+        assertThatThrownBy(() -> execute("commitJarPublication"))
+                .isInstanceOf(GradleException.class)
+                .hasMessage("Could not publish org.cthing:hello:1.2.3 to " + this.server.getUrl());
+        assertThat(this.server.getPaths()).doesNotContain(METADATA_PATH);
+    }
+
+    private void generatePom() throws IOException {
+        final GenerateMavenPom pomTask =
+                (GenerateMavenPom)this.project.getTasks().getByName("generatePomFileForJarPublication");
+        Files.createDirectories(pomTask.getDestination().toPath().getParent());
+        Files.writeString(pomTask.getDestination().toPath(), "<project/>");
+    }
+
+    /**
+     * Executes the actions of a task within a build operation, as the Worker API requires, and waits for
+     * any work the task submitted.
+     */
+    private void execute(final String taskName) {
+        final Task task = this.project.getTasks().getByName(taskName);
+        final ServiceRegistry services = ((ProjectInternal)this.project).getServices();
+        services.get(BuildOperationRunner.class).run(new RunnableBuildOperation() {
+            @Override
+            public void run(final BuildOperationContext context) {
+                task.getActions().forEach(action -> action.execute(task));
+                services.get(WorkerExecutor.class).await();
+            }
+
+            @Override
+            public BuildOperationDescriptor.Builder description() {
+                return BuildOperationDescriptor.displayName("Execute " + taskName);
+            }
+        });
+    }
+}
@@ -154,6 +154,57 @@ public class PomScmTest {
         assertThat(scm).hasToString(url);
     }
 
+    @Test
+    public void testCommitAndTag() throws IOException {
+        final Project project = ProjectBuilder.builder().build();
+        final Path projectDir = project.getProjectDir().toPath();
+        final String commit = "0123456789abcdef0123456789abcdef01234567";
+        Files.createDirectories(projectDir.resolve(".git/refs/heads"));
+        Files.writeString(projectDir.resolve(".git/HEAD"), "ref: refs/heads/master\n");
+        Files.writeString(projectDir.resolve(".git/refs/heads/master"), commit + "\n");
+
+        PomScm scm = new PomScm(project);
+        assertThat(scm.isPresent()).isFalse();
+        assertThat(scm.getCommit().get()).isEqualTo(commit);
+        assertThat(scm.getTag().get()).isEqualTo(commit);
+
+        Files.createDirectories(projectDir.resolve(".git/refs/tags"));
+        Files.writeString(projectDir.resolve(".git/refs/tags/v1.2.3"), commit + "\n");
+        scm = new PomScm(ProjectBuilder.builder().withProjectDir(projectDir.toFile()).build());
+        assertThat(scm.getCommit().get()).isEqualTo(commit);
+        assertThat(scm.getTag().get()).isEqualTo("v1.2.3");
+    }
+
+    @Test
+    public void testNoCommit() {
+        final Project project = ProjectBuilder.builder().build();
+        final PomScm scm = new PomScm(project);
+        assertThat(scm.getCommit().isPresent()).isFalse();
+        assertThat(scm.getTag().isPresent()).isFalse();
+    }
+
+    @Test
+    public void testWorktree() throws IOException {
+        final Project project = ProjectBuilder.builder().build();
+        final Path projectDir = project.getProjectDir().toPath();
+        final Path mainGitDir = Files.createTempDirectory(projectDir.getParent(), "main").resolve(".git");
+        final String commit = "0123456789abcdef0123456789abcdef01234567";
+        Files.createDirectories(mainGitDir.resolve("worktrees/feature"));
+        Files.writeString(mainGitDir.resolve("config"), """
+                          [remote "origin"]
+                              url = git@github.com:cthing/myproject.git
+                          """);
+        Files.writeString(mainGitDir.resolve("packed-refs"), commit + " refs/heads/feature\n");
+        Files.writeString(mainGitDir.resolve("worktrees/feature/HEAD"), "ref: refs/heads/feature\n");
+        Files.writeString(mainGitDir.resolve("worktrees/feature/commondir"), "../..\n");
+        Files.writeString(projectDir.resolve(".git"), "gitdir: " + mainGitDir.resolve("worktrees/feature") + "\n");
+
+        final PomScm scm = new PomScm(project);
+        assertThat(scm.isPresent()).isTrue();
+        assertThat(scm.getBrowse().get()).isEqualTo("https://github.com/cthing/myproject");
+        assertThat(scm.getCommit().get()).isEqualTo(commit);
+    }
+
     @Test
     public void testEquality() {
         EqualsVerifier.forClass(PomScm.class)
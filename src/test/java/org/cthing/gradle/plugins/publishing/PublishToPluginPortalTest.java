@@ -0,0 +1,226 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.cthing.gradle.plugins.publishing.MavenRepositoryServer.respond;
+
+
+public class PublishToPluginPortalTest {
+
+    private static final String REJECTED_PLUGIN = "org.cthing.rejected";
+
+    @TempDir
+    private Path tempDir;
+
+    private MavenRepositoryServer server;
+    private String portalUrl;
+    private final Map<String, Map<String, Object>> versionRequests = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> uploads = new ConcurrentHashMap<>();
+    private final Set<String> activations = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger overloadedResponses = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.server = new MavenRepositoryServer().addRoute("api/v1/publish/versions/new/", this::requestVersion)
+                                                 .addRoute("api/v1/publish/versions/activate/", this::activate)
+                                                 .addRoute("upload/", this::upload);
+        this.portalUrl = this.server.getUrl();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.server.close();
+    }
+
+    @Test
+    public void testPublish() throws IOException {
+        this.overloadedResponses.set(2);
+        final PublishToPluginPortal task = createTask(List.of(
+                new PortalPlugin("org.cthing.a", "Plugin A", "Does A", List.of("a", "test")),
+                new PortalPlugin("org.cthing.b", "Plugin B", null, List.of()),
+                new PortalPlugin("org.cthing.c", "Plugin C", "Does C", List.of("c"))));
+
+        task.publish();
+
+        assertThat(this.versionRequests).containsOnlyKeys("org.cthing.a", "org.cthing.b", "org.cthing.c");
+        final Map<String, Object> request = this.versionRequests.get("org.cthing.a");
+        assertThat(request).containsEntry("pluginVersion", "1.2.3")
+                           .containsEntry("displayName", "Plugin A")
+                           .containsEntry("description", "Does A")
+                           .containsEntry("tags", List.of("a", "test"))
+                           .containsEntry("webSite", "https://github.com/cthing/plugins")
+                           .containsEntry("mavenCoordinates", Map.of("groupId", "org.cthing", "artifactId",
+                                                                     "plugins", "version", "1.2.3"));
+        assertThat(this.versionRequests.get("org.cthing.b")).doesNotContainKey("description");
+
+        // Three distinct artifacts, the missing signature is skipped and each artifact is uploaded once
+        assertThat(this.uploads).hasSize(3);
+        assertThat(this.uploads.values()).allSatisfy(count -> assertThat(count.get()).isEqualTo(1));
+        assertThat(this.activations).containsExactlyInAnyOrder("org.cthing.a/1.2.3", "org.cthing.b/1.2.3",
+                                                               "org.cthing.c/1.2.3");
+        assertThat(this.overloadedResponses.get()).isZero();
+    }
+
+    @Test
+    public void testPartialFailure() throws IOException {
+        final PublishToPluginPortal task = createTask(List.of(
+                new PortalPlugin("org.cthing.a", "Plugin A", null, List.of()),
+                new PortalPlugin(REJECTED_PLUGIN, "Rejected", null, List.of())));
+
+        assertThatThrownBy(task::publish).isInstanceOf(GradleException.class)
+                                          .hasMessage("Could not publish " + REJECTED_PLUGIN
+                                                              + " to the Gradle plugin portal");
+        assertThat(this.activations).containsExactly("org.cthing.a/1.2.3");
+    }
+
+    @Test
+    public void testMissingCredentials() throws IOException {
+        final PublishToPluginPortal task = createTask(List.of(new PortalPlugin("org.cthing.a", "A", null, List.of())));
+        task.getSecret().set((String)null);
+
+        assertThatThrownBy(task::publish).isInstanceOf(GradleException.class)
+                                          .hasMessageStartingWith("Gradle plugin portal credentials are not defined");
+        assertThat(this.versionRequests).isEmpty();
+    }
+
+    @Test
+    public void testAuthorization() {
+        final String header = PluginPortalClient.authorization(
+                "post", URI.create("https://Plugins.Example.com:443/api/v1/publish?b=x%20y&a-b=1&a=2"), "key",
+                "s3cr3t&x", "abc123", 1_700_000_000L);
+
+        assertThat(header).isEqualTo("OAuth oauth_consumer_key=\"key\", oauth_nonce=\"abc123\", "
+                                             + "oauth_signature_method=\"HMAC-SHA1\", "
+                                             + "oauth_timestamp=\"1700000000\", oauth_version=\"1.0\", "
+                                             + "oauth_signature=\"xd27IlhjGjGatqPNu1CQKpYUjwU%3D\"");
+    }
+
+    @Test
+    public void testArtifactType() {
+        assertThat(PluginPortalClient.artifactType(null, "jar")).isEqualTo("jar");
+        assertThat(PluginPortalClient.artifactType("", "pom.asc")).isEqualTo("pom.asc");
+        assertThat(PluginPortalClient.artifactType("sources", "jar")).isEqualTo("jar-sources");
+    }
+
+    @Test
+    public void testTaskRegistration() {
+        final Project project = ProjectBuilder.builder().withName("plugins").build();
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        project.getExtensions().getByType(CThingPublishingExtension.class).enablePluginPortalPublishing();
+        project.getPluginManager().apply("maven-publish");
+        assertThat(project.getTasks().findByName(PluginPortalPublishing.TASK_NAME)).isNull();
+
+        project.getPluginManager().apply("java-gradle-plugin");
+        final PublishToPluginPortal task =
+                (PublishToPluginPortal)project.getTasks().getByName(PluginPortalPublishing.TASK_NAME);
+        assertThat(task.getPortalUrl().get()).isEqualTo(PluginPortalClient.DEFAULT_URL);
+        assertThat(task.getMaxParallelRequests().get()).isEqualTo(PluginPortalPublishing.DEFAULT_MAX_PARALLEL_REQUESTS);
+    }
+
+    private PublishToPluginPortal createTask(final List<PortalPlugin> plugins) throws IOException {
+        final Path jar = Files.writeString(this.tempDir.resolve("plugins-1.2.3.jar"), "jar");
+        final Path sources = Files.writeString(this.tempDir.resolve("plugins-1.2.3-sources.jar"), "sources");
+        final Path pom = Files.writeString(this.tempDir.resolve("pom-default.xml"), "pom");
+
+        final Project project = ProjectBuilder.builder().withName("plugins").withProjectDir(this.tempDir.toFile())
+                                              .build();
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        final CThingRepoExtension repoExtension = project.getExtensions().getByType(CThingRepoExtension.class);
+        final PublishToPluginPortal task = project.getTasks().register("portal", PublishToPluginPortal.class).get();
+        task.getService().set(repoExtension.getRepoService());
+        task.getPortalUrl().set(this.portalUrl);
+        task.getKey().set("key");
+        task.getSecret().set("secret");
+        task.getGroupId().set("org.cthing");
+        task.getArtifactId().set("plugins");
+        task.getVersion().set("1.2.3");
+        task.getWebsite().set("https://github.com/cthing/plugins");
+        task.getPlugins().set(plugins);
+        task.getArtifacts().put("jar", jar.toFile());
+        task.getArtifacts().put("jar-sources", sources.toFile());
+        task.getArtifacts().put("pom", pom.toFile());
+        task.getArtifacts().put("pom.asc", this.tempDir.resolve("pom-default.xml.asc").toFile());
+        task.getMaxParallelRequests().set(4);
+        task.getMaxRetries().set(3);
+        return task;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void requestVersion(final HttpExchange exchange, final String pluginId) throws IOException {
+        final String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.startsWith("OAuth oauth_consumer_key=\"key\"")) {
+            respond(exchange, 401, "{\"failed\":true,\"errorMessage\":\"Not authorized\"}");
+            return;
+        }
+        if (this.overloadedResponses.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+            respond(exchange, 503, "");
+            return;
+        }
+
+        final Map<String, Object> request;
+        try (InputStream body = exchange.getRequestBody()) {
+            request = JsonReader.parseObject(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        this.versionRequests.put(pluginId, request);
+
+        final StringBuilder publishTo = new StringBuilder();
+        for (final Object artifact : (List<Object>)request.get("artifacts")) {
+            final String hash = (String)((Map<String, Object>)artifact).get("hash");
+            if (!publishTo.isEmpty()) {
+                publishTo.append(',');
+            }
+            publishTo.append('"').append(hash).append("\":\"").append(this.portalUrl).append("upload/")
+                     .append(hash).append('"');
+        }
+        respond(exchange, 200, "{\"failed\":false,\"publishTo\":{" + publishTo + "}}");
+    }
+
+    private void upload(final HttpExchange exchange, final String hash) throws IOException {
+        final byte[] content;
+        try (InputStream body = exchange.getRequestBody()) {
+            content = body.readAllBytes();
+        }
+        if (!"PUT".equals(exchange.getRequestMethod()) || !hash.equals(Checksum.digest(content).get(Checksum.SHA256))) {
+            respond(exchange, 400, "");
+            return;
+        }
+        this.uploads.computeIfAbsent(hash, h -> new AtomicInteger()).incrementAndGet();
+        respond(exchange, 200, "");
+    }
+
+    private void activate(final HttpExchange exchange, final String path) throws IOException {
+        if (path.startsWith(REJECTED_PLUGIN + "/")) {
+            respond(exchange, 400, "{\"failed\":true,\"errorMessage\":\"Plugin identifier is reserved\"}");
+            return;
+        }
+        this.activations.add(path);
+        respond(exchange, 200, "{\"failed\":false}");
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import org.apache.commons.io.file.PathUtils;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+/**
+ * Measures publishing through a {@link MavenRepositoryServer} under different network conditions. The
+ * {@code hello} test project is published by a Gradle build, and synthetic large publications are published
+ * concurrently using the repository service. Each scenario reports its throughput and the number of requests
+ * received by the server, including retried requests. Run using the {@code benchmark} task.
+ */
+@Tag("benchmark")
+public class PublishingBenchmarkTest {
+
+    private static final Path BASE_DIR = Path.of(System.getProperty("buildDir"), "benchmark");
+    private static final Path WORKING_DIR = Path.of(System.getProperty("projectDir"), "testkit");
+    private static final String USER = "user";
+    private static final String PASSWORD = "password";
+    private static final int FILE_COUNT = 64;
+    private static final int FILE_SIZE = 1024 * 1024;
+    private static final String VERSION_PATH = "org/cthing/large/1.0.0/";
+    private static final Duration WAN_LATENCY = Duration.ofMillis(20);
+    private static final long WAN_BANDWIDTH = 50L * 1024 * 1024;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void benchmarkHelloFixture() throws IOException {
+        Files.createDirectories(BASE_DIR);
+        Files.createDirectories(WORKING_DIR);
+        final Path projectDir = Files.createTempDirectory(BASE_DIR, "hello");
+        final URL projectUrl = getClass().getResource("/hello");
+        assertThat(projectUrl).isNotNull();
+        PathUtils.copyDirectory(Path.of(projectUrl.getPath()), projectDir);
+        Files.createDirectories(projectDir.resolve(".git"));
+        Files.writeString(projectDir.resolve(".git/config"), """
+                [remote "origin"]
+                    url = git@github.com:cthing/hello.git
+                """);
+
+        try (MavenRepositoryServer server = new MavenRepositoryServer()) {
+            server.setCredentials(USER, PASSWORD).setLatency(WAN_LATENCY).setBandwidth(WAN_BANDWIDTH);
+
+            final long start = System.nanoTime();
+            final BuildResult result = GradleRunner.create()
+                                                   .withProjectDir(projectDir.toFile())
+                                                   .withTestKitDir(WORKING_DIR.toFile())
+                                                   .withPluginClasspath()
+                                                   .withArguments("publish",
+                                                                  property(CThingRepoExtension.SNAPSHOTS_URL_PROPERTY,
+                                                                           server.getUrl()),
+                                                                  property(CThingRepoExtension.USER_PROPERTY, USER),
+                                                                  property(CThingRepoExtension.PASSWORD_PROPERTY,
+                                                                           PASSWORD))
+                                                   .build();
+            final long nanos = System.nanoTime() - start;
+
+            assertThat(result.task(":publish")).isNotNull();
+            assertThat(result.task(":publish").getOutcome()).as(result.getOutput()).isEqualTo(TaskOutcome.SUCCESS);
+            assertThat(server.getPaths()).anyMatch(path -> path.startsWith("org/cthing/hello/") && path.endsWith(".pom"));
+
+            System.out.printf("Publication of the hello project (%d ms latency, %d MiB/s)%n", WAN_LATENCY.toMillis(),
+                              WAN_BANDWIDTH / (1024 * 1024));
+            System.out.printf("    Build time:  %8.1f ms%n", nanos / 1e6);
+            report(server);
+        }
+    }
+
+    @Test
+    public void benchmarkLargePublication() throws IOException {
+        final List<StagedFile> files = createFiles();
+
+        System.out.printf("Concurrent publication of %d files of %d KiB%n", FILE_COUNT, FILE_SIZE / 1024);
+        measure(files, "Local", server -> { });
+        measure(files, "WAN", server -> server.setLatency(WAN_LATENCY).setBandwidth(WAN_BANDWIDTH));
+        measure(files, "WAN, 2% overloaded", server -> server.setLatency(WAN_LATENCY)
+                                                              .setBandwidth(WAN_BANDWIDTH)
+                                                              .setFaultRate(0.02, 503));
+        measure(files, "WAN, 2% dropped", server -> server.setLatency(WAN_LATENCY)
+                                                           .setBandwidth(WAN_BANDWIDTH)
+                                                           .setFaultRate(0.02, MavenRepositoryServer.DROP_CONNECTION));
+    }
+
+    private List<StagedFile> createFiles() throws IOException {
+        final byte[] content = new byte[FILE_SIZE];
+        final List<StagedFile> files = new ArrayList<>();
+        for (int i = 0; i < FILE_COUNT; i++) {
+            content[i % FILE_SIZE] = (byte)i;
+            final Path file = this.tempDir.resolve("large-1.0.0-part" + i + ".jar");
+            Files.write(file, content);
+            files.add(StagedFile.stage(file));
+        }
+        return files;
+    }
+
+    private void measure(final List<StagedFile> files, final String name, final Consumer<MavenRepositoryServer> shaping)
+            throws IOException {
+        try (MavenRepositoryServer server = new MavenRepositoryServer()) {
+            server.setCredentials(USER, PASSWORD);
+            shaping.accept(server);
+
+            final CThingRepoService service = createService(name);
+            final RepositoryTarget target = service.createTarget(server.getUrl());
+            final long start = System.nanoTime();
+            final List<CompletableFuture<Void>> uploads = new ArrayList<>();
+            for (final StagedFile file : files) {
+                uploads.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        target.upload(VERSION_PATH + file.getPath().getFileName(), file);
+                    } catch (final IOException ex) {
+                        throw new CompletionException(ex);
+                    }
+                }, service.getExecutor()));
+            }
+            CompletableFuture.allOf(uploads.toArray(CompletableFuture<?>[]::new)).join();
+            final long nanos = System.nanoTime() - start;
+
+            assertThat(server.getPaths()).hasSize(FILE_COUNT * (1 + Checksum.values().length));
+
+            System.out.printf("  %s%n", name);
+            System.out.printf("    Time:        %8.1f ms%n", nanos / 1e6);
+            System.out.printf("    Throughput:  %8.1f MiB/s%n",
+                              FILE_COUNT * (double)FILE_SIZE / (1024 * 1024) / (nanos / 1e9));
+            report(server);
+        }
+    }
+
+    private CThingRepoService createService(final String name) throws IOException {
+        final Path projectDir = Files.createDirectory(this.tempDir.resolve(name.replaceAll("\\W", "")));
+        final Project project = ProjectBuilder.builder().withProjectDir(projectDir.toFile()).build();
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        project.getExtensions().getExtraProperties().set(CThingRepoExtension.USER_PROPERTY, USER);
+        project.getExtensions().getExtraProperties().set(CThingRepoExtension.PASSWORD_PROPERTY, PASSWORD);
+        project.getExtensions().getExtraProperties().set(CThingRepoExtension.MAX_UPLOAD_RETRIES_PROPERTY, 10);
+        return project.getExtensions().getByType(CThingRepoExtension.class).getRepoService().get();
+    }
+
+    private static void report(final MavenRepositoryServer server) {
+        System.out.printf("    Requests:    %8d (PUT %d, GET %d, HEAD %d)%n", server.getRequestCount(),
+                          server.getRequestCount("PUT"), server.getRequestCount("GET"),
+                          server.getRequestCount("HEAD"));
+        System.out.printf("    Faults:      %8d%n", server.getFaultCount());
+        System.out.printf("    Received:    %8.1f MiB%n", server.getBytesReceived() / (1024.0 * 1024));
+    }
+
+    private static String property(final String name, final String value) {
+        return "-P" + name + '=' + value;
+    }
+}
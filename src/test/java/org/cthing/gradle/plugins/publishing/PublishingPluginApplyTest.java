@@ -21,5 +21,26 @@ public class PublishingPluginApplyTest {
 
         assertThat(project.getExtensions().findByType(CThingPublishingExtension.class)).isNotNull();
         assertThat(project.getExtensions().findByType(CThingRepoExtension.class)).isNotNull();
+        assertThat(project.getGradle().getSharedServices().getRegistrations().findByName(CThingRepoService.NAME))
+                .isNotNull();
+        assertThat(project.getTasks().findByName(IndexCThingDependents.TASK_NAME)).isNotNull();
+        assertThat(project.getTasks().findByName(ListCThingDependents.TASK_NAME)).isNotNull();
+        assertThat(project.getTasks().findByName(ReleaseTrain.MANIFEST_TASK)).isNotNull();
+        assertThat(project.getTasks().findByName(RunReleaseTrain.TASK_NAME)).isNull();
+        assertThat(project.getTasks().findByName(CheckCThingDependencyVersions.TASK_NAME)).isNotNull();
+    }
+
+    @Test
+    public void testApplySubproject() {
+        final Project root = ProjectBuilder.builder().withName("root").build();
+        final Project project = ProjectBuilder.builder().withName("sub").withParent(root).build();
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+
+        assertThat(project.getTasks().findByName(VerifyPublishingSetup.TASK_NAME)).isNotNull();
+        assertThat(project.getTasks().findByName(IndexCThingDependents.TASK_NAME)).isNull();
+        assertThat(project.getTasks().findByName(ListCThingDependents.TASK_NAME)).isNull();
+        assertThat(project.getTasks().findByName(ReleaseTrain.MODULES_NAME)).isNotNull();
+        assertThat(project.getTasks().findByName(ReleaseTrain.MANIFEST_TASK)).isNull();
+        assertThat(project.getTasks().findByName(CheckCThingDependencyVersions.TASK_NAME)).isNull();
     }
 }
@@ -10,6 +10,10 @@ import java.io.InputStream;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -24,6 +28,7 @@ import org.gradle.testkit.runner.GradleRunner;
 import org.gradle.testkit.runner.TaskOutcome;
 import org.gradle.util.GradleVersion;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -37,6 +42,8 @@ import static org.junit.jupiter.params.provider.Arguments.arguments;
 public class PublishingPluginIntegTest {
     private static final Path BASE_DIR = Path.of(System.getProperty("buildDir"), "integTest");
     private static final Path WORKING_DIR = Path.of(System.getProperty("projectDir"), "testkit");
+    private static final int MODULE_COUNT = 16;
+    private static final Pattern CONFIGURED_REGEX = Pattern.compile("^Configured (:\\S+) on (.+)$", Pattern.MULTILINE);
 
     static {
         try {
@@ -119,6 +126,97 @@ public class PublishingPluginIntegTest {
         assertThat(xpath.evaluate("/project/properties/cthing.build.date", doc)).matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}Z");
     }
 
+    @Test
+    public void testIsolatedProjects() throws Exception {
+        createMultiProject();
+
+        final BuildResult result = createGradleRunner(GradleVersion.current().getVersion(),
+                                                      "-Dorg.gradle.unsafe.isolated-projects=true", "--max-workers=4",
+                                                      "generatePomFileForJarPublication", "generateCThingBom").build();
+        assertThat(result.getOutput()).doesNotContain("problems were found");
+        assertThat(result.task(":generateCThingBom")).isNotNull();
+
+        final Matcher matcher = CONFIGURED_REGEX.matcher(result.getOutput());
+        final Set<String> projects = new HashSet<>();
+        final Set<String> threads = new HashSet<>();
+        while (matcher.find()) {
+            projects.add(matcher.group(1));
+            threads.add(matcher.group(2));
+        }
+        assertThat(projects).hasSize(MODULE_COUNT);
+        assertThat(threads).as(result.getOutput()).hasSizeGreaterThan(1);
+
+        final Document doc = parse(this.projectDir.resolve("lib2/build/publications/jar/pom-default.xml"));
+        final XPath xpath = createXPath();
+        assertThat(xpath.evaluate("/project/scm/url", doc)).isEqualTo("https://github.com/cthing/hello");
+        assertThat(xpath.evaluate("/project/properties/cthing.dependencies", doc)).startsWith("org.cthing:");
+
+        final Document bom = parse(this.projectDir.resolve("build/publications/cthingBom/pom-default.xml"));
+        assertThat(xpath.evaluate("count(/project/dependencyManagement/dependencies/dependency)", bom))
+                .isEqualTo(String.valueOf(MODULE_COUNT));
+
+        final BuildResult rerun = createGradleRunner(GradleVersion.current().getVersion(),
+                                                     "-Dorg.gradle.unsafe.isolated-projects=true", "--max-workers=4",
+                                                     "generatePomFileForJarPublication", "generateCThingBom").build();
+        assertThat(rerun.getOutput()).contains("Configuration cache entry reused");
+    }
+
+    /**
+     * Creates a build with many subprojects, each of which publishes a library and depends on the
+     * previous one. Each subproject reports the thread on which it was configured, and waits briefly so
+     * that projects configured in parallel overlap.
+     */
+    private void createMultiProject() throws IOException {
+        final StringBuilder settings = new StringBuilder("rootProject.name = \"hello\"\n");
+        for (int i = 1; i <= MODULE_COUNT; i++) {
+            settings.append("include(\"lib").append(i).append("\")\n");
+            final Path moduleDir = Files.createDirectories(this.projectDir.resolve("lib" + i));
+            Files.writeString(moduleDir.resolve("build.gradle.kts"), """
+                    import org.cthing.projectversion.BuildType
+                    import org.cthing.projectversion.ProjectVersion
+
+                    plugins {
+                        `java-library`
+                        `maven-publish`
+                        id("org.cthing.cthing-publishing")
+                    }
+
+                    version = ProjectVersion("1.0.0", BuildType.release)
+                    group = "org.cthing"
+
+                    publishing {
+                        publications {
+                            register("jar", MavenPublication::class) {
+                                from(components["java"])
+                                pom(cthingPublishing.createPomAction())
+                            }
+                        }
+                    }
+                    %s
+                    cthingRepo.enablePipelinedPublishing()
+                    %s
+
+                    println("Configured " + path + " on " + Thread.currentThread().name)
+                    Thread.sleep(200)
+                    """.formatted(i > 1 ? "dependencies { api(project(\":lib" + (i - 1) + "\")) }" : "",
+                                  i % 2 == 0 ? "cthingPublishing.enableStreamingPoms()" : ""));
+        }
+        Files.writeString(this.projectDir.resolve("settings.gradle.kts"), settings);
+        Files.writeString(this.projectDir.resolve("build.gradle.kts"), """
+                import org.cthing.projectversion.BuildType
+                import org.cthing.projectversion.ProjectVersion
+
+                plugins {
+                    id("org.cthing.cthing-publishing")
+                }
+
+                version = ProjectVersion("1.0.0", BuildType.release)
+                group = "org.cthing"
+
+                cthingPublishing.enableBom()
+                """);
+    }
+
     @SuppressWarnings("SameParameterValue")
     private void copyProject(final String projectName) throws IOException {
         final URL projectUrl = getClass().getResource("/" + projectName);
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.gradle.api.GradleException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+public class ReleaseTrainGraphTest {
+
+    @Test
+    public void testLevels() {
+        final ReleaseTrainGraph graph = ReleaseTrainGraph.create(Map.of(
+                "annotations", List.of("org.cthing:cthing-annotations:1.0.0"),
+                "collections", List.of("org.cthing:cthing-collections:2.0.0 org.cthing:cthing-annotations:1.0.0",
+                                       "org.cthing:cthing-collections-extra:2.0.0"),
+                "escapers", List.of("org.cthing:cthing-escapers:3.0.0 org.cthing:cthing-annotations:0.9.0 "
+                                            + "com.google:guava:33.0"),
+                "plugin", List.of("org.cthing:gradle-plugin:4.0.0 org.cthing:cthing-collections-extra:2.0.0 "
+                                          + "org.cthing:cthing-escapers:3.0.0@zip org.cthing:gradle-plugin:3.0.0",
+                                  ""),
+                "standalone", List.of("org.cthing:standalone:1.0.0 org.cthing:unreleased:1.0.0")));
+
+        assertThat(graph.getBuilds()).containsExactly("annotations", "collections", "escapers", "plugin", "standalone");
+        assertThat(graph.getModules("collections")).containsExactly("org.cthing:cthing-collections-extra:2.0.0",
+                                                                     "org.cthing:cthing-collections:2.0.0");
+        assertThat(graph.getPrerequisites("annotations")).isEmpty();
+        assertThat(graph.getPrerequisites("escapers")).containsExactly("annotations");
+        assertThat(graph.getPrerequisites("plugin")).containsExactly("collections", "escapers");
+        assertThat(graph.getPrerequisites("standalone")).isEmpty();
+        assertThat(graph.getLevels()).containsExactly(new TreeSet<>(Set.of("annotations", "standalone")),
+                                                      new TreeSet<>(Set.of("collections", "escapers")),
+                                                      new TreeSet<>(Set.of("plugin")));
+    }
+
+    @Test
+    public void testEmpty() {
+        final ReleaseTrainGraph graph = ReleaseTrainGraph.create(Map.of("empty", List.of()));
+        assertThat(graph.getBuilds()).containsExactly("empty");
+        assertThat(graph.getModules("empty")).isEmpty();
+        assertThat(graph.getLevels()).containsExactly(new TreeSet<>(Set.of("empty")));
+    }
+
+    @Test
+    public void testCycle() {
+        final Map<String, List<String>> manifests = Map.of(
+                "a", List.of("org.cthing:a:1.0.0"),
+                "b", List.of("org.cthing:b:1.0.0 org.cthing:a:1.0.0 org.cthing:d:1.0.0"),
+                "c", List.of("org.cthing:c:1.0.0 org.cthing:b:1.0.0"),
+                "d", List.of("org.cthing:d:1.0.0 org.cthing:c:1.0.0"));
+
+        assertThatThrownBy(() -> ReleaseTrainGraph.create(manifests))
+                .isInstanceOf(GradleException.class)
+                .hasMessage("The builds in the release train depend on each other cyclically: b -> d -> c -> b");
+    }
+
+    @Test
+    public void testDuplicateModule() {
+        final Map<String, List<String>> manifests = Map.of("a", List.of("org.cthing:shared:1.0.0"),
+                                                           "b", List.of("org.cthing:shared:2.0.0"));
+
+        assertThatThrownBy(() -> ReleaseTrainGraph.create(manifests))
+                .isInstanceOf(GradleException.class)
+                .hasMessageStartingWith("Module org.cthing:shared is published by both the ");
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.gradle.api.Project;
+import org.gradle.api.publish.PublishingExtension;
+import org.gradle.api.publish.maven.MavenPublication;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class ReleaseTrainTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void testCollectModules() {
+        final Project project = ProjectBuilder.builder().withName("module").build();
+        project.setGroup("org.cthing");
+        project.setVersion("1.2.3");
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        project.getPluginManager().apply("maven-publish");
+        final PublishingExtension publishing = project.getExtensions().getByType(PublishingExtension.class);
+        publishing.getPublications().create("main", MavenPublication.class);
+        publishing.getPublications().create("marker", MavenPublication.class,
+                                            pub -> pub.setArtifactId("org.cthing.module.gradle.plugin"));
+
+        assertThat(ReleaseTrain.collectModules(project, Set.of())).containsExactly("org.cthing:module:1.2.3");
+        assertThat(ReleaseTrain.collectModules(project, Set.of("org.cthing:a:1.0.0")))
+                .containsExactly("org.cthing:module:1.2.3 org.cthing:a:1.0.0");
+    }
+
+    @Test
+    public void testBuildManifest() {
+        final Project root = ProjectBuilder.builder().withName("root").build();
+        final Project child = ProjectBuilder.builder().withName("child").withParent(root).build();
+        ProjectBuilder.builder().withName("other").withParent(root).build();
+        root.getPluginManager().apply("org.cthing.cthing-publishing");
+        child.getPluginManager().apply("org.cthing.cthing-publishing");
+
+        assertThat(root.getConfigurations().findByName(ReleaseTrain.MODULES_NAME)).isNotNull();
+        assertThat(child.getConfigurations().findByName(ReleaseTrain.MODULES_NAME)).isNotNull();
+        assertThat(child.getTasks().findByName(ReleaseTrain.MANIFEST_TASK)).isNull();
+
+        final WriteReleaseManifest task = (WriteReleaseManifest)root.getTasks().getByName(ReleaseTrain.MANIFEST_TASK);
+        assertThat(task.getModules().get()).isEmpty();
+        assertThat(task.getMergedManifests().getFiles())
+                .containsExactlyInAnyOrder(root.file("build/cthing/release-modules.txt"),
+                                           child.file("build/cthing/release-modules.txt"));
+        assertThat(task.getDestination().get().getAsFile().toPath())
+                .isEqualTo(root.getLayout().getBuildDirectory().getAsFile().get().toPath()
+                               .resolve(ReleaseTrain.MANIFEST_PATH));
+    }
+
+    @Test
+    public void testWriteManifest() throws IOException {
+        final Path manifest1 = this.tempDir.resolve("manifest1.txt");
+        final Path manifest2 = this.tempDir.resolve("manifest2.txt");
+        Files.write(manifest1, List.of("org.cthing:b:1.0.0 org.cthing:a:1.0.0", ""), StandardCharsets.UTF_8);
+        Files.write(manifest2, List.of("org.cthing:c:1.0.0"), StandardCharsets.UTF_8);
+
+        final Project project = ProjectBuilder.builder().withName("module").withProjectDir(this.tempDir.toFile()).build();
+        final WriteReleaseManifest task = project.getTasks().register("manifest", WriteReleaseManifest.class).get();
+        task.getModules().set(List.of("org.cthing:d:1.0.0", "org.cthing:a:1.0.0"));
+        task.getMergedManifests().from(manifest1, manifest2);
+        task.getDestination().set(this.tempDir.resolve("release-manifest.txt").toFile());
+        task.write();
+
+        assertThat(Files.readAllLines(this.tempDir.resolve("release-manifest.txt"), StandardCharsets.UTF_8))
+                .containsExactly("org.cthing:a:1.0.0", "org.cthing:b:1.0.0 org.cthing:a:1.0.0", "org.cthing:c:1.0.0",
+                                 "org.cthing:d:1.0.0");
+    }
+
+    @Test
+    public void testEnableReleaseTrain() {
+        final Project project = ProjectBuilder.builder().withName("train").build();
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        project.getExtensions().getByType(CThingPublishingExtension.class).enableReleaseTrain();
+
+        final RunReleaseTrain task = (RunReleaseTrain)project.getTasks().getByName(RunReleaseTrain.TASK_NAME);
+        assertThat(task.getBuildDirectories().get()).isEmpty();
+        assertThat(task.getPublishTasks().get()).containsExactly("publish");
+        assertThat(task.getArguments().get()).isEmpty();
+        assertThat(task.getMaxParallelBuilds().get()).isEqualTo(ReleaseTrain.DEFAULT_MAX_PARALLEL_BUILDS);
+        assertThat(task.getVerificationTimeout().get()).isEqualTo(ReleaseTrain.DEFAULT_VERIFICATION_TIMEOUT);
+        assertThat(task.getLogDirectory().get().getAsFile().toPath())
+                .isEqualTo(project.getLayout().getBuildDirectory().getAsFile().get().toPath()
+                                  .resolve("cthing/release-train"));
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class SharedFileContentTest {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    @TempDir
+    private Path tempDir;
+
+    private byte[] bytes;
+    private StagedFile file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.bytes = new byte[40 * CHUNK_SIZE + 100];
+        for (int i = 0; i < this.bytes.length; i++) {
+            this.bytes[i] = (byte)(i * 31);
+        }
+        this.file = StagedFile.stage(Files.write(this.tempDir.resolve("foo-1.0.0.jar"), this.bytes));
+    }
+
+    @Test
+    public void testShared() throws Exception {
+        try (SharedFileContent content = new SharedFileContent(this.file)) {
+            final SharedFileContent.Body body1 = content.newBody();
+            final SharedFileContent.Body body2 = content.newBody();
+            assertThat(body1.contentLength()).isEqualTo(this.bytes.length);
+
+            // The first body cannot get more than 16 chunks ahead of the second
+            final CollectingSubscriber subscriber1 = new CollectingSubscriber(Long.MAX_VALUE);
+            body1.subscribe(subscriber1);
+            assertThat(subscriber1.chunks).isEqualTo(16);
+            assertThat(subscriber1.result).isNotDone();
+
+            // Sending the second body releases the chunks, so the first body is sent as well
+            final CollectingSubscriber subscriber2 = new CollectingSubscriber(1);
+            body2.subscribe(subscriber2);
+            assertThat(subscriber2.get()).isEqualTo(this.bytes);
+            assertThat(subscriber1.get()).isEqualTo(this.bytes);
+            assertThat(subscriber1.chunks).isEqualTo(41);
+        }
+    }
+
+    @Test
+    public void testClosedBodyReleasesChunks() throws Exception {
+        try (SharedFileContent content = new SharedFileContent(this.file)) {
+            final SharedFileContent.Body body1 = content.newBody();
+            final SharedFileContent.Body body2 = content.newBody();
+
+            final CollectingSubscriber subscriber1 = new CollectingSubscriber(Long.MAX_VALUE);
+            body1.subscribe(subscriber1);
+            assertThat(subscriber1.result).isNotDone();
+
+            // The second body is never sent (e.g. its repository links the file), so closing it allows the
+            // first body to be sent
+            body2.close();
+            assertThat(subscriber1.get()).isEqualTo(this.bytes);
+        }
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        try (SharedFileContent content = new SharedFileContent(this.file)) {
+            final SharedFileContent.Body body1 = content.newBody();
+            final SharedFileContent.Body body2 = content.newBody();
+
+            final CollectingSubscriber subscriber1 = new CollectingSubscriber(1);
+            subscriber1.cancelAfter = 2;
+            body1.subscribe(subscriber1);
+            assertThat(subscriber1.chunks).isEqualTo(2);
+
+            final CollectingSubscriber subscriber2 = new CollectingSubscriber(Long.MAX_VALUE);
+            body2.subscribe(subscriber2);
+            assertThat(subscriber2.get()).isEqualTo(this.bytes);
+            assertThat(subscriber1.result).isNotDone();
+        }
+    }
+
+    @Test
+    public void testResendReadsFile() throws Exception {
+        try (SharedFileContent content = new SharedFileContent(this.file)) {
+            final SharedFileContent.Body body = content.newBody();
+            assertThat(read(body)).isEqualTo(this.bytes);
+
+            // The start of the file has been released, so a retried request reads the file
+            assertThat(read(body)).isEqualTo(this.bytes);
+        }
+    }
+
+    @Test
+    public void testEmptyFile() throws Exception {
+        final StagedFile empty = StagedFile.stage(Files.write(this.tempDir.resolve("empty.txt"), new byte[0]));
+        try (SharedFileContent content = new SharedFileContent(empty)) {
+            final SharedFileContent.Body body1 = content.newBody();
+            final SharedFileContent.Body body2 = content.newBody();
+            assertThat(read(body1)).isEmpty();
+            assertThat(read(body2)).isEmpty();
+        }
+    }
+
+    @Test
+    public void testChangedFile() throws Exception {
+        Files.write(this.file.getPath(), new byte[10]);
+        try (SharedFileContent content = new SharedFileContent(this.file)) {
+            final CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+            content.newBody().subscribe(subscriber);
+            assertThat(subscriber.result).failsWithin(10, TimeUnit.SECONDS)
+                                         .withThrowableOfType(ExecutionException.class)
+                                         .havingCause()
+                                         .isInstanceOf(IOException.class)
+                                         .withMessage(this.file.getPath()
+                                                              + " has changed since its checksums were calculated");
+        }
+    }
+
+    /**
+     * Obtains the entire content of a request body.
+     *
+     * @param body Request body to read
+     * @return Content of the body.
+     */
+    static byte[] read(final HttpRequest.BodyPublisher body)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        final CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+        body.subscribe(subscriber);
+        return subscriber.get();
+    }
+
+    private static final class CollectingSubscriber implements Flow.Subscriber<ByteBuffer> {
+
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+        private final long batchSize;
+        private Flow.Subscription subscription;
+        private int chunks;
+        private int cancelAfter = Integer.MAX_VALUE;
+
+        CollectingSubscriber(final long batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        byte[] get() throws InterruptedException, ExecutionException, TimeoutException {
+            return this.result.get(10, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription sub) {
+            this.subscription = sub;
+            sub.request(this.batchSize);
+        }
+
+        @Override
+        public void onNext(final ByteBuffer item) {
+            this.chunks++;
+            final byte[] chunk = new byte[item.remaining()];
+            item.get(chunk);
+            this.output.writeBytes(chunk);
+            if (this.chunks >= this.cancelAfter) {
+                this.subscription.cancel();
+            } else if (this.batchSize != Long.MAX_VALUE) {
+                this.subscription.request(this.batchSize);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            this.result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            this.result.complete(this.output.toByteArray());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+public class StagedFileTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void testStage() throws IOException {
+        final Path file = this.tempDir.resolve("hello.txt");
+        Files.writeString(file, "hello", StandardCharsets.UTF_8);
+
+        final StagedFile staged = StagedFile.stage(file);
+        assertThat(staged.getPath()).isEqualTo(file);
+        assertThat(staged.getSize()).isEqualTo(5);
+        assertThat(staged.getChecksum(Checksum.MD5)).isEqualTo("5d41402abc4b2a76b9719d911017c592");
+        assertThat(staged.getChecksum(Checksum.SHA1)).isEqualTo("aaf4c61ddcc5e8a2dabede0f3b482cd9aea9434d");
+        assertThat(staged.getChecksum(Checksum.SHA256))
+                .isEqualTo("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824");
+        assertThat(staged.getChecksums()).hasSize(4)
+                                         .isEqualTo(Checksum.digest("hello".getBytes(StandardCharsets.UTF_8)));
+        assertThat(staged.getBodyPublisher().contentLength()).isEqualTo(5);
+        assertThat(staged.isStale()).isFalse();
+
+        final HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.noBody();
+        final StagedFile shared = staged.withContent(body);
+        assertThat(shared.getChecksums()).isEqualTo(staged.getChecksums());
+        assertThat(shared.getBodyPublisher()).isSameAs(body);
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+        assertThat(staged.isStale()).isTrue();
+
+        Files.delete(file);
+        assertThat(staged.isStale()).isTrue();
+        assertThatThrownBy(staged::getBodyPublisher).isInstanceOf(FileNotFoundException.class);
+    }
+
+    @Test
+    public void testServiceCache() throws IOException {
+        final Project project = ProjectBuilder.builder().withProjectDir(this.tempDir.toFile()).build();
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        final CThingRepoService service =
+                project.getExtensions().getByType(CThingRepoExtension.class).getRepoService().get();
+        final Path file = this.tempDir.resolve("hello.txt");
+        Files.writeString(file, "hello", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000));
+
+        final StagedFile staged = service.stage(file);
+        assertThat(service.stage(this.tempDir.resolve("other/../hello.txt"))).isSameAs(staged);
+
+        Files.writeString(file, "jello", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(2_000_000));
+        assertThat(service.stage(file).getChecksums())
+                .isEqualTo(Checksum.digest("jello".getBytes(StandardCharsets.UTF_8)));
+
+        Files.writeString(file, "hello!", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(2_000_000));
+        assertThat(service.stage(file).getSize()).isEqualTo(6);
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+/**
+ * Compares the {@link StreamingPomWriter} with generating the same POM through a document object model,
+ * which is how Gradle generates POMs and applies {@code withXml} hooks. Run using the {@code benchmark} task.
+ */
+@Tag("benchmark")
+public class StreamingPomWriterBenchmarkTest {
+
+    private static final int DEPENDENCY_COUNT = 5000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int ITERATIONS = 20;
+    private static final String POM_NAMESPACE = "http://maven.apache.org/POM/4.0.0";
+
+    @TempDir
+    private Path tempDir;
+
+    @FunctionalInterface
+    private interface PomGenerator {
+        void generate(PomModel model, Path file) throws Exception;
+    }
+
+    private record Result(long nanosPerPom, long bytesPerPom) {
+    }
+
+    @Test
+    public void benchmarkLargePom() throws Exception {
+        final PomModel model = createModel();
+        final Path streamingFile = this.tempDir.resolve("streaming.xml");
+        final Path domFile = this.tempDir.resolve("dom.xml");
+
+        final Result dom = measure(model, domFile, StreamingPomWriterBenchmarkTest::writeWithDom);
+        final Result streaming = measure(model, streamingFile, StreamingPomWriter::write);
+
+        System.out.printf("POM with %d dependencies and %d managed dependencies (%d bytes)%n", DEPENDENCY_COUNT,
+                          DEPENDENCY_COUNT, Files.size(streamingFile));
+        System.out.printf("  DOM:       %8.2f ms/pom %10d KiB allocated/pom%n", dom.nanosPerPom() / 1e6,
+                          dom.bytesPerPom() / 1024);
+        System.out.printf("  Streaming: %8.2f ms/pom %10d KiB allocated/pom%n", streaming.nanosPerPom() / 1e6,
+                          streaming.bytesPerPom() / 1024);
+
+        assertThat(countDependencies(streamingFile)).isEqualTo(countDependencies(domFile)).isEqualTo(2 * DEPENDENCY_COUNT);
+        if (streaming.bytesPerPom() >= 0 && dom.bytesPerPom() >= 0) {
+            assertThat(streaming.bytesPerPom()).isLessThan(dom.bytesPerPom());
+        }
+    }
+
+    private static PomModel createModel() {
+        final PomModel model = new PomModel("org.cthing", "platform", "1.0.0")
+                .setPackaging("pom")
+                .setName("platform")
+                .setOrganization("C Thing Software", "https://www.cthing.com")
+                .setLicense(PomLicense.ASL2)
+                .addDeveloper(new PomDeveloper("baron", "Baron Roberts", "baron@cthing.com"));
+        final StringJoiner cthingDependencies = new StringJoiner(" ");
+        for (int i = 0; i < DEPENDENCY_COUNT; i++) {
+            model.addManagedDependency(new PomDependency("org.cthing", "managed-" + i, "1.0." + i, null));
+            model.addDependency(new PomDependency("org.cthing", "library-" + i, "2.0." + i, "compile"));
+            cthingDependencies.add("org.cthing:library-" + i + ":2.0." + i);
+        }
+        model.putProperty("cthing.dependencies", cthingDependencies.toString());
+        return model;
+    }
+
+    private static Result measure(final PomModel model, final Path file, final PomGenerator generator)
+            throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            generator.generate(model, file);
+        }
+
+        final long startBytes = allocatedBytes();
+        final long startNanos = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            generator.generate(model, file);
+        }
+        final long nanos = System.nanoTime() - startNanos;
+        final long bytes = startBytes < 0 ? -1 : allocatedBytes() - startBytes;
+        return new Result(nanos / ITERATIONS, bytes < 0 ? -1 : bytes / ITERATIONS);
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean
+                && threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled()) {
+            return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static long countDependencies(final Path file) throws Exception {
+        long count = 0;
+        try (InputStream input = Files.newInputStream(file)) {
+            final XMLStreamReader reader = PomXml.createReader(input);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "dependency".equals(reader.getLocalName())) {
+                    count++;
+                }
+            }
+            reader.close();
+        }
+        return count;
+    }
+
+    private static void writeWithDom(final PomModel model, final Path file) throws Exception {
+        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        final Document document = factory.newDocumentBuilder().newDocument();
+        final Element project = document.createElementNS(POM_NAMESPACE, "project");
+        document.appendChild(project);
+
+        append(document, project, "modelVersion", "4.0.0");
+        append(document, project, "groupId", model.getGroupId());
+        append(document, project, "artifactId", model.getArtifactId());
+        append(document, project, "version", model.getVersion());
+        append(document, project, "packaging", model.getPackaging());
+        append(document, project, "name", model.getName());
+
+        final Element organization = append(document, project, "organization", null);
+        append(document, organization, "name", model.getOrganizationName());
+        append(document, organization, "url", model.getOrganizationUrl());
+
+        final Element license = append(document, append(document, project, "licenses", null), "license", null);
+        append(document, license, "name", PomLicense.ASL2.getName());
+        append(document, license, "url", PomLicense.ASL2.getUrl());
+
+        final Element developers = append(document, project, "developers", null);
+        for (final PomDeveloper pomDeveloper : model.getDevelopers()) {
+            final Element developer = append(document, developers, "developer", null);
+            append(document, developer, "id", pomDeveloper.getId());
+            append(document, developer, "name", pomDeveloper.getName());
+            append(document, developer, "email", pomDeveloper.getEmail());
+        }
+
+        final Element properties = append(document, project, "properties", null);
+        for (final Map.Entry<String, String> property : model.getProperties().entrySet()) {
+            append(document, properties, property.getKey(), property.getValue());
+        }
+
+        final Element managed = append(document, append(document, project, "dependencyManagement", null),
+                                       "dependencies", null);
+        for (final PomDependency dependency : model.getManagedDependencies()) {
+            appendDependency(document, managed, dependency);
+        }
+
+        final Element dependencies = append(document, project, "dependencies", null);
+        for (final PomDependency dependency : model.getDependencies()) {
+            appendDependency(document, dependencies, dependency);
+        }
+
+        final Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+        transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
+        try (OutputStream output = Files.newOutputStream(file)) {
+            transformer.transform(new DOMSource(document), new StreamResult(output));
+        }
+    }
+
+    private static void appendDependency(final Document document, final Element parent, final PomDependency dependency) {
+        final Element element = append(document, parent, "dependency", null);
+        append(document, element, "groupId", dependency.getGroupId());
+        append(document, element, "artifactId", dependency.getArtifactId());
+        append(document, element, "version", dependency.getVersion());
+        append(document, element, "scope", dependency.getScope());
+    }
+
+    private static Element append(final Document document, final Element parent, final String name,
+                                  final String value) {
+        final Element element = document.createElementNS(POM_NAMESPACE, name);
+        if (value != null) {
+            element.setTextContent(value);
+        }
+        parent.appendChild(element);
+        return element;
+    }
+}
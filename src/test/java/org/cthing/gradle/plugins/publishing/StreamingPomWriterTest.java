@@ -0,0 +1,171 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class StreamingPomWriterTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void testMinimal() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        StreamingPomWriter.write(new PomModel("org.cthing", "foo", "1.0.0"), output);
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <project xmlns="http://maven.apache.org/POM/4.0.0" \
+                xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance" \
+                xsi:schemaLocation="http://maven.apache.org/POM/4.0.0 https://maven.apache.org/xsd/maven-4.0.0.xsd">
+                  <modelVersion>4.0.0</modelVersion>
+                  <groupId>org.cthing</groupId>
+                  <artifactId>foo</artifactId>
+                  <version>1.0.0</version>
+                </project>
+                """);
+    }
+
+    @Test
+    public void testFull() throws IOException {
+        final PomModel model = new PomModel("org.cthing", "foo", "1.0.0")
+                .setPackaging("pom")
+                .setName("foo")
+                .setDescription("Foo & bar")
+                .setUrl("https://github.com/cthing/foo")
+                .setOrganization("C Thing Software", "https://www.cthing.com")
+                .setLicense(PomLicense.ASL2)
+                .addDeveloper(new PomDeveloper("baron", "Baron Roberts", "baron@cthing.com"))
+                .setScm("scm:git:git://github.com/cthing/foo.git", "scm:git:ssh://git@github.com/cthing/foo.git",
+                        "https://github.com/cthing/foo")
+                .setScmTag("v1.0.0")
+                .setIssueManagement("GitHub Issues", "https://github.com/cthing/foo/issues")
+                .setCiManagement("GitHub Actions", "https://github.com/cthing/foo/actions")
+                .putProperty("cthing.dependencies", "org.cthing:a:1.0.0 org.cthing:b:2.0.0")
+                .addManagedDependency(new PomDependency("org.cthing", "bom", "3.0.0", null, "pom", "import", false,
+                                                        List.of()))
+                .addManagedDependency(new PomDependency("org.cthing", "c", "4.0.0", "runtime"))
+                .addDependency(new PomDependency("org.cthing", "a", "1.0.0", "compile"))
+                .addDependency(new PomDependency("org.cthing", "b", null, "linux", "zip", "runtime", true,
+                                                 List.of("*:*", "org.example:d")))
+                .setPublishedWithGradleMetadata(true);
+
+        final Path pomFile = this.tempDir.resolve("publications/foo/pom-default.xml");
+        StreamingPomWriter.write(model, pomFile);
+
+        assertThat(Files.readString(pomFile, StandardCharsets.UTF_8)).isEqualTo("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <project xmlns="http://maven.apache.org/POM/4.0.0" \
+                xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance" \
+                xsi:schemaLocation="http://maven.apache.org/POM/4.0.0 https://maven.apache.org/xsd/maven-4.0.0.xsd">
+                  <!-- This module was also published with a richer model, Gradle metadata,  -->
+                  <!-- which should be used instead. Do not delete the following line which  -->
+                  <!-- is to indicate to Gradle or any Gradle module metadata file consumer  -->
+                  <!-- that they should prefer consuming it instead. -->
+                  <!-- do_not_remove: published-with-gradle-metadata -->
+                  <modelVersion>4.0.0</modelVersion>
+                  <groupId>org.cthing</groupId>
+                  <artifactId>foo</artifactId>
+                  <version>1.0.0</version>
+                  <packaging>pom</packaging>
+                  <name>foo</name>
+                  <description>Foo &amp; bar</description>
+                  <url>https://github.com/cthing/foo</url>
+                  <organization>
+                    <name>C Thing Software</name>
+                    <url>https://www.cthing.com</url>
+                  </organization>
+                  <licenses>
+                    <license>
+                      <name>Apache-2.0</name>
+                      <url>https://www.apache.org/licenses/LICENSE-2.0</url>
+                    </license>
+                  </licenses>
+                  <developers>
+                    <developer>
+                      <id>baron</id>
+                      <name>Baron Roberts</name>
+                      <email>baron@cthing.com</email>
+                      <organization>C Thing Software</organization>
+                      <organizationUrl>https://www.cthing.com</organizationUrl>
+                    </developer>
+                  </developers>
+                  <scm>
+                    <connection>scm:git:git://github.com/cthing/foo.git</connection>
+                    <developerConnection>scm:git:ssh://git@github.com/cthing/foo.git</developerConnection>
+                    <tag>v1.0.0</tag>
+                    <url>https://github.com/cthing/foo</url>
+                  </scm>
+                  <issueManagement>
+                    <system>GitHub Issues</system>
+                    <url>https://github.com/cthing/foo/issues</url>
+                  </issueManagement>
+                  <ciManagement>
+                    <system>GitHub Actions</system>
+                    <url>https://github.com/cthing/foo/actions</url>
+                  </ciManagement>
+                  <properties>
+                    <cthing.dependencies>org.cthing:a:1.0.0 org.cthing:b:2.0.0</cthing.dependencies>
+                  </properties>
+                  <dependencyManagement>
+                    <dependencies>
+                      <dependency>
+                        <groupId>org.cthing</groupId>
+                        <artifactId>bom</artifactId>
+                        <version>3.0.0</version>
+                        <type>pom</type>
+                        <scope>import</scope>
+                      </dependency>
+                      <dependency>
+                        <groupId>org.cthing</groupId>
+                        <artifactId>c</artifactId>
+                        <version>4.0.0</version>
+                        <scope>runtime</scope>
+                      </dependency>
+                    </dependencies>
+                  </dependencyManagement>
+                  <dependencies>
+                    <dependency>
+                      <groupId>org.cthing</groupId>
+                      <artifactId>a</artifactId>
+                      <version>1.0.0</version>
+                      <scope>compile</scope>
+                    </dependency>
+                    <dependency>
+                      <groupId>org.cthing</groupId>
+                      <artifactId>b</artifactId>
+                      <classifier>linux</classifier>
+                      <type>zip</type>
+                      <scope>runtime</scope>
+                      <optional>true</optional>
+                      <exclusions>
+                        <exclusion>
+                          <groupId>*</groupId>
+                          <artifactId>*</artifactId>
+                        </exclusion>
+                        <exclusion>
+                          <groupId>org.example</groupId>
+                          <artifactId>d</artifactId>
+                        </exclusion>
+                      </exclusions>
+                    </dependency>
+                  </dependencies>
+                </project>
+                """);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.publish.PublishingExtension;
+import org.gradle.api.publish.maven.MavenPublication;
+import org.gradle.api.publish.maven.tasks.GenerateMavenPom;
+import org.gradle.plugin.devel.GradlePluginDevelopmentExtension;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class StreamingPomsTest {
+
+    @Test
+    public void testPluginMarkersNotStreamed() {
+        final Project project = ProjectBuilder.builder().withName("plugins").build();
+        project.setGroup("org.cthing");
+        project.setVersion("1.2.3");
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        project.getPluginManager().apply("java-gradle-plugin");
+        project.getPluginManager().apply("maven-publish");
+        project.getExtensions().getByType(GradlePluginDevelopmentExtension.class).getPlugins().register("foo", plugin -> {
+            plugin.setId("org.cthing.foo");
+            plugin.setImplementationClass("org.cthing.foo.FooPlugin");
+        });
+        project.getExtensions().getByType(CThingPublishingExtension.class).enableStreamingPoms();
+        ((ProjectInternal)project).evaluate();
+
+        assertThat(project.getTasks().findByName("generateStreamingPomForPluginMavenPublication")).isNotNull();
+        assertThat(project.getTasks().getByName("generatePomFileForPluginMavenPublication").getEnabled()).isFalse();
+
+        assertThat(project.getTasks().findByName("generateStreamingPomForFooPluginMarkerMavenPublication")).isNull();
+        final GenerateMavenPom markerTask =
+                (GenerateMavenPom)project.getTasks().getByName("generatePomFileForFooPluginMarkerMavenPublication");
+        assertThat(markerTask.getEnabled()).isTrue();
+    }
+
+    @Test
+    public void testBomNotStreamed() {
+        final Project root = ProjectBuilder.builder().withName("root").build();
+        root.setGroup("org.cthing");
+        root.setVersion("2.0.0");
+        root.getPluginManager().apply("org.cthing.cthing-publishing");
+        root.getPluginManager().apply("java-library");
+        root.getPluginManager().apply("maven-publish");
+        root.getExtensions().getByType(PublishingExtension.class).getPublications()
+            .register("jar", MavenPublication.class, publication -> publication.from(root.getComponents()
+                                                                                         .getByName("java")));
+
+        final CThingPublishingExtension extension = root.getExtensions().getByType(CThingPublishingExtension.class);
+        extension.enableBom();
+        extension.enableStreamingPoms();
+        ((ProjectInternal)root).evaluate();
+
+        assertThat(root.getTasks().findByName("generateStreamingPomForJarPublication")).isNotNull();
+
+        assertThat(root.getTasks().findByName("generateStreamingPomForCthingBomPublication")).isNull();
+        final GenerateMavenPom bomPomTask =
+                (GenerateMavenPom)root.getTasks().getByName("generatePomFileForCthingBomPublication");
+        // The POM is written only by the BOM generation task
+        assertThat(bomPomTask.getTaskDependencies().getDependencies(bomPomTask))
+                .extracting(Task::getName)
+                .containsExactly(CThingBom.BOM_TASK);
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.result.DependencyResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.artifacts.result.ResolvedDependencyResult;
+import org.gradle.api.artifacts.result.UnresolvedDependencyResult;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+public class StreamingSbomWriterTest {
+
+    private static final String SUPPLIER = "C Thing Software";
+    private static final String SUPPLIER_URL = "https://www.cthing.com";
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void testNoDependencies() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        StreamingSbomWriter.write("org.cthing:foo:1.0.0", null, SUPPLIER, SUPPLIER_URL, component("foo", null), output);
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                {
+                  "bomFormat": "CycloneDX",
+                  "specVersion": "1.5",
+                  "serialNumber": "urn:uuid:%s",
+                  "version": 1,
+                  "metadata": {
+                    "component": {
+                      "type": "library",
+                      "bom-ref": "pkg:maven/org.cthing/foo@1.0.0",
+                      "group": "org.cthing",
+                      "name": "foo",
+                      "version": "1.0.0",
+                      "purl": "pkg:maven/org.cthing/foo@1.0.0"
+                    },
+                    "supplier": {
+                      "name": "C Thing Software",
+                      "url": [
+                        "https://www.cthing.com"
+                      ]
+                    }
+                  },
+                  "components": [],
+                  "dependencies": [
+                    {
+                      "ref": "pkg:maven/org.cthing/foo@1.0.0",
+                      "dependsOn": []
+                    }
+                  ]
+                }
+                """.formatted(serialNumber(output)));
+        assertThat(serialNumber(output)).matches("[0-9a-f]{8}-[0-9a-f]{4}-3[0-9a-f]{3}-[0-9a-f]{4}-[0-9a-f]{12}");
+    }
+
+    @Test
+    public void testDependencies() throws IOException {
+        final ResolvedComponentResult root = component("foo", null);
+        final ResolvedComponentResult a = component("a", "1.0.0");
+        final ResolvedComponentResult b = component("b", "2.0.0");
+        final ResolvedComponentResult c = component("c", "3.0.0");
+        dependencies(root, resolved(b, false), resolved(a, false), resolved(c, true),
+                     mock(UnresolvedDependencyResult.class));
+        dependencies(a, resolved(b, false));
+        dependencies(b, resolved(root, false));
+
+        final Path file = this.tempDir.resolve("sbom/foo.json");
+        StreamingSbomWriter.write("org.cthing:foo:1.0.0", PomLicense.ASL2, SUPPLIER, SUPPLIER_URL, root, file);
+        final String sbom = Files.readString(file, StandardCharsets.UTF_8);
+
+        assertThat(sbom).contains("""
+                      "licenses": [
+                        {
+                          "license": {
+                            "id": "Apache-2.0",
+                            "url": "https://www.apache.org/licenses/LICENSE-2.0"
+                          }
+                        }
+                      ]
+                """);
+        assertThat(sbom).contains("""
+                  "components": [
+                    {
+                      "type": "library",
+                      "bom-ref": "pkg:maven/org.cthing/a@1.0.0",
+                      "group": "org.cthing",
+                      "name": "a",
+                      "version": "1.0.0",
+                      "purl": "pkg:maven/org.cthing/a@1.0.0"
+                    },
+                    {
+                      "type": "library",
+                      "bom-ref": "pkg:maven/org.cthing/b@2.0.0",
+                      "group": "org.cthing",
+                      "name": "b",
+                      "version": "2.0.0",
+                      "purl": "pkg:maven/org.cthing/b@2.0.0"
+                    }
+                  ],
+                  "dependencies": [
+                    {
+                      "ref": "pkg:maven/org.cthing/a@1.0.0",
+                      "dependsOn": [
+                        "pkg:maven/org.cthing/b@2.0.0"
+                      ]
+                    },
+                    {
+                      "ref": "pkg:maven/org.cthing/b@2.0.0",
+                      "dependsOn": []
+                    },
+                    {
+                      "ref": "pkg:maven/org.cthing/foo@1.0.0",
+                      "dependsOn": [
+                        "pkg:maven/org.cthing/a@1.0.0",
+                        "pkg:maven/org.cthing/b@2.0.0"
+                      ]
+                    }
+                  ]
+                """);
+        assertThat(sbom).doesNotContain("pkg:maven/org.cthing/c@3.0.0");
+    }
+
+    @Test
+    public void testLicenseRef() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        StreamingSbomWriter.write("org.cthing:foo:1.0.0", PomLicense.INTERNAL, SUPPLIER, SUPPLIER_URL,
+                                  component("foo", null), output);
+
+        assertThat(output.toString(StandardCharsets.UTF_8))
+                .contains("\"name\": \"LicenseRef-CTHING-internal\"")
+                .doesNotContain("\"id\": ");
+    }
+
+    @Test
+    public void testReproducible() throws IOException {
+        final ResolvedComponentResult root1 = component("foo", null);
+        dependencies(root1, resolved(component("a", "1.0.0"), false), resolved(component("b", "1.0.0"), false));
+        final ResolvedComponentResult root2 = component("foo", null);
+        dependencies(root2, resolved(component("b", "1.0.0"), false), resolved(component("a", "1.0.0"), false));
+        final ResolvedComponentResult root3 = component("foo", null);
+        dependencies(root3, resolved(component("a", "1.0.1"), false), resolved(component("b", "1.0.0"), false));
+
+        final ByteArrayOutputStream output1 = new ByteArrayOutputStream();
+        StreamingSbomWriter.write("org.cthing:foo:1.0.0", null, SUPPLIER, SUPPLIER_URL, root1, output1);
+        final ByteArrayOutputStream output2 = new ByteArrayOutputStream();
+        StreamingSbomWriter.write("org.cthing:foo:1.0.0", null, SUPPLIER, SUPPLIER_URL, root2, output2);
+        final ByteArrayOutputStream output3 = new ByteArrayOutputStream();
+        StreamingSbomWriter.write("org.cthing:foo:1.0.0", null, SUPPLIER, SUPPLIER_URL, root3, output3);
+
+        assertThat(output1.toByteArray()).isEqualTo(output2.toByteArray());
+        assertThat(serialNumber(output1)).isNotEqualTo(serialNumber(output3));
+    }
+
+    @Test
+    public void testPurl() {
+        assertThat(StreamingSbomWriter.purl("org.cthing", "foo", "1.0.0")).isEqualTo("pkg:maven/org.cthing/foo@1.0.0");
+        assertThat(StreamingSbomWriter.purl("org.cthing", "foo_bar", "1.0.0+build 5"))
+                .isEqualTo("pkg:maven/org.cthing/foo_bar@1.0.0%2Bbuild%205");
+        assertThat(StreamingSbomWriter.purl("org.cthing", "föö", "1~2"))
+                .isEqualTo("pkg:maven/org.cthing/f%C3%B6%C3%B6@1~2");
+    }
+
+    private static String serialNumber(final ByteArrayOutputStream output) {
+        final String sbom = output.toString(StandardCharsets.UTF_8);
+        final int start = sbom.indexOf("urn:uuid:") + "urn:uuid:".length();
+        return sbom.substring(start, sbom.indexOf('"', start));
+    }
+
+    private static ResolvedComponentResult component(final String name, @Nullable final String version) {
+        final ResolvedComponentResult component = mock(ResolvedComponentResult.class);
+        when(component.getId()).thenReturn(mock(ComponentIdentifier.class));
+        if (version != null) {
+            final ModuleVersionIdentifier module = mock(ModuleVersionIdentifier.class);
+            when(module.getGroup()).thenReturn("org.cthing");
+            when(module.getName()).thenReturn(name);
+            when(module.getVersion()).thenReturn(version);
+            when(component.getModuleVersion()).thenReturn(module);
+        }
+        doReturn(Set.of()).when(component).getDependencies();
+        return component;
+    }
+
+    private static ResolvedDependencyResult resolved(final ResolvedComponentResult selected, final boolean constraint) {
+        final ResolvedDependencyResult result = mock(ResolvedDependencyResult.class);
+        when(result.getSelected()).thenReturn(selected);
+        when(result.isConstraint()).thenReturn(constraint);
+        return result;
+    }
+
+    private static void dependencies(final ResolvedComponentResult component, final DependencyResult... results) {
+        doReturn(Set.of(results)).when(component).getDependencies();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class VerifyPublicationTest {
+
+    private static final String PATH = "org/cthing/foo/1.0.0/foo-1.0.0.jar";
+
+    @TempDir
+    private Path tempDir;
+
+    private StagedFile local;
+    private MemoryTarget target;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        final Path file = this.tempDir.resolve("foo-1.0.0.jar");
+        Files.writeString(file, "artifact", StandardCharsets.UTF_8);
+        this.local = StagedFile.stage(file);
+        this.target = new MemoryTarget();
+    }
+
+    @Test
+    public void testChecksums() throws IOException {
+        this.target.upload(PATH, "artifact".getBytes(StandardCharsets.UTF_8));
+        assertThat(VerifyPublication.verify(this.local, this.target, PATH, false)).isNull();
+
+        this.target.files.remove(PATH + ".sha256");
+        assertThat(VerifyPublication.verify(this.local, this.target, PATH, false)).isNull();
+
+        this.target.files.put(PATH + ".sha1", "0000  foo-1.0.0.jar\n".getBytes(StandardCharsets.US_ASCII));
+        assertThat(VerifyPublication.verify(this.local, this.target, PATH, false))
+                .isEqualTo("memory/" + PATH + ": expected sha1 " + this.local.getChecksum(Checksum.SHA1)
+                                   + " but was 0000");
+
+        this.target.files.remove(PATH + ".sha1");
+        assertThat(VerifyPublication.verify(this.local, this.target, PATH, false))
+                .isEqualTo("memory/" + PATH + ": checksum file is missing");
+    }
+
+    @Test
+    public void testStrict() throws IOException {
+        this.target.upload(PATH, "artif".getBytes(StandardCharsets.UTF_8));
+        this.target.files.put(PATH + ".sha256", this.local.getChecksum(Checksum.SHA256).getBytes(StandardCharsets.US_ASCII));
+
+        // The sidecar matches but the content was truncated.
+        assertThat(VerifyPublication.verify(this.local, this.target, PATH, false))
+                .isEqualTo("memory/" + PATH + ": expected size 8 but was 5");
+        assertThat(VerifyPublication.verify(this.local, this.target, PATH, true))
+                .startsWith("memory/" + PATH + ": expected sha256 " + this.local.getChecksum(Checksum.SHA256));
+
+        this.target.upload(PATH, "artifact".getBytes(StandardCharsets.UTF_8));
+        assertThat(VerifyPublication.verify(this.local, this.target, PATH, true)).isNull();
+
+        this.target.files.remove(PATH);
+        assertThat(VerifyPublication.verify(this.local, this.target, PATH, true))
+                .isEqualTo("memory/" + PATH + ": file is missing");
+    }
+
+    @Test
+    public void testRepositoryReported() throws IOException {
+        final Project project = ProjectBuilder.builder().withProjectDir(this.tempDir.toFile()).build();
+        project.getPluginManager().apply("org.cthing.cthing-publishing");
+        final CThingRepoService service =
+                project.getExtensions().getByType(CThingRepoExtension.class).getRepoService().get();
+
+        try (MavenRepositoryServer server = new MavenRepositoryServer()) {
+            final RepositoryTarget http = service.createTarget(server.getUrl());
+            http.upload(PATH, this.local);
+            assertThat(VerifyPublication.verify(this.local, http, PATH, false)).isNull();
+
+            // The sidecar files still match the local file, but the repository reports what it stored.
+            server.putFile(PATH, "artif".getBytes(StandardCharsets.UTF_8));
+            assertThat(VerifyPublication.verify(this.local, http, PATH, false))
+                    .isEqualTo(server.getUrl() + PATH + ": expected size 8 but was 5");
+
+            server.putFile(PATH, "ARTIFACT".getBytes(StandardCharsets.UTF_8));
+            assertThat(VerifyPublication.verify(this.local, http, PATH, false))
+                    .startsWith(server.getUrl() + PATH + ": expected sha1 " + this.local.getChecksum(Checksum.SHA1));
+        }
+    }
+
+    private static final class MemoryTarget implements RepositoryTarget {
+
+        private final Map<String, byte[]> files = new HashMap<>();
+
+        @Override
+        public String getLocation() {
+            return "memory/";
+        }
+
+        @Override
+        public void upload(final String path, final StagedFile file) throws IOException {
+            upload(path, Files.readAllBytes(file.getPath()));
+        }
+
+        @Override
+        public void upload(final String path, final byte[] content) {
+            this.files.put(path, content);
+            Checksum.digest(content).forEach((checksum, value) -> this.files.put(
+                    path + '.' + checksum.getExtension(), value.getBytes(StandardCharsets.US_ASCII)));
+        }
+
+        @Override
+        public void uploadWithoutChecksums(final String path, final Path file) throws IOException {
+            this.files.put(path, Files.readAllBytes(file));
+        }
+
+        @Override
+        public byte @Nullable [] download(final String path) {
+            return this.files.get(path);
+        }
+    }
+}
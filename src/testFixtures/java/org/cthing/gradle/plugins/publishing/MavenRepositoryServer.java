@@ -0,0 +1,452 @@
+/*
+ * Copyright 2025 C Thing Software
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.cthing.gradle.plugins.publishing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jspecify.annotations.Nullable;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+
+/**
+ * An embedded Maven repository HTTP server standing in for the C Thing Software Nexus repository in tests and
+ * benchmarks. Files are stored in memory and are published using {@code PUT}, and read using {@code GET} and
+ * {@code HEAD}, exactly as they are by a Nexus hosted repository, so the repository metadata and checksum
+ * files uploaded by the plugin can be read back. Like Nexus, responses to {@code GET} and {@code HEAD} carry an
+ * {@code ETag} header containing the SHA-1 checksum of the stored file. If credentials are set, requests must use basic
+ * authentication with the user and password that the plugin reads from the {@code cthing.nexus.user} and
+ * {@code cthing.nexus.password} properties.
+ *
+ * <p>The network between the client and the server can be shaped. A latency is added before each request is
+ * handled, and request and response bodies share a bandwidth limit, as they would on a single network link.
+ * Faults can be injected, either for a number of upcoming requests or at random with a fixed seed so that
+ * benchmark runs are comparable. A fault responds with the specified HTTP status, or drops the connection
+ * without responding if the status is {@value #DROP_CONNECTION}. Request counts and byte counts are recorded
+ * for each server, so benchmarks can report throughput and the number of requests made.</p>
+ *
+ * <p>Tests of other HTTP services (e.g. the Nexus staging API or the Gradle plugin portal) can add a
+ * {@link Route} for the paths of the service, rather than starting a server of their own.</p>
+ */
+public final class MavenRepositoryServer implements AutoCloseable {
+
+    /**
+     * Handles the requests for the paths of a route.
+     */
+    @FunctionalInterface
+    public interface Route {
+
+        /**
+         * Handles a request. The exchange is closed by the server once the request has been handled.
+         *
+         * @param exchange Request and response
+         * @param path Location requested, relative to the prefix of the route
+         * @throws IOException if the request could not be read or the response could not be sent
+         */
+        void handle(HttpExchange exchange, String path) throws IOException;
+    }
+
+    private record RouteEntry(String prefix, Route route) {
+    }
+
+    /** Fault status which drops the connection without sending a response. */
+    public static final int DROP_CONNECTION = 0;
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final long RANDOM_SEED = 0x5EEDL;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+    private final List<RouteEntry> routes = new CopyOnWriteArrayList<>();
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private final AtomicInteger faultCount = new AtomicInteger();
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicInteger pendingFaults = new AtomicInteger();
+    private final Random random = new Random(RANDOM_SEED);
+
+    @Nullable
+    private volatile String authorization;
+    private volatile Duration latency = Duration.ZERO;
+    private volatile long bytesPerSecond;
+    private volatile int pendingFaultStatus;
+    private volatile double faultRate;
+    private volatile int faultRateStatus;
+    private long nextTransferNanos;
+
+    /**
+     * Starts a server listening on a free port of the loopback interface.
+     *
+     * @throws IOException if the server could not be started
+     */
+    public MavenRepositoryServer() throws IOException {
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "maven-repository-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+
+    /**
+     * Obtains the root URL of the repository.
+     *
+     * @return Repository URL ending with a slash.
+     */
+    public String getUrl() {
+        return "http://localhost:" + this.server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * Requires requests to use basic authentication with the specified credentials.
+     *
+     * @param user Repository user
+     * @param password Repository password
+     * @return This server.
+     */
+    public MavenRepositoryServer setCredentials(final String user, final String password) {
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString((user + ':' + password)
+                                                                                   .getBytes(StandardCharsets.UTF_8));
+        return this;
+    }
+
+    /**
+     * Sets the delay added before each request is handled.
+     *
+     * @param latency Delay added to each request
+     * @return This server.
+     */
+    public MavenRepositoryServer setLatency(final Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Limits the rate at which request and response bodies are transferred. The limit is shared by all
+     * connections.
+     *
+     * @param bytesPerSecond Maximum number of bytes transferred per second, or zero for no limit
+     * @return This server.
+     */
+    public MavenRepositoryServer setBandwidth(final long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        return this;
+    }
+
+    /**
+     * Fails the specified number of upcoming requests.
+     *
+     * @param count Number of requests to fail
+     * @param status HTTP status with which the requests fail, or {@value #DROP_CONNECTION} to drop the
+     *      connection
+     * @return This server.
+     */
+    public MavenRepositoryServer failNext(final int count, final int status) {
+        this.pendingFaultStatus = status;
+        this.pendingFaults.set(count);
+        return this;
+    }
+
+    /**
+     * Fails a proportion of requests chosen at random. The random sequence is the same for every server, so a
+     * sequential benchmark fails the same requests each time it is run, and a concurrent benchmark fails
+     * approximately the same number of requests.
+     *
+     * @param rate Proportion of requests to fail, between zero and one
+     * @param status HTTP status with which the requests fail, or {@value #DROP_CONNECTION} to drop the
+     *      connection
+     * @return This server.
+     */
+    public MavenRepositoryServer setFaultRate(final double rate, final int status) {
+        this.faultRateStatus = status;
+        this.faultRate = rate;
+        return this;
+    }
+
+    /**
+     * Routes the requests for locations starting with the specified prefix to a handler, rather than to the
+     * repository. Routed requests are subject to the latency, injected faults and authentication of the
+     * server, but not to its bandwidth limit, and their bodies are not included in the byte counts. If the
+     * prefixes of several routes match a location, the route added first handles the request.
+     *
+     * @param prefix Start of the locations handled by the route, relative to the server root
+     *      (e.g. {@code api/v1/})
+     * @param route Handler for the requests
+     * @return This server.
+     */
+    public MavenRepositoryServer addRoute(final String prefix, final Route route) {
+        this.routes.add(new RouteEntry(prefix, route));
+        return this;
+    }
+
+    /**
+     * Sends a response with a UTF-8 text body. Intended for use by {@link Route routes}.
+     *
+     * @param exchange Request and response
+     * @param status HTTP status of the response
+     * @param body Body of the response, or an empty string for no body
+     * @throws IOException if the response could not be sent
+     */
+    public static void respond(final HttpExchange exchange, final int status, final String body)
+            throws IOException {
+        final byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, content.length == 0 ? -1 : content.length);
+        if (content.length > 0) {
+            exchange.getResponseBody().write(content);
+        }
+    }
+
+    /**
+     * Obtains the content of a file in the repository.
+     *
+     * @param path Location of the file relative to the repository root
+     * @return Content of the file, or {@code null} if the file does not exist.
+     */
+    public byte @Nullable [] getFile(final String path) {
+        return this.files.get(path);
+    }
+
+    /**
+     * Stores a file in the repository, as if it had been published.
+     *
+     * @param path Location of the file relative to the repository root
+     * @param content Content of the file
+     */
+    public void putFile(final String path, final byte[] content) {
+        this.files.put(path, content.clone());
+    }
+
+    /**
+     * Obtains the locations of all files in the repository.
+     *
+     * @return Locations of the files relative to the repository root, in sorted order.
+     */
+    public SortedSet<String> getPaths() {
+        return new TreeSet<>(this.files.keySet());
+    }
+
+    /**
+     * Obtains the number of requests received, including those that were rejected or failed.
+     *
+     * @return Number of requests.
+     */
+    public int getRequestCount() {
+        return this.requestCounts.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    /**
+     * Obtains the number of requests received using the specified method.
+     *
+     * @param method HTTP method (e.g. {@code PUT})
+     * @return Number of requests.
+     */
+    public int getRequestCount(final String method) {
+        final AtomicInteger count = this.requestCounts.get(method);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Obtains the number of requests failed by injected faults.
+     *
+     * @return Number of faults.
+     */
+    public int getFaultCount() {
+        return this.faultCount.get();
+    }
+
+    /**
+     * Obtains the number of request body bytes received.
+     *
+     * @return Number of bytes received.
+     */
+    public long getBytesReceived() {
+        return this.bytesReceived.get();
+    }
+
+    /**
+     * Obtains the number of response body bytes sent.
+     *
+     * @return Number of bytes sent.
+     */
+    public long getBytesSent() {
+        return this.bytesSent.get();
+    }
+
+    /**
+     * Resets the request, fault and byte counts. The files in the repository are retained.
+     */
+    public void resetStatistics() {
+        this.requestCounts.clear();
+        this.faultCount.set(0);
+        this.bytesReceived.set(0);
+        this.bytesSent.set(0);
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            final String method = exchange.getRequestMethod();
+            this.requestCounts.computeIfAbsent(method, m -> new AtomicInteger()).incrementAndGet();
+            sleep(this.latency.toNanos());
+
+            final int faultStatus = nextFault();
+            if (faultStatus >= 0) {
+                this.faultCount.incrementAndGet();
+                if (faultStatus != DROP_CONNECTION) {
+                    drain(exchange.getRequestBody());
+                    exchange.sendResponseHeaders(faultStatus, -1);
+                }
+                return;
+            }
+
+            final String expected = this.authorization;
+            if (expected != null && !expected.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                drain(exchange.getRequestBody());
+                exchange.getResponseHeaders().add("WWW-Authenticate", "Basic realm=\"Sonatype Nexus Repository\"");
+                exchange.sendResponseHeaders(401, -1);
+                return;
+            }
+
+            final String path = exchange.getRequestURI().getPath().substring(1);
+            for (final RouteEntry entry : this.routes) {
+                if (path.startsWith(entry.prefix())) {
+                    entry.route().handle(exchange, path.substring(entry.prefix().length()));
+                    return;
+                }
+            }
+
+            switch (method) {
+                case "PUT" -> {
+                    this.files.put(path, receive(exchange.getRequestBody()));
+                    exchange.sendResponseHeaders(201, -1);
+                }
+                case "GET", "HEAD" -> {
+                    final byte[] content = this.files.get(path);
+                    if (content == null) {
+                        exchange.sendResponseHeaders(404, -1);
+                        return;
+                    }
+                    exchange.getResponseHeaders().add("ETag", "\"{SHA1{" + Checksum.digest(content).get(Checksum.SHA1)
+                            + "}}\"");
+                    if ("HEAD".equals(method)) {
+                        exchange.getResponseHeaders().add("Content-Length", Integer.toString(content.length));
+                        exchange.sendResponseHeaders(200, -1);
+                    } else {
+                        exchange.sendResponseHeaders(200, content.length == 0 ? -1 : content.length);
+                        send(exchange.getResponseBody(), content);
+                    }
+                }
+                default -> exchange.sendResponseHeaders(405, -1);
+            }
+        }
+    }
+
+    /**
+     * Determines whether the current request is failed by an injected fault.
+     *
+     * @return Status with which the request fails, or -1 if the request is handled normally.
+     */
+    private int nextFault() {
+        if (this.pendingFaults.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+            return this.pendingFaultStatus;
+        }
+        final double rate = this.faultRate;
+        if (rate > 0) {
+            final boolean fail;
+            synchronized (this.random) {
+                fail = this.random.nextDouble() < rate;
+            }
+            if (fail) {
+                return this.faultRateStatus;
+            }
+        }
+        return -1;
+    }
+
+    private byte[] receive(final InputStream input) throws IOException {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int count;
+        while ((count = input.read(buffer)) >= 0) {
+            throttle(count);
+            content.write(buffer, 0, count);
+            this.bytesReceived.addAndGet(count);
+        }
+        return content.toByteArray();
+    }
+
+    private void send(final OutputStream output, final byte[] content) throws IOException {
+        for (int offset = 0; offset < content.length; offset += BUFFER_SIZE) {
+            final int count = Math.min(BUFFER_SIZE, content.length - offset);
+            throttle(count);
+            output.write(content, offset, count);
+            this.bytesSent.addAndGet(count);
+        }
+    }
+
+    private static void drain(final InputStream input) throws IOException {
+        input.transferTo(OutputStream.nullOutputStream());
+    }
+
+    /**
+     * Waits until the specified number of bytes can be transferred within the bandwidth limit. Each transfer
+     * reserves the time it takes at the limit, so concurrent transfers share the bandwidth.
+     *
+     * @param count Number of bytes to be transferred
+     */
+    private void throttle(final int count) {
+        final long rate = this.bytesPerSecond;
+        if (rate <= 0) {
+            return;
+        }
+        final long start;
+        synchronized (this) {
+            final long now = System.nanoTime();
+            start = Math.max(now, this.nextTransferNanos);
+            this.nextTransferNanos = start + count * 1_000_000_000L / rate;
+        }
+        sleep(start - System.nanoTime());
+    }
+
+    private static void sleep(final long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(nanos / 1_000_000, (int)(nanos % 1_000_000));
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}